@@ -1,11 +1,10 @@
 package minipar;
 
 // Importe todos os seus pacotes
-import minipar.lexer.Lexer;
 import minipar.parser.ASTNode;
-import minipar.parser.Parser;
-import minipar.semantic.SemanticAnalyzer;
 import minipar.interpreter.Interpreter;
+import minipar.jvm.JvmBackend;
+import minipar.vm.VirtualMachine;
 import minipar.ir.IRGenerator;
 import minipar.ir.IRInstruction;
 import minipar.backend.ArmV7Generator;
@@ -20,6 +19,8 @@ import java.util.List;
  */
 public class CompilerServiceFacade {
 
+    private final FrontEnd frontEnd = new FrontEnd();
+
     /**
      * Ponto de entrada unificado para o serviço.
      * AVISO: A função 'input()' NÃO É SUPORTADA neste modo.
@@ -33,11 +34,7 @@ public class CompilerServiceFacade {
 
         try {
             // --- FASES COMUNS (FRONT-END) ---
-            Lexer lexer = new Lexer(sourceCode);
-            Parser parser = new Parser(lexer.tokenize());
-            ASTNode ast = parser.parseProgram();
-            SemanticAnalyzer sem = new SemanticAnalyzer();
-            sem.analyze(ast);
+            ASTNode ast = frontEnd.analyze(sourceCode);
 
             // --- PONTO DE VARIAÇÃO (BACK-END) ---
             if ("interpret".equalsIgnoreCase(variant)) {
@@ -53,6 +50,20 @@ public class CompilerServiceFacade {
                 return CompilerResult.successInterpreter(outputCapture.toString());
                 // --- FIM ATUALIZAÇÃO ---
 
+            } else if ("vm".equalsIgnoreCase(variant)) {
+
+                // --- Variante VM de bytecode (mesma saída do interpretador) ---
+                new VirtualMachine().execute(ast);
+                System.setOut(originalOut); // Restaurar console
+                return CompilerResult.successInterpreter(outputCapture.toString());
+
+            } else if ("jvm".equalsIgnoreCase(variant)) {
+
+                // --- Variante bytecode JVM (mesma saída do interpretador) ---
+                new JvmBackend().execute(ast);
+                System.setOut(originalOut); // Restaurar console
+                return CompilerResult.successInterpreter(outputCapture.toString());
+
             } else {
                 
                 // --- Variante Compilador ---
@@ -1,5 +1,7 @@
 package minipar;
 
+import java.nio.file.Path;
+
 public class Config {
 
     // --- PONTO DE VARIAÇÃO 1: INTERFACE ---
@@ -23,6 +25,42 @@ public class Config {
 
     public enum BackendVariant {
         INTERPRETER, // Não gera código, só executa
-        COMPILER     // Gera Cód. 3 Endereços e Assembly
+        COMPILER,    // Gera Cód. 3 Endereços e Assembly
+        VM,          // Compila para bytecode de registradores e executa (minipar.vm)
+        JVM          // Compila para bytecode JVM e executa como classe oculta (minipar.jvm)
+    }
+
+    // Motor usado por minipar.interpreter.Interpreter: -Dminipar.engine=vm executa
+    // os programas na VM de bytecode e -Dminipar.engine=jvm no bytecode JVM gerado,
+    // em vez de percorrer a árvore. -Dminipar.engine=closure continua no interpretador,
+    // mas traduz cada bloco uma vez em closures já ligadas (ClosureCompiler).
+    public static final boolean INTERPRETER_ON_VM = "vm".equalsIgnoreCase(System.getProperty("minipar.engine"));
+    public static final boolean INTERPRETER_ON_JVM = "jvm".equalsIgnoreCase(System.getProperty("minipar.engine"));
+    public static final boolean INTERPRETER_ON_CLOSURES = "closure".equalsIgnoreCase(System.getProperty("minipar.engine"));
+
+    // --- EXECUÇÃO EM NÍVEIS ---
+    // O interpretador conta as chamadas de cada def e as voltas de cada laço; o trecho
+    // que passa do limite é compilado para bytecode JVM (minipar.jvm) em segundo plano.
+    // -Dminipar.tier=off desativa; -Dminipar.tier.sync=true compila na própria thread.
+    public static final boolean TIERING = !"off".equalsIgnoreCase(System.getProperty("minipar.tier"));
+    public static final int TIER_CALL_THRESHOLD = Integer.getInteger("minipar.tier.calls", 1000);
+    public static final int TIER_LOOP_THRESHOLD = Integer.getInteger("minipar.tier.loops", 10000);
+    public static final boolean TIER_BACKGROUND = !Boolean.getBoolean("minipar.tier.sync");
+
+    // --- CACHE DE AST ---
+    // Diretório dos arquivos .mpc (AST já analisada, indexada pelo hash do fonte). Fica
+    // em ~/.minipar/cache, do próprio usuário: um diretório compartilhado como o tmp
+    // deixaria outro usuário plantar uma AST. O AstCache ignora diretório e arquivo
+    // que não sejam do usuário ou que grupo/outros possam alterar.
+    // -Dminipar.cache=<dir> escolhe outro diretório; -Dminipar.cache=off desativa (null).
+    public static final Path AST_CACHE_DIR = cacheDir();
+
+    // Máximo de módulos importados mantidos em memória pelo ModuleCache.
+    public static final int MODULE_CACHE_SIZE = 256;
+
+    private static Path cacheDir() {
+        String dir = System.getProperty("minipar.cache");
+        if ("off".equalsIgnoreCase(dir)) return null;
+        return dir != null ? Path.of(dir) : Path.of(System.getProperty("user.home"), ".minipar", "cache");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package minipar;
+
+import minipar.cache.AstCache;
+import minipar.lexer.Lexer;
+import minipar.optimizer.ConstantFolder;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+
+/**
+ * Fases comuns (Lexer → Parser → SemanticAnalyzer → ConstantFolder) usadas pelo
+ * terminal, pelo serviço e pelo import. Com o cache ativo, um fonte já analisado é
+ * lido do .mpc e nenhuma das fases roda.
+ */
+public class FrontEnd {
+
+    // Versão da AST produzida por SemanticAnalyzer + ConstantFolder. Entra na chave do
+    // AstCache: aumentar sempre que uma dessas fases mudar a árvore que sai daqui, senão
+    // o .mpc gravado pelo código antigo continua sendo servido.
+    public static final int VERSION = 3;
+
+    private final AstCache cache; // null = sem cache
+
+    public FrontEnd() {
+        this(Config.AST_CACHE_DIR != null ? new AstCache(Config.AST_CACHE_DIR) : null);
+    }
+
+    public FrontEnd(AstCache cache) {
+        this.cache = cache;
+    }
+
+    public ASTNode analyze(String source) {
+        if (cache != null) {
+            ASTNode cached = cache.get(source);
+            if (cached != null) return cached;
+        }
+
+        ASTNode ast = new Parser(new Lexer(source).tokenize()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        new ConstantFolder().optimize(ast);
+
+        if (cache != null) cache.put(source, ast);
+        return ast;
+    }
+}
@@ -1,12 +1,10 @@
 package minipar;
 
 // Imports do Front-End (já existiam)
-import minipar.lexer.Lexer;
-import minipar.lexer.Token;
 import minipar.parser.ASTNode;
-import minipar.parser.Parser;
-import minipar.semantic.SemanticAnalyzer;
 import minipar.interpreter.Interpreter;
+import minipar.jvm.JvmBackend;
+import minipar.vm.VirtualMachine;
 
 // --- NOVOS IMPORTS ---
 // Para o Ponto de Variação 1 (Interface)
@@ -62,17 +60,9 @@ public class Main {
 
             // --- FASES COMUNS (FRONT-END) ---
             
-            // Etapa 1 - Análise léxica
-            Lexer lexer = new Lexer(codigo);
-            List<Token> tokens = lexer.tokenize();
-
-            // Etapa 2 - Análise sintática
-            Parser parser = new Parser(tokens);
-            ASTNode ast = parser.parseProgram();
-
-            // Etapa 3 - Análise semântica
-            SemanticAnalyzer sem = new SemanticAnalyzer();
-            sem.analyze(ast);
+            // Etapas 1 a 3 - Análise léxica, sintática e semântica
+            // (puladas quando a AST deste fonte já está no cache .mpc)
+            ASTNode ast = new FrontEnd().analyze(codigo);
             
             System.out.println("=== Análise Front-End concluída com sucesso ===");
 
@@ -88,6 +78,20 @@ public class Main {
                 interpreter.execute(ast);
                 System.out.println("\n=== Execução Concluída ===");
 
+            } else if (Config.BACKEND == Config.BackendVariant.VM) {
+
+                // --- Variante VM de bytecode ---
+                System.out.println("\n=== [MODO VM] ===");
+                new VirtualMachine().execute(ast);
+                System.out.println("\n=== Execução Concluída ===");
+
+            } else if (Config.BACKEND == Config.BackendVariant.JVM) {
+
+                // --- Variante bytecode JVM ---
+                System.out.println("\n=== [MODO JVM] ===");
+                new JvmBackend().execute(ast);
+                System.out.println("\n=== Execução Concluída ===");
+
             } else {
                 
                 // --- Variante "Gerar Códigos" (Compilador) ---
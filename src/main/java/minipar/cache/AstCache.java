@@ -0,0 +1,131 @@
+package minipar.cache;
+
+import minipar.FrontEnd;
+import minipar.parser.ASTNode;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Cache em disco de ASTs já analisadas: um arquivo .mpc por fonte, nomeado pelo
+ * SHA-256 do texto e das versões do formato e do front-end ({@link FrontEnd#VERSION}).
+ * Como só ASTs que passaram pela análise semântica são gravadas, um acerto dispensa o
+ * front-end inteiro.
+ *
+ * O cache é só uma otimização: falhas de E/S ou arquivos corrompidos contam como
+ * ausência e o chamador refaz a análise.
+ *
+ * Um acerto é executado sem análise, então só vale o que o próprio usuário gravou: o
+ * diretório e o arquivo precisam ter o mesmo dono que um arquivo criado pelo próprio
+ * processo (sem link simbólico) e, em sistemas POSIX, não podem aceitar escrita de grupo
+ * ou outros. Em POSIX o diretório é criado como 700.
+ */
+public class AstCache {
+
+    private final Path directory;
+
+    public AstCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /** AST gravada para este fonte, ou null se não houver (ou não puder ser lida). */
+    public ASTNode get(String source) {
+        Path file = fileFor(source);
+        if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) || !trusted(directory) || !trusted(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return AstFormat.decode(buffer);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Grava a AST (já analisada) do fonte; substitui o arquivo atomicamente. */
+    public void put(String source, ASTNode ast) {
+        Path file = fileFor(source);
+        try {
+            if (!Files.isDirectory(directory)) {
+                if (POSIX) Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+                else Files.createDirectories(directory);
+            }
+            if (!trusted(directory)) return; // diretório de outro usuário: não grava nem lê
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, AstFormat.encode(ast));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            // Sem cache desta vez; a próxima execução tenta de novo
+        }
+    }
+
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+    private static volatile UserPrincipal currentUser;
+
+    /**
+     * Dono dos arquivos que este processo cria, lido uma vez de um arquivo temporário.
+     * Não usa user.name: no Windows o nome do dono inclui o domínio.
+     */
+    static UserPrincipal currentUser() throws IOException {
+        UserPrincipal user = currentUser;
+        if (user == null) {
+            Path probe = Files.createTempFile("minipar-owner", ".tmp");
+            try {
+                user = Files.getOwner(probe);
+            } finally {
+                Files.deleteIfExists(probe);
+            }
+            currentUser = user;
+        }
+        return user;
+    }
+
+    /** Do usuário atual, sem link simbólico e, em POSIX, sem escrita de grupo ou outros. */
+    static boolean trusted(Path path) {
+        try {
+            if (Files.isSymbolicLink(path)) return false;
+            if (!Files.getOwner(path, LinkOption.NOFOLLOW_LINKS).equals(currentUser())) return false;
+            if (Files.getFileAttributeView(path, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS) == null) {
+                return true;
+            }
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+            return !permissions.contains(PosixFilePermission.GROUP_WRITE)
+                    && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    public Path fileFor(String source) {
+        String key = "MPC" + AstFormat.VERSION + "/" + FrontEnd.VERSION + "\n" + source;
+        return directory.resolve(sha256(key.getBytes(StandardCharsets.UTF_8)) + ".mpc");
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 indisponível", e);
+        }
+    }
+}
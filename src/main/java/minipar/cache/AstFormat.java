@@ -0,0 +1,127 @@
+package minipar.cache;
+
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binário dos arquivos .mpc:
+ *
+ * <pre>
+ * "MPC" versão
+ * nStrings { tamanho bytesUTF8 }      tabela de Strings (valores e rótulos OTHER)
+ * nNós { kind [rótulo] valor nFilhos } nós em pré-ordem
+ * </pre>
+ *
+ * Todos os inteiros são varints (7 bits por byte), então um nó típico ocupa 3 bytes.
+ */
+final class AstFormat {
+
+    static final int VERSION = 1;
+    private static final byte[] MAGIC = {'M', 'P', 'C', VERSION};
+    private static final NodeKind[] KINDS = NodeKind.values();
+
+    private AstFormat() {}
+
+    static byte[] encode(ASTNode root) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int nodes = collect(root, ids, strings);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(nodes * 4 + 64);
+        out.writeBytes(MAGIC);
+        writeVarint(out, strings.size());
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+        writeVarint(out, nodes);
+        writeNode(out, root, ids);
+        return out.toByteArray();
+    }
+
+    private static int collect(ASTNode node, Map<String, Integer> ids, List<String> strings) {
+        if (node.getKind() == NodeKind.OTHER) intern(node.getType(), ids, strings);
+        intern(node.getValue(), ids, strings);
+        int count = 1;
+        for (ASTNode child : node.getChildren()) count += collect(child, ids, strings);
+        return count;
+    }
+
+    private static void intern(String s, Map<String, Integer> ids, List<String> strings) {
+        if (ids.putIfAbsent(s, strings.size()) == null) strings.add(s);
+    }
+
+    private static void writeNode(ByteArrayOutputStream out, ASTNode node, Map<String, Integer> ids) {
+        out.write(node.getKind().ordinal());
+        if (node.getKind() == NodeKind.OTHER) writeVarint(out, ids.get(node.getType()));
+        writeVarint(out, ids.get(node.getValue()));
+        writeVarint(out, node.getChildren().size());
+        for (ASTNode child : node.getChildren()) writeNode(out, child, ids);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Reconstrói a árvore; lança RuntimeException se o conteúdo não for um .mpc válido
+     * desta versão.
+     */
+    static ASTNode decode(ByteBuffer in) {
+        try {
+            for (byte b : MAGIC) {
+                if (in.get() != b) throw new RuntimeException("Arquivo .mpc inválido ou de outra versão");
+            }
+            String[] strings = new String[readVarint(in)];
+            byte[] buffer = new byte[64];
+            for (int i = 0; i < strings.length; i++) {
+                int length = readVarint(in);
+                if (length > buffer.length) buffer = new byte[Math.max(length, buffer.length * 2)];
+                in.get(buffer, 0, length);
+                strings[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+            }
+            int nodes = readVarint(in);
+            int[] remaining = {nodes};
+            ASTNode root = readNode(in, strings, remaining);
+            if (remaining[0] != 0 || in.hasRemaining()) throw new RuntimeException("Arquivo .mpc corrompido");
+            return root;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new RuntimeException("Arquivo .mpc corrompido", e);
+        }
+    }
+
+    private static ASTNode readNode(ByteBuffer in, String[] strings, int[] remaining) {
+        if (remaining[0]-- <= 0) throw new RuntimeException("Arquivo .mpc corrompido");
+        NodeKind kind = KINDS[in.get()];
+        ASTNode node = kind == NodeKind.OTHER
+                ? new ASTNode(strings[readVarint(in)], strings[readVarint(in)])
+                : new ASTNode(kind, strings[readVarint(in)]);
+        int children = readVarint(in);
+        for (int i = 0; i < children; i++) node.addChild(readNode(in, strings, remaining));
+        return node;
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new RuntimeException("Arquivo .mpc corrompido");
+    }
+}
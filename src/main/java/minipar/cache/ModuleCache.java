@@ -0,0 +1,151 @@
+package minipar.cache;
+
+import minipar.parser.ASTNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache de módulos importados, compartilhado entre interpretadores e threads.
+ *
+ * - Cada caminho tem uma entrada (future) no mapa: threads que importam o mesmo
+ *   arquivo ao mesmo tempo esperam pela mesma análise em vez de repeti-la.
+ * - A cada uso o mtime/tamanho do arquivo é conferido; se mudou, o conteúdo é relido
+ *   e só é re-analisado se o hash SHA-256 também mudou.
+ * - O número de módulos é limitado; o menos usado recentemente sai primeiro.
+ *
+ * Erros de leitura ou de análise não ficam no cache: a próxima importação tenta de novo.
+ */
+public class ModuleCache {
+
+    private final int capacity;
+    private final Function<String, ASTNode> frontEnd;
+    private final Map<Path, CompletableFuture<Module>> modules = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger analyses = new AtomicInteger();
+
+    private static final class Module {
+        final FileTime modified;
+        final long size;
+        final String hash;
+        final ASTNode ast;
+        volatile long lastUse;
+
+        Module(FileTime modified, long size, String hash, ASTNode ast) {
+            this.modified = modified;
+            this.size = size;
+            this.hash = hash;
+            this.ast = ast;
+        }
+    }
+
+    /**
+     * @param capacity máximo de módulos mantidos
+     * @param frontEnd análise completa (léxica, sintática e semântica) do fonte
+     */
+    public ModuleCache(int capacity, Function<String, ASTNode> frontEnd) {
+        this.capacity = Math.max(1, capacity);
+        this.frontEnd = frontEnd;
+    }
+
+    /** AST analisada do arquivo, reaproveitada enquanto ele não mudar. */
+    public ASTNode load(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        while (true) {
+            CompletableFuture<Module> current = modules.get(key);
+            if (current == null) {
+                CompletableFuture<Module> created = new CompletableFuture<>();
+                if (modules.putIfAbsent(key, created) != null) continue;
+                current = fill(key, created, null);
+                evictIfNeeded();
+            }
+
+            Module module = await(current);
+            BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+            if (!attributes.lastModifiedTime().equals(module.modified) || attributes.size() != module.size) {
+                // Arquivo alterado: só a thread que trocar a entrada recarrega
+                CompletableFuture<Module> reloaded = new CompletableFuture<>();
+                if (!modules.replace(key, current, reloaded)) continue;
+                module = await(fill(key, reloaded, module));
+            }
+            module.lastUse = clock.incrementAndGet();
+            return module.ast;
+        }
+    }
+
+    private CompletableFuture<Module> fill(Path key, CompletableFuture<Module> future, Module previous) {
+        try {
+            future.complete(read(key, previous));
+        } catch (IOException | RuntimeException e) {
+            modules.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private Module read(Path key, Module previous) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        byte[] content = Files.readAllBytes(key);
+        String hash = AstCache.sha256(content);
+        ASTNode ast;
+        if (previous != null && previous.hash.equals(hash)) {
+            ast = previous.ast; // só o mtime mudou
+        } else {
+            analyses.incrementAndGet();
+            ast = frontEnd.apply(new String(content, StandardCharsets.UTF_8));
+        }
+        Module module = new Module(attributes.lastModifiedTime(), attributes.size(), hash, ast);
+        module.lastUse = clock.incrementAndGet();
+        return module;
+    }
+
+    private static Module await(CompletableFuture<Module> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private void evictIfNeeded() {
+        while (modules.size() > capacity) {
+            Path oldest = null;
+            long oldestUse = Long.MAX_VALUE;
+            for (Map.Entry<Path, CompletableFuture<Module>> entry : modules.entrySet()) {
+                Module module = entry.getValue().getNow(null);
+                if (module != null && module.lastUse < oldestUse) {
+                    oldest = entry.getKey();
+                    oldestUse = module.lastUse;
+                }
+            }
+            if (oldest == null) return; // só cargas em andamento
+            modules.remove(oldest);
+        }
+    }
+
+    public int size() {
+        return modules.size();
+    }
+
+    /** Quantas vezes o front-end rodou (cargas e recargas por conteúdo alterado). */
+    int analyses() {
+        return analyses.get();
+    }
+}
@@ -19,6 +19,9 @@ import minipar.ir.*;      // Importa o pacote de Geração de IR
 import minipar.backend.*; // Importa o pacote de Geração de Assembly
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
 import java.awt.*;
 import java.io.*;
 import java.nio.file.Files;
@@ -39,6 +42,8 @@ public class MiniParGUI extends JFrame {
     private JTextArea assemblyArea; // NOVO: Para Código Assembly
     private File currentFile = null;
     private JLabel statusLabel;
+    private IncrementalParser frontEnd; // AST mantida a cada tecla
+    private Timer astTimer;
 
     public MiniParGUI() {
         try {
@@ -63,6 +68,7 @@ public class MiniParGUI extends JFrame {
         codeArea.setCodeFoldingEnabled(true);
         codeArea.setFont(new Font("Consolas", Font.PLAIN, 14));
         RTextScrollPane codeScrollPane = new RTextScrollPane(codeArea);
+        instalarAnaliseIncremental();
 
         astArea = criarTextArea(false);
         outputArea = criarTextArea(false);
@@ -114,6 +120,49 @@ public class MiniParGUI extends JFrame {
         setJMenuBar(criarMenuBar());
     }
 
+    /**
+     * Repassa cada edição do editor ao front-end incremental, que re-lexa só as linhas
+     * alteradas e re-analisa só o trecho afetado; a aba da AST é atualizada quando a
+     * digitação pausa.
+     */
+    private void instalarAnaliseIncremental() {
+        frontEnd = new IncrementalParser(codeArea.getText());
+        astTimer = new Timer(300, e -> atualizarAst());
+        astTimer.setRepeats(false);
+
+        codeArea.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                try {
+                    frontEnd.insert(e.getOffset(), e.getDocument().getText(e.getOffset(), e.getLength()));
+                } catch (BadLocationException ex) {
+                    frontEnd = new IncrementalParser(codeArea.getText());
+                }
+                astTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                frontEnd.remove(e.getOffset(), e.getLength());
+                astTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Mudanças de atributos não alteram o texto
+            }
+        });
+    }
+
+    private void atualizarAst() {
+        ASTNode ast = frontEnd.getAst();
+        if (ast != null) {
+            astArea.setText(astToString(ast, ""));
+        } else {
+            astArea.setText(frontEnd.getError().getMessage());
+        }
+    }
+
     private JTextArea criarTextArea(boolean editavel) {
         JTextArea area = new JTextArea();
         area.setFont(new Font("Consolas", Font.PLAIN, 14));
@@ -181,8 +230,8 @@ public class MiniParGUI extends JFrame {
     }
 
 private void executarCodigo() {
-    // Limpa todas as áreas de saída
-    astArea.setText("");
+    // Limpa todas as áreas de saída (a AST vem do front-end incremental)
+    atualizarAst();
     outputArea.setText("");
     irArea.setText("");
     assemblyArea.setText("");
@@ -195,9 +244,23 @@ private void executarCodigo() {
         return;
     }
 
+    // Erros de sintaxe e semânticos saem da AST do front-end incremental, sem ida ao
+    // serviço; só programas válidos são enviados para executar
+    String erro = validar();
+    if (erro != null) {
+        statusLabel.setText("Erro no código");
+        mostrarErro("Erro ao executar: " + erro);
+        return;
+    }
+
     try {
         // 1. Determinar a variante
-        String variant = (Config.BACKEND == Config.BackendVariant.INTERPRETER) ? "interpret" : "compile";
+        String variant = switch (Config.BACKEND) {
+            case INTERPRETER -> "interpret";
+            case VM -> "vm";
+            case JVM -> "jvm";
+            case COMPILER -> "compile";
+        };
 
         // 2. Criar o corpo da requisição
         RunRequest request = new RunRequest();
@@ -241,6 +304,18 @@ private void executarCodigo() {
         e.printStackTrace();
     }
 }
+    /** Mensagem de erro do texto atual, ou null se a AST incremental for válida. */
+    private String validar() {
+        ASTNode ast = frontEnd.getAst();
+        if (ast == null) return frontEnd.getError().getMessage();
+        try {
+            new SemanticAnalyzer().analyze(ast); // só lê a árvore
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
     private void mostrarErro(String msg) {
         JOptionPane.showMessageDialog(this, msg, "Erro", JOptionPane.ERROR_MESSAGE);
     }
@@ -1,57 +1,58 @@
 package minipar.interpreter;
 
 import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
 import minipar.semantic.SymbolTable;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class AssignmentExecutor {
 
-    private final Map<String, Object> memory;
+    private final Memory memory;
     private final SymbolTable symbolTable;
     private final ExpressionEvaluator evaluator;
 
-    public AssignmentExecutor(Map<String, Object> memory, SymbolTable symbolTable, ExpressionEvaluator evaluator) {
+    public AssignmentExecutor(Memory memory, SymbolTable symbolTable, ExpressionEvaluator evaluator) {
         this.memory = memory;
         this.symbolTable = symbolTable;
         this.evaluator = evaluator;
     }
 
     public void executeAssignment(ASTNode stmt) {
-        String var = stmt.getChildren().get(0).getValue();
+        ASTNode target = stmt.getChildren().get(0);
+        String var = target.getValue();
         ASTNode expr = stmt.getChildren().get(1);
 
-        Object value;
+        boolean isLista = expr.getKind() == NodeKind.LISTA;
 
-        if (expr.getType().equals("Lista")) {
+        if (isLista) {
             List<Double> lista = new ArrayList<>();
             for (ASTNode item : expr.getChildren()) {
                 lista.add(evaluator.evaluate(item));
             }
-            value = lista;
+            memory.write(target, lista);
         } else {
-            value = evaluator.evaluate(expr); // int ou retorno de função
+            memory.writeNumber(target, evaluator.evaluate(expr)); // int ou retorno de função
         }
 
-        memory.put(var, value);
-
         if (!symbolTable.isDeclared(var)) {
-            String tipo = (value instanceof List) ? "lista" : "int";
+            String tipo = isLista ? "lista" : "int";
             symbolTable.declare(var, tipo);
         }
     }
 
     public void executeIndexAssignment(ASTNode stmt) {
-        String nome = stmt.getValue();
         double index = evaluator.evaluate(stmt.getChildren().get(0));
         double valor = evaluator.evaluate(stmt.getChildren().get(1));
+        storeIndex(stmt, index, valor);
+    }
 
-        if (!memory.containsKey(nome)) throw new RuntimeException("Lista não declarada: " + nome);
-
-        Object objeto = memory.get(nome);
+    /** lista[index] = valor, com o índice e o valor já avaliados. */
+    void storeIndex(ASTNode stmt, double index, double valor) {
+        String nome = stmt.getValue();
+        Object objeto = memory.read(stmt);
+        if (objeto == null) throw new RuntimeException("Lista não declarada: " + nome);
         if (!(objeto instanceof List<?>)) {
             throw new RuntimeException("Variável '" + nome + "' não é uma lista");
         }
@@ -2,8 +2,11 @@ package minipar.interpreter;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Canal {
+    private static final AtomicInteger PROXIMA_PORTA = new AtomicInteger(5000);
+
     private final String nome;
     private final int porta;
     private final BlockingQueue<String> fila = new LinkedBlockingQueue<>();
@@ -35,4 +38,9 @@ public class Canal {
     public int getPorta() {
         return porta;
     }
+
+    /** Porta do próximo canal criado, única no processo (interpretador e VM). */
+    public static int proximaPorta() {
+        return PROXIMA_PORTA.getAndIncrement();
+    }
 }
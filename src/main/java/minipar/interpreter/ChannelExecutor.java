@@ -9,11 +9,10 @@ public class ChannelExecutor {
 
     private final Map<String, Canal> canais;
     private final SymbolTable symbolTable;
-    private final Map<String, Object> memory;
+    private final Memory memory;
     private final ExpressionEvaluator evaluator;
-    private static int portaAtual = 5000;
 
-    public ChannelExecutor(Map<String, Canal> canais, Map<String, Object> memory, SymbolTable symbolTable, ExpressionEvaluator evaluator) {
+    public ChannelExecutor(Map<String, Canal> canais, Memory memory, SymbolTable symbolTable, ExpressionEvaluator evaluator) {
         this.canais = canais;
         this.memory = memory;
         this.symbolTable = symbolTable;
@@ -29,7 +28,7 @@ public class ChannelExecutor {
         symbolTable.declare(comp1, "computador");
         symbolTable.declare(comp2, "computador");
 
-        Canal c = new Canal(canal, portaAtual++);
+        Canal c = new Canal(canal, Canal.proximaPorta());
         canais.put(canal, c);
 
         System.out.println("Canal criado: " + canal + " entre " + comp1 + " e " + comp2 + " na porta " + c.getPorta());
@@ -49,7 +48,8 @@ public class ChannelExecutor {
 
     public void receive(ASTNode stmt) {
         String canal = stmt.getValue();
-        String variavel = stmt.getChildren().get(0).getValue();
+        ASTNode destino = stmt.getChildren().get(0);
+        String variavel = destino.getValue();
 
         Canal c = canais.get(canal);
         if (c == null) throw new RuntimeException("Canal '" + canal + "' não existe");
@@ -59,7 +59,7 @@ public class ChannelExecutor {
 
         try {
             double valor = Double.parseDouble(recebido);
-            memory.put(variavel, valor);
+            memory.writeNumber(destino, valor);
             if (valor == (int) valor) {
                 symbolTable.declare(variavel, "int");
             } else {
@@ -0,0 +1,846 @@
+package minipar.interpreter;
+
+import minipar.exceptions.ReturnException;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.parser.ValueKind;
+import minipar.semantic.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Motor de closures (-Dminipar.engine=closure): cada bloco é traduzido uma vez numa
+ * árvore de objetos com os filhos, os slots das variáveis, as constantes e o operador
+ * já ligados, e as execuções seguintes só chamam esses objetos, sem os switch do
+ * {@link ExpressionEvaluator} e do {@link Interpreter#executeStatement}.
+ *
+ * As closures leem a memória e o frame deste interpretador; um ramo PAR traduz os
+ * blocos de novo. Erros (operador inválido, instrução não suportada) continuam
+ * aparecendo na execução, no mesmo ponto do percurso da árvore. Canais, import e def
+ * são raros e voltam para os executores de sempre.
+ *
+ * Leituras de variável, chamadas e argumentos de print começam sem especialização e se
+ * ajustam ao que encontram na primeira execução (número no frame ou numa global, função
+ * chamada, lista). Cada execução confere a suposição com um teste barato; quando ela
+ * falha o nó volta ao caminho genérico (desotimização) e fica nele.
+ *
+ * Alguns padrões comuns viram um só nó (superinstruções): x = x + k incrementa o slot
+ * no lugar, a op b e comparações entre variáveis e constantes leem os operandos sem
+ * despacho, e uma cadeia de if v == k / else { if v == k2 ... } lê v uma vez e salta
+ * direto para o bloco da constante.
+ */
+final class ClosureCompiler {
+
+    interface Expr {
+        double eval();
+    }
+
+    interface Cond {
+        boolean test();
+    }
+
+    interface Stmt {
+        Completion exec();
+    }
+
+    private final Interpreter interpreter;
+    private final Memory memory;
+    private final SymbolTable symbolTable;
+    private final ExpressionEvaluator evaluator;
+    private final AssignmentExecutor assignments;
+    private final ControlFlowExecutor controlFlow;
+    private final FunctionExecutor functions;
+    private final FunctionTable table;
+    private final Tiering tiering; // null sem execução em níveis
+
+    // Blocos executados pelo Interpreter (programa, corpos de def); os aninhados ficam nas closures
+    private final Map<ASTNode, Stmt> blocks = new IdentityHashMap<>();
+
+    // Estados dos nós que se especializam
+    private static final byte UNINITIALIZED = 0;
+    private static final byte LOCAL = 1;   // número no slot do frame
+    private static final byte GLOBAL = 2;  // número no slot global
+    private static final byte LIST = 3;    // lista (argumento de print)
+    private static final byte GENERIC = 4; // suposição falhou: caminho da Memory
+
+    // Trocas de função aceitas num cache de chamada antes de ele ficar genérico
+    private static final int MAX_CALL_REWRITES = 4;
+
+    private int specializations;
+    private int deoptimizations;
+    private int superinstructions;
+
+    ClosureCompiler(Interpreter interpreter, Memory memory, SymbolTable symbolTable, ExpressionEvaluator evaluator,
+                    AssignmentExecutor assignments, ControlFlowExecutor controlFlow, FunctionExecutor functions,
+                    FunctionTable table, Tiering tiering) {
+        this.interpreter = interpreter;
+        this.memory = memory;
+        this.symbolTable = symbolTable;
+        this.evaluator = evaluator;
+        this.assignments = assignments;
+        this.controlFlow = controlFlow;
+        this.functions = functions;
+        this.table = table;
+        this.tiering = tiering;
+    }
+
+    /** Nós que se especializaram desde a criação, para testes. */
+    int specializations() {
+        return specializations;
+    }
+
+    /** Suposições que falharam e voltaram ao caminho genérico, para testes. */
+    int deoptimizations() {
+        return deoptimizations;
+    }
+
+    /** Padrões traduzidos para um nó só, para testes. */
+    int superinstructions() {
+        return superinstructions;
+    }
+
+    /** Executa os filhos do bloco, traduzindo-o na primeira vez. */
+    Completion execute(ASTNode block) {
+        Stmt compiled = blocks.get(block);
+        if (compiled == null) {
+            compiled = block(block);
+            blocks.put(block, compiled);
+        }
+        return compiled.exec();
+    }
+
+    /** Traduz e executa uma instrução sem guardá-la (ver Interpreter.execute(FlatAst)). */
+    Completion executeOnce(ASTNode stmt) {
+        return stmt.getKind() == NodeKind.COMENTARIO ? Completion.NORMAL : statement(stmt).exec();
+    }
+
+    /** Descarta a tradução guardada do bloco (corpo de um def que foi substituído). */
+    void forget(ASTNode block) {
+        blocks.remove(block);
+    }
+
+    /** Blocos traduzidos e guardados, para testes. */
+    int cachedBlocks() {
+        return blocks.size();
+    }
+
+    // ===================== Instruções =========================
+
+    private Stmt block(ASTNode block) {
+        List<Stmt> list = new ArrayList<>();
+        for (ASTNode child : block.getChildren()) {
+            if (child.getKind() != NodeKind.COMENTARIO) list.add(statement(child));
+        }
+        Stmt[] statements = list.toArray(new Stmt[0]);
+        return switch (statements.length) {
+            case 0 -> () -> Completion.NORMAL;
+            case 1 -> statements[0];
+            default -> () -> {
+                for (Stmt statement : statements) {
+                    if (statement.exec() == Completion.RETURN) return Completion.RETURN;
+                }
+                return Completion.NORMAL;
+            };
+        };
+    }
+
+    private Stmt statement(ASTNode stmt) {
+        return switch (stmt.getKind()) {
+            case ATRIBUICAO -> assignment(stmt);
+            case ATRIBUICAO_INDICE -> indexAssignment(stmt);
+            case PRINT -> print(stmt);
+            case IF -> conditional(stmt);
+            case WHILE -> new WhileLoop(stmt);
+            case FOR -> new ForLoop(stmt);
+            case RETURN -> returning(stmt);
+            case CHAMADA_FUNCAO -> {
+                Expr call = call(stmt);
+                yield () -> {
+                    call.eval();
+                    return Completion.NORMAL;
+                };
+            }
+            // Canais, def, import e instruções inválidas: como no percurso da árvore
+            default -> () -> interpreter.executeStatement(stmt);
+        };
+    }
+
+    private Stmt assignment(ASTNode stmt) {
+        ASTNode target = stmt.getChildren().get(0);
+        ASTNode expr = stmt.getChildren().get(1);
+        boolean isLista = expr.getKind() == NodeKind.LISTA;
+        Declaration declaration = new Declaration(target.getValue(), isLista ? "lista" : "int");
+
+        if (isLista) {
+            Expr[] items = expressions(expr.getChildren());
+            return () -> {
+                List<Double> lista = new ArrayList<>(items.length);
+                for (Expr item : items) {
+                    lista.add(item.eval());
+                }
+                memory.write(target, lista);
+                declaration.ensure();
+                return Completion.NORMAL;
+            };
+        }
+        Stmt increment = increment(target, expr, declaration);
+        if (increment != null) return increment;
+        Expr value = expression(expr);
+        int slot = Memory.slotOf(target);
+        if ((slot & Memory.LOCAL_BIT) != 0) {
+            int index = slot & ~Memory.LOCAL_BIT;
+            return () -> {
+                memory.frame.setNumber(index, Tag.NUMBER, value.eval());
+                declaration.ensure();
+                return Completion.NORMAL;
+            };
+        }
+        GlobalTable.Chunk chunk = memory.globals.chunk(slot);
+        int offset = GlobalTable.offset(slot);
+        return () -> {
+            chunk.setNumber(offset, Tag.NUMBER, value.eval());
+            declaration.ensure();
+            return Completion.NORMAL;
+        };
+    }
+
+    /** x = x + k ou x = x - k: soma a constante no próprio slot; null para outras formas. */
+    private Stmt increment(ASTNode target, ASTNode expr, Declaration declaration) {
+        if (expr.getKind() != NodeKind.BIN_OP || expr.getOperator() == null) return null;
+        Operator op = expr.getOperator();
+        ASTNode source = expr.getChildren().get(0);
+        ASTNode amount = expr.getChildren().get(1);
+        if ((op != Operator.ADD && op != Operator.SUB) || !isName(source) || !isNumber(amount)) return null;
+        int slot = Memory.slotOf(target);
+        if (Memory.slotOf(source) != slot) return null;
+
+        double delta = op == Operator.ADD ? amount.getNumber() : -amount.getNumber(); // x - k == x + (-k)
+        superinstructions++;
+        if ((slot & Memory.LOCAL_BIT) != 0) {
+            int index = slot & ~Memory.LOCAL_BIT;
+            return () -> {
+                Memory.Frame frame = memory.frame;
+                double value = Tag.isNumeric(frame.tags[index])
+                        ? frame.numbers[index]
+                        : memory.readLocal(index, source); // local vazio ou lista: como a leitura comum
+                frame.setNumber(index, Tag.NUMBER, value + delta);
+                declaration.ensure();
+                return Completion.NORMAL;
+            };
+        }
+        GlobalTable.Chunk chunk = memory.globals.chunk(slot);
+        int offset = GlobalTable.offset(slot);
+        return () -> {
+            double value = Tag.isNumeric(chunk.tags[offset]) ? chunk.numbers[offset] : memory.readGlobal(slot, source);
+            chunk.setNumber(offset, Tag.NUMBER, value + delta);
+            declaration.ensure();
+            return Completion.NORMAL;
+        };
+    }
+
+    private Stmt indexAssignment(ASTNode stmt) {
+        Expr index = expression(stmt.getChildren().get(0));
+        Expr value = expression(stmt.getChildren().get(1));
+        return () -> {
+            double i = index.eval();
+            assignments.storeIndex(stmt, i, value.eval());
+            return Completion.NORMAL;
+        };
+    }
+
+    private Stmt print(ASTNode stmt) {
+        List<ASTNode> args = stmt.getChildren();
+        PrintArg[] parts = new PrintArg[args.size()];
+        for (int i = 0; i < parts.length; i++) {
+            ASTNode arg = args.get(i);
+            String raw = arg.getValue();
+            if (arg.getKind() == NodeKind.VALOR && raw.startsWith("\"") && raw.endsWith("\"")) {
+                String text = raw.substring(1, raw.length() - 1);
+                parts[i] = output -> output.append(text);
+            } else if (arg.getKind() == NodeKind.VALOR && arg.getValueKind() == ValueKind.NAME) {
+                parts[i] = new PrintName(arg);
+            } else {
+                Expr value = expression(arg);
+                parts[i] = output -> {
+                    try {
+                        output.append(value.eval());
+                    } catch (RuntimeException e) {
+                        // Fallback: tenta exibir literal
+                        output.append(raw);
+                    }
+                };
+            }
+        }
+        return () -> {
+            StringBuilder output = new StringBuilder();
+            for (PrintArg part : parts) {
+                part.append(output);
+                output.append(" ");
+            }
+            System.out.println(output.toString().trim());
+            return Completion.NORMAL;
+        };
+    }
+
+    private interface PrintArg {
+        void append(StringBuilder output);
+    }
+
+    /**
+     * Variável passada ao print. Uma lista não é número: a leitura falha e o print exibe o
+     * nome. Depois da primeira vez o nó supõe lista e exibe o nome sem passar pela exceção.
+     */
+    private final class PrintName implements PrintArg {
+        private final ASTNode node;
+        private final Read read;
+        private byte state = UNINITIALIZED;
+
+        PrintName(ASTNode node) {
+            this.node = node;
+            this.read = new Read(node);
+        }
+
+        @Override
+        public void append(StringBuilder output) {
+            if (state == LIST) {
+                if (tag() == Tag.REF) {
+                    output.append(node.getValue());
+                    return;
+                }
+                state = GENERIC;
+                deoptimizations++;
+            }
+            try {
+                output.append(read.eval());
+            } catch (RuntimeException e) {
+                // Fallback: tenta exibir literal
+                output.append(node.getValue());
+                if (state == UNINITIALIZED && tag() == Tag.REF) {
+                    state = LIST;
+                    specializations++;
+                }
+            }
+        }
+
+        // Etiqueta que a leitura enxerga: o local, ou a global de mesmo nome se ele estiver vazio
+        private byte tag() {
+            int slot = Memory.slotOf(node);
+            if ((slot & Memory.LOCAL_BIT) != 0) {
+                Memory.Frame frame = memory.frame;
+                int index = slot & ~Memory.LOCAL_BIT;
+                byte tag = frame.tags[index];
+                if (tag != Tag.EMPTY) return tag;
+                slot = frame.function.globalIds[index];
+            }
+            return memory.globals.tag(slot);
+        }
+    }
+
+    private Stmt conditional(ASTNode stmt) {
+        Stmt dispatch = dispatch(stmt);
+        if (dispatch != null) return dispatch;
+        Cond condition = condition(stmt.getChildren().get(0));
+        Stmt then = block(stmt.getChildren().get(1));
+        if (stmt.getChildren().size() <= 2) {
+            return () -> condition.test() ? then.exec() : Completion.NORMAL;
+        }
+        Stmt otherwise = block(stmt.getChildren().get(2));
+        return () -> condition.test() ? then.exec() : otherwise.exec();
+    }
+
+    // Maior intervalo de constantes inteiras despachado por tabela
+    private static final int MAX_TABLE = 256;
+
+    /**
+     * if v == k1 {...} else { if v == k2 {...} else {...} }, com pelo menos dois testes da
+     * mesma variável contra constantes. Entre um teste e outro nada executa, então ler v
+     * uma vez dá o mesmo resultado; o primeiro k igual a v escolhe o bloco. Null quando o
+     * if não começa uma cadeia dessas.
+     */
+    private Stmt dispatch(ASTNode stmt) {
+        List<Double> keys = new ArrayList<>();
+        List<Stmt> bodies = new ArrayList<>();
+        ASTNode variable = null;
+        ASTNode rest = null; // bloco executado quando nenhum teste passa
+        ASTNode current = stmt;
+        while (true) {
+            ASTNode test = current.getChildren().get(0);
+            if (!isConstantEquality(test)) break;
+            ASTNode name = test.getChildren().get(0);
+            if (variable == null) {
+                variable = name;
+            } else if (Memory.slotOf(name) != Memory.slotOf(variable)) {
+                break;
+            }
+            keys.add(test.getChildren().get(1).getNumber());
+            bodies.add(block(current.getChildren().get(1)));
+            rest = current.getChildren().size() > 2 ? current.getChildren().get(2) : null;
+            ASTNode next = rest == null ? null : soleIf(rest);
+            if (next == null) break;
+            current = next;
+        }
+        if (keys.size() < 2) return null;
+
+        superinstructions++;
+        Read value = new Read(variable);
+        Stmt[] targets = bodies.toArray(new Stmt[0]);
+        Stmt otherwise = rest == null ? () -> Completion.NORMAL : block(rest);
+        double[] constants = new double[keys.size()];
+        for (int i = 0; i < constants.length; i++) constants[i] = keys.get(i);
+
+        double min = constants[0], max = constants[0];
+        boolean integers = true;
+        for (double k : constants) {
+            integers &= k == (int) k;
+            min = Math.min(min, k);
+            max = Math.max(max, k);
+        }
+        if (!integers || max - min >= MAX_TABLE) {
+            return () -> {
+                double v = value.eval();
+                for (int i = 0; i < constants.length; i++) {
+                    if (v == constants[i]) return targets[i].exec();
+                }
+                return otherwise.exec();
+            };
+        }
+        int base = (int) min;
+        int[] table = new int[(int) max - base + 1];
+        Arrays.fill(table, -1);
+        for (int i = constants.length - 1; i >= 0; i--) {
+            table[(int) constants[i] - base] = i; // constante repetida: vale o primeiro teste
+        }
+        return () -> {
+            double v = value.eval();
+            int k = (int) v;
+            if (k == v && k - base >= 0 && k - base < table.length) {
+                int target = table[k - base];
+                if (target >= 0) return targets[target].exec();
+            }
+            return otherwise.exec();
+        };
+    }
+
+    /** O único if de um bloco else (comentários à parte), ou null. */
+    private static ASTNode soleIf(ASTNode block) {
+        ASTNode found = null;
+        for (ASTNode child : block.getChildren()) {
+            if (child.getKind() == NodeKind.COMENTARIO) continue;
+            if (found != null || child.getKind() != NodeKind.IF) return null;
+            found = child;
+        }
+        return found;
+    }
+
+    private static boolean isConstantEquality(ASTNode test) {
+        return test.getKind() == NodeKind.BIN_OP && test.getOperator() == Operator.EQ
+                && isName(test.getChildren().get(0)) && isNumber(test.getChildren().get(1));
+    }
+
+    private Stmt returning(ASTNode stmt) {
+        Expr value = expression(stmt.getChildren().get(0));
+        return () -> {
+            double valor = value.eval();
+            Memory.Frame frame = memory.frame;
+            if (frame == null) throw new ReturnException(valor); // return fora de função
+            frame.result = valor;
+            return Completion.RETURN;
+        };
+    }
+
+    /** while com as mesmas contagens e trocas para o código compilado do {@link ControlFlowExecutor}. */
+    private final class WhileLoop implements Stmt {
+        private final ASTNode stmt;
+        private final Cond condition;
+        private final Stmt body;
+
+        WhileLoop(ASTNode stmt) {
+            this.stmt = stmt;
+            this.condition = condition(stmt.getChildren().get(0));
+            this.body = block(stmt.getChildren().get(1));
+        }
+
+        @Override
+        public Completion exec() {
+            Tiering.Profile loop = controlFlow.loopProfile(stmt);
+            if (loop != null && loop.compiled != null) return functions.enterLoop(loop.compiled, 0, 0);
+
+            int voltas = 0, contadas = 0;
+            int aviso = loop == null ? 0 : tiering.checkpoint(loop);
+            while (condition.test()) {
+                if (body.exec() == Completion.RETURN) {
+                    controlFlow.backEdges(loop, voltas - contadas);
+                    return Completion.RETURN;
+                }
+                if (loop != null && ++voltas == aviso) {
+                    controlFlow.backEdges(loop, voltas - contadas);
+                    contadas = voltas;
+                    if (loop.compiled != null) return functions.enterLoop(loop.compiled, 0, 0);
+                    aviso = voltas + Tiering.OSR_POLL;
+                }
+            }
+            controlFlow.backEdges(loop, voltas - contadas);
+            return Completion.NORMAL;
+        }
+    }
+
+    private final class ForLoop implements Stmt {
+        private final ASTNode stmt;
+        private final Expr from;
+        private final Expr to;
+        private final Stmt body;
+        private final int slot;
+        private final GlobalTable.Chunk chunk; // null para variável local
+        private final Declaration declaration;
+
+        ForLoop(ASTNode stmt) {
+            this.stmt = stmt;
+            this.from = expression(stmt.getChildren().get(0));
+            this.to = expression(stmt.getChildren().get(1));
+            this.body = block(stmt.getChildren().get(2));
+            this.slot = Memory.slotOf(stmt);
+            this.chunk = (slot & Memory.LOCAL_BIT) != 0 ? null : memory.globals.chunk(slot);
+            this.declaration = new Declaration(stmt.getValue(), "int");
+        }
+
+        @Override
+        public Completion exec() {
+            double inicio = from.eval();
+            double fim = to.eval();
+
+            Tiering.Profile loop = controlFlow.loopProfile(stmt);
+            if (loop != null && loop.compiled != null) return functions.enterLoop(loop.compiled, (int) inicio, fim);
+
+            int voltas = 0, contadas = 0;
+            int aviso = loop == null ? 0 : tiering.checkpoint(loop);
+            for (int i = (int) inicio; i <= fim; i++) {
+                if (chunk == null) {
+                    memory.frame.setNumber(slot & ~Memory.LOCAL_BIT, Tag.INT, i);
+                } else {
+                    chunk.setNumber(GlobalTable.offset(slot), Tag.INT, i);
+                }
+                declaration.ensure();
+                if (body.exec() == Completion.RETURN) {
+                    controlFlow.backEdges(loop, voltas - contadas);
+                    return Completion.RETURN;
+                }
+                if (loop != null && ++voltas == aviso) {
+                    controlFlow.backEdges(loop, voltas - contadas);
+                    contadas = voltas;
+                    if (loop.compiled != null) return functions.enterLoop(loop.compiled, i + 1, fim);
+                    aviso = voltas + Tiering.OSR_POLL;
+                }
+            }
+            controlFlow.backEdges(loop, voltas - contadas);
+            return Completion.NORMAL;
+        }
+    }
+
+    /** Declaração na tabela de símbolos; a tabela só cresce, então basta conferir até a primeira vez. */
+    private final class Declaration {
+        private final String name;
+        private final String type;
+        private boolean declared;
+
+        Declaration(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        void ensure() {
+            if (declared) return;
+            if (!symbolTable.isDeclared(name)) symbolTable.declare(name, type);
+            declared = true;
+        }
+    }
+
+    // ===================== Expressões =========================
+
+    private Expr[] expressions(List<ASTNode> nodes) {
+        Expr[] exprs = new Expr[nodes.size()];
+        for (int i = 0; i < exprs.length; i++) {
+            exprs[i] = expression(nodes.get(i));
+        }
+        return exprs;
+    }
+
+    private Expr expression(ASTNode node) {
+        return switch (node.getKind()) {
+            case VALOR -> value(node);
+            case BIN_OP -> binary(node);
+            case CHAMADA_FUNCAO -> call(node);
+            // Lista, entrada e expressões inválidas: como no percurso da árvore
+            default -> () -> evaluator.evaluate(node);
+        };
+    }
+
+    private Expr value(ASTNode node) {
+        if (node.getValueKind() == ValueKind.NUMBER) {
+            double constant = node.getNumber();
+            return () -> constant;
+        }
+        if (node.getValueKind() == ValueKind.STRING) {
+            String val = node.getValue();
+            String text = val.substring(1, val.length() - 1);
+            return () -> {
+                System.out.println(text);
+                return 0;
+            };
+        }
+        return new Read(node);
+    }
+
+    /**
+     * Leitura de variável. Na primeira execução resolve o slot e, se encontrar um número,
+     * passa a ler direto do frame ou do bloco da global; um local ainda vazio (que enxerga
+     * a global), uma lista ou uma variável não declarada ficam com a {@link Memory}.
+     */
+    private final class Read implements Expr {
+        private final ASTNode node;
+        private byte state = UNINITIALIZED;
+        private int index;
+        private GlobalTable.Chunk chunk;
+
+        Read(ASTNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public double eval() {
+            switch (state) {
+                case LOCAL -> {
+                    Memory.Frame frame = memory.frame;
+                    if (Tag.isNumeric(frame.tags[index])) return frame.numbers[index];
+                }
+                case GLOBAL -> {
+                    if (Tag.isNumeric(chunk.tags[index])) return chunk.numbers[index];
+                }
+                case GENERIC -> {
+                    return memory.readNumber(node);
+                }
+                default -> {
+                    return specialize();
+                }
+            }
+            state = GENERIC;
+            deoptimizations++;
+            return memory.readNumber(node);
+        }
+
+        private double specialize() {
+            int slot = Memory.slotOf(node);
+            if ((slot & Memory.LOCAL_BIT) != 0) {
+                index = slot & ~Memory.LOCAL_BIT;
+                state = Tag.isNumeric(memory.frame.tags[index]) ? LOCAL : GENERIC;
+            } else if (Tag.isNumeric(memory.globals.tag(slot))) {
+                chunk = memory.globals.chunk(slot);
+                index = GlobalTable.offset(slot);
+                state = GLOBAL;
+            } else {
+                state = GENERIC;
+            }
+            if (state != GENERIC) specializations++;
+            return memory.readNumber(node);
+        }
+    }
+
+    private Expr call(ASTNode node) {
+        return new Call(node, expressions(node.getChildren()));
+    }
+
+    /**
+     * Cache de chamada: guarda a função encontrada e a versão da tabela. Um novo registro
+     * de def muda a versão e a função é buscada de novo; depois de
+     * {@link #MAX_CALL_REWRITES} trocas o nó usa o cache genérico do {@link FunctionExecutor}.
+     */
+    private final class Call implements Expr {
+        private final ASTNode node;
+        private final Expr[] args;
+        private FunctionDescriptor target;
+        private int version;
+        private int rewrites;
+
+        Call(ASTNode node, Expr[] args) {
+            this.node = node;
+            this.args = args;
+        }
+
+        @Override
+        public double eval() {
+            FunctionDescriptor func = target;
+            if (func != null && version == table.version()) return functions.invoke(func, args);
+            if (rewrites > MAX_CALL_REWRITES) return functions.call(node, args);
+            return functions.invoke(specialize(), args);
+        }
+
+        private FunctionDescriptor specialize() {
+            if (target != null) {
+                target = null;
+                deoptimizations++;
+                if (++rewrites > MAX_CALL_REWRITES) return functions.target(node);
+            }
+            int current = table.version();
+            FunctionDescriptor func = functions.target(node); // erro de função ou aridade como antes
+            target = func;
+            version = current;
+            specializations++;
+            return func;
+        }
+    }
+
+    private Expr binary(ASTNode node) {
+        Operator op = node.getOperator();
+        ASTNode leftNode = node.getChildren().get(0);
+        ASTNode rightNode = node.getChildren().get(1);
+        if (op != null && isOperand(leftNode) && isOperand(rightNode)) {
+            superinstructions++;
+            return fused(op, new Operand(leftNode), new Operand(rightNode));
+        }
+
+        Expr left = expression(leftNode);
+
+        // Constante à direita (i + 1, n - 2, i * 2): um objeto a menos por avaliação
+        if (op != null && rightNode.getKind() == NodeKind.VALOR && rightNode.getValueKind() == ValueKind.NUMBER) {
+            double c = rightNode.getNumber();
+            switch (op) {
+                case ADD: return () -> left.eval() + c;
+                case SUB: return () -> left.eval() - c;
+                case MUL: return () -> left.eval() * c;
+                default: break;
+            }
+        }
+
+        Expr right = expression(rightNode);
+        if (op == null) {
+            return () -> {
+                left.eval();
+                right.eval();
+                throw new RuntimeException("Operador inválido: " + node.getValue());
+            };
+        }
+        return switch (op) {
+            case ADD -> () -> left.eval() + right.eval();
+            case SUB -> () -> left.eval() - right.eval();
+            case MUL -> () -> left.eval() * right.eval();
+            case POW -> () -> Math.pow(left.eval(), right.eval());
+            case DIV -> () -> {
+                double l = left.eval();
+                double r = right.eval();
+                return r == 0 ? 0 : l / r;
+            };
+            case EQ -> () -> left.eval() == right.eval() ? 1 : 0;
+            case NE -> () -> left.eval() != right.eval() ? 1 : 0;
+            case GT -> () -> left.eval() > right.eval() ? 1 : 0;
+            case LT -> () -> left.eval() < right.eval() ? 1 : 0;
+            case GE -> () -> left.eval() >= right.eval() ? 1 : 0;
+            case LE -> () -> left.eval() <= right.eval() ? 1 : 0;
+        };
+    }
+
+    /** a op b com variáveis e constantes: cada lambda chama os operandos sem despacho por interface. */
+    private static Expr fused(Operator op, Operand a, Operand b) {
+        return switch (op) {
+            case ADD -> () -> a.eval() + b.eval();
+            case SUB -> () -> a.eval() - b.eval();
+            case MUL -> () -> a.eval() * b.eval();
+            case POW -> () -> Math.pow(a.eval(), b.eval());
+            case DIV -> () -> {
+                double l = a.eval();
+                double r = b.eval();
+                return r == 0 ? 0 : l / r;
+            };
+            case EQ -> () -> a.eval() == b.eval() ? 1 : 0;
+            case NE -> () -> a.eval() != b.eval() ? 1 : 0;
+            case GT -> () -> a.eval() > b.eval() ? 1 : 0;
+            case LT -> () -> a.eval() < b.eval() ? 1 : 0;
+            case GE -> () -> a.eval() >= b.eval() ? 1 : 0;
+            case LE -> () -> a.eval() <= b.eval() ? 1 : 0;
+        };
+    }
+
+    /** Constante ou variável usada direto por uma superinstrução. */
+    private final class Operand {
+        private final Read read; // null para constante
+        private final double constant;
+
+        Operand(ASTNode node) {
+            this.read = isName(node) ? new Read(node) : null;
+            this.constant = read == null ? node.getNumber() : 0;
+        }
+
+        double eval() {
+            return read != null ? read.eval() : constant;
+        }
+    }
+
+    private static boolean isName(ASTNode node) {
+        return node.getKind() == NodeKind.VALOR && node.getValueKind() == ValueKind.NAME;
+    }
+
+    private static boolean isNumber(ASTNode node) {
+        return node.getKind() == NodeKind.VALOR && node.getValueKind() == ValueKind.NUMBER;
+    }
+
+    private static boolean isOperand(ASTNode node) {
+        return isName(node) || isNumber(node);
+    }
+
+    /** Condição de if e while: só comparações, como no {@link ControlFlowExecutor}. */
+    private Cond condition(ASTNode node) {
+        if (node.getKind() != NodeKind.BIN_OP) {
+            return () -> {
+                throw new RuntimeException("Condição inválida");
+            };
+        }
+        Operator compare = node.getOperator();
+        if (compare != null && isOperand(node.getChildren().get(0))
+                && isOperand(node.getChildren().get(1))) {
+            Cond fused = fusedCondition(compare, new Operand(node.getChildren().get(0)), new Operand(node.getChildren().get(1)));
+            if (fused != null) {
+                superinstructions++;
+                return fused;
+            }
+        }
+        Expr left = expression(node.getChildren().get(0));
+        Expr right = expression(node.getChildren().get(1));
+        Operator op = node.getOperator();
+        if (op == null) {
+            return () -> {
+                left.eval();
+                right.eval();
+                throw new RuntimeException("Operador inválido em condição: " + node.getValue());
+            };
+        }
+        return switch (op) {
+            case EQ -> () -> left.eval() == right.eval();
+            case NE -> () -> left.eval() != right.eval();
+            case LT -> () -> left.eval() < right.eval();
+            case GT -> () -> left.eval() > right.eval();
+            case LE -> () -> left.eval() <= right.eval();
+            case GE -> () -> left.eval() >= right.eval();
+            default -> () -> {
+                left.eval();
+                right.eval();
+                throw new RuntimeException("Operador inválido em condição: " + node.getValue());
+            };
+        };
+    }
+
+    /** Comparação e desvio num nó só (i < n, v == 3); null para operadores que não comparam. */
+    private static Cond fusedCondition(Operator op, Operand a, Operand b) {
+        return switch (op) {
+            case EQ -> () -> a.eval() == b.eval();
+            case NE -> () -> a.eval() != b.eval();
+            case LT -> () -> a.eval() < b.eval();
+            case GT -> () -> a.eval() > b.eval();
+            case LE -> () -> a.eval() <= b.eval();
+            case GE -> () -> a.eval() >= b.eval();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package minipar.interpreter;
+
+/**
+ * Como uma instrução ou bloco terminou. Um return dentro de função devolve RETURN,
+ * que sobe pelos blocos até o FunctionExecutor; o valor fica no frame da chamada.
+ */
+public enum Completion {
+    NORMAL,
+    RETURN
+}
@@ -1,64 +1,100 @@
 package minipar.interpreter;
 
 import minipar.parser.ASTNode;
-
-import java.util.List;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
 
 public class ControlFlowExecutor {
 
     private final Interpreter interpreter;
+    private final Memory memory;
     private final ExpressionEvaluator evaluator;
+    private final Tiering tiering;                    // null sem execução em níveis
+    private final FunctionExecutor functionExecutor;  // executa os laços compilados
 
-    public ControlFlowExecutor(Interpreter interpreter, ExpressionEvaluator evaluator) {
+    ControlFlowExecutor(Interpreter interpreter, Memory memory, ExpressionEvaluator evaluator,
+                        Tiering tiering, FunctionExecutor functionExecutor) {
         this.interpreter = interpreter;
+        this.memory = memory;
         this.evaluator = evaluator;
+        this.tiering = tiering;
+        this.functionExecutor = functionExecutor;
     }
 
-    public void executeIf(ASTNode stmt) {
+    public Completion executeIf(ASTNode stmt) {
         ASTNode condition = stmt.getChildren().get(0);
         ASTNode block = stmt.getChildren().get(1);
 
         if (evaluateCondition(condition)) {
-            executeBlock(block);
+            return interpreter.executeStatements(block);
         } else if (stmt.getChildren().size() > 2) {
                 ASTNode elseBlock = stmt.getChildren().get(2);
-                executeBlock(elseBlock);
+                return interpreter.executeStatements(elseBlock);
         }
+        return Completion.NORMAL;
     }
 
-    public void executeWhile(ASTNode stmt) {
+    public Completion executeWhile(ASTNode stmt) {
+        Tiering.Profile loop = loopProfile(stmt);
+        if (loop != null && loop.compiled != null) return functionExecutor.enterLoop(loop.compiled, 0, 0);
+
         ASTNode condition = stmt.getChildren().get(0);
         ASTNode block = stmt.getChildren().get(1);
 
+        int voltas = 0, contadas = 0;
+        int aviso = loop == null ? 0 : tiering.checkpoint(loop);
         while (evaluateCondition(condition)) {
-            executeBlock(block);
+            if (interpreter.executeStatements(block) == Completion.RETURN) {
+                backEdges(loop, voltas - contadas);
+                return Completion.RETURN;
+            }
+            if (loop != null && ++voltas == aviso) {
+                backEdges(loop, voltas - contadas);
+                contadas = voltas;
+                // OSR: o resto do laço roda compilado, a partir do teste da condição
+                if (loop.compiled != null) return functionExecutor.enterLoop(loop.compiled, 0, 0);
+                aviso = voltas + Tiering.OSR_POLL;
+            }
         }
+        backEdges(loop, voltas - contadas);
+        return Completion.NORMAL;
+    }
+
+    Tiering.Profile loopProfile(ASTNode stmt) {
+        if (tiering == null) return null;
+        Memory.Frame frame = memory.frame;
+        return tiering.loop(stmt, frame == null ? null : frame.function.def);
+    }
+
+    /** Voltas contadas numa variável local e somadas aos perfis a cada consulta e na saída. */
+    void backEdges(Tiering.Profile loop, int voltas) {
+        if (loop == null) return;
+        tiering.countLoop(loop, voltas);
+        Memory.Frame frame = memory.frame;
+        if (frame != null) tiering.countCall(frame.function.profile, voltas);
     }
 
     private boolean evaluateCondition(ASTNode node) {
-        if (!node.getType().equals("BinOp")) {
+        if (node.getKind() != NodeKind.BIN_OP) {
             throw new RuntimeException("Condição inválida");
         }
 
         double left = evaluator.evaluate(node.getChildren().get(0));
         double right = evaluator.evaluate(node.getChildren().get(1));
 
-        return switch (node.getValue()) {
-            case "==" -> left == right;
-            case "!=" -> left != right;
-            case "<"  -> left < right;
-            case ">"  -> left > right;
-            case "<=" -> left <= right;
-            case ">=" -> left >= right;
+        Operator op = node.getOperator();
+        if (op == null) throw new RuntimeException("Operador inválido em condição: " + node.getValue());
+        return switch (op) {
+            case EQ -> left == right;
+            case NE -> left != right;
+            case LT -> left < right;
+            case GT -> left > right;
+            case LE -> left <= right;
+            case GE -> left >= right;
             default -> throw new RuntimeException("Operador inválido em condição: " + node.getValue());
         };
     }
-    private void executeBlock(ASTNode block) {
-        for (ASTNode child : block.getChildren()) {
-            interpreter.executeStatement(child);
-        }
-    }
-    public void executeFor(ASTNode forNode) {
+    public Completion executeFor(ASTNode forNode) {
         String varName = forNode.getValue(); // Ex: "i"
         ASTNode inicioNode = forNode.getChildren().get(0);
         ASTNode fimNode = forNode.getChildren().get(1);
@@ -67,14 +103,29 @@ public class ControlFlowExecutor {
         double inicio = evaluator.evaluate(inicioNode);
         double fim = evaluator.evaluate(fimNode);
 
+        Tiering.Profile loop = loopProfile(forNode);
+        if (loop != null && loop.compiled != null) return functionExecutor.enterLoop(loop.compiled, (int) inicio, fim);
+
+        int voltas = 0, contadas = 0;
+        int aviso = loop == null ? 0 : tiering.checkpoint(loop);
         for (int i = (int) inicio; i <= fim; i++) {
-            interpreter.getMemory().put(varName, i);
+            memory.writeInt(forNode, i);
             if (!interpreter.getSymbolTable().isDeclared(varName)) {
                 interpreter.getSymbolTable().declare(varName, "int");
             }
-            for (ASTNode stmt : corpo.getChildren()) {
-                interpreter.executeStatement(stmt);
+            if (interpreter.executeStatements(corpo) == Completion.RETURN) {
+                backEdges(loop, voltas - contadas);
+                return Completion.RETURN;
+            }
+            if (loop != null && ++voltas == aviso) {
+                backEdges(loop, voltas - contadas);
+                contadas = voltas;
+                // OSR: continua no código compilado a partir da próxima volta
+                if (loop.compiled != null) return functionExecutor.enterLoop(loop.compiled, i + 1, fim);
+                aviso = voltas + Tiering.OSR_POLL;
             }
         }
+        backEdges(loop, voltas - contadas);
+        return Completion.NORMAL;
     }
 }
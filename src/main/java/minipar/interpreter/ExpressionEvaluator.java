@@ -1,32 +1,32 @@
 package minipar.interpreter;
 
 import minipar.parser.ASTNode;
+import minipar.parser.Operator;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
 
 public class ExpressionEvaluator {
 
-    private final Map<String, Object> memory;
+    private final Memory memory;
     private List<Double> lastEvaluatedList;
     private FunctionExecutor functionExecutor;
     private final Scanner scanner;
 
-    public ExpressionEvaluator(Map<String, Object> memory, FunctionExecutor functionExecutor, Scanner scanner) {
+    public ExpressionEvaluator(Memory memory, FunctionExecutor functionExecutor, Scanner scanner) {
         this.memory = memory;
         this.functionExecutor = functionExecutor;
         this.scanner = scanner;
     }
 
     public double evaluate(ASTNode node) {
-        return switch (node.getType()) {
-            case "Valor" -> evaluateLiteral(node.getValue());
-            case "Lista" -> { yield evaluateList(node); }
-            case "input" -> { yield evaluateInput(); }
-            case "BinOp" -> evaluateBinary(node);
-            case "ChamadaFuncao" -> functionExecutor.call(node);
+        return switch (node.getKind()) {
+            case VALOR -> evaluateValue(node);
+            case LISTA -> { yield evaluateList(node); }
+            case INPUT -> { yield evaluateInput(); }
+            case BIN_OP -> evaluateBinary(node);
+            case CHAMADA_FUNCAO -> functionExecutor.call(node);
             default -> throw new RuntimeException("Expressão inválida: " + node.getType());
         };
     }
@@ -48,39 +48,36 @@ public class ExpressionEvaluator {
         }
     }
 
-    private double evaluateLiteral(String val) {
-        if (val.matches("-?\\d+(\\.\\d+)?")) {
-            return Double.parseDouble(val);
+    private double evaluateValue(ASTNode node) {
+        switch (node.getValueKind()) {
+            case NUMBER:
+                return node.getNumber();
+            case STRING:
+                String val = node.getValue();
+                System.out.println(val.substring(1, val.length() - 1));
+                return 0;
+            default:
+                return memory.readNumber(node);
         }
-        if (val.startsWith("\"") && val.endsWith("\"")) {
-            System.out.println(val.substring(1, val.length() - 1));
-            return 0;
-        }
-        if (memory.containsKey(val)) {
-            Object value = memory.get(val);
-            if (value instanceof Double d) return d;
-            if (value instanceof Integer i) return i.doubleValue();
-            throw new RuntimeException("Valor da variável '" + val + "' não é inteiro");
-        }
-        throw new RuntimeException("Variável não declarada: " + val);
     }
 
     private double evaluateBinary(ASTNode node) {
         double left = evaluate(node.getChildren().get(0));
         double right = evaluate(node.getChildren().get(1));
-        return switch (node.getValue()) {
-            case "+" -> left + right;
-            case "-" -> left - right;
-            case "*" -> left * right;
-            case "^" -> Math.pow(left, right);
-            case "/" -> right == 0 ? 0 : left / right;
-            case "==" -> left == right ? 1 : 0;
-            case "!=" -> left != right ? 1 : 0;
-            case ">"  -> left > right ? 1 : 0;
-            case "<"  -> left < right ? 1 : 0;
-            case ">=" -> left >= right ? 1 : 0;
-            case "<=" -> left <= right ? 1 : 0;
-            default -> throw new RuntimeException("Operador inválido: " + node.getValue());
+        Operator op = node.getOperator();
+        if (op == null) throw new RuntimeException("Operador inválido: " + node.getValue());
+        return switch (op) {
+            case ADD -> left + right;
+            case SUB -> left - right;
+            case MUL -> left * right;
+            case POW -> Math.pow(left, right);
+            case DIV -> right == 0 ? 0 : left / right;
+            case EQ -> left == right ? 1 : 0;
+            case NE -> left != right ? 1 : 0;
+            case GT -> left > right ? 1 : 0;
+            case LT -> left < right ? 1 : 0;
+            case GE -> left >= right ? 1 : 0;
+            case LE -> left <= right ? 1 : 0;
         };
     }
 
@@ -0,0 +1,33 @@
+package minipar.interpreter;
+
+import minipar.parser.ASTNode;
+
+/**
+ * Função compilada pelo {@link ScopeResolver} quando o def é registrado. Imutável:
+ * os parâmetros ocupam os primeiros slots do frame, seguidos pelas demais variáveis
+ * atribuídas no corpo.
+ */
+final class FunctionDescriptor {
+
+    final String name;
+    final ASTNode def;
+    final ASTNode body;
+    final int paramCount;
+    final int frameSize;
+    final int[] globalIds; // global de mesmo nome de cada slot local
+    final Tiering.Profile profile; // chamadas e, depois de promovido, o código compilado
+
+    FunctionDescriptor(ASTNode def, ASTNode body, int paramCount, int[] globalIds) {
+        this.name = def.getValue();
+        this.def = def;
+        this.body = body;
+        this.paramCount = paramCount;
+        this.frameSize = globalIds.length;
+        this.globalIds = globalIds;
+        this.profile = new Tiering.Profile("def " + name, def);
+    }
+
+    String paramName(int index) {
+        return GlobalNames.name(globalIds[index]);
+    }
+}
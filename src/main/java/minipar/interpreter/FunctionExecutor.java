@@ -1,79 +1,196 @@
 package minipar.interpreter;
 
-import minipar.exceptions.ReturnException;
+import minipar.interpreter.Memory.Frame;
+import minipar.jvm.JvmBackend;
+import minipar.jvm.JvmProgram;
+import minipar.jvm.Linker;
 import minipar.parser.ASTNode;
 import minipar.semantic.SymbolTable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Scanner;
 
-public class FunctionExecutor {
+/**
+ * Registro e chamada de funções. Com a execução em níveis ({@link Tiering}), conta as
+ * chamadas de cada def e chama direto o bytecode dos defs já promovidos; o código
+ * compilado volta para cá ({@link Linker}) para chamar defs ainda interpretados.
+ */
+public class FunctionExecutor implements Linker {
 
-    private final Map<String, ASTNode> functions;
-    private final Map<String, Object> memory;
+    private final FunctionTable functions;
+    private final Memory memory;
     private final SymbolTable symbolTable;
     private final Interpreter interpreter;
     private final ExpressionEvaluator evaluator;
+    private final Tiering tiering;  // null sem execução em níveis
+    private final JvmBackend tier;  // nível compilado deste interpretador (uma thread)
 
-    public FunctionExecutor(Map<String, ASTNode> functions,
-                            Map<String, Object> memory,
-                            SymbolTable symbolTable,
-                            Interpreter interpreter,
-                            ExpressionEvaluator evaluator) {
+    FunctionExecutor(FunctionTable functions,
+                     Memory memory,
+                     SymbolTable symbolTable,
+                     Interpreter interpreter,
+                     ExpressionEvaluator evaluator,
+                     Tiering tiering,
+                     Scanner scanner) {
         this.functions = functions;
         this.memory = memory;
         this.symbolTable = symbolTable;
         this.interpreter = interpreter;
         this.evaluator = evaluator;
+        this.tiering = tiering;
+        this.tier = tiering == null ? null : new JvmBackend(symbolTable, memory.globals, scanner, this);
     }
 
     public void register(ASTNode stmt) {
-        String name = stmt.getValue();
-        functions.put(name, stmt);
+        FunctionDescriptor func = ScopeResolver.resolve(stmt);
+        for (int i = 0; i < func.paramCount; i++) {
+            String parametro = func.paramName(i);
+            if (!symbolTable.isDeclared(parametro)) {
+                symbolTable.declare(parametro, "int");
+            }
+        }
+        FunctionDescriptor anterior = functions.lookup(func.name);
+        functions.define(func);
+        if (anterior != null && anterior.def != stmt) interpreter.forget(anterior);
     }
 
     public double call(ASTNode node) {
-        String nome = node.getValue();
-        ASTNode func = functions.get(nome);
-        if (func == null) throw new RuntimeException("Função não declarada: " + nome);
+        FunctionDescriptor func = target(node);
 
-        List<String> parametros = new ArrayList<>();
-        for (ASTNode paramNode : func.getChildren()) {
-            if (paramNode.getType().equals("param")) {
-                parametros.add(paramNode.getValue());
+        // Argumentos avaliados no escopo de quem chama
+        List<ASTNode> argumentos = node.getChildren();
+        JvmProgram compiled = func.profile.compiled;
+        if (compiled != null) {
+            double[] args = new double[func.paramCount];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = evaluator.evaluate(argumentos.get(i));
             }
+            return invokeCompiled(compiled, args);
         }
-
-        List<ASTNode> argumentos = node.getChildren();
-        if (parametros.size() != argumentos.size()) {
-            throw new RuntimeException("Número de argumentos inválido para função " + nome);
+        Frame frame = new Frame(func);
+        for (int i = 0; i < func.paramCount; i++) {
+            frame.setNumber(i, Tag.NUMBER, evaluator.evaluate(argumentos.get(i)));
         }
+        return execute(func, frame);
+    }
 
-        // Salvar escopo atual
-        Map<String, Object> backup = new HashMap<>(memory);
+    /** Chamada com os argumentos já traduzidos pelo {@link ClosureCompiler}. */
+    double call(ASTNode node, ClosureCompiler.Expr[] argumentos) {
+        return invoke(target(node), argumentos);
+    }
 
-        // Novo escopo local
-        for (int i = 0; i < parametros.size(); i++) {
-            double val = evaluator.evaluate(argumentos.get(i));
-            memory.put(parametros.get(i), val);
-            if (!symbolTable.isDeclared(parametros.get(i))) {
-                symbolTable.declare(parametros.get(i), "int");
+    /** Chama func, já buscada por {@link #target}; usado pelos caches de chamada das closures. */
+    double invoke(FunctionDescriptor func, ClosureCompiler.Expr[] argumentos) {
+        JvmProgram compiled = func.profile.compiled;
+        if (compiled != null) {
+            double[] args = new double[argumentos.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = argumentos[i].eval();
             }
+            return invokeCompiled(compiled, args);
         }
+        Frame frame = new Frame(func);
+        for (int i = 0; i < argumentos.length; i++) {
+            frame.setNumber(i, Tag.NUMBER, argumentos[i].eval());
+        }
+        return execute(func, frame);
+    }
+
+    private double execute(FunctionDescriptor func, Frame frame) {
+        if (tiering != null) tiering.countCall(func.profile, 1);
 
+        // Novo escopo local: só troca o frame, sem copiar as globais
+        Frame anterior = memory.frame;
+        memory.frame = frame;
         try {
-            ASTNode corpo = func.getChildren().get(parametros.size());
-            interpreter.executeBlock(corpo);
-        } catch (ReturnException ret) {
-            memory.clear();
-            memory.putAll(backup);
-            return ret.valor;
+            interpreter.executeBlock(func.body);
+        } finally {
+            memory.frame = anterior;
+        }
+        return frame.result; // 0 quando a função termina sem return
+    }
+
+    private double invokeCompiled(JvmProgram compiled, double[] args) {
+        tiering.stats.entered();
+        return tier.invoke(compiled, args);
+    }
+
+    /**
+     * Continua no laço compilado por {@link Tiering} com as variáveis do frame atual (OSR);
+     * from e limit são o próximo valor e o limite de um for.
+     */
+    Completion enterLoop(JvmProgram compiled, double from, double limit) {
+        tiering.stats.entered();
+        Frame frame = memory.frame;
+        if (frame == null) {
+            tier.enterLoop(compiled, null, null, null, from, limit);
+            return Completion.NORMAL;
         }
+        if (tier.enterLoop(compiled, frame.tags, frame.numbers, frame.refs, from, limit)) {
+            frame.result = tier.returnedValue();
+            return Completion.RETURN;
+        }
+        return Completion.NORMAL;
+    }
 
-        memory.clear();
-        memory.putAll(backup);
-        return 0;
+    // ===================== Linker: chamadas vindas do código compilado =========================
+
+    @Override
+    public ASTNode current(int nameId) {
+        FunctionDescriptor func = functions.lookup(nameId);
+        return func == null ? null : func.def;
+    }
+
+    @Override
+    public double call(int nameId, double[] args) {
+        FunctionDescriptor func = functions.lookup(nameId);
+        if (func == null) throw new RuntimeException("Função não declarada: " + GlobalNames.name(nameId));
+        if (func.paramCount != args.length) {
+            throw new RuntimeException("Número de argumentos inválido para função " + func.name);
+        }
+        JvmProgram compiled = func.profile.compiled;
+        if (compiled != null) return invokeCompiled(compiled, args);
+
+        Frame frame = new Frame(func);
+        for (int i = 0; i < args.length; i++) {
+            frame.setNumber(i, Tag.NUMBER, args[i]);
+        }
+        return execute(func, frame);
+    }
+
+    @Override
+    public void define(ASTNode def) {
+        register(def);
+    }
+
+    /**
+     * Função chamada pelo nó. O resultado fica no próprio nó e vale enquanto nenhuma
+     * função for registrada de novo na mesma tabela; a aridade é checada só na busca.
+     */
+    FunctionDescriptor target(ASTNode node) {
+        if (node.getCache() instanceof CallSite site && site.table == functions && site.version == functions.version()) {
+            return site.target;
+        }
+        int version = functions.version();
+        String nome = node.getValue();
+        FunctionDescriptor func = functions.lookup(nome);
+        if (func == null) throw new RuntimeException("Função não declarada: " + nome);
+        if (func.paramCount != node.getChildren().size()) {
+            throw new RuntimeException("Número de argumentos inválido para função " + nome);
+        }
+        node.setCache(new CallSite(functions, version, func));
+        return func;
+    }
+
+    private static final class CallSite {
+        final FunctionTable table;
+        final int version;
+        final FunctionDescriptor target;
+
+        CallSite(FunctionTable table, int version, FunctionDescriptor target) {
+            this.table = table;
+            this.version = version;
+            this.target = target;
+        }
     }
 }
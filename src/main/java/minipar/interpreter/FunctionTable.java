@@ -0,0 +1,67 @@
+package minipar.interpreter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Funções registradas de um programa, compartilhadas pelos ramos PAR. A versão muda
+ * a cada registro e invalida os caches de chamada ({@link FunctionExecutor}).
+ */
+final class FunctionTable {
+
+    private final Map<String, FunctionDescriptor> functions = new ConcurrentHashMap<>();
+    // Índice de GlobalNames → função, trocado inteiro a cada registro. O tamanho depende
+    // das funções do programa, não de quantos nomes o processo já viu.
+    private volatile ById byId = new ById(new int[16], new FunctionDescriptor[16]);
+    private volatile int version;
+
+    synchronized void define(FunctionDescriptor function) {
+        functions.put(function.name, function);
+        int capacity = byId.functions.length;
+        while (capacity < functions.size() * 2) capacity *= 2;
+        ById index = new ById(new int[capacity], new FunctionDescriptor[capacity]);
+        for (FunctionDescriptor f : functions.values()) {
+            index.put(GlobalNames.id(f.name), f);
+        }
+        byId = index;
+        version++;
+    }
+
+    FunctionDescriptor lookup(String name) {
+        return functions.get(name);
+    }
+
+    /** Mesma busca pelo índice do nome, para o código compilado. */
+    FunctionDescriptor lookup(int nameId) {
+        return byId.get(nameId);
+    }
+
+    int version() {
+        return version;
+    }
+
+    /** Endereçamento aberto, com no máximo metade das posições ocupadas. */
+    private record ById(int[] ids, FunctionDescriptor[] functions) {
+
+        void put(int id, FunctionDescriptor function) {
+            int mask = functions.length - 1;
+            int i = hash(id) & mask;
+            while (functions[i] != null) i = (i + 1) & mask;
+            ids[i] = id;
+            functions[i] = function;
+        }
+
+        FunctionDescriptor get(int id) {
+            int mask = functions.length - 1;
+            for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+                FunctionDescriptor function = functions[i];
+                if (function == null || ids[i] == id) return function;
+            }
+        }
+
+        private static int hash(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package minipar.interpreter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Numeração das variáveis globais, única no processo: o mesmo nome tem o mesmo índice
+ * em todos os interpretadores. Assim o slot gravado num nó vale mesmo quando a AST é
+ * compartilhada (ex.: módulos do ModuleCache importados por vários programas).
+ */
+public final class GlobalNames {
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[64];
+    private static volatile int count;
+
+    private GlobalNames() {}
+
+    public static int id(String name) {
+        Integer id = IDS.get(name);
+        return id != null ? id : register(name);
+    }
+
+    /** Índice do nome, ou -1 se ele nunca foi usado. */
+    public static int find(String name) {
+        Integer id = IDS.get(name);
+        return id != null ? id : -1;
+    }
+
+    public static String name(int id) {
+        return names[id];
+    }
+
+    private static synchronized int register(String name) {
+        Integer existing = IDS.get(name);
+        if (existing != null) return existing;
+        int id = count;
+        if (id == names.length) names = Arrays.copyOf(names, id * 2);
+        names[id] = name;
+        count = id + 1;
+        IDS.put(name, id);
+        return id;
+    }
+}
@@ -0,0 +1,203 @@
+package minipar.interpreter;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Variáveis globais de um programa, indexadas pelo {@link GlobalNames}. Cada slot tem
+ * uma {@link Tag}, um double e uma referência, em blocos de tamanho fixo que nunca
+ * mudam de lugar: crescer a tabela não perde escritas feitas ao mesmo tempo por outras
+ * threads (blocos PAR).
+ *
+ * Também é um Map nome → valor, usado por {@link Interpreter#getMemory()}. Uma variável
+ * sem valor não existe. A visão percorre só os blocos que esta tabela alocou, então o
+ * custo depende das variáveis do programa e não de quantos nomes o processo já viu.
+ *
+ * A VM de bytecode ({@code minipar.vm}) usa a mesma tabela.
+ */
+public final class GlobalTable extends AbstractMap<String, Object> {
+
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    static final class Chunk {
+        final byte[] tags = new byte[CHUNK_SIZE];
+        final double[] numbers = new double[CHUNK_SIZE];
+        final Object[] refs = new Object[CHUNK_SIZE];
+
+        void setNumber(int i, byte tag, double value) {
+            numbers[i] = value;
+            refs[i] = null;
+            tags[i] = tag;
+        }
+    }
+
+    private volatile Chunk[] chunks = new Chunk[4];
+    private volatile int[] allocated = new int[0]; // índices dos blocos alocados, em ordem
+
+    public byte tag(int id) {
+        Chunk chunk = find(id);
+        return chunk == null ? Tag.EMPTY : chunk.tags[id & CHUNK_MASK];
+    }
+
+    /** Número guardado no slot; só faz sentido quando a etiqueta é numérica. */
+    public double number(int id) {
+        return find(id).numbers[id & CHUNK_MASK];
+    }
+
+    public Object get(int id) {
+        Chunk chunk = find(id);
+        if (chunk == null) return null;
+        int i = id & CHUNK_MASK;
+        return Tag.box(chunk.tags[i], chunk.numbers[i], chunk.refs[i]);
+    }
+
+    public void setNumber(int id, byte tag, double value) {
+        chunkFor(id).setNumber(id & CHUNK_MASK, tag, value);
+    }
+
+    public void set(int id, Object value) {
+        switch (value) {
+            case Double d -> setNumber(id, Tag.NUMBER, d);
+            case Integer n -> setNumber(id, Tag.INT, n);
+            case null -> setRef(id, Tag.EMPTY, null);
+            default -> setRef(id, Tag.REF, value);
+        }
+    }
+
+    private void setRef(int id, byte tag, Object value) {
+        Chunk chunk = chunkFor(id);
+        int i = id & CHUNK_MASK;
+        chunk.refs[i] = value;
+        chunk.tags[i] = tag;
+    }
+
+    /**
+     * Bloco do slot id, criado se preciso. Como os blocos não mudam de lugar, as closures
+     * especializadas ({@link ClosureCompiler}) guardam o bloco e acessam o slot direto.
+     */
+    Chunk chunk(int id) {
+        return chunkFor(id);
+    }
+
+    static int offset(int id) {
+        return id & CHUNK_MASK;
+    }
+
+    private Chunk find(int id) {
+        Chunk[] current = chunks;
+        int index = id >>> CHUNK_BITS;
+        return index < current.length ? current[index] : null;
+    }
+
+    private Chunk chunkFor(int id) {
+        Chunk chunk = find(id);
+        return chunk != null ? chunk : allocate(id >>> CHUNK_BITS);
+    }
+
+    private synchronized Chunk allocate(int index) {
+        Chunk[] current = chunks;
+        if (index >= current.length) current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+        Chunk chunk = current[index];
+        if (chunk == null) {
+            chunk = current[index] = new Chunk();
+            chunks = current;
+            // Depois de chunks: quem lê allocated enxerga os blocos listados
+            int[] indexes = Arrays.copyOf(allocated, allocated.length + 1);
+            indexes[indexes.length - 1] = index;
+            Arrays.sort(indexes);
+            allocated = indexes;
+        } else {
+            chunks = current;
+        }
+        return chunk;
+    }
+
+    // ===================== Visão como Map =========================
+
+    @Override
+    public Object get(Object key) {
+        int id = key instanceof String name ? GlobalNames.find(name) : -1;
+        return id < 0 ? null : get(id);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int id = key instanceof String name ? GlobalNames.find(name) : -1;
+        return id >= 0 && tag(id) != Tag.EMPTY;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int id = GlobalNames.id(key);
+        Object previous = get(id);
+        set(id, value);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int id = key instanceof String name ? GlobalNames.find(name) : -1;
+        if (id < 0) return null;
+        Object previous = get(id);
+        set(id, null);
+        return previous;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private final int[] indexes = allocated;
+                    private int chunk;  // posição em indexes
+                    private int offset; // próximo slot do bloco
+                    private int next = find();
+
+                    private int find() {
+                        for (; chunk < indexes.length; chunk++, offset = 0) {
+                            int base = indexes[chunk] << CHUNK_BITS;
+                            for (; offset < CHUNK_SIZE; offset++) {
+                                if (tag(base + offset) != Tag.EMPTY) return base + offset++;
+                            }
+                        }
+                        return -1;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next < 0) throw new NoSuchElementException();
+                        int id = next;
+                        next = find();
+                        return new SimpleEntry<>(GlobalNames.name(id), get(id));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                int[] indexes = allocated;
+                Chunk[] current = chunks;
+                for (int index : indexes) {
+                    byte[] tags = current[index].tags;
+                    for (byte tag : tags) {
+                        if (tag != Tag.EMPTY) size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+}
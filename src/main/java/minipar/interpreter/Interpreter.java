@@ -1,29 +1,92 @@
 package minipar.interpreter;
 
+import minipar.Config;
+import minipar.FrontEnd;
+import minipar.cache.ModuleCache;
 import minipar.exceptions.ReturnException;
+import minipar.jvm.JvmBackend;
 import minipar.lexer.*;
 import minipar.parser.*;
 import minipar.semantic.*;
-import java.nio.file.Files;
+import minipar.vm.VirtualMachine;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class Interpreter {
 
-    private final SymbolTable symbolTable = new SymbolTable();
-    private final Map<String, Object> memory = new HashMap<>();
-    private final Map<String, Canal> canais = new HashMap<>();
-    private final Map<String, ASTNode> functions = new HashMap<>();
-    private final Scanner scanner = new Scanner(System.in);
+    // Módulos importados, compartilhados por todos os interpretadores e threads
+    private static final ModuleCache MODULES = new ModuleCache(Config.MODULE_CACHE_SIZE, new FrontEnd()::analyze);
+
+    private final SymbolTable symbolTable;
+    private final GlobalTable globals;
+    private final Memory memory;
+    private final Map<String, Canal> canais;
+    private final FunctionTable functions;
+    private final Scanner scanner;
+    private final VirtualMachine vm; // não nulo com -Dminipar.engine=vm
+    private final JvmBackend jvm;    // não nulo com -Dminipar.engine=jvm
+    private final Tiering tiering;   // null com -Dminipar.tier=off
+    private final ClosureCompiler closures; // não nulo com -Dminipar.engine=closure
 
     // Módulos especializados
-    private final ExpressionEvaluator evaluator = new ExpressionEvaluator(memory, null, scanner);
-    private final AssignmentExecutor assignmentExecutor = new AssignmentExecutor(memory, symbolTable, evaluator);
-    private final ChannelExecutor channelExecutor = new ChannelExecutor(canais, memory, symbolTable, evaluator);
-    private final ControlFlowExecutor controlFlowExecutor = new ControlFlowExecutor(this, evaluator);
-    private final FunctionExecutor functionExecutor = new FunctionExecutor(functions, memory, symbolTable, this, evaluator);
+    private final ExpressionEvaluator evaluator;
+    private final AssignmentExecutor assignmentExecutor;
+    private final ChannelExecutor channelExecutor;
+    private final ControlFlowExecutor controlFlowExecutor;
+    private final FunctionExecutor functionExecutor;
 
     public Interpreter() {
+        this(new SymbolTable(), new GlobalTable(), new Scanner(System.in));
+    }
+
+    /** Interpretador com limites próprios de execução em níveis, para testes. */
+    Interpreter(Tiering tiering) {
+        this(tiering, false);
+    }
+
+    /** Percurso da árvore ou motor de closures, independente de -Dminipar.engine, para testes. */
+    Interpreter(Tiering tiering, boolean closures) {
+        this(new SymbolTable(), new GlobalTable(), null, new HashMap<>(), new FunctionTable(),
+                new Scanner(System.in), null, null, tiering, closures);
+    }
+
+    private Interpreter(SymbolTable symbolTable, GlobalTable globals, Scanner scanner) {
+        this(symbolTable, globals, null, new HashMap<>(), new FunctionTable(), scanner,
+                Config.INTERPRETER_ON_VM ? new VirtualMachine(symbolTable, globals, scanner) : null,
+                Config.INTERPRETER_ON_JVM ? new JvmBackend(symbolTable, globals, scanner) : null,
+                Tiering.fromConfig(), Config.INTERPRETER_ON_CLOSURES);
+    }
+
+    /**
+     * Interpretador de um ramo PAR: compartilha globais, funções, canais e tabela de
+     * símbolos com o pai, mas tem memória própria partindo do frame atual do pai.
+     */
+    private Interpreter(Interpreter parent) {
+        this(parent.symbolTable, parent.globals, parent.memory.frame, parent.canais, parent.functions, parent.scanner, null, null,
+                parent.tiering, parent.closures != null);
+    }
+
+    private Interpreter(SymbolTable symbolTable, GlobalTable globals, Memory.Frame frame,
+                        Map<String, Canal> canais, FunctionTable functions, Scanner scanner,
+                        VirtualMachine vm, JvmBackend jvm, Tiering tiering, boolean closures) {
+        this.symbolTable = symbolTable;
+        this.globals = globals;
+        this.memory = new Memory(globals, frame);
+        this.canais = canais;
+        this.functions = functions;
+        this.scanner = scanner;
+        this.vm = vm;
+        this.jvm = jvm;
+        this.tiering = tiering;
+
+        this.evaluator = new ExpressionEvaluator(memory, null, scanner);
+        this.assignmentExecutor = new AssignmentExecutor(memory, symbolTable, evaluator);
+        this.channelExecutor = new ChannelExecutor(canais, memory, symbolTable, evaluator);
+        this.functionExecutor = new FunctionExecutor(functions, memory, symbolTable, this, evaluator, tiering, scanner);
+        this.controlFlowExecutor = new ControlFlowExecutor(this, memory, evaluator, tiering, functionExecutor);
+        this.closures = closures ? new ClosureCompiler(this, memory, symbolTable, evaluator, assignmentExecutor,
+                controlFlowExecutor, functionExecutor, functions, tiering) : null;
         setupFunctionEvaluation();
     }
 
@@ -32,7 +95,15 @@ public class Interpreter {
     }
 
     public void execute(ASTNode root) {
-        if (!root.getType().equals("Programa")) {
+        if (vm != null) {
+            vm.execute(root);
+            return;
+        }
+        if (jvm != null) {
+            jvm.execute(root);
+            return;
+        }
+        if (root.getKind() != NodeKind.PROGRAMA) {
             throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
         }
         for (ASTNode bloco : root.getChildren()) {
@@ -40,29 +111,118 @@ public class Interpreter {
         }
     }
 
-    public void executeBlock(ASTNode block) {
-        System.out.println("[DEBUG] Executando bloco tipo: " + block.getType() + " na thread " + Thread.currentThread().getName());
-        switch (block.getType()) {
-            case "SEQ", "Bloco" -> executeSequential(block);
-            case "PAR" -> executeParallel(block);
-            default -> throw new RuntimeException("Tipo de bloco desconhecido: " + block.getType());
+    /**
+     * Executa uma {@link FlatAst} percorrendo os blocos pelos índices: cada instrução vira
+     * ASTNode só enquanto executa ({@link #executeOnce}), então depois da execução só
+     * sobra o que precisa continuar existindo, como os defs registrados. A VM e o back-end
+     * JVM compilam o programa inteiro e recebem a árvore toda, descartada no fim.
+     */
+    public void execute(FlatAst ast) {
+        if (vm != null) {
+            vm.execute(ast.toNode(ast.root()));
+            return;
+        }
+        if (jvm != null) {
+            jvm.execute(ast.toNode(ast.root()));
+            return;
+        }
+        if (ast.kind(ast.root()) != NodeKind.PROGRAMA) {
+            throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
+        }
+        for (int block = ast.firstChild(ast.root()); block != FlatAst.NONE; block = ast.nextSibling(block)) {
+            executeBlock(ast, block);
+        }
+    }
+
+    private void executeBlock(FlatAst ast, int block) {
+        traceBlock(ast.type(block));
+        switch (ast.kind(block)) {
+            case SEQ, BLOCO -> {
+                traceSequential();
+                for (int stmt = ast.firstChild(block); stmt != FlatAst.NONE; stmt = ast.nextSibling(stmt)) {
+                    if (executeOnce(ast.toNode(stmt)) == Completion.RETURN) return;
+                }
+            }
+            case PAR -> {
+                List<Thread> threads = new ArrayList<>();
+                for (int child = ast.firstChild(block); child != FlatAst.NONE; child = ast.nextSibling(child)) {
+                    int node = child;
+                    threads.add(branch(ramo -> ramo.executeBlock(ast, node)));
+                }
+                join(threads);
+            }
+            default -> throw new RuntimeException("Tipo de bloco desconhecido: " + ast.type(block));
+        }
+    }
+
+    /**
+     * Instrução que não será executada de novo: as closures não a guardam e os perfis
+     * dos seus laços são descartados no fim.
+     */
+    private Completion executeOnce(ASTNode stmt) {
+        try {
+            return closures != null ? closures.executeOnce(stmt) : executeStatement(stmt);
+        } finally {
+            if (tiering != null) tiering.forget(stmt);
         }
     }
 
-    private void executeSequential(ASTNode block) {
+    /** Def substituído por outro nó: descarta o que estava guardado para o corpo antigo. */
+    void forget(FunctionDescriptor replaced) {
+        if (closures != null) closures.forget(replaced.body);
+        if (tiering != null) tiering.forget(replaced.body);
+    }
+
+    public Completion executeBlock(ASTNode block) {
+        traceBlock(block.getType());
+        return switch (block.getKind()) {
+            case SEQ, BLOCO -> executeSequential(block);
+            case PAR -> executeParallel(block);
+            default -> throw new RuntimeException("Tipo de bloco desconhecido: " + block.getType());
+        };
+    }
+
+    private Completion executeSequential(ASTNode block) {
+        traceSequential();
+        return executeStatements(block);
+    }
+
+    private static void traceBlock(String tipo) {
+        System.out.println("[DEBUG] Executando bloco tipo: " + tipo + " na thread " + Thread.currentThread().getName());
+    }
+
+    private static void traceSequential() {
         System.out.println("[THREAD] Iniciando bloco em thread: " + Thread.currentThread().getName());
-        for (ASTNode stmt : block.getChildren()) {
-            executeStatement(stmt);
+    }
+
+    /** Executa os filhos do bloco em ordem, parando no primeiro return. */
+    Completion executeStatements(ASTNode block) {
+        if (closures != null) return closures.execute(block);
+        List<ASTNode> statements = block.getChildren();
+        for (int i = 0, n = statements.size(); i < n; i++) {
+            if (executeStatement(statements.get(i)) == Completion.RETURN) return Completion.RETURN;
         }
+        return Completion.NORMAL;
     }
 
-    private void executeParallel(ASTNode block) {
+    private Completion executeParallel(ASTNode block) {
         List<Thread> threads = new ArrayList<>();
         for (ASTNode child : block.getChildren()) {
-            Thread t = new Thread(() -> executeBlock(child));
-            t.start();
-            threads.add(t);
+            threads.add(branch(ramo -> ramo.executeBlock(child)));
         }
+        join(threads);
+        return Completion.NORMAL;
+    }
+
+    /** Inicia um ramo PAR numa thread nova, com um interpretador próprio. */
+    private Thread branch(Consumer<Interpreter> body) {
+        Interpreter ramo = new Interpreter(this);
+        Thread t = new Thread(() -> body.accept(ramo));
+        t.start();
+        return t;
+    }
+
+    private static void join(List<Thread> threads) {
         for (Thread t : threads) {
             try {
                 t.join();
@@ -71,34 +231,42 @@ public class Interpreter {
             }
         }
     }
-    public void executeStatement(ASTNode stmt) {
-        switch (stmt.getType()) {
-            case "Atribuicao"       -> assignmentExecutor.executeAssignment(stmt);
-            case "AtribuicaoIndice" -> assignmentExecutor.executeIndexAssignment(stmt);
-            case "Comentario"       -> {} // Ignora
-            case "c_channel"        -> channelExecutor.declareChannel(stmt);
-            case "send"             -> channelExecutor.send(stmt);
-            case "receive"          -> channelExecutor.receive(stmt);
-            case "print"            -> executePrint(stmt);
-            case "if"               -> controlFlowExecutor.executeIf(stmt);
-            case "while"            -> controlFlowExecutor.executeWhile(stmt);
-            case "for"              -> controlFlowExecutor.executeFor(stmt);
-            case "def"              -> functionExecutor.register(stmt);
-            case "return"           -> throw new ReturnException(evaluator.evaluate(stmt.getChildren().get(0)));
-            case "ChamadaFuncao"    -> functionExecutor.call(stmt);
-            case "import"           -> executeImport(stmt);
+    public Completion executeStatement(ASTNode stmt) {
+        switch (stmt.getKind()) {
+            case ATRIBUICAO         -> assignmentExecutor.executeAssignment(stmt);
+            case ATRIBUICAO_INDICE  -> assignmentExecutor.executeIndexAssignment(stmt);
+            case COMENTARIO         -> {} // Ignora
+            case C_CHANNEL          -> channelExecutor.declareChannel(stmt);
+            case SEND               -> channelExecutor.send(stmt);
+            case RECEIVE            -> channelExecutor.receive(stmt);
+            case PRINT              -> executePrint(stmt);
+            case IF                 -> { return controlFlowExecutor.executeIf(stmt); }
+            case WHILE              -> { return controlFlowExecutor.executeWhile(stmt); }
+            case FOR                -> { return controlFlowExecutor.executeFor(stmt); }
+            case DEF                -> functionExecutor.register(stmt);
+            case RETURN             -> { return executeReturn(stmt); }
+            case CHAMADA_FUNCAO     -> functionExecutor.call(stmt);
+            case IMPORT             -> executeImport(stmt);
             default                 -> throw new RuntimeException("Instrução não suportada: " + stmt.getType());
         }
+        return Completion.NORMAL;
+    }
+
+    private Completion executeReturn(ASTNode stmt) {
+        double valor = evaluator.evaluate(stmt.getChildren().get(0));
+        Memory.Frame frame = memory.frame;
+        if (frame == null) throw new ReturnException(valor); // return fora de função
+        frame.result = valor;
+        return Completion.RETURN;
     }
 
     private void executePrint(ASTNode stmt) {
         StringBuilder output = new StringBuilder();
 
         for (ASTNode arg : stmt.getChildren()) {
-            String tipo = arg.getType();
             String raw = arg.getValue();
 
-            if (tipo.equals("Valor") && raw.startsWith("\"") && raw.endsWith("\"")) {
+            if (arg.getKind() == NodeKind.VALOR && raw.startsWith("\"") && raw.endsWith("\"")) {
                 // String literal
                 output.append(raw, 1, raw.length() - 1);
             } else {
@@ -118,16 +286,7 @@ public class Interpreter {
     private void executeImport(ASTNode stmt) {
         String path = stmt.getValue(); // já sem aspas, vindo do parser
         try {
-            String importedSource = Files.readString(Path.of(path));
-
-            Lexer lexer = new Lexer(importedSource);
-            List<minipar.lexer.Token> importedTokens = lexer.tokenize();
-
-            Parser parser = new Parser(importedTokens);
-            ASTNode importedAst = parser.parseProgram();
-
-            SemanticAnalyzer semanticAnalyzer = new SemanticAnalyzer();
-            semanticAnalyzer.analyze(importedAst);
+            ASTNode importedAst = MODULES.load(Path.of(path));
 
             this.execute(importedAst);
 
@@ -140,8 +299,19 @@ public class Interpreter {
         return symbolTable;
     }
 
+    /** Variáveis globais, por nome. */
     public Map<String, Object> getMemory() {
-        return memory;
+        return globals;
+    }
+
+    /** Motor de closures; null quando o interpretador percorre a árvore. */
+    ClosureCompiler getClosureCompiler() {
+        return closures;
+    }
+
+    /** Limites e promoções da execução em níveis; null com -Dminipar.tier=off. */
+    public TierStats getTierStats() {
+        return tiering == null ? null : tiering.stats;
     }
 
 }
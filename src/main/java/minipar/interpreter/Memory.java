@@ -0,0 +1,126 @@
+package minipar.interpreter;
+
+import minipar.parser.ASTNode;
+
+/**
+ * Memória vista por um interpretador: a tabela de globais e o frame da função em
+ * execução (null no nível do programa).
+ *
+ * O slot de cada nó de nome é atribuído pelo {@link ScopeResolver} quando a função é
+ * registrada: índice no frame com {@link #LOCAL_BIT}, ou índice global. Nós fora de
+ * funções recebem o índice global no primeiro acesso.
+ *
+ * Números são lidos e escritos sem boxing ({@link Tag}); {@link #read} e
+ * {@link #write} tratam o valor como objeto e servem para listas.
+ */
+public final class Memory {
+
+    static final int LOCAL_BIT = 1 << 30;
+
+    final GlobalTable globals;
+    Frame frame;
+
+    Memory(GlobalTable globals, Frame frame) {
+        this.globals = globals;
+        this.frame = frame;
+    }
+
+    double readNumber(ASTNode node) {
+        int slot = slotOf(node);
+        return (slot & LOCAL_BIT) != 0 ? readLocal(slot & ~LOCAL_BIT, node) : readGlobal(slot, node);
+    }
+
+    /** Número no slot local index do frame atual; node só dá o nome nas mensagens de erro. */
+    double readLocal(int index, ASTNode node) {
+        Frame f = frame;
+        byte tag = f.tags[index];
+        if (Tag.isNumeric(tag)) return f.numbers[index];
+        if (tag != Tag.EMPTY) throw notNumber(node);
+        // Local ainda não atribuído: enxerga a global de mesmo nome, como a cópia
+        // da memória feita antes de cada chamada
+        return readGlobal(f.function.globalIds[index], node);
+    }
+
+    double readGlobal(int id, ASTNode node) {
+        byte tag = globals.tag(id);
+        if (Tag.isNumeric(tag)) return globals.number(id);
+        if (tag == Tag.EMPTY) throw new RuntimeException("Variável não declarada: " + node.getValue());
+        throw notNumber(node);
+    }
+
+    private static RuntimeException notNumber(ASTNode node) {
+        return new RuntimeException("Valor da variável '" + node.getValue() + "' não é inteiro");
+    }
+
+    Object read(ASTNode node) {
+        int slot = slotOf(node);
+        if ((slot & LOCAL_BIT) != 0) {
+            Frame f = frame;
+            int index = slot & ~LOCAL_BIT;
+            byte tag = f.tags[index];
+            if (tag != Tag.EMPTY) return Tag.box(tag, f.numbers[index], f.refs[index]);
+            slot = f.function.globalIds[index];
+        }
+        return globals.get(slot);
+    }
+
+    void writeNumber(ASTNode node, double value) {
+        writeNumber(node, Tag.NUMBER, value);
+    }
+
+    /** Variável de for: guarda o inteiro sem boxing, mas ela continua sendo exibida como Integer. */
+    void writeInt(ASTNode node, int value) {
+        writeNumber(node, Tag.INT, value);
+    }
+
+    private void writeNumber(ASTNode node, byte tag, double value) {
+        int slot = slotOf(node);
+        if ((slot & LOCAL_BIT) == 0) {
+            globals.setNumber(slot, tag, value);
+        } else {
+            frame.setNumber(slot & ~LOCAL_BIT, tag, value);
+        }
+    }
+
+    void write(ASTNode node, Object value) {
+        int slot = slotOf(node);
+        if ((slot & LOCAL_BIT) == 0) {
+            globals.set(slot, value);
+        } else {
+            int index = slot & ~LOCAL_BIT;
+            frame.refs[index] = value;
+            frame.tags[index] = Tag.REF;
+        }
+    }
+
+    static int slotOf(ASTNode node) {
+        int slot = node.getSlot();
+        if (slot == ASTNode.UNRESOLVED) {
+            slot = GlobalNames.id(node.getValue());
+            node.setSlot(slot);
+        }
+        return slot;
+    }
+
+    /** Variáveis locais de uma chamada, na ordem do {@link FunctionDescriptor}. */
+    static final class Frame {
+        final FunctionDescriptor function;
+        final byte[] tags;
+        final double[] numbers;
+        final Object[] refs;
+        double result; // valor do return executado na chamada
+
+        Frame(FunctionDescriptor function) {
+            this.function = function;
+            this.tags = new byte[function.frameSize];
+            this.numbers = new double[function.frameSize];
+            this.refs = new Object[function.frameSize];
+        }
+
+        void setNumber(int index, byte tag, double value) {
+            numbers[index] = value;
+            refs[index] = null;
+            tags[index] = tag;
+        }
+    }
+}
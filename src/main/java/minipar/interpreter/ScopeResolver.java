@@ -0,0 +1,82 @@
+package minipar.interpreter;
+
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.ValueKind;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolve os nomes de uma função: parâmetros e variáveis atribuídas no corpo
+ * (atribuição, receive, for) são locais; os demais nomes são globais.
+ * Funções aninhadas são resolvidas quando o seu próprio def é executado.
+ */
+final class ScopeResolver {
+
+    private ScopeResolver() {}
+
+    static FunctionDescriptor resolve(ASTNode def) {
+        Map<String, Integer> locals = new LinkedHashMap<>();
+        List<ASTNode> children = def.getChildren();
+        int paramCount = 0;
+        while (paramCount < children.size() && children.get(paramCount).getKind() == NodeKind.PARAM) {
+            locals.putIfAbsent(children.get(paramCount).getValue(), locals.size());
+            paramCount++;
+        }
+        if (paramCount == children.size()) throw new RuntimeException("Função sem corpo: " + def.getValue());
+        ASTNode body = children.get(paramCount);
+
+        collectLocals(body, locals);
+
+        int[] globalIds = new int[locals.size()];
+        for (Map.Entry<String, Integer> local : locals.entrySet()) {
+            globalIds[local.getValue()] = GlobalNames.id(local.getKey());
+        }
+        for (int i = 0; i < paramCount; i++) {
+            annotate(children.get(i), locals);
+        }
+        annotateTree(body, locals);
+
+        return new FunctionDescriptor(def, body, paramCount, globalIds);
+    }
+
+    private static void collectLocals(ASTNode node, Map<String, Integer> locals) {
+        switch (node.getKind()) {
+            case DEF -> { return; }
+            case VARIAVEL, FOR -> locals.putIfAbsent(node.getValue(), locals.size());
+            default -> {}
+        }
+        for (ASTNode child : node.getChildren()) {
+            collectLocals(child, locals);
+        }
+    }
+
+    private static void annotateTree(ASTNode node, Map<String, Integer> locals) {
+        if (node.getKind() == NodeKind.DEF) return;
+        annotate(node, locals);
+        for (ASTNode child : node.getChildren()) {
+            annotateTree(child, locals);
+        }
+    }
+
+    private static void annotate(ASTNode node, Map<String, Integer> locals) {
+        boolean named = switch (node.getKind()) {
+            case VARIAVEL, FOR, ATRIBUICAO_INDICE, PARAM -> true;
+            case VALOR -> node.getValueKind() == ValueKind.NAME;
+            default -> false;
+        };
+        if (!named) return;
+        Integer local = locals.get(node.getValue());
+        node.setSlot(local != null ? local | Memory.LOCAL_BIT : GlobalNames.id(node.getValue()));
+    }
+
+    /** Nomes locais de uma função, na ordem dos slots (para testes e depuração). */
+    static List<String> localNames(FunctionDescriptor function) {
+        List<String> names = new ArrayList<>(function.frameSize);
+        for (int id : function.globalIds) names.add(GlobalNames.name(id));
+        return names;
+    }
+}
@@ -0,0 +1,29 @@
+package minipar.interpreter;
+
+/**
+ * Etiqueta de um slot de variável (frame ou global). Números ficam sem boxing num
+ * double ao lado da etiqueta; só listas ocupam a referência do slot.
+ */
+public final class Tag {
+
+    public static final byte EMPTY = 0;  // variável sem valor
+    public static final byte NUMBER = 1; // double
+    public static final byte INT = 2;    // variável de for: double inteiro, exibido como Integer
+    public static final byte REF = 3;    // lista
+
+    private Tag() {}
+
+    public static boolean isNumeric(byte tag) {
+        return tag == NUMBER || tag == INT;
+    }
+
+    /** Valor do slot como objeto, para a visão Map e mensagens. */
+    public static Object box(byte tag, double number, Object ref) {
+        return switch (tag) {
+            case NUMBER -> number;
+            case INT -> (int) number;
+            case REF -> ref;
+            default -> null;
+        };
+    }
+}
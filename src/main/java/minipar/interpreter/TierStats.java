@@ -0,0 +1,91 @@
+package minipar.interpreter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatísticas da execução em níveis de um interpretador (e dos seus ramos PAR): os
+ * limites em uso, cada promoção de def ou laço para o nível compilado e quantas vezes
+ * o interpretador entrou no código compilado.
+ */
+public final class TierStats {
+
+    public enum Status {
+        QUEUED,         // passou do limite, aguardando compilação
+        COMPILED,       // chamadas e entradas seguintes usam o bytecode JVM
+        NOT_COMPILABLE, // usa canais, import ou PAR: continua interpretado
+        FAILED          // o compilador falhou: continua interpretado
+    }
+
+    /** Uma transição de um trecho: "def nome" ou "while"/"for" com o índice do laço. */
+    public record Event(String unit, Status status, int count, String detail) {
+        @Override
+        public String toString() {
+            return unit + ": " + status + " após " + count + (detail == null ? "" : " (" + detail + ")");
+        }
+    }
+
+    private final int callThreshold;
+    private final int loopThreshold;
+    private final List<Event> events = new CopyOnWriteArrayList<>();
+    private final LongAdder compiledEntries = new LongAdder();
+    private int pending;
+
+    TierStats(int callThreshold, int loopThreshold) {
+        this.callThreshold = callThreshold;
+        this.loopThreshold = loopThreshold;
+    }
+
+    /** Chamadas (mais voltas de laço dentro do corpo) até um def ser compilado. */
+    public int callThreshold() {
+        return callThreshold;
+    }
+
+    /** Voltas até um laço fora de funções ser compilado. */
+    public int loopThreshold() {
+        return loopThreshold;
+    }
+
+    public List<Event> events() {
+        return List.copyOf(events);
+    }
+
+    public long compiledEntries() {
+        return compiledEntries.sum();
+    }
+
+    public long count(Status status) {
+        return events.stream().filter(e -> e.status() == status).count();
+    }
+
+    /** Espera as compilações pendentes terminarem. */
+    public synchronized void awaitCompilations() throws InterruptedException {
+        while (pending > 0) wait();
+    }
+
+    synchronized void queued(String unit, int count) {
+        pending++;
+        events.add(new Event(unit, Status.QUEUED, count, null));
+    }
+
+    synchronized void finished(String unit, Status status, int count, String detail) {
+        pending--;
+        events.add(new Event(unit, status, count, detail));
+        notifyAll();
+    }
+
+    void rejected(String unit, int count) {
+        events.add(new Event(unit, Status.NOT_COMPILABLE, count, null));
+    }
+
+    void entered() {
+        compiledEntries.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "TierStats{chamadas=" + callThreshold + ", laços=" + loopThreshold
+                + ", compilados=" + count(Status.COMPILED) + ", entradas=" + compiledEntries() + "}";
+    }
+}
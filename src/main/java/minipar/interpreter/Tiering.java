@@ -0,0 +1,148 @@
+package minipar.interpreter;
+
+import minipar.Config;
+import minipar.jvm.JvmBackend;
+import minipar.jvm.JvmProgram;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execução em níveis: tudo começa no interpretador, que conta as chamadas de cada def
+ * ({@link FunctionExecutor}) e as voltas de cada laço ({@link ControlFlowExecutor}).
+ * O trecho que passa do limite é compilado para bytecode JVM numa thread à parte; as
+ * chamadas e entradas seguintes vão para o código compilado.
+ *
+ * Voltas de laço dentro de uma função contam também para a função. Um def troca de
+ * nível na próxima chamada; um laço troca no meio da execução (OSR, substituição na
+ * pilha): a cada tantas voltas o interpretador confere se o laço já foi compilado e
+ * continua nele com o estado atual das variáveis. Compartilhado pelos ramos PAR.
+ */
+final class Tiering {
+
+    // Uma thread de compilação para todos os interpretadores; daemon para não segurar a saída
+    private static final ExecutorService COMPILER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "minipar-tier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    final TierStats stats;
+    private final boolean background;
+    private final Map<ASTNode, Profile> loops = new ConcurrentHashMap<>();
+    private final AtomicInteger loopCount = new AtomicInteger(); // numera os laços nos eventos
+
+    Tiering(int callThreshold, int loopThreshold, boolean background) {
+        this.stats = new TierStats(callThreshold, loopThreshold);
+        this.background = background;
+    }
+
+    static Tiering fromConfig() {
+        if (!Config.TIERING) return null;
+        return new Tiering(Config.TIER_CALL_THRESHOLD, Config.TIER_LOOP_THRESHOLD, Config.TIER_BACKGROUND);
+    }
+
+    // Voltas entre duas consultas ao código compilado, depois de passar do limite
+    static final int OSR_POLL = 1024;
+
+    /** Perfil de um laço, criado na primeira entrada; owner é o def que o contém, ou null. */
+    Profile loop(ASTNode stmt, ASTNode owner) {
+        Profile profile = loops.get(stmt);
+        if (profile == null) {
+            profile = loops.computeIfAbsent(stmt, s -> {
+                String unit = s.getType() + " #" + loopCount.incrementAndGet() + (owner == null ? "" : " em " + owner.getValue());
+                return new Profile(unit, s, owner);
+            });
+        }
+        return profile;
+    }
+
+    /**
+     * Descarta os perfis dos laços de uma instrução que não vai rodar de novo (ex.: de uma
+     * FlatAst, materializada só enquanto executa). Laços dentro de def ficam: o def continua
+     * registrado e pode ser chamado depois.
+     */
+    void forget(ASTNode stmt) {
+        NodeKind kind = stmt.getKind();
+        if (kind == NodeKind.DEF) return;
+        if (kind == NodeKind.WHILE || kind == NodeKind.FOR) loops.remove(stmt);
+        for (ASTNode child : stmt.getChildren()) forget(child);
+    }
+
+    /** Laços com perfil guardado, para testes. */
+    int profiledLoops() {
+        return loops.size();
+    }
+
+    /** Voltas até a próxima consulta ao código compilado do laço. */
+    int checkpoint(Profile loop) {
+        return Math.max(1, stats.loopThreshold() - loop.count);
+    }
+
+    /** Chamadas do def, ou voltas de laço no seu corpo. */
+    void countCall(Profile profile, int count) {
+        profile.count += count;
+        if (profile.count >= stats.callThreshold() && !profile.queued) promote(profile);
+    }
+
+    /** Voltas de um laço. */
+    void countLoop(Profile profile, int count) {
+        profile.count += count;
+        if (profile.count >= stats.loopThreshold() && !profile.queued) promote(profile);
+    }
+
+    private void promote(Profile profile) {
+        synchronized (profile) {
+            if (profile.queued) return;
+            profile.queued = true;
+        }
+        int count = profile.count;
+        if (!JvmBackend.isCompilable(profile.node)) {
+            stats.rejected(profile.unit, count);
+            return;
+        }
+        stats.queued(profile.unit, count);
+        Runnable job = () -> compile(profile, count);
+        if (background) {
+            COMPILER.execute(job);
+        } else {
+            job.run();
+        }
+    }
+
+    private void compile(Profile profile, int count) {
+        try {
+            profile.compiled = profile.node.getKind() == NodeKind.DEF
+                    ? JvmBackend.compileFunction(profile.node)
+                    : JvmBackend.compileLoop(profile.node, profile.owner);
+            stats.finished(profile.unit, TierStats.Status.COMPILED, count, null);
+        } catch (RuntimeException | LinkageError e) {
+            stats.finished(profile.unit, TierStats.Status.FAILED, count, e.getMessage());
+        }
+    }
+
+    /** Contador de um def ou laço e o código compilado, quando houver. */
+    static final class Profile {
+        final String unit;
+        final ASTNode node;
+        final ASTNode owner; // def que contém o laço
+        int count; // sem sincronização: é só uma estimativa entre threads
+        volatile boolean queued;
+        volatile JvmProgram compiled;
+
+        Profile(String unit, ASTNode node) {
+            this(unit, node, null);
+        }
+
+        Profile(String unit, ASTNode node, ASTNode owner) {
+            this.unit = unit;
+            this.node = node;
+            this.owner = owner;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package minipar.ir;
 
 import minipar.parser.ASTNode;
+import minipar.parser.FlatAst;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.parser.ValueKind;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,30 +33,32 @@ public class IRGenerator {
         instructions.add(new IRInstruction(opCode, result, arg1, arg2));
     }
 
-    // Mapeia o operador string (ex: "+") para o nosso OpCode (ex: OpCode.ADD)
-    private OpCode mapOperatorToOpCode(String op) {
+    // Mapeia o operador do nó (ex: Operator.ADD) para o nosso OpCode (ex: OpCode.ADD)
+    private OpCode mapOperatorToOpCode(ASTNode expr) {
+        Operator op = expr.getOperator();
+        if (op == null) throw new RuntimeException("Operador desconhecido para IRGenerator: " + expr.getValue());
         return switch (op) {
-            case "+" -> OpCode.ADD;
-            case "-" -> OpCode.SUB;
-            case "*" -> OpCode.MUL;
-            case "/" -> OpCode.DIV;
+            case ADD -> OpCode.ADD;
+            case SUB -> OpCode.SUB;
+            case MUL -> OpCode.MUL;
+            case DIV -> OpCode.DIV;
 
             // --- Suporte para Comparações ---
-            case ">" -> OpCode.GT;
-            case "<" -> OpCode.LT;
-            case "==" -> OpCode.EQ;
-            case "!=" -> OpCode.NEQ;
-            case ">=" -> OpCode.GTE;
-            case "<=" -> OpCode.LTE;
+            case GT -> OpCode.GT;
+            case LT -> OpCode.LT;
+            case EQ -> OpCode.EQ;
+            case NE -> OpCode.NEQ;
+            case GE -> OpCode.GTE;
+            case LE -> OpCode.LTE;
             // --- Fim Suporte ---
 
-            default -> throw new RuntimeException("Operador desconhecido para IRGenerator: " + op);
+            default -> throw new RuntimeException("Operador desconhecido para IRGenerator: " + op.symbol());
         };
     }
 
     
     public List<IRInstruction> generate(ASTNode root) {
-        if (!root.getType().equals("Programa")) {
+        if (root.getKind() != NodeKind.PROGRAMA) {
             throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
         }
         for (ASTNode bloco : root.getChildren()) {
@@ -61,14 +67,37 @@ public class IRGenerator {
         return instructions;
     }
 
+    /**
+     * Mesma geração sobre uma {@link FlatAst}: blocos são percorridos com cursor e
+     * cada instrução é materializada só enquanto é traduzida.
+     */
+    public List<IRInstruction> generate(FlatAst ast) {
+        if (ast.kind(ast.root()) != NodeKind.PROGRAMA) {
+            throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
+        }
+        generateBlock(ast, ast.root());
+        return instructions;
+    }
+
+    private void generateBlock(FlatAst ast, int block) {
+        FlatAst.Cursor cursor = ast.cursor(block);
+        if (!cursor.firstChild()) return;
+        do {
+            switch (cursor.kind()) {
+                case SEQ, PAR, BLOCO -> generateBlock(ast, cursor.node());
+                default -> generateStatement(cursor.materialize());
+            }
+        } while (cursor.nextSibling());
+    }
+
     /**
      * Imita o Interpreter.executeBlock()
      */
     public void generateBlock(ASTNode block) {
         // Para a geração de IR, "PAR" é tratado da mesma forma que "SEQ",
         // pois o IR em si é uma representação sequencial.
-        switch (block.getType()) {
-            case "SEQ", "Bloco", "PAR" -> generateSequential(block);
+        switch (block.getKind()) {
+            case SEQ, BLOCO, PAR -> generateSequential(block);
             default -> throw new RuntimeException("Tipo de bloco desconhecido: " + block.getType());
         }
     }
@@ -86,26 +115,26 @@ public class IRGenerator {
      * Imita o Interpreter.executeStatement()
      */
     public void generateStatement(ASTNode stmt) {
-        switch (stmt.getType()) {
-            case "Atribuicao" -> generateAssignment(stmt);
-            case "print" -> generatePrint(stmt);
-            case "if" -> generateIf(stmt);
-            case "while" -> generateWhile(stmt);
+        switch (stmt.getKind()) {
+            case ATRIBUICAO -> generateAssignment(stmt);
+            case PRINT -> generatePrint(stmt);
+            case IF -> generateIf(stmt);
+            case WHILE -> generateWhile(stmt);
 
             // --- ESTA É A CORREÇÃO ---
             // Se uma instrução for, na verdade, um sub-bloco (como SEQ dentro de PAR)
-            case "SEQ", "PAR", "Bloco" -> {
+            case SEQ, PAR, BLOCO -> {
                 generateBlock(stmt); // Chame o gerador de bloco recursivamente
             }
             // --- FIM DA CORREÇÃO ---
 
             // Ignorados (não geram código)
-            case "Comentario", "c_channel", "def", "import" -> { 
+            case COMENTARIO, C_CHANNEL, DEF, IMPORT -> { 
                 /* Não faz nada */ 
             }
 
             // Ainda não suportados pelo gerador de IR (mas pode adicionar)
-            case "AtribuicaoIndice", "send", "receive", "return", "ChamadaFuncao", "for" -> {
+            case ATRIBUICAO_INDICE, SEND, RECEIVE, RETURN, CHAMADA_FUNCAO, FOR -> {
                 // System.err.println("Instrução não suportada pelo IRGenerator: " + stmt.getType());
             }
 
@@ -131,10 +160,9 @@ public class IRGenerator {
     private void generatePrint(ASTNode stmt) {
         // Itera sobre todos os argumentos do 'print'
         for (ASTNode arg : stmt.getChildren()) {
-            String tipo = arg.getType();
             String raw = arg.getValue();
 
-            if (tipo.equals("Valor") && raw.startsWith("\"") && raw.endsWith("\"")) {
+            if (arg.getKind() == NodeKind.VALOR && raw.startsWith("\"") && raw.endsWith("\"")) {
                 // Imprimir strings literais não é suportado pelo nosso IR simples por enquanto
                 // TODO: Adicionar suporte para strings no .data e syscall de print_string
             } else {
@@ -217,10 +245,10 @@ public class IRGenerator {
         System.out.println("[DEBUG IRGenerator] Vendo o tipo: '" + expr.getType() + "'");
         // --- FIM DEBUG ---
         
-        switch (expr.getType()) {
+        switch (expr.getKind()) {
             
             // Corrigido de "BinOP" (do seu arquivo) para "BinOp" (do erro)
-            case "BinOp": { 
+            case BIN_OP: { 
                 // 1. Gere o código para os filhos
                 Operand left = generateExpression(expr.getChildren().get(0));
                 Operand right = generateExpression(expr.getChildren().get(1));
@@ -229,7 +257,7 @@ public class IRGenerator {
                 TemporaryOperand result = newTemp();
 
                 // 3. Mapeie o operador
-                OpCode opCode = mapOperatorToOpCode(expr.getValue());
+                OpCode opCode = mapOperatorToOpCode(expr);
 
                 // 4. Adicione a instrução
                 addInstruction(opCode, result, left, right);
@@ -238,27 +266,22 @@ public class IRGenerator {
                 return result;
             }
 
-            case "Valor": {
-                String value = expr.getValue();
-                try {
-                    // Tenta ser um número (ex: "10")
-                    // Usamos Double.parseDouble para ser consistente com o interpretador
-                    Double.parseDouble(value); 
-                    return new ConstantOperand(value);
-                } catch (NumberFormatException e) {
-                    // É uma variável (ex: "x")
-                    return new VariableOperand(value);
+            case VALOR: {
+                // Mesma classificação do interpretador, feita na criação do nó
+                if (expr.getValueKind() == ValueKind.NUMBER) {
+                    return new ConstantOperand(expr.getValue()); // ex: "10"
                 }
+                return new VariableOperand(expr.getValue()); // ex: "x"
             }
 
             // Adiciona um caso para o nó do tipo "input"
-            case "input": {
+            case INPUT: {
                 TemporaryOperand temp = newTemp();
                 addInstruction(OpCode.READ, temp, null, null);
                 return temp; // Retorna o temporário onde o valor lido será armazenado
             }
 
-            case "ChamadaFuncao": {
+            case CHAMADA_FUNCAO: {
                 // Suporte para 'input()' pode estar aqui também, dependendo do Parser
                 if (expr.getValue().equals("input")) { 
                     TemporaryOperand temp = newTemp();
@@ -0,0 +1,405 @@
+package minipar.jvm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gerador mínimo de arquivos .class, só com o que o {@link JvmCompiler} usa: métodos
+ * estáticos, constantes, desvios com rótulos e tratadores de exceção.
+ *
+ * Gera a versão 49 do formato: sem StackMapTable, a verificação é feita por inferência
+ * de tipos, então os rótulos só precisam da altura da pilha para calcular max_stack.
+ */
+final class ClassEmitter {
+
+    // Opcodes usados
+    static final int ACONST_NULL = 1, ICONST_0 = 3, DCONST_0 = 14, DCONST_1 = 15, BIPUSH = 16, SIPUSH = 17;
+    static final int LDC = 18, LDC_W = 19, LDC2_W = 20;
+    static final int ILOAD = 21, DLOAD = 24, ALOAD = 25, DALOAD = 49, AALOAD = 50, BALOAD = 51;
+    static final int ISTORE = 54, DSTORE = 57, ASTORE = 58, DASTORE = 82, AASTORE = 83, BASTORE = 84;
+    static final int POP = 87, POP2 = 88, DUP = 89, DUP2 = 92;
+    static final int DADD = 99, DSUB = 103, DMUL = 107, DDIV = 111;
+    static final int I2D = 135, D2I = 142, DCMPL = 151, DCMPG = 152;
+    static final int IFEQ = 153, IFNE = 154, IFLT = 155, IFGE = 156, IFGT = 157, IFLE = 158;
+    static final int IF_ICMPEQ = 159, IF_ICMPNE = 160, IF_ACMPEQ = 165, IF_ACMPNE = 166, GOTO = 167;
+    static final int IRETURN = 172, DRETURN = 175, RETURN = 177;
+    static final int GETFIELD = 180, INVOKEVIRTUAL = 182, INVOKESPECIAL = 183, INVOKESTATIC = 184;
+    static final int NEW = 187, NEWARRAY = 188, ATHROW = 191, WIDE = 196;
+    static final int T_DOUBLE = 7;
+
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL_SUPER = 0x0010 | 0x0020;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private int poolCount = 1;
+
+    private final int thisClass;
+    private final int superClass;
+    private final List<Code> methods = new ArrayList<>();
+
+    ClassEmitter(String internalName) {
+        this.thisClass = classRef(internalName);
+        this.superClass = classRef("java/lang/Object");
+    }
+
+    Code method(String name, String descriptor) {
+        Code code = new Code(utf8(name), utf8(descriptor), argumentSlots(descriptor));
+        methods.add(code);
+        return code;
+    }
+
+    byte[] toByteArray() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            int code = utf8("Code");
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(49);
+            out.writeShort(poolCount);
+            poolBytes.writeTo(out);
+            out.writeShort(ACC_FINAL_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); // interfaces
+            out.writeShort(0); // campos
+            out.writeShort(methods.size());
+            for (Code method : methods) {
+                method.write(out, code);
+            }
+            out.writeShort(0); // atributos da classe
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ===================== Constantes =========================
+
+    private int utf8(String value) {
+        return constant("U" + value, out -> {
+            out.writeByte(1);
+            out.writeUTF(value);
+        }, 1);
+    }
+
+    private int classRef(String internalName) {
+        int name = utf8(internalName);
+        return constant("C" + internalName, out -> {
+            out.writeByte(7);
+            out.writeShort(name);
+        }, 1);
+    }
+
+    private int string(String value) {
+        int utf = utf8(value);
+        return constant("S" + value, out -> {
+            out.writeByte(8);
+            out.writeShort(utf);
+        }, 1);
+    }
+
+    private int doubleConstant(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        return constant("D" + bits, out -> {
+            out.writeByte(6);
+            out.writeLong(bits);
+        }, 2);
+    }
+
+    private int member(int tag, String owner, String name, String descriptor) {
+        int owning = classRef(owner);
+        int nameUtf = utf8(name);
+        int descUtf = utf8(descriptor);
+        int nameAndType = constant("N" + name + ":" + descriptor, out -> {
+            out.writeByte(12);
+            out.writeShort(nameUtf);
+            out.writeShort(descUtf);
+        }, 1);
+        return constant(tag + owner + "." + name + ":" + descriptor, out -> {
+            out.writeByte(tag);
+            out.writeShort(owning);
+            out.writeShort(nameAndType);
+        }, 1);
+    }
+
+    private interface Entry {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private int constant(String key, Entry entry, int slots) {
+        Integer index = constants.get(key);
+        if (index != null) return index;
+        if (poolCount + slots > 0xFFFF) throw new IllegalStateException("Tabela de constantes cheia");
+        try {
+            entry.write(pool);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        int assigned = poolCount;
+        poolCount += slots;
+        constants.put(key, assigned);
+        return assigned;
+    }
+
+    /** Posições de variável local ocupadas pelos parâmetros de um método estático. */
+    private static int argumentSlots(String descriptor) {
+        int slots = 0;
+        for (int i = 1; descriptor.charAt(i) != ')'; i++) {
+            char c = descriptor.charAt(i);
+            if (c == 'D' || c == 'J') {
+                slots += 2;
+            } else {
+                slots++;
+                while (descriptor.charAt(i) == '[') i++;
+                if (descriptor.charAt(i) == 'L') i = descriptor.indexOf(';', i);
+            }
+        }
+        return slots;
+    }
+
+    /** Mudança na pilha (em palavras) de uma chamada: argumentos saem, retorno entra. */
+    private static int invokeDelta(String descriptor, boolean hasReceiver) {
+        int delta = -argumentSlots(descriptor) - (hasReceiver ? 1 : 0);
+        char ret = descriptor.charAt(descriptor.indexOf(')') + 1);
+        return delta + (ret == 'V' ? 0 : ret == 'D' || ret == 'J' ? 2 : 1);
+    }
+
+    // ===================== Código de um método =========================
+
+    private record Handler(Label start, Label end, Label handler, int type) {}
+
+    static final class Label {
+        private int position = -1;
+        private int stack = -1;
+        private final List<Integer> fixups = new ArrayList<>();
+    }
+
+    final class Code {
+        private final int name;
+        private final int descriptor;
+        private byte[] code = new byte[256];
+        private int size;
+        private int stack;
+        private int maxStack;
+        private int locals;
+        private int maxLocals;
+        private boolean reachable = true;
+        private final List<Handler> handlers = new ArrayList<>();
+
+        private Code(int name, int descriptor, int argumentSlots) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.locals = argumentSlots;
+            this.maxLocals = argumentSlots;
+        }
+
+        /** Reserva posições de variável local (2 para double). */
+        int allocate(int slots) {
+            int slot = locals;
+            locals += slots;
+            if (locals > maxLocals) maxLocals = locals;
+            return slot;
+        }
+
+        /** Posição atual das locais, para liberar as temporárias de uma instrução. */
+        int mark() {
+            return locals;
+        }
+
+        void release(int mark) {
+            locals = mark;
+        }
+
+        void op(int opcode, int stackDelta) {
+            byte1(opcode);
+            adjust(stackDelta);
+            if (opcode == GOTO || opcode == RETURN || opcode == IRETURN || opcode == DRETURN || opcode == ATHROW) {
+                reachable = false;
+            }
+        }
+
+        void iconst(int value) {
+            if (value >= -1 && value <= 5) {
+                byte1(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                byte1(BIPUSH);
+                byte1(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                byte1(SIPUSH);
+                byte2(value);
+            } else {
+                throw new IllegalStateException("Constante inteira fora do alcance: " + value);
+            }
+            adjust(1);
+        }
+
+        void dconst(double value) {
+            if (Double.doubleToRawLongBits(value) == 0L) {
+                byte1(DCONST_0);
+            } else if (value == 1.0) {
+                byte1(DCONST_1);
+            } else {
+                byte1(LDC2_W);
+                byte2(doubleConstant(value));
+            }
+            adjust(2);
+        }
+
+        void ldc(String value) {
+            if (value == null) {
+                op(ACONST_NULL, 1);
+                return;
+            }
+            int index = string(value);
+            if (index < 256) {
+                byte1(LDC);
+                byte1(index);
+            } else {
+                byte1(LDC_W);
+                byte2(index);
+            }
+            adjust(1);
+        }
+
+        void load(int opcode, int slot) {
+            local(opcode, slot);
+            adjust(opcode == DLOAD ? 2 : 1);
+        }
+
+        void store(int opcode, int slot) {
+            local(opcode, slot);
+            adjust(opcode == DSTORE ? -2 : -1);
+        }
+
+        private void local(int opcode, int slot) {
+            if (slot < 256) {
+                byte1(opcode);
+                byte1(slot);
+            } else {
+                byte1(WIDE);
+                byte1(opcode);
+                byte2(slot);
+            }
+        }
+
+        void invoke(int opcode, String owner, String methodName, String methodDescriptor) {
+            byte1(opcode);
+            byte2(member(10, owner, methodName, methodDescriptor));
+            adjust(invokeDelta(methodDescriptor, opcode != INVOKESTATIC));
+        }
+
+        void getfield(String owner, String fieldName, String fieldDescriptor) {
+            byte1(GETFIELD);
+            byte2(member(9, owner, fieldName, fieldDescriptor));
+            char c = fieldDescriptor.charAt(0);
+            adjust(c == 'D' || c == 'J' ? 1 : 0);
+        }
+
+        void anew(String internalName) {
+            byte1(NEW);
+            byte2(classRef(internalName));
+            adjust(1);
+        }
+
+        void newDoubleArray() {
+            byte1(NEWARRAY);
+            byte1(T_DOUBLE);
+        }
+
+        // ===================== Desvios =========================
+
+        void jump(int opcode, Label target) {
+            int operands = opcode == GOTO ? 0
+                    : opcode >= IF_ICMPEQ && opcode <= IF_ACMPNE ? 2 : 1;
+            adjust(-operands);
+            if (target.stack < 0) target.stack = stack;
+            if (target.position >= 0) {
+                int offset = target.position - size;
+                byte1(opcode);
+                byte2(checkOffset(offset));
+            } else {
+                target.fixups.add(size);
+                byte1(opcode);
+                byte2(0);
+            }
+            if (opcode == GOTO) reachable = false;
+        }
+
+        void place(Label label) {
+            if (!reachable) {
+                stack = Math.max(label.stack, 0);
+                reachable = true;
+            } else if (label.stack < 0) {
+                label.stack = stack;
+            }
+            label.position = size;
+            for (int at : label.fixups) {
+                int offset = checkOffset(size - at);
+                code[at + 1] = (byte) (offset >> 8);
+                code[at + 2] = (byte) offset;
+            }
+            label.fixups.clear();
+        }
+
+        /** Tratador para exceções do tipo dado lançadas entre start e end. */
+        void tryCatch(Label start, Label end, Label handler, String type) {
+            handler.stack = 1;
+            handlers.add(new Handler(start, end, handler, classRef(type)));
+        }
+
+        private int checkOffset(int offset) {
+            if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                throw new IllegalStateException("Método grande demais para o compilador JVM");
+            }
+            return offset;
+        }
+
+        // ===================== Saída =========================
+
+        private void adjust(int delta) {
+            stack += delta;
+            if (stack > maxStack) maxStack = stack;
+        }
+
+        private void byte1(int value) {
+            if (size == code.length) code = Arrays.copyOf(code, code.length * 2);
+            code[size++] = (byte) value;
+        }
+
+        private void byte2(int value) {
+            byte1(value >> 8);
+            byte1(value);
+        }
+
+        private void write(DataOutputStream out, int codeAttribute) throws IOException {
+            if (size > 0xFFFF) throw new IllegalStateException("Método grande demais para o compilador JVM");
+            out.writeShort(ACC_STATIC);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+            out.writeShort(1);
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + size + 8 * handlers.size());
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(size);
+            out.write(code, 0, size);
+            out.writeShort(handlers.size());
+            for (Handler h : handlers) {
+                out.writeShort(h.start.position);
+                out.writeShort(h.end.position);
+                out.writeShort(h.handler.position);
+                out.writeShort(h.type);
+            }
+            out.writeShort(0);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package minipar.jvm;
+
+import minipar.Config;
+import minipar.FrontEnd;
+import minipar.cache.ModuleCache;
+import minipar.interpreter.Canal;
+import minipar.interpreter.GlobalTable;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.semantic.SymbolTable;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Back-end que compila a AST para bytecode JVM ({@link JvmCompiler}) e carrega o
+ * resultado como classe oculta: cada def vira um método estático sobre doubles e o
+ * JIT do HotSpot otimiza o código MiniPar diretamente.
+ *
+ * Mesma semântica e mensagens de erro do interpretador; as globais ficam na mesma
+ * {@link GlobalTable}. As linhas [DEBUG]/[THREAD] de cada bloco não são impressas.
+ *
+ * Com um {@link Linker} serve de nível compilado de outro motor: defs e laços quentes
+ * são compilados isolados ({@link #compileFunction}, {@link #compileLoop}) e executados
+ * com as funções do motor.
+ */
+public final class JvmBackend {
+
+    // Módulos importados, compartilhados por todos os back-ends e threads
+    private static final ModuleCache MODULES = new ModuleCache(Config.MODULE_CACHE_SIZE, new FrontEnd()::analyze);
+
+    final SymbolTable symbolTable;
+    final GlobalTable globals;
+    private final Scanner scanner;
+    private final Map<String, Canal> canais = new ConcurrentHashMap<>();
+    private volatile JvmContext.Binding[] functions = new JvmContext.Binding[64]; // por índice de GlobalNames
+    final Linker linker; // null: funções na tabela acima
+    private final Map<JvmProgram, JvmContext> units = new IdentityHashMap<>(); // com Linker, de uma thread só
+    double returned; // valor do return executado no último laço OSR
+
+    public JvmBackend() {
+        this(new SymbolTable(), new GlobalTable(), new Scanner(System.in));
+    }
+
+    public JvmBackend(SymbolTable symbolTable, GlobalTable globals, Scanner scanner) {
+        this(symbolTable, globals, scanner, null);
+    }
+
+    public JvmBackend(SymbolTable symbolTable, GlobalTable globals, Scanner scanner, Linker linker) {
+        this.symbolTable = symbolTable;
+        this.globals = globals;
+        this.scanner = scanner;
+        this.linker = linker;
+    }
+
+    public void execute(ASTNode root) {
+        if (root.getKind() != NodeKind.PROGRAMA) {
+            throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
+        }
+        new JvmContext(this, JvmCompiler.compile(root)).run();
+    }
+
+    // ===================== Trechos isolados =========================
+
+    /** Se o def ou a instrução pode ser compilado sozinho (sem canais, import ou PAR). */
+    public static boolean isCompilable(ASTNode node) {
+        return JvmCompiler.standalone(node);
+    }
+
+    /** Compila um def sozinho; o resultado fica guardado no nó. */
+    public static JvmProgram compileFunction(ASTNode def) {
+        return JvmCompiler.compileFunction(def);
+    }
+
+    /** Compila um while/for para entrar nele no meio (OSR); def é a função que o contém, ou null. */
+    public static JvmProgram compileLoop(ASTNode loop, ASTNode def) {
+        return JvmCompiler.compileLoop(loop, def);
+    }
+
+    /** Chama o def compilado por {@link #compileFunction}. */
+    public double invoke(JvmProgram unit, double[] args) {
+        return context(unit).invoke(0, args);
+    }
+
+    /**
+     * Continua o laço compilado por {@link #compileLoop} com as locais do frame (null fora
+     * de funções), que são atualizadas na saída. from e limit só valem para for. Retorna
+     * true se o laço executou return, com o valor em {@link #returnedValue()}.
+     */
+    public boolean enterLoop(JvmProgram unit, byte[] tags, double[] numbers, Object[] refs, double from, double limit) {
+        return context(unit).enterLoop(tags, numbers, refs, from, limit);
+    }
+
+    public double returnedValue() {
+        return returned;
+    }
+
+    // Um contexto por trecho, reaproveitado: as declarações já feitas continuam marcadas
+    private JvmContext context(JvmProgram unit) {
+        JvmContext context = units.get(unit);
+        if (context == null) {
+            context = new JvmContext(this, unit);
+            units.put(unit, context);
+        }
+        return context;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /** Variáveis globais, por nome. */
+    public Map<String, Object> getMemory() {
+        return globals;
+    }
+
+    // ===================== Funções =========================
+
+    JvmContext.Binding function(int nameId) {
+        JvmContext.Binding[] current = functions;
+        return nameId < current.length ? current[nameId] : null;
+    }
+
+    synchronized void define(JvmContext.Binding binding) {
+        for (String parametro : binding.function.params) {
+            declare(parametro, "int");
+        }
+        int id = binding.function.nameId;
+        JvmContext.Binding[] current = functions;
+        if (id >= current.length) current = Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+        current[id] = binding;
+        functions = current;
+    }
+
+    void declare(String variavel, String tipo) {
+        if (!symbolTable.isDeclared(variavel)) {
+            symbolTable.declare(variavel, tipo);
+        }
+    }
+
+    // ===================== Entrada e canais =========================
+
+    double readInput() {
+        System.out.print("Entrada: ");
+        String line = scanner.nextLine();
+        try {
+            return Double.parseDouble(line);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor de entrada inválido: " + line);
+        }
+    }
+
+    void declareChannel(ASTNode stmt) {
+        String canal = stmt.getValue();
+        String comp1 = stmt.getChildren().get(0).getValue();
+        String comp2 = stmt.getChildren().get(1).getValue();
+
+        symbolTable.declare(canal, "canal");
+        symbolTable.declare(comp1, "computador");
+        symbolTable.declare(comp2, "computador");
+
+        Canal c = new Canal(canal, Canal.proximaPorta());
+        canais.put(canal, c);
+
+        System.out.println("Canal criado: " + canal + " entre " + comp1 + " e " + comp2 + " na porta " + c.getPorta());
+    }
+
+    Canal channel(String canal) {
+        Canal c = canais.get(canal);
+        if (c == null) throw new RuntimeException("Canal '" + canal + "' não existe");
+        return c;
+    }
+
+    // ===================== Import =========================
+
+    void importModule(String path) {
+        try {
+            ASTNode importedAst = MODULES.load(Path.of(path));
+            if (importedAst.getKind() != NodeKind.PROGRAMA) {
+                throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
+            }
+            new JvmContext(this, JvmCompiler.compile(importedAst)).run();
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao importar arquivo '" + path + "': " + e.getMessage(), e);
+        }
+    }
+}
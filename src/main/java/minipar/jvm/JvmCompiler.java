@@ -0,0 +1,928 @@
+package minipar.jvm;
+
+import minipar.interpreter.GlobalNames;
+import minipar.interpreter.Tag;
+import minipar.jvm.ClassEmitter.Code;
+import minipar.jvm.ClassEmitter.Label;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.parser.ValueKind;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static minipar.jvm.ClassEmitter.*;
+
+/**
+ * Compila a AST analisada para uma classe JVM oculta. Cada bloco SEQ vira um método
+ * (JvmContext) void e cada def um método estático (JvmContext, double...) double, com
+ * parâmetros e locais em variáveis locais da JVM. Globais, listas, canais e E/S passam
+ * por métodos do {@link JvmContext}.
+ *
+ * Uma chamada vai direto ao método do def (invokestatic) quando ele é a definição atual
+ * do nome; senão passa pela tabela de funções, como no interpretador. Erros que o
+ * interpretador só detecta ao executar viram chamadas a JvmContext.fail no mesmo ponto.
+ */
+final class JvmCompiler {
+
+    private static final String CLASS = "minipar/jvm/Programa";
+    private static final String CONTEXT = "minipar/jvm/JvmContext";
+    private static final String BLOCK = "(L" + CONTEXT + ";)V";
+    private static final String OSR = "(L" + CONTEXT + ";[B[D[Ljava/lang/Object;DD)Z";
+    private static final int OSR_TAGS = 1, OSR_NUMBERS = 2, OSR_REFS = 3, OSR_FROM = 4, OSR_LIMIT = 6;
+    private static final String BUILDER = "java/lang/StringBuilder";
+
+    private final ClassEmitter emitter = new ClassEmitter(CLASS);
+    private final List<Object> pool = new ArrayList<>();
+    private final List<String> declarationNames = new ArrayList<>();
+    private final List<String> declarationTypes = new ArrayList<>();
+    private final Map<ASTNode, Integer> defIndex = new IdentityHashMap<>();
+    private final List<ASTNode> defs = new ArrayList<>();
+    private final Map<String, List<Integer>> defsByName = new HashMap<>();
+    private final List<String[]> branches = new ArrayList<>();
+    private int blocks;
+    private final boolean trace; // defs imprimem as linhas [DEBUG]/[THREAD] do interpretador
+
+    private JvmCompiler(boolean trace) {
+        this.trace = trace;
+    }
+
+    /** Programa compilado, guardado no nó raiz para as próximas execuções. */
+    static JvmProgram compile(ASTNode root) {
+        if (root.getCache() instanceof JvmProgram cached) return cached;
+        JvmProgram program = new JvmCompiler(false).program(root);
+        root.setCache(program);
+        return program;
+    }
+
+    /**
+     * Um def compilado sozinho, como um programa de um bloco; guardado no próprio nó.
+     * A função 0 do programa é ele. Como o def substitui o interpretado (execução em
+     * níveis), cada chamada imprime as mesmas linhas de bloco que o interpretador.
+     */
+    static JvmProgram compileFunction(ASTNode def) {
+        if (def.getCache() instanceof JvmProgram cached) return cached;
+        requireStandalone(def);
+        ASTNode root = new ASTNode(NodeKind.PROGRAMA, null);
+        ASTNode block = new ASTNode(NodeKind.SEQ, null);
+        block.addChild(def);
+        root.addChild(block);
+        JvmProgram program = new JvmCompiler(true).program(root);
+        def.setCache(program);
+        return program;
+    }
+
+    /**
+     * Laço para substituição na pilha (OSR), guardado no próprio nó. O método de entrada
+     * recebe o frame do interpretador (etiquetas, números e listas, na ordem de slots do
+     * ScopeResolver para o def que contém o laço; null fora de funções), continua o laço
+     * a partir do teste da condição e devolve as locais ao frame. Um for recomeça no
+     * contador e no limite dados. Retorna true se o laço executou return; o valor fica
+     * no back-end.
+     */
+    static JvmProgram compileLoop(ASTNode loop, ASTNode def) {
+        if (loop.getCache() instanceof JvmProgram cached) return cached;
+        requireStandalone(loop);
+        JvmProgram program = new JvmCompiler(true).osr(loop, def);
+        loop.setCache(program);
+        return program;
+    }
+
+    private static void requireStandalone(ASTNode node) {
+        if (!standalone(node)) {
+            throw new RuntimeException("Trecho não compilável isolado: " + node.getType());
+        }
+    }
+
+    /**
+     * Se o trecho pode rodar fora do programa: canais e imports dependem do estado do
+     * motor que executa o resto do programa.
+     */
+    static boolean standalone(ASTNode node) {
+        switch (node.getKind()) {
+            case C_CHANNEL, SEND, RECEIVE, IMPORT, PAR -> { return false; }
+            default -> {}
+        }
+        for (ASTNode child : node.getChildren()) {
+            if (!standalone(child)) return false;
+        }
+        return true;
+    }
+
+    private JvmProgram program(ASTNode root) {
+        collectDefs(root);
+
+        Code main = emitter.method("main", BLOCK);
+        for (ASTNode block : root.getChildren()) {
+            block(main, block);
+        }
+        main.op(RETURN, 0);
+        for (int k = 0; k < defs.size(); k++) {
+            function(k, defs.get(k));
+        }
+        return load(emitter.toByteArray(), "main", MethodType.methodType(void.class, JvmContext.class));
+    }
+
+    private JvmProgram osr(ASTNode loop, ASTNode def) {
+        collectDefs(loop);
+
+        Code code = emitter.method("osr", OSR);
+        Map<String, Local> locals = new LinkedHashMap<>();
+        if (def != null) {
+            ASTNode body = body(def);
+            Set<String> lists = new HashSet<>();
+            collectLists(body, lists);
+            List<String> names = new ArrayList<>(List.of(params(def)));
+            collectLocals(body, names);
+            for (String name : names) {
+                if (locals.containsKey(name)) continue;
+                int index = locals.size();
+                Local local = new Local(code.allocate(2), GlobalNames.id(name));
+                local.tag = code.allocate(1);
+                code.load(ALOAD, OSR_TAGS);
+                code.iconst(index);
+                code.op(BALOAD, -1);
+                code.store(ISTORE, local.tag);
+                code.load(ALOAD, OSR_NUMBERS);
+                code.iconst(index);
+                code.op(DALOAD, 0);
+                code.store(DSTORE, local.number);
+                if (lists.contains(name)) {
+                    local.ref = code.allocate(1);
+                    code.load(ALOAD, OSR_REFS);
+                    code.iconst(index);
+                    code.op(AALOAD, -1);
+                    code.store(ASTORE, local.ref);
+                }
+                locals.put(name, local);
+            }
+        }
+
+        MethodCompiler compiler = new MethodCompiler(code, locals, def != null);
+        compiler.resume = loop;
+        compiler.statement(loop);
+        compiler.writeBack();
+        code.iconst(0);
+        code.op(IRETURN, -1);
+        for (int k = 0; k < defs.size(); k++) {
+            function(k, defs.get(k));
+        }
+        return load(emitter.toByteArray(), "osr", MethodType.methodType(boolean.class, JvmContext.class,
+                byte[].class, double[].class, Object[].class, double.class, double.class));
+    }
+
+    private JvmProgram load(byte[] bytes, String entry, MethodType entryType) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            Class<?> type = lookup.lookupClass();
+            MethodHandle main = lookup.findStatic(type, entry, entryType);
+
+            MethodHandle[][] ramos = new MethodHandle[branches.size()][];
+            for (int i = 0; i < ramos.length; i++) {
+                String[] names = branches.get(i);
+                ramos[i] = new MethodHandle[names.length];
+                for (int j = 0; j < names.length; j++) {
+                    ramos[i][j] = lookup.findStatic(type, names[j], MethodType.methodType(void.class, JvmContext.class));
+                }
+            }
+
+            JvmFunction[] functions = new JvmFunction[defs.size()];
+            for (int k = 0; k < functions.length; k++) {
+                String[] params = params(defs.get(k));
+                MethodType signature = MethodType.methodType(double.class, JvmContext.class);
+                signature = signature.appendParameterTypes(Collections.nCopies(params.length, double.class));
+                MethodHandle method = lookup.findStatic(type, methodName(k), signature);
+                functions[k] = new JvmFunction(defs.get(k), params, method.asSpreader(double[].class, params.length));
+            }
+            return new JvmProgram(main, ramos, functions, pool.toArray(),
+                    declarationNames.toArray(new String[0]), declarationTypes.toArray(new String[0]));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Falha ao carregar o programa compilado", e);
+        }
+    }
+
+    // ===================== Defs =========================
+
+    /** Numera os defs com corpo, em pré-ordem, antes de compilar as chamadas. */
+    private void collectDefs(ASTNode node) {
+        if (node.getKind() == NodeKind.DEF && body(node) != null) {
+            int k = defs.size();
+            defs.add(node);
+            defIndex.put(node, k);
+            defsByName.computeIfAbsent(node.getValue(), n -> new ArrayList<>()).add(k);
+        }
+        for (ASTNode child : node.getChildren()) {
+            collectDefs(child);
+        }
+    }
+
+    private static String[] params(ASTNode def) {
+        List<String> params = new ArrayList<>();
+        for (ASTNode child : def.getChildren()) {
+            if (child.getKind() != NodeKind.PARAM) break;
+            params.add(child.getValue());
+        }
+        return params.toArray(new String[0]);
+    }
+
+    private static ASTNode body(ASTNode def) {
+        for (ASTNode child : def.getChildren()) {
+            if (child.getKind() != NodeKind.PARAM) return child;
+        }
+        return null;
+    }
+
+    private static String methodName(int k) {
+        return "def" + k;
+    }
+
+    private static String descriptor(int paramCount) {
+        return "(L" + CONTEXT + ";" + "D".repeat(paramCount) + ")D";
+    }
+
+    private void function(int k, ASTNode def) {
+        String[] params = params(def);
+        ASTNode body = body(def);
+        Code code = emitter.method(methodName(k), descriptor(params.length));
+        if (trace) {
+            code.ldc(body.getType());
+            code.invoke(INVOKESTATIC, CONTEXT, "enterBlock", "(Ljava/lang/String;)V");
+        }
+
+        // Mesmas regras do ScopeResolver: parâmetros, depois nomes atribuídos no corpo
+        Set<String> lists = new HashSet<>();
+        collectLists(body, lists);
+        Map<String, Local> locals = new LinkedHashMap<>();
+        for (int i = 0; i < params.length; i++) {
+            if (locals.containsKey(params[i])) continue;
+            Local local = new Local(1 + 2 * i, GlobalNames.id(params[i]));
+            if (lists.contains(params[i])) {
+                local.tag = code.allocate(1);
+                local.ref = code.allocate(1);
+                code.iconst(Tag.NUMBER);
+                code.store(ISTORE, local.tag);
+                code.op(ACONST_NULL, 1);
+                code.store(ASTORE, local.ref);
+            }
+            locals.put(params[i], local);
+        }
+        List<String> names = new ArrayList<>();
+        collectLocals(body, names);
+        for (String name : names) {
+            if (locals.containsKey(name)) continue;
+            Local local = new Local(code.allocate(2), GlobalNames.id(name));
+            local.tag = code.allocate(1);
+            code.dconst(0);
+            code.store(DSTORE, local.number);
+            code.iconst(Tag.EMPTY);
+            code.store(ISTORE, local.tag);
+            if (lists.contains(name)) {
+                local.ref = code.allocate(1);
+                code.op(ACONST_NULL, 1);
+                code.store(ASTORE, local.ref);
+            }
+            locals.put(name, local);
+        }
+
+        new MethodCompiler(code, locals, true).statements(body);
+        code.dconst(0);
+        code.op(DRETURN, -2);
+    }
+
+    private static void collectLocals(ASTNode node, List<String> names) {
+        switch (node.getKind()) {
+            case DEF -> { return; }
+            case VARIAVEL, FOR -> names.add(node.getValue());
+            default -> {}
+        }
+        for (ASTNode child : node.getChildren()) {
+            collectLocals(child, names);
+        }
+    }
+
+    /** Nomes que recebem uma lista no corpo: só esses precisam de referência. */
+    private static void collectLists(ASTNode node, Set<String> lists) {
+        if (node.getKind() == NodeKind.DEF) return;
+        if (node.getKind() == NodeKind.ATRIBUICAO && node.getChildren().get(1).getKind() == NodeKind.LISTA) {
+            lists.add(node.getChildren().get(0).getValue());
+        }
+        for (ASTNode child : node.getChildren()) {
+            collectLists(child, lists);
+        }
+    }
+
+    /** Local de um def: número, etiqueta (ausente em parâmetro só numérico) e lista. */
+    private static final class Local {
+        final int number;
+        final int id; // global de mesmo nome: leitura antes da primeira escrita e mensagens
+        int tag = -1;
+        int ref = -1;
+
+        Local(int number, int id) {
+            this.number = number;
+            this.id = id;
+        }
+    }
+
+    // ===================== Blocos =========================
+
+    private void block(Code code, ASTNode block) {
+        switch (block.getKind()) {
+            case SEQ, BLOCO -> {
+                String name = "bloco" + blocks++;
+                Code method = emitter.method(name, BLOCK);
+                new MethodCompiler(method, Map.of(), false).statements(block);
+                method.op(RETURN, 0);
+                code.load(ALOAD, 0);
+                code.invoke(INVOKESTATIC, CLASS, name, BLOCK);
+            }
+            case PAR -> {
+                List<ASTNode> children = block.getChildren();
+                int index = branches.size();
+                String[] names = new String[children.size()];
+                branches.add(names);
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = "ramo" + index + "_" + i;
+                    Code method = emitter.method(names[i], BLOCK);
+                    block(method, children.get(i));
+                    method.op(RETURN, 0);
+                }
+                code.load(ALOAD, 0);
+                code.iconst(index);
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "parallel", "(I)V");
+            }
+            default -> {
+                fail(code, "Tipo de bloco desconhecido: " + block.getType());
+                code.op(POP2, -2);
+            }
+        }
+    }
+
+    private void fail(Code code, String message) {
+        code.load(ALOAD, 0);
+        code.iconst(poolIndex(message));
+        code.invoke(INVOKEVIRTUAL, CONTEXT, "fail", "(I)D");
+    }
+
+    private int poolIndex(Object value) {
+        pool.add(value);
+        return pool.size() - 1;
+    }
+
+    private int declaration(String name, String type) {
+        declarationNames.add(name);
+        declarationTypes.add(type);
+        return declarationNames.size() - 1;
+    }
+
+    // ===================== Instruções e expressões =========================
+
+    private final class MethodCompiler {
+
+        private final Code code;
+        private final Map<String, Local> locals;
+        private final boolean inFunction;
+        ASTNode resume; // laço de entrada de um método OSR
+
+        MethodCompiler(Code code, Map<String, Local> locals, boolean inFunction) {
+            this.code = code;
+            this.locals = locals;
+            this.inFunction = inFunction;
+        }
+
+        void statements(ASTNode block) {
+            for (ASTNode stmt : block.getChildren()) {
+                int mark = code.mark();
+                statement(stmt);
+                code.release(mark);
+            }
+        }
+
+        private void statement(ASTNode stmt) {
+            switch (stmt.getKind()) {
+                case ATRIBUICAO        -> assignment(stmt);
+                case ATRIBUICAO_INDICE -> indexAssignment(stmt);
+                case COMENTARIO        -> {}
+                case C_CHANNEL         -> context("channel", poolIndex(stmt));
+                case SEND              -> send(stmt);
+                case RECEIVE           -> receive(stmt);
+                case PRINT             -> print(stmt);
+                case IF                -> ifStatement(stmt);
+                case WHILE             -> whileStatement(stmt);
+                case FOR               -> forStatement(stmt);
+                case DEF               -> def(stmt);
+                case RETURN            -> returnStatement(stmt);
+                case CHAMADA_FUNCAO    -> {
+                    call(stmt);
+                    code.op(POP2, -2);
+                }
+                case IMPORT            -> context("importModule", poolIndex(stmt.getValue()));
+                default                -> {
+                    fail(code, "Instrução não suportada: " + stmt.getType());
+                    code.op(POP2, -2);
+                }
+            }
+        }
+
+        /** ctx.method(int) void */
+        private void context(String method, int operand) {
+            code.load(ALOAD, 0);
+            code.iconst(operand);
+            code.invoke(INVOKEVIRTUAL, CONTEXT, method, "(I)V");
+        }
+
+        private void declare(String name, String type) {
+            context("declare", declaration(name, type));
+        }
+
+        private void assignment(ASTNode stmt) {
+            ASTNode target = stmt.getChildren().get(0);
+            ASTNode expr = stmt.getChildren().get(1);
+            String name = target.getValue();
+            Local local = locals.get(name);
+
+            if (expr.getKind() == NodeKind.LISTA) {
+                if (local == null) {
+                    code.load(ALOAD, 0);
+                    code.iconst(GlobalNames.id(name));
+                }
+                newList(expr.getChildren());
+                if (local == null) {
+                    code.invoke(INVOKEVIRTUAL, CONTEXT, "setGlobalList", "(ILjava/lang/Object;)V");
+                } else {
+                    code.store(ASTORE, local.ref);
+                    code.iconst(Tag.REF);
+                    code.store(ISTORE, local.tag);
+                }
+                declare(name, "lista");
+            } else {
+                if (local == null) {
+                    code.load(ALOAD, 0);
+                    code.iconst(GlobalNames.id(name));
+                    expr(expr);
+                    code.invoke(INVOKEVIRTUAL, CONTEXT, "setGlobal", "(ID)V");
+                } else {
+                    expr(expr);
+                    storeLocal(local);
+                }
+                declare(name, "int");
+            }
+        }
+
+        /** Número no topo da pilha vai para a local. */
+        private void storeLocal(Local local) {
+            storeLocal(local, Tag.NUMBER);
+        }
+
+        private void storeLocal(Local local, byte tag) {
+            code.store(DSTORE, local.number);
+            if (local.tag >= 0) {
+                code.iconst(tag);
+                code.store(ISTORE, local.tag);
+            }
+            if (local.ref >= 0) {
+                code.op(ACONST_NULL, 1);
+                code.store(ASTORE, local.ref);
+            }
+        }
+
+        /** ctx.list(double[]) com os itens avaliados em ordem. */
+        private void newList(List<ASTNode> items) {
+            code.load(ALOAD, 0);
+            code.iconst(items.size());
+            code.newDoubleArray();
+            for (int i = 0; i < items.size(); i++) {
+                code.op(DUP, 1);
+                code.iconst(i);
+                expr(items.get(i));
+                code.op(DASTORE, -4);
+            }
+            code.invoke(INVOKEVIRTUAL, CONTEXT, "list", "([D)Ljava/lang/Object;");
+        }
+
+        private void indexAssignment(ASTNode stmt) {
+            int index = code.allocate(2);
+            int value = code.allocate(2);
+            expr(stmt.getChildren().get(0));
+            code.store(DSTORE, index);
+            expr(stmt.getChildren().get(1));
+            code.store(DSTORE, value);
+
+            String name = stmt.getValue();
+            Local local = locals.get(name);
+            int id = GlobalNames.id(name);
+            code.load(ALOAD, 0);
+            code.load(ALOAD, 0);
+            if (local == null) {
+                code.iconst(id);
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "globalObject", "(I)Ljava/lang/Object;");
+            } else {
+                if (local.tag >= 0) code.load(ILOAD, local.tag);
+                else code.iconst(Tag.NUMBER);
+                code.load(DLOAD, local.number);
+                if (local.ref >= 0) code.load(ALOAD, local.ref);
+                else code.op(ACONST_NULL, 1);
+                code.iconst(id);
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "localObject", "(IDLjava/lang/Object;I)Ljava/lang/Object;");
+            }
+            code.iconst(id);
+            code.load(DLOAD, index);
+            code.load(DLOAD, value);
+            code.invoke(INVOKEVIRTUAL, CONTEXT, "setIndex", "(Ljava/lang/Object;IDD)V");
+        }
+
+        private void send(ASTNode stmt) {
+            int canal = poolIndex(stmt.getValue());
+            context("checkChannel", canal);
+            code.load(ALOAD, 0);
+            code.iconst(canal);
+            expr(stmt.getChildren().get(0));
+            code.invoke(INVOKEVIRTUAL, CONTEXT, "send", "(ID)V");
+        }
+
+        private void receive(ASTNode stmt) {
+            String name = stmt.getChildren().get(0).getValue();
+            int id = GlobalNames.id(name);
+            int value = code.allocate(2);
+            code.load(ALOAD, 0);
+            code.iconst(poolIndex(stmt.getValue()));
+            code.invoke(INVOKEVIRTUAL, CONTEXT, "receive", "(I)D");
+            code.store(DSTORE, value);
+
+            Local local = locals.get(name);
+            if (local == null) {
+                code.load(ALOAD, 0);
+                code.iconst(id);
+                code.load(DLOAD, value);
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "setGlobal", "(ID)V");
+            } else {
+                code.load(DLOAD, value);
+                storeLocal(local);
+            }
+            code.load(ALOAD, 0);
+            code.iconst(id);
+            code.load(DLOAD, value);
+            code.invoke(INVOKEVIRTUAL, CONTEXT, "received", "(ID)V");
+        }
+
+        private void print(ASTNode stmt) {
+            int output = code.allocate(1);
+            int value = code.allocate(2);
+            code.anew(BUILDER);
+            code.op(DUP, 1);
+            code.invoke(INVOKESPECIAL, BUILDER, "<init>", "()V");
+            code.store(ASTORE, output);
+
+            for (ASTNode arg : stmt.getChildren()) {
+                String raw = arg.getValue();
+                if (arg.getKind() == NodeKind.VALOR && raw.startsWith("\"") && raw.endsWith("\"")) {
+                    append(output, raw.substring(1, raw.length() - 1));
+                } else {
+                    // Falha na avaliação exibe o texto do argumento, como o interpretador
+                    Label start = new Label(), end = new Label(), handler = new Label(), next = new Label();
+                    code.tryCatch(start, end, handler, "java/lang/RuntimeException");
+                    code.place(start);
+                    expr(arg);
+                    code.store(DSTORE, value);
+                    code.place(end);
+                    code.load(ALOAD, output);
+                    code.load(DLOAD, value);
+                    code.invoke(INVOKEVIRTUAL, BUILDER, "append", "(D)L" + BUILDER + ";");
+                    code.op(POP, -1);
+                    code.jump(GOTO, next);
+                    code.place(handler);
+                    code.op(POP, -1);
+                    append(output, raw);
+                    code.place(next);
+                }
+                append(output, " ");
+            }
+            code.load(ALOAD, output);
+            code.invoke(INVOKESTATIC, CONTEXT, "print", "(L" + BUILDER + ";)V");
+        }
+
+        private void append(int output, String text) {
+            code.load(ALOAD, output);
+            code.ldc(text);
+            code.invoke(INVOKEVIRTUAL, BUILDER, "append", "(Ljava/lang/String;)L" + BUILDER + ";");
+            code.op(POP, -1);
+        }
+
+        private void ifStatement(ASTNode stmt) {
+            List<ASTNode> children = stmt.getChildren();
+            Label otherwise = new Label();
+            condition(children.get(0), otherwise);
+            statements(children.get(1));
+            if (children.size() > 2) {
+                Label end = new Label();
+                code.jump(GOTO, end);
+                code.place(otherwise);
+                statements(children.get(2));
+                code.place(end);
+            } else {
+                code.place(otherwise);
+            }
+        }
+
+        private void whileStatement(ASTNode stmt) {
+            Label loop = new Label(), exit = new Label();
+            code.place(loop);
+            condition(stmt.getChildren().get(0), exit);
+            statements(stmt.getChildren().get(1));
+            code.jump(GOTO, loop);
+            code.place(exit);
+        }
+
+        private void forStatement(ASTNode stmt) {
+            String name = stmt.getValue();
+            Local local = locals.get(name);
+            int counter = code.allocate(2);
+            int limit = code.allocate(2);
+            if (stmt == resume) {
+                // OSR: contador e limite vêm do interpretador, já avaliados
+                code.load(DLOAD, OSR_FROM);
+                code.store(DSTORE, counter);
+                code.load(DLOAD, OSR_LIMIT);
+                code.store(DSTORE, limit);
+            } else {
+                expr(stmt.getChildren().get(0));
+                code.op(D2I, -1);
+                code.op(I2D, 1);
+                code.store(DSTORE, counter);
+                expr(stmt.getChildren().get(1));
+                code.store(DSTORE, limit);
+            }
+
+            // Teste na entrada; no fim do corpo incrementa, testa e volta
+            Label body = new Label(), exit = new Label();
+            code.load(DLOAD, counter);
+            code.load(DLOAD, limit);
+            code.op(DCMPG, -3);
+            code.jump(IFGT, exit);
+            code.place(body);
+            if (local == null) {
+                code.load(ALOAD, 0);
+                code.iconst(GlobalNames.id(name));
+                code.load(DLOAD, counter);
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "setGlobalInt", "(ID)V");
+            } else {
+                code.load(DLOAD, counter);
+                storeLocal(local, Tag.INT);
+            }
+            declare(name, "int");
+            statements(stmt.getChildren().get(2));
+            code.load(DLOAD, counter);
+            code.dconst(1);
+            code.op(DADD, -2);
+            code.op(DUP2, 2);
+            code.store(DSTORE, counter);
+            code.load(DLOAD, limit);
+            code.op(DCMPG, -3);
+            code.jump(IFLE, body);
+            code.place(exit);
+        }
+
+        private void def(ASTNode stmt) {
+            Integer k = defIndex.get(stmt);
+            if (k == null) {
+                fail(code, "Função sem corpo: " + stmt.getValue());
+                code.op(POP2, -2);
+            } else {
+                context("define", k);
+            }
+        }
+
+        private void returnStatement(ASTNode stmt) {
+            if (inFunction && resume != null) {
+                // OSR dentro de função: o frame é descartado pelo interpretador
+                code.load(ALOAD, 0);
+                expr(stmt.getChildren().get(0));
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "returned", "(D)V");
+                code.iconst(1);
+                code.op(IRETURN, -1);
+            } else if (inFunction) {
+                expr(stmt.getChildren().get(0));
+                code.op(DRETURN, -2);
+            } else {
+                code.load(ALOAD, 0);
+                expr(stmt.getChildren().get(0));
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "returnTop", "(D)V");
+            }
+        }
+
+        /** Fim do método OSR: as locais voltam para o frame do interpretador. */
+        void writeBack() {
+            int index = 0;
+            for (Local local : locals.values()) {
+                code.load(ALOAD, OSR_TAGS);
+                code.iconst(index);
+                code.load(ILOAD, local.tag);
+                code.op(BASTORE, -3);
+                code.load(ALOAD, OSR_NUMBERS);
+                code.iconst(index);
+                code.load(DLOAD, local.number);
+                code.op(DASTORE, -4);
+                code.load(ALOAD, OSR_REFS);
+                code.iconst(index);
+                if (local.ref >= 0) code.load(ALOAD, local.ref);
+                else code.op(ACONST_NULL, 1);
+                code.op(AASTORE, -3);
+                index++;
+            }
+        }
+
+        /** Desvia para target quando a condição é falsa (também com NaN). */
+        private void condition(ASTNode node, Label target) {
+            if (node.getKind() != NodeKind.BIN_OP) {
+                fail(code, "Condição inválida");
+                code.op(POP2, -2);
+                return;
+            }
+            expr(node.getChildren().get(0));
+            expr(node.getChildren().get(1));
+            Operator op = node.getOperator();
+            if (op == null || !compare(op, target)) {
+                code.op(POP2, -2);
+                code.op(POP2, -2);
+                fail(code, "Operador inválido em condição: " + node.getValue());
+                code.op(POP2, -2);
+            }
+        }
+
+        /** Compara os dois doubles do topo e desvia quando a comparação é falsa. */
+        private boolean compare(Operator op, Label target) {
+            int[] jump = switch (op) {
+                case EQ -> new int[] {DCMPL, IFNE};
+                case NE -> new int[] {DCMPL, IFEQ};
+                case LT -> new int[] {DCMPG, IFGE};
+                case GT -> new int[] {DCMPL, IFLE};
+                case LE -> new int[] {DCMPG, IFGT};
+                case GE -> new int[] {DCMPL, IFLT};
+                default -> null;
+            };
+            if (jump == null) return false;
+            code.op(jump[0], -3);
+            code.jump(jump[1], target);
+            return true;
+        }
+
+        /** Avalia a expressão e deixa o double no topo da pilha. */
+        private void expr(ASTNode node) {
+            switch (node.getKind()) {
+                case VALOR -> value(node);
+                case LISTA -> {
+                    // O valor da lista não é usado; os itens são avaliados pelos efeitos
+                    for (ASTNode item : node.getChildren()) {
+                        expr(item);
+                        code.op(POP2, -2);
+                    }
+                    code.dconst(0);
+                }
+                case INPUT -> {
+                    code.load(ALOAD, 0);
+                    code.invoke(INVOKEVIRTUAL, CONTEXT, "input", "()D");
+                }
+                case BIN_OP -> binary(node);
+                case CHAMADA_FUNCAO -> call(node);
+                default -> fail(code, "Expressão inválida: " + node.getType());
+            }
+        }
+
+        private void binary(ASTNode node) {
+            expr(node.getChildren().get(0));
+            expr(node.getChildren().get(1));
+            Operator op = node.getOperator();
+            if (op == null) {
+                code.op(POP2, -2);
+                code.op(POP2, -2);
+                fail(code, "Operador inválido: " + node.getValue());
+                return;
+            }
+            switch (op) {
+                case ADD -> code.op(DADD, -2);
+                case SUB -> code.op(DSUB, -2);
+                case MUL -> code.op(DMUL, -2);
+                case DIV -> code.invoke(INVOKESTATIC, CONTEXT, "div", "(DD)D");
+                case POW -> code.invoke(INVOKESTATIC, "java/lang/Math", "pow", "(DD)D");
+                default -> {
+                    // Comparação como valor: 1 ou 0
+                    Label otherwise = new Label(), end = new Label();
+                    compare(op, otherwise);
+                    code.dconst(1);
+                    code.jump(GOTO, end);
+                    code.place(otherwise);
+                    code.dconst(0);
+                    code.place(end);
+                }
+            }
+        }
+
+        private void value(ASTNode node) {
+            switch (node.getValueKind()) {
+                case NUMBER -> code.dconst(node.getNumber());
+                case STRING -> {
+                    String val = node.getValue();
+                    code.ldc(val.substring(1, val.length() - 1));
+                    code.invoke(INVOKESTATIC, CONTEXT, "echo", "(Ljava/lang/String;)V");
+                    code.dconst(0);
+                }
+                default -> read(node.getValue());
+            }
+        }
+
+        private void read(String name) {
+            Local local = locals.get(name);
+            if (local == null) {
+                code.load(ALOAD, 0);
+                code.iconst(GlobalNames.id(name));
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "global", "(I)D");
+                return;
+            }
+            if (local.tag < 0) {
+                code.load(DLOAD, local.number);
+                return;
+            }
+            // Sem valor ainda: enxerga a global de mesmo nome; lista não é número
+            Label empty = new Label(), done = new Label();
+            code.load(ILOAD, local.tag);
+            code.jump(IFEQ, empty);
+            Label notNumber = null;
+            if (local.ref >= 0) {
+                notNumber = new Label();
+                code.load(ILOAD, local.tag);
+                code.iconst(Tag.REF);
+                code.jump(IF_ICMPEQ, notNumber);
+            }
+            code.load(DLOAD, local.number);
+            code.jump(GOTO, done);
+            code.place(empty);
+            code.load(ALOAD, 0);
+            code.iconst(local.id);
+            code.invoke(INVOKEVIRTUAL, CONTEXT, "global", "(I)D");
+            if (notNumber != null) {
+                code.jump(GOTO, done);
+                code.place(notNumber);
+                code.load(ALOAD, 0);
+                code.iconst(local.id);
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "notNumber", "(I)D");
+            }
+            code.place(done);
+        }
+
+        /**
+         * Argumentos avaliados em ordem para locais temporárias; depois, para cada def do
+         * programa com esse nome e aridade, chamada direta se ele é a definição atual.
+         */
+        private void call(ASTNode node) {
+            String name = node.getValue();
+            int nameId = GlobalNames.id(name);
+            List<ASTNode> args = node.getChildren();
+            int[] temps = new int[args.size()];
+            for (int i = 0; i < temps.length; i++) {
+                temps[i] = code.allocate(2);
+                expr(args.get(i));
+                code.store(DSTORE, temps[i]);
+            }
+
+            Label done = new Label();
+            for (int k : defsByName.getOrDefault(name, List.of())) {
+                if (params(defs.get(k)).length != temps.length) continue;
+                Label next = new Label();
+                code.load(ALOAD, 0);
+                code.iconst(nameId);
+                code.iconst(k);
+                code.invoke(INVOKEVIRTUAL, CONTEXT, "bound", "(II)Z");
+                code.jump(IFEQ, next);
+                code.load(ALOAD, 0);
+                for (int temp : temps) code.load(DLOAD, temp);
+                code.invoke(INVOKESTATIC, CLASS, methodName(k), descriptor(temps.length));
+                code.jump(GOTO, done);
+                code.place(next);
+            }
+
+            code.load(ALOAD, 0);
+            code.iconst(nameId);
+            code.iconst(temps.length);
+            code.newDoubleArray();
+            for (int i = 0; i < temps.length; i++) {
+                code.op(DUP, 1);
+                code.iconst(i);
+                code.load(DLOAD, temps[i]);
+                code.op(DASTORE, -4);
+            }
+            code.invoke(INVOKEVIRTUAL, CONTEXT, "call", "(I[D)D");
+            code.place(done);
+        }
+    }
+}
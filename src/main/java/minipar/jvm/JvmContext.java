@@ -0,0 +1,271 @@
+package minipar.jvm;
+
+import minipar.exceptions.ReturnException;
+import minipar.interpreter.Canal;
+import minipar.interpreter.GlobalNames;
+import minipar.interpreter.GlobalTable;
+import minipar.interpreter.Tag;
+import minipar.parser.ASTNode;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado de um programa compilado numa execução: primeiro argumento de todos os
+ * métodos gerados. Os métodos daqui são chamados pelo bytecode e inlinados pelo JIT;
+ * mensagens de erro iguais às do interpretador.
+ */
+final class JvmContext {
+
+    final JvmBackend backend;
+    final JvmProgram program;
+    private final GlobalTable globals;
+    private final boolean[] declared;
+    private final Binding[] bindings;
+
+    JvmContext(JvmBackend backend, JvmProgram program) {
+        this.backend = backend;
+        this.program = program;
+        this.globals = backend.globals;
+        this.declared = new boolean[program.declarationNames.length];
+        this.bindings = new Binding[program.functions.length];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = new Binding(program.functions[i], this);
+        }
+    }
+
+    void run() {
+        try {
+            program.main.invokeExact(this);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    boolean enterLoop(byte[] tags, double[] numbers, Object[] refs, double from, double limit) {
+        try {
+            return (boolean) program.main.invokeExact(this, tags, numbers, refs, from, limit);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    // ===================== Variáveis =========================
+
+    double global(int id) {
+        byte tag = globals.tag(id);
+        if (Tag.isNumeric(tag)) return globals.number(id);
+        if (tag == Tag.EMPTY) throw new RuntimeException("Variável não declarada: " + GlobalNames.name(id));
+        return notNumber(id);
+    }
+
+    double notNumber(int id) {
+        throw new RuntimeException("Valor da variável '" + GlobalNames.name(id) + "' não é inteiro");
+    }
+
+    void setGlobal(int id, double value) {
+        globals.setNumber(id, Tag.NUMBER, value);
+    }
+
+    void setGlobalInt(int id, double value) {
+        globals.setNumber(id, Tag.INT, value);
+    }
+
+    void setGlobalList(int id, Object lista) {
+        globals.set(id, lista);
+    }
+
+    Object globalObject(int id) {
+        return globals.get(id);
+    }
+
+    /** Valor de uma local como objeto; sem valor, vale a global de mesmo nome. */
+    Object localObject(int tag, double number, Object ref, int id) {
+        return tag == Tag.EMPTY ? globals.get(id) : Tag.box((byte) tag, number, ref);
+    }
+
+    Object list(double[] items) {
+        List<Double> lista = new ArrayList<>(items.length);
+        for (double item : items) lista.add(item);
+        return lista;
+    }
+
+    void setIndex(Object objeto, int id, double index, double valor) {
+        String nome = GlobalNames.name(id);
+        if (objeto == null) throw new RuntimeException("Lista não declarada: " + nome);
+        if (!(objeto instanceof List<?>)) {
+            throw new RuntimeException("Variável '" + nome + "' não é uma lista");
+        }
+        @SuppressWarnings("unchecked")
+        List<Double> lista = (List<Double>) objeto;
+
+        int i = (int) index;
+        if (i < 0 || i >= lista.size()) {
+            throw new RuntimeException("Índice fora dos limites da lista");
+        }
+        lista.set(i, valor);
+    }
+
+    /** Declara na primeira execução da atribuição; depois a checagem é só a flag. */
+    void declare(int declaration) {
+        if (declared[declaration]) return;
+        backend.declare(program.declarationNames[declaration], program.declarationTypes[declaration]);
+        declared[declaration] = true;
+    }
+
+    static double div(double left, double right) {
+        return right == 0 ? 0 : left / right;
+    }
+
+    // ===================== Funções =========================
+
+    void define(int function) {
+        Linker linker = backend.linker;
+        if (linker != null) {
+            linker.define(program.functions[function].def);
+        } else {
+            backend.define(bindings[function]);
+        }
+    }
+
+    /** Se a chamada pode ir direto ao def dado: é a definição atual do nome. */
+    boolean bound(int nameId, int function) {
+        Linker linker = backend.linker;
+        if (linker != null) return linker.current(nameId) == program.functions[function].def;
+        return backend.function(nameId) == bindings[function];
+    }
+
+    double call(int nameId, double[] args) {
+        Linker linker = backend.linker;
+        if (linker != null) return linker.call(nameId, args);
+        Binding binding = backend.function(nameId);
+        String nome = GlobalNames.name(nameId);
+        if (binding == null) throw new RuntimeException("Função não declarada: " + nome);
+        if (binding.function.params.length != args.length) {
+            throw new RuntimeException("Número de argumentos inválido para função " + nome);
+        }
+        return binding.invoke(args);
+    }
+
+    double invoke(int function, double[] args) {
+        return bindings[function].invoke(args);
+    }
+
+    void returned(double valor) {
+        backend.returned = valor;
+    }
+
+    void returnTop(double valor) {
+        throw new ReturnException(valor); // return fora de função
+    }
+
+    double fail(int message) {
+        throw new RuntimeException((String) program.pool[message]);
+    }
+
+    /** Def registrado por um contexto: a função e o estado do programa que a definiu. */
+    static final class Binding {
+        final JvmFunction function;
+        final JvmContext owner;
+
+        Binding(JvmFunction function, JvmContext owner) {
+            this.function = function;
+            this.owner = owner;
+        }
+
+        double invoke(double[] args) {
+            try {
+                return (double) function.spread.invokeExact(owner, args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+
+    // ===================== Entrada e saída =========================
+
+    static void print(StringBuilder output) {
+        System.out.println(output.toString().trim());
+    }
+
+    /** Linhas que o Interpreter imprime ao executar o corpo (SEQ/BLOCO) de uma chamada. */
+    static void enterBlock(String tipo) {
+        String thread = Thread.currentThread().getName();
+        System.out.println("[DEBUG] Executando bloco tipo: " + tipo + " na thread " + thread);
+        System.out.println("[THREAD] Iniciando bloco em thread: " + thread);
+    }
+
+    static void echo(String texto) {
+        System.out.println(texto);
+    }
+
+    double input() {
+        return backend.readInput();
+    }
+
+    // ===================== Canais =========================
+
+    void channel(int node) {
+        backend.declareChannel((ASTNode) program.pool[node]);
+    }
+
+    void checkChannel(int name) {
+        backend.channel((String) program.pool[name]);
+    }
+
+    void send(int name, double valor) {
+        backend.channel((String) program.pool[name]).send(String.valueOf(valor));
+    }
+
+    double receive(int name) {
+        String canal = (String) program.pool[name];
+        Canal c = backend.channel(canal);
+        String recebido = c.receive();
+        try {
+            return Double.parseDouble(recebido);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor inválido recebido no canal '" + canal + "': " + recebido);
+        }
+    }
+
+    void received(int id, double valor) {
+        backend.symbolTable.declare(GlobalNames.name(id), valor == (int) valor ? "int" : "float");
+    }
+
+    // ===================== Import e PAR =========================
+
+    void importModule(int path) {
+        backend.importModule((String) program.pool[path]);
+    }
+
+    void parallel(int block) {
+        List<Thread> threads = new ArrayList<>();
+        for (MethodHandle ramo : program.branches[block]) {
+            Thread t = new Thread(() -> {
+                try {
+                    ramo.invokeExact(this);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException("Erro em thread paralela", e);
+            }
+        }
+    }
+}
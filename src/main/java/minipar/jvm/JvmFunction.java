@@ -0,0 +1,28 @@
+package minipar.jvm;
+
+import minipar.interpreter.GlobalNames;
+import minipar.parser.ASTNode;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Def compilado: um método estático (JvmContext, double...) double da classe gerada.
+ * O handle espalhado recebe os argumentos num double[], para chamadas que não puderam
+ * ser ligadas direto no bytecode.
+ */
+final class JvmFunction {
+
+    final ASTNode def;
+    final String name;
+    final int nameId;          // índice do nome no GlobalNames, chave da tabela de funções
+    final String[] params;
+    final MethodHandle spread; // (JvmContext, double[]) double
+
+    JvmFunction(ASTNode def, String[] params, MethodHandle spread) {
+        this.def = def;
+        this.name = def.getValue();
+        this.nameId = GlobalNames.id(name);
+        this.params = params;
+        this.spread = spread;
+    }
+}
@@ -0,0 +1,28 @@
+package minipar.jvm;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Programa compilado numa classe oculta. Imutável e guardado no nó raiz da AST, então
+ * execuções repetidas reaproveitam o código já otimizado pelo JIT; o estado de cada
+ * execução fica no {@link JvmContext}. Fora do pacote é só um identificador opaco.
+ */
+public final class JvmProgram {
+
+    final MethodHandle main;          // (JvmContext) void; num laço OSR, a entrada do laço
+    final MethodHandle[][] branches;  // ramos de cada bloco PAR
+    final JvmFunction[] functions;    // defs, na numeração usada pelo bytecode
+    final Object[] pool;              // textos de erro, nós de canal, caminhos de import
+    final String[] declarationNames;  // declarações na tabela de símbolos (nome, tipo)
+    final String[] declarationTypes;
+
+    JvmProgram(MethodHandle main, MethodHandle[][] branches, JvmFunction[] functions, Object[] pool,
+               String[] declarationNames, String[] declarationTypes) {
+        this.main = main;
+        this.branches = branches;
+        this.functions = functions;
+        this.pool = pool;
+        this.declarationNames = declarationNames;
+        this.declarationTypes = declarationTypes;
+    }
+}
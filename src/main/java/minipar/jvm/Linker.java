@@ -0,0 +1,20 @@
+package minipar.jvm;
+
+import minipar.parser.ASTNode;
+
+/**
+ * Tabela de funções de outro motor. Com um Linker o {@link JvmBackend} não registra
+ * funções próprias: o código compilado consulta, chama e define funções pelo motor que
+ * o promoveu (o interpretador, na execução em níveis).
+ */
+public interface Linker {
+
+    /** Nó def da definição atual do nome, ou null se não há função com esse nome. */
+    ASTNode current(int nameId);
+
+    /** Chamada a uma função que não pôde ser ligada direto no bytecode. */
+    double call(int nameId, double[] args);
+
+    /** Registro de um def executado pelo código compilado. */
+    void define(ASTNode def);
+}
@@ -0,0 +1,109 @@
+package minipar.lexer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Códigos inteiros para os lexemas fixos da linguagem (palavras-chave, operadores
+ * e delimitadores). O parser compara esses códigos em vez de Strings.
+ * Identificadores, números e strings recebem {@link #NONE}.
+ */
+public final class Lexeme {
+
+    public static final int NONE = 0;
+
+    // Palavras-chave
+    public static final int PROGRAMA_MINIPAR = 1;
+    public static final int SEQ = 2;
+    public static final int PAR = 3;
+    public static final int IF = 4;
+    public static final int ELSE = 5;
+    public static final int INPUT = 6;
+    public static final int WHILE = 7;
+    public static final int C_CHANNEL = 8;
+    public static final int PRINT = 9;
+    public static final int DEF = 10;
+    public static final int RETURN = 11;
+    public static final int FOR = 12;
+    public static final int TO = 13;
+    public static final int IMPORT = 14;
+
+    // Operadores
+    public static final int PLUS = 15;
+    public static final int MINUS = 16;
+    public static final int STAR = 17;
+    public static final int SLASH = 18;
+    public static final int CARET = 19;
+    public static final int ASSIGN = 20;
+    public static final int EQ = 21;
+    public static final int NE = 22;
+    public static final int LT = 23;
+    public static final int GT = 24;
+    public static final int LE = 25;
+    public static final int GE = 26;
+    public static final int DOT = 27;
+
+    // Delimitadores
+    public static final int LPAREN = 28;
+    public static final int RPAREN = 29;
+    public static final int LBRACKET = 30;
+    public static final int RBRACKET = 31;
+    public static final int LBRACE = 32;
+    public static final int RBRACE = 33;
+    public static final int COMMA = 34;
+
+    public static final int EOF = 35;
+
+    private static final String[] TEXT = {
+            null,
+            "programa_minipar", "SEQ", "PAR", "if", "else", "input", "while", "c_channel", "print", "def", "return", "for", "to", "import",
+            "+", "-", "*", "/", "^", "=", "==", "!=", "<", ">", "<=", ">=", ".",
+            "(", ")", "[", "]", "{", "}", ",",
+            "EOF"
+    };
+
+    private static final Map<String, Integer> CODES = new HashMap<>();
+
+    static {
+        for (int code = 1; code < TEXT.length; code++) CODES.put(TEXT[code], code);
+    }
+
+    private Lexeme() {}
+
+    /**
+     * Código do lexema com este texto, ou NONE.
+     */
+    public static int of(String text) {
+        Integer code = CODES.get(text);
+        return code == null ? NONE : code;
+    }
+
+    public static String text(int code) {
+        return TEXT[code];
+    }
+
+    public static boolean isKeyword(int code) {
+        return code >= PROGRAMA_MINIPAR && code <= IMPORT;
+    }
+
+    /**
+     * Código da palavra-chave no trecho [start, end) da fonte, sem criar Strings; NONE se não for palavra-chave.
+     */
+    static int keyword(CharSequence source, int start, int end) {
+        int length = end - start;
+        for (int code = PROGRAMA_MINIPAR; code <= IMPORT; code++) {
+            String kw = TEXT[code];
+            if (kw.length() == length && kw.charAt(0) == source.charAt(start) && regionEquals(kw, source, start)) {
+                return code;
+            }
+        }
+        return NONE;
+    }
+
+    private static boolean regionEquals(String text, CharSequence source, int start) {
+        for (int i = 1; i < text.length(); i++) {
+            if (text.charAt(i) != source.charAt(start + i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,23 @@
+package minipar.lexer;
+
+/**
+ * Modo de varredura do {@link Lexer}.
+ */
+public enum LexerMode {
+    /** Varredura caractere a caractere (padrão). */
+    SCALAR,
+    /**
+     * Usa instruções SIMD (jdk.incubator.vector) para achar o fim de sequências de espaços,
+     * comentários e identificadores. Exige "--add-modules jdk.incubator.vector"; sem o
+     * módulo, o Lexer volta silenciosamente para o modo escalar.
+     */
+    VECTOR;
+
+    private static final boolean VECTOR_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /** Modo efetivamente usado, considerando a disponibilidade do módulo de vetores. */
+    LexerMode effective() {
+        return this == VECTOR && !VECTOR_AVAILABLE ? SCALAR : this;
+    }
+}
@@ -0,0 +1,154 @@
+package minipar.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Buffer compacto de tokens em estrutura de arrays: para cada token guarda apenas
+ * tipo + código do lexema, deslocamento, tamanho e linha na fonte.
+ *
+ * Objetos {@link Token} só são criados sob demanda (ex.: mensagens de erro), e os
+ * textos de identificadores, números, strings e comentários são internados durante a
+ * tokenização: cada lexema distinto vira uma única String, referenciada por um id.
+ */
+public class PackedTokens {
+
+    private static final int TYPE_BITS = 8;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final CharSequence source;
+    private final LexemeTable lexemes = new LexemeTable();
+    private int size;
+    private int[] kinds;   // código do lexema << 8 | ordinal do TokenType
+    private int[] offsets;
+    private int[] lengths;
+    private int[] lines;
+    private int[] lexemeIds; // id na tabela de lexemas (apenas para code == NONE)
+
+    private PackedTokens(CharSequence source, int initialCapacity) {
+        this.source = source;
+        int capacity = Math.max(16, initialCapacity);
+        this.kinds = new int[capacity];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.lines = new int[capacity];
+        this.lexemeIds = new int[capacity];
+    }
+
+    /**
+     * Tokeniza a fonte inteira, terminando com EOF, como {@link Lexer#tokenize()}.
+     */
+    public static PackedTokens tokenize(CharSequence source) {
+        // Estimativa grosseira: ~1 token a cada 3 caracteres
+        PackedTokens packed = new PackedTokens(source, source.length() / 3);
+        SourceScanner scanner = new SourceScanner(source);
+        while (scanner.advance()) {
+            packed.add(scanner.type(), scanner.code(), scanner.start(), scanner.end() - scanner.start(), scanner.line());
+        }
+        packed.add(TokenType.EOF, Lexeme.EOF, source.length(), 0, scanner.eofLine());
+        packed.trim();
+        return packed;
+    }
+
+    private void trim() {
+        if (kinds.length == size) return;
+        kinds = Arrays.copyOf(kinds, size);
+        offsets = Arrays.copyOf(offsets, size);
+        lengths = Arrays.copyOf(lengths, size);
+        lines = Arrays.copyOf(lines, size);
+        lexemeIds = Arrays.copyOf(lexemeIds, size);
+    }
+
+    private void add(TokenType type, int code, int offset, int length, int line) {
+        if (size == kinds.length) {
+            int capacity = size + (size >> 1);
+            kinds = Arrays.copyOf(kinds, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            lexemeIds = Arrays.copyOf(lexemeIds, capacity);
+        }
+        kinds[size] = code << TYPE_BITS | type.ordinal();
+        offsets[size] = offset;
+        lengths[size] = length;
+        lines[size] = line;
+        if (code == Lexeme.NONE) lexemeIds[size] = lexemes.intern(source, offset, offset + length);
+        size++;
+    }
+
+    public int size() { return size; }
+    public TokenType type(int index) { return TYPES[kinds[index] & TYPE_MASK]; }
+    public int code(int index) { return kinds[index] >>> TYPE_BITS; }
+    public int offset(int index) { return offsets[index]; }
+    public int length(int index) { return lengths[index]; }
+    public int line(int index) { return lines[index]; }
+
+    /**
+     * Texto do token; constante para lexemas fixos e internado para os demais.
+     */
+    public String text(int index) {
+        int code = code(index);
+        if (code != Lexeme.NONE) return Lexeme.text(code);
+        return lexemes.text(lexemeIds[index]);
+    }
+
+    /**
+     * Materializa o token na posição informada.
+     */
+    public Token token(int index) {
+        return new Token(type(index), text(index), lines[index], code(index));
+    }
+
+    /**
+     * Tabela de internamento consultada diretamente pelo trecho da fonte,
+     * sem criar uma String quando o lexema já é conhecido.
+     */
+    private static final class LexemeTable {
+        private String[] texts = new String[128];
+        private int[] slots = new int[256]; // id + 1; 0 = vazio
+        private int count;
+
+        int intern(CharSequence source, int start, int end) {
+            int mask = slots.length - 1;
+            int slot = hash(source, start, end) & mask;
+            int entry;
+            while ((entry = slots[slot]) != 0) {
+                if (matches(texts[entry - 1], source, start, end)) return entry - 1;
+                slot = (slot + 1) & mask;
+            }
+            if (count == texts.length) texts = Arrays.copyOf(texts, count * 2);
+            texts[count] = source.subSequence(start, end).toString();
+            slots[slot] = ++count;
+            if (count * 2 > slots.length) rehash();
+            return count - 1;
+        }
+
+        String text(int id) {
+            return texts[id];
+        }
+
+        private static int hash(CharSequence source, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) h = 31 * h + source.charAt(i);
+            return h ^ (h >>> 16);
+        }
+
+        private static boolean matches(String text, CharSequence source, int start, int end) {
+            if (text.length() != end - start) return false;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) != source.charAt(start + i)) return false;
+            }
+            return true;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int id = 0; id < count; id++) {
+                int slot = hash(texts[id], 0, texts[id].length()) & mask;
+                while (slots[slot] != 0) slot = (slot + 1) & mask;
+                slots[slot] = id + 1;
+            }
+        }
+    }
+}
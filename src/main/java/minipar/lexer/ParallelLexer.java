@@ -0,0 +1,155 @@
+package minipar.lexer;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tokenização paralela de fontes grandes.
+ *
+ * Como nenhum token atravessa uma quebra de linha, a fonte é cortada em pedaços
+ * alinhados a '\n'. Numa primeira passada paralela cada pedaço conta suas quebras
+ * de linha (o que dá a linha inicial de cada um); na segunda, cada pedaço é varrido
+ * por um {@link SourceScanner} próprio. Os resultados são concatenados em ordem,
+ * produzindo exatamente a mesma lista de {@link Lexer#tokenize()}.
+ */
+public class ParallelLexer {
+
+    /** Tamanho mínimo da fonte (em caracteres) para o Lexer usar o modo paralelo. */
+    public static final int THRESHOLD = 1 << 20;
+
+    private static final int MIN_CHUNK = 64 * 1024;
+
+    private final CharSequence source;
+    private final char[] chars; // modo vetorizado
+    private final ForkJoinPool pool;
+
+    public ParallelLexer(CharSequence source) {
+        this(source, ForkJoinPool.commonPool());
+    }
+
+    public ParallelLexer(CharSequence source, ForkJoinPool pool) {
+        this.source = source;
+        this.chars = null;
+        this.pool = pool;
+    }
+
+    ParallelLexer(char[] chars) {
+        this.source = CharBuffer.wrap(chars);
+        this.chars = chars;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    public List<Token> tokenize() {
+        List<Token> tokens = new ArrayList<>();
+        tokenizeInto(tokens);
+        return tokens;
+    }
+
+    void tokenizeInto(List<Token> tokens) {
+        int[] bounds = splitAtLines();
+        int chunks = bounds.length - 1;
+
+        // Passada 1: quebras de linha por pedaço -> linha inicial de cada pedaço
+        int[] newlines = new int[chunks];
+        pool.invoke(new ChunkAction(0, chunks, chunk -> newlines[chunk] = countNewlines(bounds[chunk], bounds[chunk + 1])));
+        int[] firstLine = new int[chunks];
+        int line = 1;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            firstLine[chunk] = line;
+            line += newlines[chunk];
+        }
+
+        // Passada 2: varredura de cada pedaço
+        List<List<Token>> parts = new ArrayList<>(chunks);
+        int[] lastContentLine = new int[chunks];
+        RuntimeException[] errors = new RuntimeException[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) parts.add(null);
+        pool.invoke(new ChunkAction(0, chunks, chunk -> {
+            SourceScanner scanner = chars != null
+                    ? new SourceScanner(chars, bounds[chunk], bounds[chunk + 1], firstLine[chunk])
+                    : new SourceScanner(source, bounds[chunk], bounds[chunk + 1], firstLine[chunk]);
+            List<Token> part = new ArrayList<>((bounds[chunk + 1] - bounds[chunk]) / 3);
+            try {
+                Token token;
+                while ((token = scanner.next()) != null) part.add(token);
+            } catch (RuntimeException e) {
+                errors[chunk] = e;
+            }
+            parts.set(chunk, part);
+            lastContentLine[chunk] = scanner.lastContentLine();
+        }));
+
+        int total = 1;
+        int lastLine = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            // O primeiro erro na ordem da fonte é o que o lexer sequencial teria lançado
+            if (errors[chunk] != null) throw errors[chunk];
+            total += parts.get(chunk).size();
+            lastLine = Math.max(lastLine, lastContentLine[chunk]);
+        }
+
+        if (tokens instanceof ArrayList<Token> list) list.ensureCapacity(tokens.size() + total);
+        for (List<Token> part : parts) tokens.addAll(part);
+        int eofLine = source.length() == 0 ? 2 : lastLine + 1;
+        tokens.add(new Token(TokenType.EOF, "EOF", eofLine));
+    }
+
+    /**
+     * Limites dos pedaços: cada pedaço termina logo após um '\n' (ou no fim da fonte).
+     */
+    private int[] splitAtLines() {
+        int length = source.length();
+        int target = Math.max(MIN_CHUNK, length / (pool.getParallelism() * 4));
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int pos = 0;
+        while (pos < length) {
+            int end = Math.min(length, pos + target);
+            while (end < length && source.charAt(end - 1) != '\n') end++;
+            bounds.add(end);
+            pos = end;
+        }
+        if (bounds.size() == 1) bounds.add(0);
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int countNewlines(int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) == '\n') count++;
+        }
+        return count;
+    }
+
+    private interface ChunkWork {
+        void run(int chunk);
+    }
+
+    /**
+     * Divide recursivamente o intervalo de pedaços entre as threads do pool.
+     */
+    private static class ChunkAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final ChunkWork work;
+
+        ChunkAction(int from, int to, ChunkWork work) {
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                work.run(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkAction(from, mid, work), new ChunkAction(mid, to, work));
+        }
+    }
+}
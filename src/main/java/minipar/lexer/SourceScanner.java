@@ -0,0 +1,240 @@
+package minipar.lexer;
+
+import java.nio.CharBuffer;
+
+/**
+ * Scanner manual que percorre o código-fonte uma única vez, por deslocamento.
+ *
+ * Reconhece exatamente a mesma linguagem dos antigos padrões regex do {@link Lexer}
+ * (comentário, número, string, identificador, operador, delimitador e espaço),
+ * na mesma ordem de prioridade, mas sem copiar o restante da linha a cada token.
+ * Tokens nunca atravessam uma quebra de linha.
+ */
+public class SourceScanner {
+
+    private final CharSequence source;
+    private final char[] chars; // apenas no modo vetorizado
+    private final int limit;
+    private final boolean empty;
+    private int pos;
+    private int line;
+    private int lastContentLine;
+
+    // Token corrente (válido após advance() retornar true)
+    private TokenType type;
+    private int code;
+    private int start;
+    private int end;
+    private int tokenLine;
+
+    public SourceScanner(CharSequence source) {
+        this(source, 0, source.length(), 1);
+    }
+
+    /**
+     * Varre apenas o trecho [start, end) da fonte; a primeira linha do trecho recebe o número firstLine.
+     */
+    public SourceScanner(CharSequence source, int start, int end, int firstLine) {
+        this(source, null, start, end, firstLine);
+    }
+
+    /**
+     * Varre um array de caracteres usando o caminho SIMD de {@link VectorRuns}
+     * (só deve ser usado quando {@link LexerMode#VECTOR} está disponível).
+     */
+    SourceScanner(char[] chars, int start, int end, int firstLine) {
+        this(CharBuffer.wrap(chars), chars, start, end, firstLine);
+    }
+
+    private SourceScanner(CharSequence source, char[] chars, int start, int end, int firstLine) {
+        this.source = source;
+        this.chars = chars;
+        this.pos = start;
+        this.limit = end;
+        this.empty = start == end;
+        this.line = firstLine;
+        this.lastContentLine = firstLine - 1;
+    }
+
+    /**
+     * Avança para o próximo token significativo (espaços são descartados).
+     * Retorna false quando o trecho termina.
+     */
+    public boolean advance() {
+        while (pos < limit) {
+            char c = source.charAt(pos);
+            if (c == '\n') {
+                line++;
+                pos++;
+                continue;
+            }
+            lastContentLine = line;
+            if (isSpace(c)) {
+                pos = chars != null ? VectorRuns.skipSpaces(chars, pos + 1, limit) : pos + 1;
+                continue;
+            }
+
+            start = pos;
+            tokenLine = line;
+            code = Lexeme.NONE;
+            if (c == '#') {
+                pos = chars != null ? VectorRuns.lineEnd(chars, pos, limit) : lineEnd(pos);
+                type = TokenType.COMMENT;
+            } else if (isDigit(c) || (c == '-' && pos + 1 < limit && isDigit(source.charAt(pos + 1)))) {
+                scanNumber();
+                type = TokenType.NUMBER;
+            } else if (c == '"') {
+                scanString();
+                type = TokenType.STRING;
+            } else if (isIdentifierStart(c)) {
+                if (chars != null) {
+                    pos = VectorRuns.identifierEnd(chars, pos + 1, limit);
+                } else {
+                    pos++;
+                    while (pos < limit && isIdentifierPart(source.charAt(pos))) pos++;
+                }
+                code = Lexeme.keyword(source, start, pos);
+                type = code == Lexeme.NONE ? TokenType.IDENTIFIER : TokenType.KEYWORD;
+            } else if ((code = operatorCode(c)) != Lexeme.NONE) {
+                pos++;
+                type = TokenType.OPERATOR;
+            } else if ((code = delimiterCode(c)) != Lexeme.NONE) {
+                pos++;
+                type = TokenType.DELIMITER;
+            } else {
+                throw invalidToken(pos);
+            }
+            end = pos;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retorna o próximo token (já com promoção de palavras-chave) ou null no fim do trecho.
+     */
+    public Token next() {
+        return advance() ? token() : null;
+    }
+
+    public Token token() {
+        // Lexemas fixos reutilizam a String constante em vez de copiar da fonte
+        String value = code != Lexeme.NONE ? Lexeme.text(code) : text();
+        return new Token(type, value, tokenLine, code);
+    }
+
+    public TokenType type() { return type; }
+    public int code() { return code; }
+    public int start() { return start; }
+    public int end() { return end; }
+    public int line() { return tokenLine; }
+    public String text() {
+        return chars != null ? new String(chars, start, end - start) : source.subSequence(start, end).toString();
+    }
+
+    /**
+     * Última linha do trecho que contém algum caractere (linhas vazias não contam).
+     */
+    int lastContentLine() {
+        return lastContentLine;
+    }
+
+    /**
+     * Linha atribuída ao token EOF, idêntica à do antigo laço baseado em source.split("\n"):
+     * linhas vazias no final do arquivo não são contadas.
+     */
+    public int eofLine() {
+        if (empty) return lastContentLine + 2; // "".split("\n") produz uma linha vazia
+        return lastContentLine + 1;
+    }
+
+    private void scanNumber() {
+        if (source.charAt(pos) == '-') pos++;
+        while (pos < limit && isDigit(source.charAt(pos))) pos++;
+        if (pos + 1 < limit && source.charAt(pos) == '.' && isDigit(source.charAt(pos + 1))) {
+            pos++;
+            while (pos < limit && isDigit(source.charAt(pos))) pos++;
+        }
+    }
+
+    private void scanString() {
+        int i = pos + 1;
+        while (i < limit) {
+            char c = source.charAt(i);
+            if (c == '"') {
+                pos = i + 1;
+                return;
+            }
+            if (c == '\n') break;
+            i++;
+        }
+        throw invalidToken(pos);
+    }
+
+    private int lineEnd(int from) {
+        int i = from;
+        while (i < limit && source.charAt(i) != '\n') i++;
+        return i;
+    }
+
+    private RuntimeException invalidToken(int at) {
+        String resto = source.subSequence(at, lineEnd(at)).toString();
+        return new RuntimeException("Token inválido na linha " + line + ": " + resto);
+    }
+
+    // ===================== Classes de caracteres =========================
+
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || isDigit(c);
+    }
+
+    /**
+     * Reconhece o operador em pos (consumindo o '=' de operadores de dois caracteres).
+     */
+    private int operatorCode(char c) {
+        boolean equalsNext = pos + 1 < limit && source.charAt(pos + 1) == '=';
+        return switch (c) {
+            case '+' -> Lexeme.PLUS;
+            case '-' -> Lexeme.MINUS;
+            case '*' -> Lexeme.STAR;
+            case '/' -> Lexeme.SLASH;
+            case '^' -> Lexeme.CARET;
+            case '.' -> Lexeme.DOT;
+            case '=' -> equalsNext ? twoChars(Lexeme.EQ) : Lexeme.ASSIGN;
+            case '<' -> equalsNext ? twoChars(Lexeme.LE) : Lexeme.LT;
+            case '>' -> equalsNext ? twoChars(Lexeme.GE) : Lexeme.GT;
+            case '!' -> equalsNext ? twoChars(Lexeme.NE) : Lexeme.NONE;
+            default -> Lexeme.NONE;
+        };
+    }
+
+    private int twoChars(int code) {
+        pos++;
+        return code;
+    }
+
+    private static int delimiterCode(char c) {
+        return switch (c) {
+            case '(' -> Lexeme.LPAREN;
+            case ')' -> Lexeme.RPAREN;
+            case '[' -> Lexeme.LBRACKET;
+            case ']' -> Lexeme.RBRACKET;
+            case '{' -> Lexeme.LBRACE;
+            case '}' -> Lexeme.RBRACE;
+            case ',' -> Lexeme.COMMA;
+            default -> Lexeme.NONE;
+        };
+    }
+}
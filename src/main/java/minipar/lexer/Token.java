@@ -4,11 +4,22 @@ public class Token {
     private final TokenType type;
     private final String value;
     private final int line;
+    private final int code;
 
     public Token(TokenType type, String value, int line) {
+        this(type, value, line, hasFixedText(type) ? Lexeme.of(value) : Lexeme.NONE);
+    }
+
+    public Token(TokenType type, String value, int line, int code) {
         this.type = type;
         this.value = value;
         this.line = line;
+        this.code = code;
+    }
+
+    private static boolean hasFixedText(TokenType type) {
+        return type == TokenType.KEYWORD || type == TokenType.OPERATOR
+                || type == TokenType.DELIMITER || type == TokenType.EOF;
     }
 
     public TokenType getType() {
@@ -23,6 +34,13 @@ public class Token {
         return line;
     }
 
+    /**
+     * Código do lexema fixo (ver {@link Lexeme}); NONE para identificadores, números e strings.
+     */
+    public int getCode() {
+        return code;
+    }
+
 
     @Override
     public String toString() {
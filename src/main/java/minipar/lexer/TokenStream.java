@@ -0,0 +1,143 @@
+package minipar.lexer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Fluxo de tokens sob demanda (pull): produz a mesma sequência de {@link Lexer#tokenize()},
+ * terminando em EOF, sem materializar a lista inteira.
+ *
+ * Pode ler de um {@link CharSequence} já em memória (por exemplo um CharBuffer
+ * mapeado de arquivo) ou de um {@link Reader}, linha a linha, caso em que a memória
+ * usada fica limitada ao tamanho da maior linha.
+ */
+public class TokenStream implements Iterator<Token>, Closeable {
+
+    private final SourceScanner sourceScanner; // modo CharSequence
+    private final Reader reader;               // modo Reader
+
+    // Estado do modo Reader
+    private final char[] buffer;
+    private int bufferPos;
+    private int bufferLen;
+    private final StringBuilder currentLine = new StringBuilder();
+    private final ArrayDeque<Token> pending = new ArrayDeque<>();
+    private int lineNumber = 0;
+    private int lastContentLine = 0;
+    private boolean sawAnyChar;
+    private boolean readerExhausted;
+
+    private Token next;
+    private boolean eofEmitted;
+
+    public TokenStream(CharSequence source) {
+        this.sourceScanner = new SourceScanner(source);
+        this.reader = null;
+        this.buffer = null;
+    }
+
+    public TokenStream(Reader reader) {
+        this.sourceScanner = null;
+        this.reader = reader;
+        this.buffer = new char[8192];
+    }
+
+    /**
+     * Abre um arquivo como fluxo de tokens, lendo-o incrementalmente.
+     */
+    public static TokenStream open(Path path) throws IOException {
+        BufferedReader in = Files.newBufferedReader(path);
+        return new TokenStream(in);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !eofEmitted) {
+            next = produce();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Token next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Token token = next;
+        next = null;
+        return token;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) reader.close();
+    }
+
+    private Token produce() {
+        Token token = sourceScanner != null ? sourceScanner.next() : nextFromReader();
+        if (token != null) return token;
+
+        eofEmitted = true;
+        int eofLine = sourceScanner != null ? sourceScanner.eofLine() : readerEofLine();
+        return new Token(TokenType.EOF, "EOF", eofLine);
+    }
+
+    // ===================== Modo Reader =========================
+
+    private Token nextFromReader() {
+        while (pending.isEmpty()) {
+            if (!readLine()) return null;
+            lineNumber++;
+            if (currentLine.length() > 0) lastContentLine = lineNumber;
+
+            SourceScanner lineScanner = new SourceScanner(currentLine, 0, currentLine.length(), lineNumber);
+            Token token;
+            while ((token = lineScanner.next()) != null) {
+                pending.add(token);
+            }
+        }
+        return pending.poll();
+    }
+
+    private int readerEofLine() {
+        // Mesma regra de source.split("\n"): linhas vazias finais não contam
+        return sawAnyChar ? lastContentLine + 1 : 2;
+    }
+
+    /**
+     * Lê a próxima linha (sem o '\n') para currentLine. Retorna false no fim da entrada.
+     */
+    private boolean readLine() {
+        if (readerExhausted) return false;
+        currentLine.setLength(0);
+        try {
+            while (true) {
+                if (bufferPos == bufferLen) {
+                    bufferLen = reader.read(buffer);
+                    bufferPos = 0;
+                    if (bufferLen <= 0) {
+                        bufferLen = 0;
+                        readerExhausted = true;
+                        return currentLine.length() > 0;
+                    }
+                    sawAnyChar = true;
+                }
+                int start = bufferPos;
+                while (bufferPos < bufferLen && buffer[bufferPos] != '\n') bufferPos++;
+                currentLine.append(buffer, start, bufferPos - start);
+                if (bufferPos < bufferLen) {
+                    bufferPos++; // consome '\n'
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o código-fonte", e);
+        }
+    }
+}
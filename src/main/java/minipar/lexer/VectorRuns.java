@@ -0,0 +1,85 @@
+package minipar.lexer;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Busca vetorizada do fim de sequências homogêneas de caracteres, usada pelo
+ * {@link SourceScanner} no modo {@link LexerMode#VECTOR}.
+ *
+ * Cada método primeiro olha alguns caracteres de forma escalar, porque a maioria
+ * das sequências é curta (perto de limites de token o custo de montar um vetor não
+ * compensa), e só então classifica 16/32 caracteres por vez.
+ */
+final class VectorRuns {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int SCALAR_PROBE = 8;
+
+    private VectorRuns() {}
+
+    /** Primeira posição em [from, limit) que não é espaço (exceto '\n', que encerra a sequência). */
+    static int skipSpaces(char[] chars, int from, int limit) {
+        int i = from;
+        int probeEnd = Math.min(limit, from + SCALAR_PROBE);
+        while (i < probeEnd) {
+            if (!SourceScanner.isSpace(chars[i])) return i;
+            i++;
+        }
+        for (; i + LANES <= limit; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            VectorMask<Short> space = v.eq((short) ' ')
+                    .or(v.eq((short) '\t'))
+                    .or(v.eq((short) '\r'))
+                    .or(v.eq((short) '\f'))
+                    .or(v.eq((short) 0x0B));
+            int first = space.not().firstTrue();
+            if (first < LANES) return i + first;
+        }
+        while (i < limit && SourceScanner.isSpace(chars[i])) i++;
+        return i;
+    }
+
+    /** Posição do próximo '\n' em [from, limit), ou limit. */
+    static int lineEnd(char[] chars, int from, int limit) {
+        int i = from;
+        int probeEnd = Math.min(limit, from + SCALAR_PROBE);
+        while (i < probeEnd) {
+            if (chars[i] == '\n') return i;
+            i++;
+        }
+        for (; i + LANES <= limit; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            int first = v.eq((short) '\n').firstTrue();
+            if (first < LANES) return i + first;
+        }
+        while (i < limit && chars[i] != '\n') i++;
+        return i;
+    }
+
+    /** Primeira posição em [from, limit) que não pertence a um identificador ([a-zA-Z0-9_]). */
+    static int identifierEnd(char[] chars, int from, int limit) {
+        int i = from;
+        int probeEnd = Math.min(limit, from + SCALAR_PROBE);
+        while (i < probeEnd) {
+            if (!SourceScanner.isIdentifierPart(chars[i])) return i;
+            i++;
+        }
+        for (; i + LANES <= limit; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            // 'A'-'Z' vira 'a'-'z' com o bit 0x20; chars >= 0x8000 ficam negativos e falham os testes
+            ShortVector lower = v.or((short) 0x20);
+            VectorMask<Short> part = lower.compare(VectorOperators.GE, (short) 'a')
+                    .and(lower.compare(VectorOperators.LE, (short) 'z'))
+                    .or(v.compare(VectorOperators.GE, (short) '0').and(v.compare(VectorOperators.LE, (short) '9')))
+                    .or(v.eq((short) '_'));
+            int first = part.not().firstTrue();
+            if (first < LANES) return i + first;
+        }
+        while (i < limit && SourceScanner.isIdentifierPart(chars[i])) i++;
+        return i;
+    }
+}
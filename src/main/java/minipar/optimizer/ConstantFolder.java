@@ -0,0 +1,147 @@
+package minipar.optimizer;
+
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.parser.ValueKind;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Otimização da AST entre o SemanticAnalyzer e os back-ends (interpretador e IR).
+ *
+ * - Dobra BinOp cujos dois operandos são literais numéricos, inclusive comparações e '^',
+ *   com a mesma aritmética do ExpressionEvaluator (ex.: divisão por zero dá 0).
+ * - Simplifica identidades: x - 0, x * 1, 1 * x, x / 1 e x ^ 1 viram x. x + 0 fica, pois
+ *   com x = -0.0 a soma dá 0.0 e trocar por x mudaria o que é impresso.
+ *
+ * Só são dobrados resultados que voltam exatamente ao mesmo double ao serem lidos do
+ * literal (NaN, infinitos e -0.0 ficam como estão). Uma divisão entre literais inteiros
+ * só é dobrada se for exata, pois o back-end ARM usa divisão inteira (SDIV).
+ *
+ * A condição de if/while continua sendo um BinOp (só os operandos são dobrados).
+ *
+ * A árvore é alterada no lugar.
+ */
+public class ConstantFolder {
+
+    private int folded;
+    private int simplified;
+
+    public ASTNode optimize(ASTNode root) {
+        folded = 0;
+        simplified = 0;
+        visit(root);
+        return root;
+    }
+
+    private void visit(ASTNode node) {
+        List<ASTNode> children = node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            ASTNode child = children.get(i);
+            visit(child);
+            if (child.getKind() == NodeKind.BIN_OP && !isCondition(node, i)) {
+                // Argumento direto de print: se a avaliação falhar, o print mostra o valor
+                // do próprio nó, então ali só entram dobras de constantes
+                children.set(i, fold(child, node.getKind() != NodeKind.PRINT));
+            }
+        }
+    }
+
+    /**
+     * Condição de if/while: todos os motores exigem um BinOp ali ("Condição inválida"),
+     * então o nó fica e só os operandos são dobrados.
+     */
+    private static boolean isCondition(ASTNode parent, int index) {
+        return index == 0 && (parent.getKind() == NodeKind.IF || parent.getKind() == NodeKind.WHILE);
+    }
+
+    private ASTNode fold(ASTNode binOp, boolean simplify) {
+        Operator op = binOp.getOperator();
+        if (op == null || binOp.getChildren().size() != 2) return binOp;
+        ASTNode left = binOp.getChildren().get(0);
+        ASTNode right = binOp.getChildren().get(1);
+
+        Double l = number(left);
+        Double r = number(right);
+        if (l != null && r != null) {
+            boolean integers = isIntegerLiteral(left) && isIntegerLiteral(right);
+            ASTNode constant = constant(op, l, r, integers);
+            if (constant != null) {
+                folded++;
+                return constant;
+            }
+            return binOp;
+        }
+        if (!simplify) return binOp;
+
+        ASTNode identity = switch (op) {
+            case SUB -> isValue(r, 0) ? left : null;
+            case MUL -> isValue(r, 1) ? left : isValue(l, 1) ? right : null;
+            case DIV, POW -> isValue(r, 1) ? left : null;
+            default -> null;
+        };
+        if (identity == null || !isPlainExpression(identity)) return binOp;
+        simplified++;
+        return identity;
+    }
+
+    private static ASTNode constant(Operator op, double l, double r, boolean integers) {
+        double result = switch (op) {
+            case ADD -> l + r;
+            case SUB -> l - r;
+            case MUL -> l * r;
+            case POW -> Math.pow(l, r);
+            case DIV -> r == 0 ? 0 : l / r;
+            case EQ -> l == r ? 1 : 0;
+            case NE -> l != r ? 1 : 0;
+            case GT -> l > r ? 1 : 0;
+            case LT -> l < r ? 1 : 0;
+            case GE -> l >= r ? 1 : 0;
+            case LE -> l <= r ? 1 : 0;
+        };
+        if (op == Operator.DIV && integers && result != Math.rint(result)) return null;
+        String literal = literal(result);
+        return literal != null ? new ASTNode(NodeKind.VALOR, literal) : null;
+    }
+
+    /** Literal que o ExpressionEvaluator lê de volta como exatamente o mesmo valor. */
+    static String literal(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return null;
+        if (value == 0 && 1 / value < 0) return null; // -0.0
+        String text = BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        return ValueKind.isNumber(text) && Double.parseDouble(text) == value ? text : null;
+    }
+
+    private static Double number(ASTNode node) {
+        return node.getValueKind() == ValueKind.NUMBER ? node.getNumber() : null;
+    }
+
+    private static boolean isValue(Double number, double expected) {
+        return number != null && number == expected;
+    }
+
+    private static boolean isIntegerLiteral(ASTNode node) {
+        return node.getValue().indexOf('.') < 0;
+    }
+
+    /**
+     * Operando que pode ficar sozinho no lugar do BinOp: listas e strings literais têm
+     * outro significado fora de uma operação (atribuição de lista, impressão da string).
+     */
+    private static boolean isPlainExpression(ASTNode node) {
+        if (node.getKind() == NodeKind.LISTA) return false;
+        return node.getValueKind() != ValueKind.STRING;
+    }
+
+    /** BinOp substituídos por um literal na última otimização. */
+    public int foldedCount() {
+        return folded;
+    }
+
+    /** BinOp substituídos por um dos operandos (identidades). */
+    public int simplifiedCount() {
+        return simplified;
+    }
+}
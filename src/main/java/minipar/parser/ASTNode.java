@@ -4,13 +4,45 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ASTNode {
+    /** Nó de nome ainda sem slot atribuído pelo interpretador. */
+    public static final int UNRESOLVED = -1;
+
+    private final NodeKind kind;
     private final String type;
     private final String value;
+    private final Operator operator; // apenas em nós BinOp
+    private final ValueKind valueKind; // apenas em nós Valor
+    private final double number;       // literal numérico já convertido (valueKind == NUMBER)
     private final List<ASTNode> children;
+    private int slot = UNRESOLVED;     // posição da variável nomeada pelo nó (ver minipar.interpreter.Memory)
+    private Object cache;              // cache do interpretador no nó, ex.: alvo de uma chamada
 
     public ASTNode(String type, String value) {
+        this(NodeKind.of(type), type, value);
+    }
+
+    public ASTNode(NodeKind kind, String value) {
+        this(kind, kind.label(), value);
+    }
+
+    /** Nó BinOp do operador informado. */
+    public ASTNode(Operator operator) {
+        this.kind = NodeKind.BIN_OP;
+        this.type = NodeKind.BIN_OP.label();
+        this.value = operator.symbol();
+        this.operator = operator;
+        this.valueKind = null;
+        this.number = 0;
+        this.children = new ArrayList<>(2);
+    }
+
+    private ASTNode(NodeKind kind, String type, String value) {
+        this.kind = kind;
         this.type = type;
         this.value = value;
+        this.operator = kind == NodeKind.BIN_OP ? Operator.of(value) : null;
+        this.valueKind = kind == NodeKind.VALOR && value != null ? ValueKind.of(value) : null;
+        this.number = valueKind == ValueKind.NUMBER ? Double.parseDouble(value) : 0;
         this.children = new ArrayList<>();
     }
 
@@ -18,6 +50,11 @@ public class ASTNode {
         children.add(child);
     }
 
+    public NodeKind getKind() {
+        return kind;
+    }
+
+    /** Rótulo do tipo, ex.: "Atribuicao"; mantido para a GUI e mensagens. */
     public String getType() {
         return type;
     }
@@ -26,6 +63,37 @@ public class ASTNode {
         return value;
     }
 
+    /** Operador de um nó BinOp (null nos demais ou se o símbolo for desconhecido). */
+    public Operator getOperator() {
+        return operator;
+    }
+
+    /** Classificação de um nó Valor (null nos demais). */
+    public ValueKind getValueKind() {
+        return valueKind;
+    }
+
+    /** Valor de um literal numérico, convertido na criação do nó. */
+    public double getNumber() {
+        return number;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    public Object getCache() {
+        return cache;
+    }
+
+    public void setCache(Object cache) {
+        this.cache = cache;
+    }
+
     public List<ASTNode> getChildren() {
         return children;
     }
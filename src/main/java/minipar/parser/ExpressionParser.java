@@ -10,88 +10,98 @@ public class ExpressionParser {
         this.parser = parser;
     }
 
+    // Tabela de precedência indexada pelo código do lexema (0 = não é operador binário)
+    private static final int COMPARISON = 1;
+    private static final int ADDITIVE = 2;
+    private static final int MULTIPLICATIVE = 3;
+    private static final int EXPONENT = 4;
+
+    private static final int[] PRECEDENCE = new int[Lexeme.EOF + 1];
+    private static final boolean[] RIGHT_ASSOCIATIVE = new boolean[Lexeme.EOF + 1];
+
+    static {
+        for (int code = Lexeme.EQ; code <= Lexeme.GE; code++) PRECEDENCE[code] = COMPARISON;
+        PRECEDENCE[Lexeme.PLUS] = ADDITIVE;
+        PRECEDENCE[Lexeme.MINUS] = ADDITIVE;
+        PRECEDENCE[Lexeme.STAR] = MULTIPLICATIVE;
+        PRECEDENCE[Lexeme.SLASH] = MULTIPLICATIVE;
+        PRECEDENCE[Lexeme.CARET] = EXPONENT;
+        RIGHT_ASSOCIATIVE[Lexeme.CARET] = true; // 2 ^ 3 ^ 2 == 2 ^ (3 ^ 2)
+    }
+
     public ASTNode parseExpression() {
-        ASTNode left = parseTerm();
-        while (!parser.isAtEnd() && parser.isComparisonOperator(parser.current().getValue())) {
-            String op = parser.consume().getValue();
-            ASTNode right = parseTerm();
-            left = parser.createNode("BinOp", op, left, right);
-        }
-        return left;
+        return parseBinary(COMPARISON);
     }
 
     public ASTNode parseTerm() {
-        ASTNode node = parseFactor();
-        while (!parser.isAtEnd() && (parser.match("+") || parser.match("-"))) {
-            String op = parser.previous().getValue();
-            node = parser.createNode("BinOp", op, node, parseFactor());
-        }
-        return node;
+        return parseBinary(ADDITIVE);
     }
 
     public ASTNode parseFactor() {
-        ASTNode node = parseExponent();
-        while (!parser.isAtEnd() && (parser.match("*") || parser.match("/"))) {
-            String op = parser.previous().getValue();
-            node = parser.createNode("BinOp", op, node, parseExponent());
-        }
-        return node;
+        return parseBinary(MULTIPLICATIVE);
     }
 
-    // ✅ NOVO: tratamento do operador de exponenciação "^"
-    private ASTNode parseExponent() {
-        ASTNode node = parsePrimary();
-        while (!parser.isAtEnd() && parser.match("^")) {
-            String op = parser.previous().getValue();
-            node = parser.createNode("BinOp", op, node, parsePrimary());
+    /**
+     * Pratt / precedence climbing: consome operadores com precedência >= minPrecedence.
+     */
+    private ASTNode parseBinary(int minPrecedence) {
+        ASTNode left = parsePrimary();
+        while (true) {
+            int code = parser.currentCode();
+            int precedence = PRECEDENCE[code];
+            if (precedence == 0 || precedence < minPrecedence) return left;
+            parser.skip(); // o operador já está em code: não materializa o Token
+            ASTNode right = parseBinary(RIGHT_ASSOCIATIVE[code] ? precedence : precedence + 1);
+            ASTNode node = new ASTNode(Operator.fromLexeme(code));
+            node.addChild(left);
+            node.addChild(right);
+            left = node;
         }
-        return node;
     }
 
     public ASTNode parsePrimary() {
-        Token token = parser.current();
+        TokenType type = parser.currentType();
 
-        if (parser.match("(")) {
+        if (parser.match(Lexeme.LPAREN)) {
             ASTNode expr = parseExpression();
-            parser.expect(TokenType.DELIMITER, ")");
+            parser.expect(Lexeme.RPAREN);
             return expr;
         }
 
-        if (token.getType() == TokenType.KEYWORD && token.getValue().equals("input")) {
-            parser.consume(); // consome 'input'
-            parser.expect(TokenType.DELIMITER, "(");
-            parser.expect(TokenType.DELIMITER, ")");
-            return new ASTNode("input", "");
+        if (parser.peekIs(Lexeme.INPUT)) {
+            parser.expect(Lexeme.INPUT);
+            parser.expect(Lexeme.LPAREN);
+            parser.expect(Lexeme.RPAREN);
+            return new ASTNode(NodeKind.INPUT, "");
         }
 
-        if (token.getType() == TokenType.IDENTIFIER) {
-            String name = parser.consume().getValue();
-            if (parser.match("[")) {
+        if (type == TokenType.IDENTIFIER) {
+            String name = parser.consumeText();
+            if (parser.match(Lexeme.LBRACKET)) {
                 ASTNode index = parseExpression();
-                parser.expect(TokenType.DELIMITER, "]");
-                return parser.createNode("Indexacao", name, index);
+                parser.expect(Lexeme.RBRACKET);
+                return parser.createNode(NodeKind.INDEXACAO, name, index);
             }
-            if (parser.peekIs("(")) {
-                return new StatementParser(parser).parseFunctionCall(name);
+            if (parser.peekIs(Lexeme.LPAREN)) {
+                return parser.statements().parseFunctionCall(name);
             }
-            return new ASTNode("Valor", name);
+            return new ASTNode(NodeKind.VALOR, name);
         }
 
-        if (parser.match("[")) {
+        if (parser.match(Lexeme.LBRACKET)) {
             List<ASTNode> elements = new ArrayList<>();
-            if (!parser.peekIs("]")) {
+            if (!parser.peekIs(Lexeme.RBRACKET)) {
                 do elements.add(parseExpression());
-                while (parser.match(","));
+                while (parser.match(Lexeme.COMMA));
             }
-            parser.expect(TokenType.DELIMITER, "]");
-            ASTNode node = new ASTNode("Lista", "");
+            parser.expect(Lexeme.RBRACKET);
+            ASTNode node = new ASTNode(NodeKind.LISTA, "");
             node.setChildren(elements);
             return node;
         }
 
-        if (token.getType() == TokenType.NUMBER || token.getType() == TokenType.STRING) {
-            parser.consume();
-            return new ASTNode("Valor", token.getValue());
+        if (type == TokenType.NUMBER || type == TokenType.STRING) {
+            return new ASTNode(NodeKind.VALOR, parser.consumeText());
         }
 
         throw parser.error("Expressão inválida");
@@ -0,0 +1,251 @@
+package minipar.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AST compacta para programas muito grandes: cada nó é um índice em arrays paralelos
+ * (tipo, id do valor, primeiro filho, próximo irmão) e os valores ficam numa tabela
+ * de Strings internadas. Não há um objeto por nó nem uma lista de filhos por nó.
+ *
+ * A árvore é percorrida por índices ({@link #firstChild}, {@link #nextSibling}) ou por
+ * um {@link Cursor}. {@link #toNode(int)} materializa uma subárvore como {@link ASTNode}
+ * quando algum passo precisa da representação tradicional.
+ */
+public final class FlatAst {
+
+    /** Índice ausente (sem filho / sem irmão). */
+    public static final int NONE = -1;
+
+    private static final NodeKind[] KINDS = NodeKind.values();
+
+    private int size;
+    private int[] kinds;
+    private int[] values;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private final Map<Integer, Integer> otherLabels = new HashMap<>(); // rótulo dos nós OTHER
+
+    private final ArrayList<String> strings = new ArrayList<>();
+    private Map<String, Integer> stringIds = new HashMap<>(); // descartado após a construção
+
+    private FlatAst(int capacity) {
+        capacity = Math.max(16, capacity);
+        kinds = new int[capacity];
+        values = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+    }
+
+    /** Converte uma árvore já construída. */
+    public static FlatAst from(ASTNode root) {
+        Builder builder = new Builder();
+        builder.append(root);
+        return builder.build();
+    }
+
+    // ===================== Acesso por índice =========================
+
+    public int root() { return 0; }
+    public int size() { return size; }
+    public NodeKind kind(int node) { return KINDS[kinds[node]]; }
+    public String value(int node) { return strings.get(values[node]); }
+    public int firstChild(int node) { return firstChild[node]; }
+    public int nextSibling(int node) { return nextSibling[node]; }
+
+    /** Rótulo do tipo, como {@link ASTNode#getType()}. */
+    public String type(int node) {
+        NodeKind kind = kind(node);
+        return kind == NodeKind.OTHER ? strings.get(otherLabels.get(node)) : kind.label();
+    }
+
+    public Operator operator(int node) {
+        return kind(node) == NodeKind.BIN_OP ? Operator.of(value(node)) : null;
+    }
+
+    public int childCount(int node) {
+        int count = 0;
+        for (int c = firstChild[node]; c != NONE; c = nextSibling[c]) count++;
+        return count;
+    }
+
+    public int child(int node, int index) {
+        int c = firstChild[node];
+        while (index-- > 0 && c != NONE) c = nextSibling[c];
+        return c;
+    }
+
+    /** Quantidade de Strings distintas na tabela de valores. */
+    public int distinctValues() {
+        return strings.size();
+    }
+
+    /** Materializa a subárvore do nó como ASTNode. */
+    public ASTNode toNode(int node) {
+        ASTNode result = kind(node) == NodeKind.OTHER
+                ? new ASTNode(type(node), value(node))
+                : new ASTNode(kind(node), value(node));
+        for (int c = firstChild[node]; c != NONE; c = nextSibling[c]) result.addChild(toNode(c));
+        return result;
+    }
+
+    public Cursor cursor() {
+        return new Cursor(root());
+    }
+
+    /** Cursor independente começando no nó informado (ex.: para outra thread). */
+    public Cursor cursor(int node) {
+        return new Cursor(node);
+    }
+
+    /**
+     * Posição móvel na árvore: desce para o primeiro filho, anda entre irmãos e volta
+     * ao pai, sem alocar por nó visitado.
+     */
+    public final class Cursor {
+        private int node;
+        private int[] parents = new int[16];
+        private int depth;
+
+        private Cursor(int node) {
+            this.node = node;
+        }
+
+        public int node() { return node; }
+        public NodeKind kind() { return FlatAst.this.kind(node); }
+        public String type() { return FlatAst.this.type(node); }
+        public String value() { return FlatAst.this.value(node); }
+        public Operator operator() { return FlatAst.this.operator(node); }
+        public ASTNode materialize() { return toNode(node); }
+
+        /** Desce para o primeiro filho; false (sem mover) se não houver filhos. */
+        public boolean firstChild() {
+            int child = firstChild[node];
+            if (child == NONE) return false;
+            if (depth == parents.length) parents = Arrays.copyOf(parents, depth * 2);
+            parents[depth++] = node;
+            node = child;
+            return true;
+        }
+
+        /** Avança para o próximo irmão; false (sem mover) no último. */
+        public boolean nextSibling() {
+            int sibling = nextSibling[node];
+            if (sibling == NONE) return false;
+            node = sibling;
+            return true;
+        }
+
+        /** Volta ao pai do nó corrente. */
+        public void parent() {
+            if (depth == 0) throw new IllegalStateException("Cursor já está na raiz");
+            node = parents[--depth];
+        }
+    }
+
+    // ===================== Construção =========================
+
+    /**
+     * Monta a árvore em pré-ordem: open() abre um nó como último filho do nó aberto
+     * corrente, close() o fecha. append() copia uma subárvore de ASTNode inteira.
+     */
+    public static final class Builder {
+        private final FlatAst ast;
+        private int[] open = new int[16];
+        private int[] lastChild = new int[16];
+        private int depth;
+
+        public Builder() {
+            this(1024);
+        }
+
+        public Builder(int capacity) {
+            ast = new FlatAst(capacity);
+        }
+
+        public int open(NodeKind kind, String value) {
+            return open(kind, null, value);
+        }
+
+        /** Abre um nó a partir do rótulo do tipo (qualquer rótulo, como new ASTNode(String, String)). */
+        public int open(String type, String value) {
+            NodeKind kind = NodeKind.of(type);
+            return open(kind, kind == NodeKind.OTHER ? type : null, value);
+        }
+
+        private int open(NodeKind kind, String otherLabel, String value) {
+            if (depth == 0 && ast.size > 0) throw new IllegalStateException("A AST já tem raiz");
+            int node = ast.add(kind, otherLabel, value);
+            if (depth > 0) {
+                int parent = depth - 1;
+                if (lastChild[parent] == NONE) ast.firstChild[open[parent]] = node;
+                else ast.nextSibling[lastChild[parent]] = node;
+                lastChild[parent] = node;
+            }
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+                lastChild = Arrays.copyOf(lastChild, depth * 2);
+            }
+            open[depth] = node;
+            lastChild[depth] = NONE;
+            depth++;
+            return node;
+        }
+
+        public void close() {
+            if (depth == 0) throw new IllegalStateException("Nenhum nó aberto");
+            depth--;
+        }
+
+        /** Copia a subárvore como último filho do nó aberto corrente. */
+        public int append(ASTNode node) {
+            int index = node.getKind() == NodeKind.OTHER
+                    ? open(node.getType(), node.getValue())
+                    : open(node.getKind(), node.getValue());
+            for (ASTNode child : node.getChildren()) append(child);
+            close();
+            return index;
+        }
+
+        public FlatAst build() {
+            if (depth != 0) throw new IllegalStateException("Há nós ainda abertos");
+            ast.trim();
+            return ast;
+        }
+    }
+
+    private int add(NodeKind kind, String otherLabel, String value) {
+        if (size == kinds.length) {
+            int capacity = size + (size >> 1);
+            kinds = Arrays.copyOf(kinds, capacity);
+            values = Arrays.copyOf(values, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+        }
+        kinds[size] = kind.ordinal();
+        values[size] = intern(value);
+        firstChild[size] = NONE;
+        nextSibling[size] = NONE;
+        if (otherLabel != null) otherLabels.put(size, intern(otherLabel));
+        return size++;
+    }
+
+    private int intern(String text) {
+        Integer id = stringIds.get(text);
+        if (id != null) return id;
+        strings.add(text);
+        stringIds.put(text, strings.size() - 1);
+        return strings.size() - 1;
+    }
+
+    private void trim() {
+        stringIds = null;
+        strings.trimToSize();
+        kinds = Arrays.copyOf(kinds, size);
+        values = Arrays.copyOf(values, size);
+        firstChild = Arrays.copyOf(firstChild, size);
+        nextSibling = Arrays.copyOf(nextSibling, size);
+    }
+}
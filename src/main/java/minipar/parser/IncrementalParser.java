@@ -0,0 +1,396 @@
+package minipar.parser;
+
+import minipar.lexer.*;
+import java.util.*;
+
+/**
+ * Front-end incremental para o editor: mantém o texto, os tokens de cada linha e a AST
+ * da última análise, e a cada edição refaz só o necessário.
+ *
+ * - Re-lexa apenas as linhas danificadas (tokens nunca atravessam uma quebra de linha).
+ * - As instruções de cada bloco SEQ são agrupadas em trechos que começam e terminam em
+ *   limite de linha (normalmente uma instrução de topo: atribuição, if, while, def...).
+ *   Uma edição dentro de um trecho re-analisa só esse trecho e troca as instruções
+ *   correspondentes no nó SEQ.
+ * - Se a edição mexe em SEQ/PAR/programa_minipar, cai fora de um trecho, ou o trecho
+ *   não analisa sozinho, o programa inteiro é re-analisado a partir dos tokens já
+ *   guardados, o que também produz a mesma mensagem de erro do Parser completo.
+ *
+ * A análise semântica continua sendo feita sobre a AST inteira por quem a consome.
+ */
+public class IncrementalParser {
+
+    private final StringBuilder text = new StringBuilder();
+    private int[] lineStarts = new int[64];
+    private int lineCount;
+    private final ArrayList<Token[]> lineTokens = new ArrayList<>(); // null = linha com erro léxico
+    private int invalidLines;
+
+    private ASTNode ast;
+    private RuntimeException error;
+    private final ArrayList<Chunk> chunks = new ArrayList<>(); // em ordem no documento
+    private boolean lastEditIncremental;
+
+    public IncrementalParser(String source) {
+        text.append(source);
+        lineCount = 1;
+        for (int i = 0; i < source.length(); i++) {
+            if (source.charAt(i) == '\n') {
+                ensureLineCapacity(lineCount + 1);
+                lineStarts[lineCount++] = i + 1;
+            }
+        }
+        for (int i = 0; i < lineCount; i++) {
+            Token[] tokens = lexLine(i);
+            if (tokens == null) invalidLines++;
+            lineTokens.add(tokens);
+        }
+        reparseAll();
+    }
+
+    // ===================== API de edição =========================
+
+    public void insert(int offset, String inserted) {
+        edit(offset, 0, inserted);
+    }
+
+    public void remove(int offset, int length) {
+        edit(offset, length, "");
+    }
+
+    /**
+     * Substitui removedLength caracteres a partir de offset pelo texto inserido e
+     * atualiza tokens e AST.
+     */
+    public void edit(int offset, int removedLength, String inserted) {
+        if (offset < 0 || removedLength < 0 || offset + removedLength > text.length()) {
+            throw new IndexOutOfBoundsException("Edição fora do documento: " + offset + "+" + removedLength);
+        }
+        int first = lineAt(offset);
+        int lastOld = lineAt(offset + removedLength);
+        text.replace(offset, offset + removedLength, inserted);
+
+        int newlines = 0;
+        for (int i = 0; i < inserted.length(); i++) if (inserted.charAt(i) == '\n') newlines++;
+        int lastNew = first + newlines;
+        int delta = lastNew - lastOld;
+        updateLineStarts(offset, inserted, first, lastOld, lastNew, inserted.length() - removedLength);
+
+        // Re-lexa as linhas danificadas
+        List<Token[]> damaged = lineTokens.subList(first, lastOld + 1);
+        boolean structural = false;
+        for (Token[] tokens : damaged) {
+            if (tokens == null) invalidLines--;
+            else structural |= hasBlockKeyword(tokens);
+        }
+        damaged.clear();
+        List<Token[]> relexed = new ArrayList<>(lastNew - first + 1);
+        for (int i = first; i <= lastNew; i++) {
+            Token[] tokens = lexLine(i);
+            if (tokens == null) invalidLines++;
+            else structural |= hasBlockKeyword(tokens);
+            relexed.add(tokens);
+        }
+        lineTokens.addAll(first, relexed);
+
+        lastEditIncremental = !structural && ast != null && invalidLines == 0
+                && reparseChunks(first, lastOld + 1, delta);
+        if (!lastEditIncremental) reparseAll();
+    }
+
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * AST do texto atual, ou null se ele não analisa (ver {@link #getError()}).
+     */
+    public ASTNode getAst() {
+        return ast;
+    }
+
+    /**
+     * Erro léxico ou sintático do texto atual, com a mesma mensagem do Lexer/Parser completos.
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    /**
+     * Tokens do documento inteiro, terminando em EOF, como {@link Lexer#tokenize()}.
+     */
+    public List<Token> getTokens() {
+        if (invalidLines > 0) throw firstLexError();
+        List<Token> tokens = tokensOf(0, lineCount);
+        tokens.add(new Token(TokenType.EOF, "EOF", eofLine()));
+        return tokens;
+    }
+
+    /** Indica se a última edição foi resolvida sem re-analisar o programa inteiro. */
+    boolean wasIncremental() {
+        return lastEditIncremental;
+    }
+
+    // ===================== Linhas e tokens =========================
+
+    private void updateLineStarts(int offset, String inserted, int first, int lastOld, int lastNew, int shift) {
+        int newCount = lineCount + lastNew - lastOld;
+        ensureLineCapacity(newCount);
+        System.arraycopy(lineStarts, lastOld + 1, lineStarts, lastNew + 1, lineCount - lastOld - 1);
+        for (int i = lastNew + 1; i < newCount; i++) lineStarts[i] += shift;
+        int line = first + 1;
+        for (int i = 0; i < inserted.length(); i++) {
+            if (inserted.charAt(i) == '\n') lineStarts[line++] = offset + i + 1;
+        }
+        lineCount = newCount;
+    }
+
+    private void ensureLineCapacity(int capacity) {
+        if (capacity > lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, Math.max(capacity, lineStarts.length * 2));
+        }
+    }
+
+    private int lineAt(int offset) {
+        int lo = 0, hi = lineCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (lineStarts[mid] <= offset) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private int lineEnd(int line) {
+        return line + 1 < lineCount ? lineStarts[line + 1] - 1 : text.length();
+    }
+
+    private SourceScanner scannerFor(int line) {
+        return new SourceScanner(text, lineStarts[line], lineEnd(line), line + 1);
+    }
+
+    private Token[] lexLine(int line) {
+        SourceScanner scanner = scannerFor(line);
+        List<Token> tokens = new ArrayList<>();
+        try {
+            Token token;
+            while ((token = scanner.next()) != null) tokens.add(token);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return tokens.toArray(new Token[0]);
+    }
+
+    private RuntimeException firstLexError() {
+        for (int i = 0; i < lineCount; i++) {
+            if (lineTokens.get(i) != null) continue;
+            try {
+                SourceScanner scanner = scannerFor(i);
+                while (scanner.advance()) { /* até o erro */ }
+            } catch (RuntimeException e) {
+                return e;
+            }
+        }
+        throw new IllegalStateException("Nenhuma linha com erro léxico");
+    }
+
+    private static boolean hasBlockKeyword(Token[] tokens) {
+        for (Token token : tokens) {
+            int code = token.getCode();
+            if (code == Lexeme.SEQ || code == Lexeme.PAR || code == Lexeme.PROGRAMA_MINIPAR) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tokens das linhas [from, to), com os números de linha atuais (tokens de linhas
+     * deslocadas por edições anteriores são recriados e guardados de volta).
+     */
+    private List<Token> tokensOf(int from, int to) {
+        List<Token> result = new ArrayList<>();
+        for (int line = from; line < to; line++) {
+            Token[] tokens = lineTokens.get(line);
+            for (int i = 0; i < tokens.length; i++) {
+                Token token = tokens[i];
+                if (token.getLine() != line + 1) {
+                    token = new Token(token.getType(), token.getValue(), line + 1, token.getCode());
+                    tokens[i] = token;
+                }
+                result.add(token);
+            }
+        }
+        return result;
+    }
+
+    /** Mesma regra do Lexer: linhas vazias no final não contam. */
+    private int eofLine() {
+        if (text.isEmpty()) return 2;
+        int line = lineCount;
+        while (line > 0 && lineStarts[line - 1] == lineEnd(line - 1)) line--;
+        return line + 1;
+    }
+
+    // ===================== Análise =========================
+
+    private void reparseAll() {
+        chunks.clear();
+        ast = null;
+        error = null;
+        if (invalidLines > 0) {
+            error = firstLexError();
+            return;
+        }
+
+        List<Token> tokens = getTokens();
+        Parser parser = new Parser(tokens);
+        List<Block> blocks = new ArrayList<>();
+        parser.setObserver(new Parser.StatementObserver() {
+            private final List<Integer> starts = new ArrayList<>();
+
+            @Override
+            public void statement(ASTNode block, int position) {
+                starts.add(position);
+            }
+
+            @Override
+            public void blockEnd(ASTNode block, int position) {
+                Block b = new Block(block);
+                b.chunks.addAll(group(b, tokens, starts, position, lineCount));
+                blocks.add(b);
+                starts.clear();
+            }
+        });
+        try {
+            ast = parser.parseProgram();
+        } catch (RuntimeException e) {
+            error = e;
+            return;
+        }
+        for (Block block : blocks) chunks.addAll(block.chunks);
+    }
+
+    /**
+     * Re-analisa os trechos que cobrem as linhas antigas [from, to), que agora ocupam
+     * [from, to + delta). Retorna false se isso não for possível isoladamente.
+     */
+    private boolean reparseChunks(int from, int to, int delta) {
+        int i = firstChunkEndingAfter(from);
+        if (i == chunks.size() || chunks.get(i).startLine > from) return false;
+        int j = i;
+        Block block = chunks.get(i).block;
+        while (true) {
+            Chunk chunk = chunks.get(j);
+            if (!chunk.editable || chunk.block != block) return false;
+            if (chunk.endLine >= to) break;
+            if (j + 1 == chunks.size() || chunks.get(j + 1).startLine != chunk.endLine) return false;
+            j++;
+        }
+        int start = chunks.get(i).startLine;
+        int end = chunks.get(j).endLine + delta;
+
+        // Tokens do trecho seguidos de um EOF sentinela no lugar do restante do programa
+        List<Token> tokens = tokensOf(start, end);
+        tokens.add(new Token(TokenType.EOF, "EOF", end + 1));
+        Parser parser = new Parser(tokens);
+        List<Integer> starts = new ArrayList<>();
+        List<ASTNode> statements = new ArrayList<>();
+        try {
+            while (!parser.isAtEnd()) {
+                starts.add(parser.getPosition());
+                statements.add(parser.parseStatement());
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+
+        ASTNode scratch = new ASTNode(block.node.getKind(), block.node.getValue());
+        scratch.setChildren(statements);
+        List<Chunk> replacement = group(block, scratch, tokens, starts, tokens.size() - 1, end);
+
+        int inBlock = block.chunks.indexOf(chunks.get(i));
+        block.chunks.subList(inBlock, inBlock + j - i + 1).clear();
+        block.chunks.addAll(inBlock, replacement);
+        chunks.subList(i, j + 1).clear();
+        chunks.addAll(i, replacement);
+        for (int k = i + replacement.size(); k < chunks.size(); k++) {
+            chunks.get(k).startLine += delta;
+            chunks.get(k).endLine += delta;
+        }
+
+        List<ASTNode> children = new ArrayList<>();
+        for (Chunk chunk : block.chunks) children.addAll(chunk.statements);
+        block.node.setChildren(children);
+        return true;
+    }
+
+    private int firstChunkEndingAfter(int line) {
+        int lo = 0, hi = chunks.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (chunks.get(mid).endLine > line) hi = mid; else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    private static List<Chunk> group(Block block, List<Token> tokens, List<Integer> starts, int end, int eofLine) {
+        return group(block, block.node, tokens, starts, end, eofLine);
+    }
+
+    /**
+     * Agrupa as instruções de um SEQ (filhos de 'statements', começando nas posições
+     * 'starts' e terminando em 'end') em trechos delimitados por limites de linha.
+     */
+    private static List<Chunk> group(Block block, ASTNode statements, List<Token> tokens,
+                                     List<Integer> starts, int end, int eofLine) {
+        List<Chunk> result = new ArrayList<>();
+        List<ASTNode> children = statements.getChildren();
+        int groupStart = 0;
+        boolean editable = startsLine(tokens, starts.isEmpty() ? end : starts.get(0));
+        for (int k = 1; k <= starts.size(); k++) {
+            int boundary = k < starts.size() ? starts.get(k) : end;
+            boolean clean = startsLine(tokens, boundary);
+            if (!clean && k < starts.size()) continue;
+
+            Token endToken = tokens.get(boundary);
+            int endLine = endToken.getType() == TokenType.EOF ? eofLine
+                    : clean ? endToken.getLine() - 1 : endToken.getLine();
+            int startLine = tokens.get(starts.get(groupStart)).getLine() - 1;
+            result.add(new Chunk(block, startLine, endLine,
+                    new ArrayList<>(children.subList(groupStart, k)), editable && clean));
+            groupStart = k;
+            editable = true;
+        }
+        return result;
+    }
+
+    private static boolean startsLine(List<Token> tokens, int position) {
+        Token token = tokens.get(position);
+        return position == 0 || token.getType() == TokenType.EOF
+                || tokens.get(position - 1).getLine() != token.getLine();
+    }
+
+    private static final class Block {
+        final ASTNode node;
+        final List<Chunk> chunks = new ArrayList<>();
+
+        Block(ASTNode node) {
+            this.node = node;
+        }
+    }
+
+    /** Instruções consecutivas de um SEQ que ocupam as linhas [startLine, endLine). */
+    private static final class Chunk {
+        final Block block;
+        int startLine;
+        int endLine;
+        final List<ASTNode> statements;
+        final boolean editable;
+
+        Chunk(Block block, int startLine, int endLine, List<ASTNode> statements, boolean editable) {
+            this.block = block;
+            this.startLine = startLine;
+            this.endLine = endLine;
+            this.statements = statements;
+            this.editable = editable;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package minipar.parser;
+
+import minipar.lexer.Token;
+
+import java.util.List;
+
+/**
+ * Cursor sobre uma lista de tokens já materializada.
+ */
+class ListTokenCursor implements TokenCursor {
+    private final List<Token> tokens;
+    private int pos = 0;
+
+    ListTokenCursor(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    public Token current() { return tokens.get(pos); }
+    public Token previous() { return tokens.get(pos - 1); }
+    public Token peek() { return pos + 1 < tokens.size() ? tokens.get(pos + 1) : null; }
+    public Token consume() { return tokens.get(pos++); }
+    public int position() { return pos; }
+    public void reset(int position) { this.pos = position; }
+
+    List<Token> tokens() { return tokens; }
+}
@@ -0,0 +1,62 @@
+package minipar.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tipo de um {@link ASTNode}. O rótulo é a String exibida pela GUI e devolvida por
+ * {@link ASTNode#getType()}; os passes do compilador fazem switch sobre o enum.
+ */
+public enum NodeKind {
+    PROGRAMA("Programa"),
+    SEQ("SEQ"),
+    PAR("PAR"),
+    BLOCO("Bloco"),
+    COMENTARIO("Comentario"),
+    ATRIBUICAO("Atribuicao"),
+    ATRIBUICAO_INDICE("AtribuicaoIndice"),
+    VARIAVEL("Variavel"),
+    C_CHANNEL("c_channel"),
+    COMP1("Comp1"),
+    COMP2("Comp2"),
+    SEND("send"),
+    RECEIVE("receive"),
+    PRINT("print"),
+    IF("if"),
+    WHILE("while"),
+    FOR("for"),
+    DEF("def"),
+    PARAM("param"),
+    RETURN("return"),
+    IMPORT("import"),
+    CHAMADA_FUNCAO("ChamadaFuncao"),
+    BIN_OP("BinOp"),
+    VALOR("Valor"),
+    LISTA("Lista"),
+    INDEXACAO("Indexacao"),
+    INPUT("input"),
+    /** Qualquer outro rótulo, ex.: operações de canal com nome diferente de send/receive. */
+    OTHER(null);
+
+    private static final Map<String, NodeKind> BY_LABEL = new HashMap<>();
+
+    static {
+        for (NodeKind kind : values()) {
+            if (kind.label != null) BY_LABEL.put(kind.label, kind);
+        }
+    }
+
+    private final String label;
+
+    NodeKind(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static NodeKind of(String label) {
+        return BY_LABEL.getOrDefault(label, OTHER);
+    }
+}
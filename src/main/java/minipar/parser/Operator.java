@@ -0,0 +1,61 @@
+package minipar.parser;
+
+import minipar.lexer.Lexeme;
+
+/**
+ * Operadores binários das expressões (nós BinOp).
+ */
+public enum Operator {
+    ADD("+"),
+    SUB("-"),
+    MUL("*"),
+    DIV("/"),
+    POW("^"),
+    EQ("=="),
+    NE("!="),
+    LT("<"),
+    GT(">"),
+    LE("<="),
+    GE(">=");
+
+    private static final Operator[] BY_LEXEME = new Operator[Lexeme.EOF + 1];
+
+    static {
+        BY_LEXEME[Lexeme.PLUS] = ADD;
+        BY_LEXEME[Lexeme.MINUS] = SUB;
+        BY_LEXEME[Lexeme.STAR] = MUL;
+        BY_LEXEME[Lexeme.SLASH] = DIV;
+        BY_LEXEME[Lexeme.CARET] = POW;
+        BY_LEXEME[Lexeme.EQ] = EQ;
+        BY_LEXEME[Lexeme.NE] = NE;
+        BY_LEXEME[Lexeme.LT] = LT;
+        BY_LEXEME[Lexeme.GT] = GT;
+        BY_LEXEME[Lexeme.LE] = LE;
+        BY_LEXEME[Lexeme.GE] = GE;
+    }
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public boolean isComparison() {
+        return ordinal() >= EQ.ordinal();
+    }
+
+    /** Operador com este símbolo, ou null. */
+    public static Operator of(String symbol) {
+        int code = Lexeme.of(symbol);
+        return code == Lexeme.NONE ? null : BY_LEXEME[code];
+    }
+
+    /** Operador do lexema com este código, ou null. */
+    public static Operator fromLexeme(int code) {
+        return BY_LEXEME[code];
+    }
+}
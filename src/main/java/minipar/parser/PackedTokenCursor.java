@@ -0,0 +1,35 @@
+package minipar.parser;
+
+import minipar.lexer.Lexeme;
+import minipar.lexer.PackedTokens;
+import minipar.lexer.Token;
+import minipar.lexer.TokenType;
+
+/**
+ * Cursor sobre {@link PackedTokens}: as decisões do parser leem apenas os arrays de int,
+ * e objetos Token só são criados quando alguém os pede explicitamente.
+ */
+class PackedTokenCursor implements TokenCursor {
+    private final PackedTokens tokens;
+    private final int last; // índice do EOF
+    private int pos = 0;
+
+    PackedTokenCursor(PackedTokens tokens) {
+        this.tokens = tokens;
+        this.last = tokens.size() - 1;
+    }
+
+    public Token current() { return tokens.token(pos); }
+    public Token previous() { return tokens.token(pos - 1); }
+    public Token peek() { return pos + 1 <= last ? tokens.token(pos + 1) : null; }
+    public Token consume() { return tokens.token(pos++); }
+    public int position() { return pos; }
+    public void reset(int position) { this.pos = position; }
+
+    @Override public TokenType currentType() { return tokens.type(pos); }
+    @Override public int currentCode() { return tokens.code(pos); }
+    @Override public String currentText() { return tokens.text(pos); }
+    @Override public int currentLine() { return tokens.line(pos); }
+    @Override public int peekCode() { return pos + 1 <= last ? tokens.code(pos + 1) : Lexeme.NONE; }
+    @Override public void skip() { pos++; }
+}
@@ -0,0 +1,138 @@
+package minipar.parser;
+
+import minipar.lexer.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Análise sintática paralela dos blocos de topo.
+ *
+ * Os limites dos blocos aparecem nos próprios tokens (palavras-chave SEQ/PAR), então
+ * uma varredura prévia corta a lista em segmentos. O corpo de cada SEQ é analisado
+ * numa tarefa ForkJoin, com seu próprio {@link Parser} sobre o segmento seguido de
+ * um EOF sentinela. Depois os nós são costurados sob a raiz "Programa" na mesma
+ * forma do parser sequencial: cada PAR absorve todos os blocos seguintes.
+ *
+ * Se a estrutura não for a esperada ou algum segmento falhar, o programa é
+ * re-analisado sequencialmente, para lançar exatamente o mesmo erro.
+ */
+public class ParallelParser {
+
+    /** Número mínimo de tokens para o Parser usar o modo paralelo. */
+    public static final int THRESHOLD = 1 << 18;
+
+    private static final int MIN_TASK_TOKENS = 8 * 1024;
+
+    private final List<Token> tokens;
+    private final ForkJoinPool pool;
+
+    public ParallelParser(List<Token> tokens) {
+        this(tokens, ForkJoinPool.commonPool());
+    }
+
+    public ParallelParser(List<Token> tokens, ForkJoinPool pool) {
+        this.tokens = tokens;
+        this.pool = pool;
+    }
+
+    public ASTNode parseProgram() {
+        int[] starts = blockStarts();
+        if (starts == null) return sequential();
+
+        int blocks = starts.length - 1; // o último elemento é a posição do EOF
+        ASTNode[] nodes = new ASTNode[blocks];
+        boolean[] failed = new boolean[1];
+        pool.invoke(new SegmentAction(starts, 0, blocks, nodes, failed));
+        if (failed[0]) return sequential();
+
+        ASTNode root = new ASTNode(NodeKind.PROGRAMA, "programa_minipar");
+        ASTNode parent = root;
+        for (ASTNode node : nodes) {
+            parent.addChild(node);
+            if (node.getKind() == NodeKind.PAR) parent = node;
+        }
+        return root;
+    }
+
+    private ASTNode sequential() {
+        return new Parser(tokens).parseProgramSequential();
+    }
+
+    /**
+     * Posições das palavras-chave SEQ/PAR de topo, seguidas da posição do EOF; null se
+     * o programa não tiver a forma esperada (nesse caso o parser sequencial decide).
+     */
+    private int[] blockStarts() {
+        int size = tokens.size();
+        if (size < 2 || tokens.get(0).getCode() != Lexeme.PROGRAMA_MINIPAR) return null;
+
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 1; i < size; i++) {
+            int code = tokens.get(i).getCode();
+            if (code == Lexeme.SEQ || code == Lexeme.PAR) starts.add(i);
+        }
+        int eof = size - 1;
+        if (tokens.get(eof).getType() != TokenType.EOF) return null;
+        starts.add(eof);
+
+        // Depois do cabeçalho vem um bloco, e um PAR é seguido direto por outro bloco
+        if (starts.get(0) != 1) return null;
+        for (int b = 0; b + 1 < starts.size(); b++) {
+            if (tokens.get(starts.get(b)).getCode() == Lexeme.PAR && starts.get(b + 1) != starts.get(b) + 1) {
+                return null;
+            }
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private ASTNode parseBlock(int start, int end) {
+        Token keyword = tokens.get(start);
+        ASTNode block = new ASTNode(keyword.getCode() == Lexeme.SEQ ? NodeKind.SEQ : NodeKind.PAR, "");
+        if (keyword.getCode() == Lexeme.SEQ) {
+            Token eof = new Token(TokenType.EOF, "EOF", tokens.get(end).getLine());
+            Parser parser = new Parser(new SegmentTokenCursor(tokens, start + 1, end, eof));
+            while (!parser.isAtEnd()) block.addChild(parser.parseStatement());
+        }
+        return block;
+    }
+
+    /**
+     * Divide recursivamente os blocos entre as threads do pool, até segmentos
+     * pequenos demais para compensar uma nova tarefa.
+     */
+    private class SegmentAction extends RecursiveAction {
+        private final int[] starts;
+        private final int from;
+        private final int to;
+        private final ASTNode[] nodes;
+        private final boolean[] failed;
+
+        SegmentAction(int[] starts, int from, int to, ASTNode[] nodes, boolean[] failed) {
+            this.starts = starts;
+            this.from = from;
+            this.to = to;
+            this.nodes = nodes;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1 || starts[to] - starts[from] < MIN_TASK_TOKENS) {
+                for (int b = from; b < to && !failed[0]; b++) {
+                    try {
+                        nodes[b] = parseBlock(starts[b], starts[b + 1]);
+                    } catch (RuntimeException e) {
+                        failed[0] = true;
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SegmentAction(starts, from, mid, nodes, failed),
+                      new SegmentAction(starts, mid, to, nodes, failed));
+        }
+    }
+}
@@ -4,18 +4,47 @@ import minipar.lexer.*;
 import java.util.*;
 
 public class Parser {
-    private final List<Token> tokens;
-    private int pos = 0;
+    private final TokenCursor tokens;
     private final ExpressionParser expressionParser;
+    private final StatementParser statementParser;
+    private StatementObserver observer;
 
     public Parser(List<Token> tokens) {
+        this(new ListTokenCursor(tokens));
+    }
+
+    /**
+     * Consome os tokens sob demanda (ex.: um {@link TokenStream}), sem exigir a lista completa.
+     */
+    public Parser(Iterator<Token> tokens) {
+        this(new StreamTokenCursor(tokens));
+    }
+
+    /**
+     * Consome o buffer compacto; as comparações são feitas pelos códigos dos lexemas.
+     */
+    public Parser(PackedTokens tokens) {
+        this(new PackedTokenCursor(tokens));
+    }
+
+    Parser(TokenCursor tokens) {
         this.tokens = tokens;
         this.expressionParser = new ExpressionParser(this);
+        this.statementParser = new StatementParser(this);
     }
 
     public ASTNode parseProgram() {
-        expect(TokenType.KEYWORD, "programa_minipar");
-        ASTNode root = new ASTNode("Programa", "programa_minipar");
+        // Programas muito grandes já materializados têm os blocos de topo analisados em paralelo
+        if (observer == null && tokens.position() == 0 && tokens instanceof ListTokenCursor list
+                && list.tokens().size() >= ParallelParser.THRESHOLD) {
+            return new ParallelParser(list.tokens()).parseProgram();
+        }
+        return parseProgramSequential();
+    }
+
+    ASTNode parseProgramSequential() {
+        expect(Lexeme.PROGRAMA_MINIPAR);
+        ASTNode root = new ASTNode(NodeKind.PROGRAMA, "programa_minipar");
         while (!isAtEnd()) {
             root.addChild(parseBlock());
         }
@@ -23,22 +52,24 @@ public class Parser {
     }
 
     public ASTNode parseBlock() {
-        Token token = current();
-        String blockType = token.getValue(); // "SEQ" ou "PAR"
+        int blockCode = currentCode(); // SEQ ou PAR
+        String blockType = currentText();
         expect(TokenType.KEYWORD, blockType);
 
         ASTNode blocoPrincipal = new ASTNode(blockType, "");
 
         // Se for SEQ: adiciona instruções diretamente
-        if (blockType.equals("SEQ")) {
-            while (!isAtEnd() && !(peekIs("SEQ") || peekIs("PAR") || peekIs("EOF"))) {
+        if (blockCode == Lexeme.SEQ) {
+            while (!isAtEnd() && !isBlockBoundary()) {
+                if (observer != null) observer.statement(blocoPrincipal, tokens.position());
                 blocoPrincipal.addChild(parseStatement());
             }
+            if (observer != null) observer.blockEnd(blocoPrincipal, tokens.position());
         }
 
         // Se for PAR: espera blocos SEQ internos
-        else if (blockType.equals("PAR")) {
-            while (!isAtEnd() && (peekIs("SEQ") || peekIs("PAR") || peekIs("EOF"))) {
+        else if (blockCode == Lexeme.PAR) {
+            while (!isAtEnd() && isBlockBoundary()) {
                 ASTNode seqBloco = parseBlock(); // Espera SEQ logo após PAR
                 blocoPrincipal.addChild(seqBloco);
             }
@@ -47,20 +78,63 @@ public class Parser {
         return blocoPrincipal;
     }
 
+    /**
+     * Como parseProgram(), mas grava direto numa {@link FlatAst}: cada instrução é
+     * convertida assim que analisada, então a árvore de objetos nunca existe inteira.
+     */
+    public FlatAst parseProgramFlat() {
+        // Estimativa: ~1 nó a cada 2 tokens
+        int capacity = tokens instanceof ListTokenCursor list ? list.tokens().size() / 2 : 1024;
+        FlatAst.Builder builder = new FlatAst.Builder(capacity);
+        expect(Lexeme.PROGRAMA_MINIPAR);
+        builder.open(NodeKind.PROGRAMA, "programa_minipar");
+        while (!isAtEnd()) {
+            parseBlockFlat(builder);
+        }
+        builder.close();
+        return builder.build();
+    }
+
+    private void parseBlockFlat(FlatAst.Builder builder) {
+        int blockCode = currentCode();
+        String blockType = currentText();
+        expect(TokenType.KEYWORD, blockType);
+
+        builder.open(blockType, "");
+        if (blockCode == Lexeme.SEQ) {
+            while (!isAtEnd() && !isBlockBoundary()) {
+                builder.append(parseStatement());
+            }
+        } else if (blockCode == Lexeme.PAR) {
+            while (!isAtEnd() && isBlockBoundary()) {
+                parseBlockFlat(builder);
+            }
+        }
+        builder.close();
+    }
 
+    private boolean isBlockBoundary() {
+        int code = currentCode();
+        return code == Lexeme.SEQ || code == Lexeme.PAR || code == Lexeme.EOF;
+    }
 
     public ASTNode parseStatement() {
-        Token token = current();
-        if (token.getType() == TokenType.IDENTIFIER) {
-            return new StatementParser(this).parseIdentifierStatement();
+        TokenType type = currentType();
+        if (type == TokenType.IDENTIFIER) {
+            return statementParser.parseIdentifierStatement();
         }
-        if (token.getType() == TokenType.KEYWORD) {
-            return new StatementParser(this).parseKeywordStatement(token.getValue());
+        if (type == TokenType.KEYWORD) {
+            return statementParser.parseKeywordStatement(currentCode());
         }
-        if (token.getType() == TokenType.COMMENT) {
-            return new ASTNode("Comentario", consume().getValue());
+        if (type == TokenType.COMMENT) {
+            return new ASTNode(NodeKind.COMENTARIO, consumeText());
         }
-        throw error("Instrucao invalida: " + token.getValue());
+        throw error("Instrucao invalida: " + currentText());
+    }
+
+    /** Parser de instruções compartilhado por este Parser. */
+    StatementParser statements() {
+        return statementParser;
     }
 
     // === DELEGAÇÃO PARA EXPRESSÕES ===
@@ -69,25 +143,49 @@ public class Parser {
     }
 
     // ===================== Utilitários =========================
-    public Token current() { return tokens.get(pos); }
-    public Token previous() { return tokens.get(pos - 1); }
-    public Token peek() { return pos + 1 < tokens.size() ? tokens.get(pos + 1) : null; }
-    public Token consume() { return tokens.get(pos++); }
+    public Token current() { return tokens.current(); }
+    public Token previous() { return tokens.previous(); }
+    public Token peek() { return tokens.peek(); }
+    public Token consume() { return tokens.consume(); }
+    public void skip() { tokens.skip(); }
+
+    public TokenType currentType() { return tokens.currentType(); }
+    public int currentCode() { return tokens.currentCode(); }
+    public String currentText() { return tokens.currentText(); }
+    public int peekCode() { return tokens.peekCode(); }
+
+    /** Consome o token corrente e devolve apenas o seu texto. */
+    public String consumeText() {
+        String text = tokens.currentText();
+        tokens.skip();
+        return text;
+    }
+
+    public boolean match(int code) {
+        if (!isAtEnd() && tokens.currentCode() == code) {
+            tokens.skip(); return true;
+        }
+        return false;
+    }
 
     public boolean match(String value) {
-        if (!isAtEnd() && current().getValue().equals(value)) {
-            consume(); return true;
+        if (!isAtEnd() && currentText().equals(value)) {
+            tokens.skip(); return true;
         }
         return false;
     }
 
-    public boolean peekIs(String value) { return current().getValue().equals(value); }
+    public boolean peekIs(int code) { return tokens.currentCode() == code; }
+    public boolean peekIs(String value) { return currentText().equals(value); }
+
+    public boolean peekNextIs(int code) { return tokens.peekCode() == code; }
 
     public boolean peekNextIs(String value) {
-        return pos + 1 < tokens.size() && tokens.get(pos + 1).getValue().equals(value);
+        Token next = tokens.peek();
+        return next != null && next.getValue().equals(value);
     }
 
-    public boolean isAtEnd() { return current().getType() == TokenType.EOF; }
+    public boolean isAtEnd() { return tokens.currentType() == TokenType.EOF; }
 
     public Token expect(TokenType... types) {
         Token token = current();
@@ -96,12 +194,34 @@ public class Parser {
         throw error("Esperado tipo: " + List.of(types) + ", encontrado: " + token.getType());
     }
 
+    /** Como expect(TokenType...), mas devolve só o texto, sem materializar o token. */
+    public String expectText(TokenType... types) {
+        TokenType current = tokens.currentType();
+        for (TokenType type : types)
+            if (current == type) return consumeText();
+        throw error("Esperado tipo: " + List.of(types) + ", encontrado: " + current);
+    }
+
     public Token expect(TokenType type, String value) {
         Token token = current();
         if (token.getType() == type && token.getValue().equals(value)) return consume();
         throw error("Esperado: " + value + ", encontrado: " + token.getValue());
     }
 
+    /** Exige o lexema fixo com este código (o código já determina o tipo do token). */
+    public void expect(int code) {
+        if (tokens.currentCode() != code) {
+            throw error("Esperado: " + Lexeme.text(code) + ", encontrado: " + currentText());
+        }
+        tokens.skip();
+    }
+
+    public ASTNode createNode(NodeKind kind, String value, ASTNode... children) {
+        ASTNode node = new ASTNode(kind, value);
+        for (ASTNode child : children) node.addChild(child);
+        return node;
+    }
+
     public ASTNode createNode(String type, String value, ASTNode... children) {
         ASTNode node = new ASTNode(type, value);
         for (ASTNode child : children) node.addChild(child);
@@ -109,7 +229,7 @@ public class Parser {
     }
 
     public RuntimeException error(String message) {
-        return new RuntimeException("Erro sintatico na linha " + current().getLine() + ": " + message);
+        return new RuntimeException("Erro sintatico na linha " + tokens.currentLine() + ": " + message);
     }
 
     public boolean isComparisonOperator(String op) {
@@ -119,7 +239,21 @@ public class Parser {
         };
     }
 
-    public int getPosition() { return pos; }
-    public void setPosition(int pos) { this.pos = pos; }
-    public List<Token> getTokens() { return tokens; }
-}
\ No newline at end of file
+    public boolean isComparisonOperator(int code) {
+        return code >= Lexeme.EQ && code <= Lexeme.GE;
+    }
+
+    /**
+     * Recebe a posição (índice do token) onde começa cada instrução de um bloco SEQ
+     * e onde o bloco termina; usado pelo {@link IncrementalParser}.
+     */
+    interface StatementObserver {
+        void statement(ASTNode block, int position);
+        void blockEnd(ASTNode block, int position);
+    }
+
+    void setObserver(StatementObserver observer) { this.observer = observer; }
+
+    public int getPosition() { return tokens.position(); }
+    public void setPosition(int pos) { tokens.reset(pos); }
+}
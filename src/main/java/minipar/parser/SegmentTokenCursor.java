@@ -0,0 +1,32 @@
+package minipar.parser;
+
+import minipar.lexer.Token;
+
+import java.util.List;
+
+/**
+ * Cursor sobre o trecho [from, to) de uma lista de tokens, seguido de um EOF sentinela;
+ * usado para analisar um bloco de topo isoladamente.
+ */
+class SegmentTokenCursor implements TokenCursor {
+    private final List<Token> tokens;
+    private final int to;
+    private final Token eof;
+    private int pos;
+
+    SegmentTokenCursor(List<Token> tokens, int from, int to, Token eof) {
+        this.tokens = tokens;
+        this.to = to;
+        this.eof = eof;
+        this.pos = from;
+    }
+
+    private Token at(int index) { return index < to ? tokens.get(index) : eof; }
+
+    public Token current() { return at(pos); }
+    public Token previous() { return tokens.get(pos - 1); }
+    public Token peek() { return pos + 1 <= to ? at(pos + 1) : null; }
+    public Token consume() { return at(pos < to ? pos++ : pos); }
+    public int position() { return pos; }
+    public void reset(int position) { this.pos = position; }
+}
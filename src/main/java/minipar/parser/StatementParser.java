@@ -11,153 +11,156 @@ public class StatementParser {
     }
 
     public ASTNode parseIdentifierStatement() {
-        Token next = parser.peek();
-        if (next == null) throw parser.error("Token inesperado após identificador");
-
-        return switch (next.getValue()) {
-            case "=" -> parseAssignment();
-            case "." -> parseChannelOperation();
-            case "(" -> parseFunctionCall(parser.expect(TokenType.IDENTIFIER).getValue());
-            case "[" -> parseIndexAssignment();
-            default -> throw parser.error("Atribuição inválida ou comando desconhecido após '" + parser.current().getValue() + "'");
+        // O EOF sempre segue um identificador, então há lookahead disponível
+        return switch (parser.peekCode()) {
+            case Lexeme.ASSIGN -> parseAssignment();
+            case Lexeme.DOT -> parseChannelOperation();
+            case Lexeme.LPAREN -> parseFunctionCall(parser.expectText(TokenType.IDENTIFIER));
+            case Lexeme.LBRACKET -> parseIndexAssignment();
+            default -> throw parser.error("Atribuição inválida ou comando desconhecido após '" + parser.currentText() + "'");
         };
     }
 
     public ASTNode parseKeywordStatement(String keyword) {
+        return parseKeywordStatement(Lexeme.of(keyword));
+    }
+
+    public ASTNode parseKeywordStatement(int keyword) {
         return switch (keyword) {
-            case "c_channel" -> parseChannelDeclaration();
-            case "print"     -> parsePrint();
-            case "if"        -> parseConditional("if");
-            case "while"     -> parseConditional("while");
-            case "def"       -> parseFunction();
-            case "for"       -> parseFor();
-            case "return"    -> parseReturn();
-            case "import" -> parseImport();
-            default -> throw parser.error("Palavra-chave desconhecida: " + keyword);
+            case Lexeme.C_CHANNEL -> parseChannelDeclaration();
+            case Lexeme.PRINT     -> parsePrint();
+            case Lexeme.IF        -> parseConditional(Lexeme.IF);
+            case Lexeme.WHILE     -> parseConditional(Lexeme.WHILE);
+            case Lexeme.DEF       -> parseFunction();
+            case Lexeme.FOR       -> parseFor();
+            case Lexeme.RETURN    -> parseReturn();
+            case Lexeme.IMPORT -> parseImport();
+            default -> throw parser.error("Palavra-chave desconhecida: " + parser.currentText());
         };
     }
 
     private ASTNode parseAssignment() {
-        Token var = parser.expect(TokenType.IDENTIFIER);
+        String var = parser.expectText(TokenType.IDENTIFIER);
 
-        if (parser.match("[")) {
+        if (parser.match(Lexeme.LBRACKET)) {
             ASTNode index = parser.parseExpression();
-            parser.expect(TokenType.DELIMITER, "]");
-            parser.expect(TokenType.OPERATOR, "=");
+            parser.expect(Lexeme.RBRACKET);
+            parser.expect(Lexeme.ASSIGN);
             ASTNode expr = parser.parseExpression();
-            return parser.createNode("AtribuicaoIndice", var.getValue(), index, expr);
+            return parser.createNode(NodeKind.ATRIBUICAO_INDICE, var, index, expr);
         }
 
-        parser.expect(TokenType.OPERATOR, "=");
+        parser.expect(Lexeme.ASSIGN);
         ASTNode expr = parser.parseExpression();
-        ASTNode varNode = new ASTNode("Variavel", var.getValue());
-        return parser.createNode("Atribuicao", "", varNode, expr);
+        ASTNode varNode = new ASTNode(NodeKind.VARIAVEL, var);
+        return parser.createNode(NodeKind.ATRIBUICAO, "", varNode, expr);
     }
 
     private ASTNode parseChannelDeclaration() {
-        parser.expect(TokenType.KEYWORD, "c_channel");
-        Token canal = parser.expect(TokenType.IDENTIFIER);
-        Token comp1 = parser.expect(TokenType.IDENTIFIER);
-        Token comp2 = parser.expect(TokenType.IDENTIFIER);
-
-        ASTNode node = new ASTNode("c_channel", canal.getValue());
-        node.addChild(new ASTNode("Comp1", comp1.getValue()));
-        node.addChild(new ASTNode("Comp2", comp2.getValue()));
+        parser.expect(Lexeme.C_CHANNEL);
+        String canal = parser.expectText(TokenType.IDENTIFIER);
+        String comp1 = parser.expectText(TokenType.IDENTIFIER);
+        String comp2 = parser.expectText(TokenType.IDENTIFIER);
+
+        ASTNode node = new ASTNode(NodeKind.C_CHANNEL, canal);
+        node.addChild(new ASTNode(NodeKind.COMP1, comp1));
+        node.addChild(new ASTNode(NodeKind.COMP2, comp2));
         return node;
     }
 
     private ASTNode parseChannelOperation() {
-        Token canal = parser.expect(TokenType.IDENTIFIER);
-        parser.expect(TokenType.OPERATOR, ".");
-        Token operacao = parser.expect(TokenType.IDENTIFIER);
-        parser.expect(TokenType.DELIMITER, "(");
-        Token argumento = parser.expect(TokenType.IDENTIFIER, TokenType.NUMBER);
-        parser.expect(TokenType.DELIMITER, ")");
-
-        ASTNode node = new ASTNode(operacao.getValue(), canal.getValue());
+        String canal = parser.expectText(TokenType.IDENTIFIER);
+        parser.expect(Lexeme.DOT);
+        String operacao = parser.expectText(TokenType.IDENTIFIER);
+        parser.expect(Lexeme.LPAREN);
+        String argumento = parser.expectText(TokenType.IDENTIFIER, TokenType.NUMBER);
+        parser.expect(Lexeme.RPAREN);
+
+        ASTNode node = new ASTNode(operacao, canal);
         node.addChild(new ASTNode(
-                operacao.getValue().equals("send") ? "Valor" : "Variavel",
-                argumento.getValue()
+                operacao.equals("send") ? "Valor" : "Variavel",
+                argumento
         ));
         return node;
     }
 
     private ASTNode parsePrint() {
-        parser.expect(TokenType.KEYWORD, "print");
-        parser.expect(TokenType.DELIMITER, "(");
+        parser.expect(Lexeme.PRINT);
+        parser.expect(Lexeme.LPAREN);
         List<ASTNode> args = new ArrayList<>();
-        if (!parser.peekIs(")")) {
-            do args.add(parser.parseExpression()); while (parser.match(","));
+        if (!parser.peekIs(Lexeme.RPAREN)) {
+            do args.add(parser.parseExpression()); while (parser.match(Lexeme.COMMA));
         }
-        parser.expect(TokenType.DELIMITER, ")");
+        parser.expect(Lexeme.RPAREN);
 
-        ASTNode node = new ASTNode("print", "");
+        ASTNode node = new ASTNode(NodeKind.PRINT, "");
         args.forEach(node::addChild);
         return node;
     }
 
     public ASTNode parseFunctionCall(String name) {
-        parser.expect(TokenType.DELIMITER, "(");
+        parser.expect(Lexeme.LPAREN);
         List<ASTNode> args = new ArrayList<>();
-        if (!parser.peekIs(")")) {
-            do args.add(parser.parseExpression()); while (parser.match(","));
+        if (!parser.peekIs(Lexeme.RPAREN)) {
+            do args.add(parser.parseExpression()); while (parser.match(Lexeme.COMMA));
         }
-        parser.expect(TokenType.DELIMITER, ")");
-        ASTNode node = new ASTNode("ChamadaFuncao", name);
+        parser.expect(Lexeme.RPAREN);
+        ASTNode node = new ASTNode(NodeKind.CHAMADA_FUNCAO, name);
         args.forEach(node::addChild);
         return node;
     }
 
     private ASTNode parseFunction() {
-        parser.expect(TokenType.KEYWORD, "def");
-        String name = parser.expect(TokenType.IDENTIFIER).getValue();
-        parser.expect(TokenType.DELIMITER, "(");
+        parser.expect(Lexeme.DEF);
+        String name = parser.expectText(TokenType.IDENTIFIER);
+        parser.expect(Lexeme.LPAREN);
         List<String> params = new ArrayList<>();
-        if (!parser.peekIs(")"))
-            do params.add(parser.expect(TokenType.IDENTIFIER).getValue()); while (parser.match(","));
-        parser.expect(TokenType.DELIMITER, ")");
-        parser.expect(TokenType.DELIMITER, "{");
+        if (!parser.peekIs(Lexeme.RPAREN))
+            do params.add(parser.expectText(TokenType.IDENTIFIER)); while (parser.match(Lexeme.COMMA));
+        parser.expect(Lexeme.RPAREN);
+        parser.expect(Lexeme.LBRACE);
 
-        ASTNode body = new ASTNode("Bloco", "");
-        while (!parser.peekIs("}")) body.addChild(parser.parseStatement());
-        parser.expect(TokenType.DELIMITER, "}");
+        ASTNode body = new ASTNode(NodeKind.BLOCO, "");
+        while (!parser.peekIs(Lexeme.RBRACE)) body.addChild(parser.parseStatement());
+        parser.expect(Lexeme.RBRACE);
 
-        ASTNode func = new ASTNode("def", name);
-        params.forEach(p -> func.addChild(new ASTNode("param", p)));
+        ASTNode func = new ASTNode(NodeKind.DEF, name);
+        params.forEach(p -> func.addChild(new ASTNode(NodeKind.PARAM, p)));
         func.addChild(body);
         return func;
     }
 
     private ASTNode parseReturn() {
-        parser.expect(TokenType.KEYWORD, "return");
+        parser.expect(Lexeme.RETURN);
         ASTNode expr = parser.parseExpression();
-        ASTNode node = new ASTNode("return", "");
+        ASTNode node = new ASTNode(NodeKind.RETURN, "");
         node.addChild(expr);
         return node;
     }
 
-    private ASTNode parseConditional(String type) {
-        parser.expect(TokenType.KEYWORD, type);
+    private ASTNode parseConditional(int keyword) {
+        String type = Lexeme.text(keyword);
+        parser.expect(keyword);
         ASTNode condition = parser.parseExpression();
-        parser.expect(TokenType.DELIMITER, "{");
+        parser.expect(Lexeme.LBRACE);
 
-        ASTNode block = new ASTNode("Bloco", "");
-        while (!parser.peekIs("}")) block.addChild(parser.parseStatement());
-        parser.expect(TokenType.DELIMITER, "}");
+        ASTNode block = new ASTNode(NodeKind.BLOCO, "");
+        while (!parser.peekIs(Lexeme.RBRACE)) block.addChild(parser.parseStatement());
+        parser.expect(Lexeme.RBRACE);
 
         ASTNode node = new ASTNode(type, "");
         node.addChild(condition);
         node.addChild(block);
 
-        if (parser.peekIs("else")) {
-            parser.expect(TokenType.KEYWORD, "else");
-            parser.expect(TokenType.DELIMITER, "{");
+        if (parser.peekIs(Lexeme.ELSE)) {
+            parser.expect(Lexeme.ELSE);
+            parser.expect(Lexeme.LBRACE);
 
-            ASTNode elseBlock = new ASTNode("Bloco", "");
-            while (!parser.peekIs("}")) {
+            ASTNode elseBlock = new ASTNode(NodeKind.BLOCO, "");
+            while (!parser.peekIs(Lexeme.RBRACE)) {
                 elseBlock.addChild(parser.parseStatement());
             }
-            parser.expect(TokenType.DELIMITER, "}");
+            parser.expect(Lexeme.RBRACE);
 
             node.addChild(elseBlock);
         }
@@ -165,34 +168,34 @@ public class StatementParser {
         return node;
     }
     private ASTNode parseIndexAssignment() {
-        String varName = parser.expect(TokenType.IDENTIFIER).getValue();
-        parser.expect(TokenType.DELIMITER, "[");
+        String varName = parser.expectText(TokenType.IDENTIFIER);
+        parser.expect(Lexeme.LBRACKET);
         ASTNode index = parser.parseExpression();
-        parser.expect(TokenType.DELIMITER, "]");
-        parser.expect(TokenType.OPERATOR, "=");
+        parser.expect(Lexeme.RBRACKET);
+        parser.expect(Lexeme.ASSIGN);
         ASTNode value = parser.parseExpression();
 
-        ASTNode node = new ASTNode("AtribuicaoIndice", varName);
+        ASTNode node = new ASTNode(NodeKind.ATRIBUICAO_INDICE, varName);
         node.addChild(index);
         node.addChild(value);
         return node;
     }
     private ASTNode parseFor() {
-        parser.expect(TokenType.KEYWORD, "for");
-        String varName = parser.expect(TokenType.IDENTIFIER).getValue();
-        parser.expect(TokenType.OPERATOR, "=");
+        parser.expect(Lexeme.FOR);
+        String varName = parser.expectText(TokenType.IDENTIFIER);
+        parser.expect(Lexeme.ASSIGN);
         ASTNode valorInicial = parser.parseExpression();
-        parser.expect(TokenType.KEYWORD, "to");
+        parser.expect(Lexeme.TO);
         ASTNode valorFinal = parser.parseExpression();
 
-        parser.expect(TokenType.DELIMITER, "{");
-        ASTNode corpo = new ASTNode("Bloco", "");
-        while (!parser.peekIs("}")) {
+        parser.expect(Lexeme.LBRACE);
+        ASTNode corpo = new ASTNode(NodeKind.BLOCO, "");
+        while (!parser.peekIs(Lexeme.RBRACE)) {
             corpo.addChild(parser.parseStatement());
         }
-        parser.expect(TokenType.DELIMITER, "}");
+        parser.expect(Lexeme.RBRACE);
 
-        ASTNode forNode = new ASTNode("for", varName);
+        ASTNode forNode = new ASTNode(NodeKind.FOR, varName);
         forNode.addChild(valorInicial);  // filho 0
         forNode.addChild(valorFinal);    // filho 1
         forNode.addChild(corpo);         // filho 2
@@ -200,9 +203,9 @@ public class StatementParser {
         return forNode;
     }
     private ASTNode parseImport() {
-        parser.expect(TokenType.KEYWORD, "import");
-        String path = parser.expect(TokenType.STRING).getValue();
-        return new ASTNode("import", path.replace("\"", ""));
+        parser.expect(Lexeme.IMPORT);
+        String path = parser.expectText(TokenType.STRING);
+        return new ASTNode(NodeKind.IMPORT, path.replace("\"", ""));
     }
 
 
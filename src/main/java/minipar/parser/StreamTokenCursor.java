@@ -0,0 +1,63 @@
+package minipar.parser;
+
+import minipar.lexer.Token;
+
+import java.util.Iterator;
+
+/**
+ * Cursor sobre um fluxo de tokens sob demanda (ex.: {@link minipar.lexer.TokenStream}).
+ *
+ * Guarda apenas uma pequena janela circular com o token anterior, o corrente e o
+ * lookahead, de modo que a memória não cresce com o tamanho do programa.
+ */
+class StreamTokenCursor implements TokenCursor {
+    private static final int CAPACITY = 8; // potência de 2
+    private static final int MASK = CAPACITY - 1;
+
+    private final Iterator<Token> source;
+    private final Token[] ring = new Token[CAPACITY];
+    private int filled = 0; // quantidade de tokens já puxados do fluxo
+    private int pos = 0;
+
+    StreamTokenCursor(Iterator<Token> source) {
+        this.source = source;
+    }
+
+    private Token at(int index) {
+        while (filled <= index && source.hasNext()) {
+            ring[filled & MASK] = source.next();
+            filled++;
+        }
+        if (index >= filled) {
+            return null;
+        }
+        if (index < filled - CAPACITY || index < 0) {
+            throw new IllegalStateException("Token " + index + " fora da janela de lookahead do parser");
+        }
+        return ring[index & MASK];
+    }
+
+    public Token current() {
+        Token token = at(pos);
+        // Além do EOF o fluxo acabou: permanece no último token (EOF)
+        return token != null ? token : at(filled - 1);
+    }
+
+    public Token previous() { return at(pos - 1); }
+    public Token peek() { return at(pos + 1); }
+
+    public Token consume() {
+        Token token = current();
+        pos++;
+        return token;
+    }
+
+    public int position() { return pos; }
+
+    public void reset(int position) {
+        if (position < filled - CAPACITY) {
+            throw new IllegalStateException("Retrocesso além da janela de lookahead do parser");
+        }
+        this.pos = position;
+    }
+}
@@ -0,0 +1,34 @@
+package minipar.parser;
+
+import minipar.lexer.Token;
+import minipar.lexer.TokenType;
+
+/**
+ * Posição de leitura do Parser sobre uma sequência de tokens terminada em EOF.
+ *
+ * Os métodos current*() e peekCode() permitem ao parser decidir sem materializar
+ * objetos {@link Token}, o que importa para o cursor sobre {@link minipar.lexer.PackedTokens}.
+ */
+interface TokenCursor {
+    Token current();
+    Token previous();
+    /** Token seguinte ao corrente, ou null se não houver. */
+    Token peek();
+    Token consume();
+    int position();
+    void reset(int position);
+
+    default TokenType currentType() { return current().getType(); }
+    default int currentCode() { return current().getCode(); }
+    default String currentText() { return current().getValue(); }
+    default int currentLine() { return current().getLine(); }
+
+    /** Código do lexema seguinte ao corrente, ou NONE se não houver. */
+    default int peekCode() {
+        Token next = peek();
+        return next == null ? minipar.lexer.Lexeme.NONE : next.getCode();
+    }
+
+    /** Avança sem materializar o token consumido. */
+    default void skip() { consume(); }
+}
@@ -0,0 +1,47 @@
+package minipar.parser;
+
+/**
+ * Classificação do valor de um nó Valor, decidida uma única vez quando o nó é criado:
+ * literal numérico (-?\d+(\.\d+)?), string literal entre aspas ou nome de variável.
+ *
+ * Os métodos estáticos fazem a mesma verificação sem expressões regulares, para os
+ * passes que olham o valor de nós de outros tipos.
+ */
+public enum ValueKind {
+    NUMBER,
+    STRING,
+    NAME;
+
+    public static ValueKind of(String value) {
+        if (isNumber(value)) return NUMBER;
+        if (isString(value)) return STRING;
+        return NAME;
+    }
+
+    /** Equivale a value.matches("-?\\d+(\\.\\d+)?"). */
+    public static boolean isNumber(String value) {
+        int length = value.length();
+        int start = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        int i = skipDigits(value, start);
+        if (i == start) return false;
+        if (i == length) return true;
+        if (value.charAt(i) != '.') return false;
+        int end = skipDigits(value, i + 1);
+        return end > i + 1 && end == length;
+    }
+
+    /** Equivale a value.matches("\\d+"). */
+    public static boolean isUnsignedInteger(String value) {
+        return !value.isEmpty() && skipDigits(value, 0) == value.length();
+    }
+
+    public static boolean isString(String value) {
+        return value.startsWith("\"") && value.endsWith("\"");
+    }
+
+    private static int skipDigits(String value, int from) {
+        int i = from;
+        while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') i++;
+        return i;
+    }
+}
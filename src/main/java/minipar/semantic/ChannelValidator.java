@@ -1,6 +1,7 @@
 package minipar.semantic;
 
 import minipar.parser.ASTNode;
+import minipar.parser.ValueKind;
 
 public class ChannelValidator {
     private final SymbolTable symbolTable;
@@ -49,6 +50,6 @@ public class ChannelValidator {
     }
 
     private boolean isLiteral(String val) {
-        return val.matches("\\d+") || (val.startsWith("\"") && val.endsWith("\""));
+        return ValueKind.isUnsignedInteger(val) || ValueKind.isString(val);
     }
 }
@@ -1,6 +1,7 @@
 package minipar.semantic;
 
 import minipar.parser.ASTNode;
+import minipar.parser.ValueKind;
 import java.util.List;
 
 public class ExpressionValidator {
@@ -11,15 +12,15 @@ public class ExpressionValidator {
     }
 
     public void validateExpression(ASTNode expr) {
-        switch (expr.getType()) {
-            case "Valor" -> validateLiteralOrVariable(expr.getValue());
-            case "BinOp" -> {
+        switch (expr.getKind()) {
+            case VALOR -> validateLiteralOrVariable(expr);
+            case BIN_OP -> {
                 validateExpression(expr.getChildren().get(0));
                 validateExpression(expr.getChildren().get(1));
             }
-            case "ChamadaFuncao", "Lista" -> expr.getChildren().forEach(this::validateExpression);
-            case "Indexacao" -> validateIndexAccess(expr);
-            case "input" -> {}
+            case CHAMADA_FUNCAO, LISTA -> expr.getChildren().forEach(this::validateExpression);
+            case INDEXACAO -> validateIndexAccess(expr);
+            case INPUT -> {}
             default -> throw new RuntimeException("Expressão inválida: " + expr.getType());
         }
     }
@@ -28,11 +29,10 @@ public class ExpressionValidator {
         exprs.forEach(this::validateExpression);
     }
 
-    private void validateLiteralOrVariable(String val) {
-        if (val.matches("-?\\d+(\\.\\d+)?")) return; // número literal
-        if (val.startsWith("\"") && val.endsWith("\"")) return; // string
-        if (!symbolTable.isDeclared(val)) {
-            throw new RuntimeException("Variável não declarada: " + val);
+    private void validateLiteralOrVariable(ASTNode expr) {
+        if (expr.getValueKind() != ValueKind.NAME) return; // número ou string literal
+        if (!symbolTable.isDeclared(expr.getValue())) {
+            throw new RuntimeException("Variável não declarada: " + expr.getValue());
         }
     }
     private void validateIndexAccess(ASTNode expr) {
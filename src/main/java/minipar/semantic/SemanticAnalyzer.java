@@ -1,6 +1,9 @@
 package minipar.semantic;
 
 import minipar.parser.ASTNode;
+import minipar.parser.ValueKind;
+import minipar.parser.FlatAst;
+import minipar.parser.NodeKind;
 import java.util.List;
 
 public class SemanticAnalyzer {
@@ -11,30 +14,52 @@ public class SemanticAnalyzer {
     private final ControlFlowValidator controlFlowValidator = new ControlFlowValidator(expressionValidator, this);
 
     public void analyze(ASTNode root) {
-        if (!"Programa".equals(root.getType())) {
+        if (root.getKind() != NodeKind.PROGRAMA) {
             throw new RuntimeException("AST invalida: nó raiz não é 'Programa'");
         }
         root.getChildren().forEach(this::analyzeBlock);
     }
 
+    /**
+     * Analisa uma {@link FlatAst}: blocos são percorridos pelos índices e cada
+     * instrução é materializada como ASTNode só durante a sua análise.
+     */
+    public void analyze(FlatAst ast) {
+        if (ast.kind(ast.root()) != NodeKind.PROGRAMA) {
+            throw new RuntimeException("AST invalida: nó raiz não é 'Programa'");
+        }
+        analyzeBlock(ast, ast.root());
+    }
+
+    private void analyzeBlock(FlatAst ast, int block) {
+        FlatAst.Cursor cursor = ast.cursor(block);
+        if (!cursor.firstChild()) return;
+        do {
+            switch (cursor.kind()) {
+                case SEQ, PAR, BLOCO -> analyzeBlock(ast, cursor.node());
+                default -> analyzeStatement(cursor.materialize());
+            }
+        } while (cursor.nextSibling());
+    }
+
     public void analyzeBlock(ASTNode block) {
         block.getChildren().forEach(this::analyzeStatement);
     }
 
     private void analyzeStatement(ASTNode stmt) {
-        switch (stmt.getType()) {
-            case "Atribuicao"                   -> assignmentValidator.analyzeAssignment(stmt);
-            case "AtribuicaoIndice"             -> assignmentValidator.analyzeAssignmentIndex(stmt);
-            case "c_channel"                    -> channelValidator.analyzeChannel(stmt);
-            case "send"                         -> channelValidator.analyzeSend(stmt);
-            case "receive"                      -> channelValidator.analyzeReceive(stmt);
-            case "print"                        -> analyzePrint(stmt);
-            case "if", "while"                  -> controlFlowValidator.analyzeConditional(stmt);
-            case "for"                          -> analyzeForLoop(stmt);
-            case "def", "Comentario", "import"  -> {}
-            case "SEQ", "PAR", "Bloco"          -> analyzeBlock(stmt);
-            case "return"                       -> expressionValidator.validateExpression(stmt.getChildren().getFirst());
-            case "ChamadaFuncao"                -> expressionValidator.validateExpressionList(stmt.getChildren());
+        switch (stmt.getKind()) {
+            case ATRIBUICAO                     -> assignmentValidator.analyzeAssignment(stmt);
+            case ATRIBUICAO_INDICE              -> assignmentValidator.analyzeAssignmentIndex(stmt);
+            case C_CHANNEL                      -> channelValidator.analyzeChannel(stmt);
+            case SEND                           -> channelValidator.analyzeSend(stmt);
+            case RECEIVE                        -> channelValidator.analyzeReceive(stmt);
+            case PRINT                          -> analyzePrint(stmt);
+            case IF, WHILE                      -> controlFlowValidator.analyzeConditional(stmt);
+            case FOR                            -> analyzeForLoop(stmt);
+            case DEF, COMENTARIO, IMPORT        -> {}
+            case SEQ, PAR, BLOCO                -> analyzeBlock(stmt);
+            case RETURN                         -> expressionValidator.validateExpression(stmt.getChildren().getFirst());
+            case CHAMADA_FUNCAO                 -> expressionValidator.validateExpressionList(stmt.getChildren());
             default -> throw new RuntimeException("Tipo de instrucao desconhecido: " + stmt.getType());
         }
     }
@@ -47,7 +72,7 @@ public class SemanticAnalyzer {
     }
 
     private boolean isLiteral(String val) {
-        return val.matches("\\d+") || (val.startsWith("\"") && val.endsWith("\""));
+        return ValueKind.isUnsignedInteger(val) || ValueKind.isString(val);
     }
 
     public SymbolTable getSymbolTable() {
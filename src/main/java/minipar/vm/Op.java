@@ -0,0 +1,92 @@
+package minipar.vm;
+
+/**
+ * Instruções da VM. Cada instrução ocupa o opcode mais os operandos indicados, todos
+ * inteiros no array de código: r = registrador (relativo à base do frame),
+ * l = variável local, g = índice global, k = constante ou entrada do pool,
+ * t = endereço de desvio, d = declaração no pool (nome em d, tipo em d + 1), feita
+ * na primeira execução da escrita.
+ */
+final class Op {
+
+    private Op() {}
+
+    // Valores e variáveis
+    static final int LOADK = 0;     // r k         r = constante k
+    static final int GETL = 1;      // r l         r = local l (número)
+    static final int SETL = 2;      // l r d       local l = r
+    static final int SETLI = 3;     // l r d       local l = r, variável de for
+    static final int GETG = 4;      // r g
+    static final int SETG = 5;      // g r d
+    static final int SETGI = 6;     // g r d
+
+    // Aritmética e comparações (resultado 1 ou 0)
+    static final int ADD = 7;       // r a b
+    static final int SUB = 8;
+    static final int MUL = 9;
+    static final int DIV = 10;
+    static final int POW = 11;
+    static final int EQ = 12;
+    static final int NE = 13;
+    static final int LT = 14;
+    static final int GT = 15;
+    static final int LE = 16;
+    static final int GE = 17;
+
+    // Desvios: J* salta quando a comparação é falsa (vale também com NaN)
+    static final int JMP = 18;      // t
+    static final int JNEQ = 19;     // a b t
+    static final int JNNE = 20;
+    static final int JNLT = 21;
+    static final int JNGT = 22;
+    static final int JNLE = 23;
+    static final int JNGE = 24;
+
+    // Laço for
+    static final int TRUNC = 25;    // r           r = (int) r
+    static final int FORLOOP = 26;  // r b t       r = r + 1; salta para t se r <= b
+
+    // Listas
+    static final int LISTL = 27;    // l r n       local l = [r, r+1, ..., r+n-1]
+    static final int LISTG = 28;    // g r n
+    static final int SETIDXL = 29;  // l i v       local l[i] = v
+    static final int SETIDXG = 30;  // g i v
+
+    // Funções
+    static final int CALL = 31;     // r site r0 n r = função(site)(r0..r0+n-1)
+    static final int RET = 32;      // r
+    static final int RET0 = 33;     //             fim do corpo sem return
+    static final int RETTOP = 34;   // r           return fora de função
+    static final int DEF = 35;      // k           registra a função do pool
+
+    // Entrada e saída, tabela de símbolos
+    static final int DECLARE = 36;  // d           declara (nome, tipo) se ainda não declarado
+    static final int PRINT = 37;    // k           argumentos descritos no pool
+    static final int ECHO = 38;     // k           imprime string literal usada como expressão
+    static final int INPUT = 39;    // r
+
+    // Canais
+    static final int CHAN = 40;     // k           cria o canal descrito no pool
+    static final int CHKCHAN = 41;  // k           erro se o canal não existe
+    static final int SEND = 42;     // k r
+    static final int RECVL = 43;    // k l
+    static final int RECVG = 44;    // k g
+
+    // Blocos e controle da VM
+    static final int IMPORT = 45;   // k
+    static final int PAR = 46;      // k           ramos (VmCode[]) em threads
+    static final int ERROR = 47;    // k           erro de execução com a mensagem k
+    static final int END = 48;      //             fim de programa ou de trecho
+
+    // Operando constante à direita: evitam um LOADK por uso de literal
+    static final int ADDK = 49;     // r a k       r = a + constante k
+    static final int SUBK = 50;
+    static final int MULK = 51;
+    static final int DIVK = 52;
+    static final int JNEQK = 53;    // a k t
+    static final int JNNEK = 54;
+    static final int JNLTK = 55;
+    static final int JNGTK = 56;
+    static final int JNLEK = 57;
+    static final int JNGEK = 58;
+}
@@ -0,0 +1,523 @@
+package minipar.vm;
+
+import minipar.Config;
+import minipar.FrontEnd;
+import minipar.cache.ModuleCache;
+import minipar.exceptions.ReturnException;
+import minipar.interpreter.Canal;
+import minipar.interpreter.GlobalNames;
+import minipar.interpreter.GlobalTable;
+import minipar.interpreter.Tag;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.semantic.SymbolTable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Back-end alternativo ao {@link minipar.interpreter.Interpreter}: compila a AST para
+ * bytecode de registradores ({@link VmCompiler}) e executa num laço de despacho.
+ *
+ * Mesma semântica e mensagens de erro do interpretador; as globais ficam na mesma
+ * {@link GlobalTable}, então {@link #getMemory()} tem a mesma forma. As linhas
+ * [DEBUG]/[THREAD] de cada bloco não são impressas.
+ */
+public final class VirtualMachine {
+
+    // Módulos importados, compartilhados por todas as VMs e threads
+    private static final ModuleCache MODULES = new ModuleCache(Config.MODULE_CACHE_SIZE, new FrontEnd()::analyze);
+
+    private final SymbolTable symbolTable;
+    private final GlobalTable globals;
+    private final Scanner scanner;
+    private final Map<String, Canal> canais = new ConcurrentHashMap<>();
+    private final Map<String, VmFunction> functions = new ConcurrentHashMap<>();
+    private volatile int functionsVersion;
+    private final Map<ASTNode, VmCode> modules = new ConcurrentHashMap<>();
+
+    public VirtualMachine() {
+        this(new SymbolTable(), new GlobalTable(), new Scanner(System.in));
+    }
+
+    public VirtualMachine(SymbolTable symbolTable, GlobalTable globals, Scanner scanner) {
+        this.symbolTable = symbolTable;
+        this.globals = globals;
+        this.scanner = scanner;
+    }
+
+    public void execute(ASTNode root) {
+        if (root.getKind() != NodeKind.PROGRAMA) {
+            throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
+        }
+        run(VmCompiler.compile(root), new Registers(), 0, 0);
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /** Variáveis globais, por nome. */
+    public Map<String, Object> getMemory() {
+        return globals;
+    }
+
+    // ===================== Laço de despacho =========================
+
+    /** Executa a partir de pc até RET/RET0 (valor da função) ou END (0). */
+    private double run(VmCode unit, Registers regs, int bp, int pc) {
+        regs.ensure(bp + unit.registers);
+        final int[] code = unit.code;
+        final double[] k = unit.constants;
+        double[] r = regs.numbers;
+        byte[] tags = regs.tags;
+        Object[] refs = regs.refs;
+
+        while (true) {
+            switch (code[pc]) {
+                case Op.LOADK -> {
+                    r[bp + code[pc + 1]] = k[code[pc + 2]];
+                    pc += 3;
+                }
+                case Op.GETL -> {
+                    int local = code[pc + 2];
+                    int slot = bp + local;
+                    byte tag = tags[slot];
+                    r[bp + code[pc + 1]] = Tag.isNumeric(tag) ? r[slot] : readLocal(unit, local, tag);
+                    pc += 3;
+                }
+                case Op.SETL, Op.SETLI -> {
+                    int slot = bp + code[pc + 1];
+                    r[slot] = r[bp + code[pc + 2]];
+                    refs[slot] = null;
+                    tags[slot] = code[pc] == Op.SETL ? Tag.NUMBER : Tag.INT;
+                    int d = code[pc + 3];
+                    if (!unit.declared[d]) declare(unit, d, d + 1);
+                    pc += 4;
+                }
+                case Op.GETG -> {
+                    r[bp + code[pc + 1]] = readGlobal(code[pc + 2]);
+                    pc += 3;
+                }
+                case Op.SETG, Op.SETGI -> {
+                    globals.setNumber(code[pc + 1], code[pc] == Op.SETG ? Tag.NUMBER : Tag.INT, r[bp + code[pc + 2]]);
+                    int d = code[pc + 3];
+                    if (!unit.declared[d]) declare(unit, d, d + 1);
+                    pc += 4;
+                }
+                case Op.ADD -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] + r[bp + code[pc + 3]];
+                    pc += 4;
+                }
+                case Op.SUB -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] - r[bp + code[pc + 3]];
+                    pc += 4;
+                }
+                case Op.MUL -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] * r[bp + code[pc + 3]];
+                    pc += 4;
+                }
+                case Op.DIV -> {
+                    double right = r[bp + code[pc + 3]];
+                    r[bp + code[pc + 1]] = right == 0 ? 0 : r[bp + code[pc + 2]] / right;
+                    pc += 4;
+                }
+                case Op.POW -> {
+                    r[bp + code[pc + 1]] = Math.pow(r[bp + code[pc + 2]], r[bp + code[pc + 3]]);
+                    pc += 4;
+                }
+                case Op.EQ -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] == r[bp + code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                }
+                case Op.NE -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] != r[bp + code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                }
+                case Op.LT -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] < r[bp + code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                }
+                case Op.GT -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] > r[bp + code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                }
+                case Op.LE -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] <= r[bp + code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                }
+                case Op.GE -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] >= r[bp + code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                }
+                case Op.JMP -> pc = code[pc + 1];
+                case Op.JNEQ -> pc = r[bp + code[pc + 1]] == r[bp + code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNNE -> pc = r[bp + code[pc + 1]] != r[bp + code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNLT -> pc = r[bp + code[pc + 1]] < r[bp + code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNGT -> pc = r[bp + code[pc + 1]] > r[bp + code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNLE -> pc = r[bp + code[pc + 1]] <= r[bp + code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNGE -> pc = r[bp + code[pc + 1]] >= r[bp + code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.ADDK -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] + k[code[pc + 3]];
+                    pc += 4;
+                }
+                case Op.SUBK -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] - k[code[pc + 3]];
+                    pc += 4;
+                }
+                case Op.MULK -> {
+                    r[bp + code[pc + 1]] = r[bp + code[pc + 2]] * k[code[pc + 3]];
+                    pc += 4;
+                }
+                case Op.DIVK -> {
+                    double right = k[code[pc + 3]];
+                    r[bp + code[pc + 1]] = right == 0 ? 0 : r[bp + code[pc + 2]] / right;
+                    pc += 4;
+                }
+                case Op.JNEQK -> pc = r[bp + code[pc + 1]] == k[code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNNEK -> pc = r[bp + code[pc + 1]] != k[code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNLTK -> pc = r[bp + code[pc + 1]] < k[code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNGTK -> pc = r[bp + code[pc + 1]] > k[code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNLEK -> pc = r[bp + code[pc + 1]] <= k[code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.JNGEK -> pc = r[bp + code[pc + 1]] >= k[code[pc + 2]] ? pc + 4 : code[pc + 3];
+                case Op.TRUNC -> {
+                    r[bp + code[pc + 1]] = (int) r[bp + code[pc + 1]];
+                    pc += 2;
+                }
+                case Op.FORLOOP -> {
+                    int counter = bp + code[pc + 1];
+                    double next = r[counter] + 1;
+                    r[counter] = next;
+                    pc = next <= r[bp + code[pc + 2]] ? code[pc + 3] : pc + 4;
+                }
+                case Op.LISTL -> {
+                    int slot = bp + code[pc + 1];
+                    refs[slot] = newList(r, bp + code[pc + 2], code[pc + 3]);
+                    tags[slot] = Tag.REF;
+                    pc += 4;
+                }
+                case Op.LISTG -> {
+                    globals.set(code[pc + 1], newList(r, bp + code[pc + 2], code[pc + 3]));
+                    pc += 4;
+                }
+                case Op.SETIDXL -> {
+                    int local = code[pc + 1];
+                    int slot = bp + local;
+                    int global = unit.localGlobalIds[local];
+                    Object lista = tags[slot] == Tag.EMPTY ? globals.get(global) : Tag.box(tags[slot], r[slot], refs[slot]);
+                    setIndex(lista, GlobalNames.name(global), r[bp + code[pc + 2]], r[bp + code[pc + 3]]);
+                    pc += 4;
+                }
+                case Op.SETIDXG -> {
+                    int global = code[pc + 1];
+                    setIndex(globals.get(global), GlobalNames.name(global), r[bp + code[pc + 2]], r[bp + code[pc + 3]]);
+                    pc += 4;
+                }
+                case Op.CALL -> {
+                    int argc = code[pc + 4];
+                    VmFunction function = target(unit, code[pc + 2], argc);
+                    double result = invoke(function, regs, bp + unit.registers, bp + code[pc + 3], argc);
+                    r = regs.numbers;
+                    tags = regs.tags;
+                    refs = regs.refs;
+                    r[bp + code[pc + 1]] = result;
+                    pc += 5;
+                }
+                case Op.RET -> {
+                    return r[bp + code[pc + 1]];
+                }
+                case Op.RET0, Op.END -> {
+                    return 0;
+                }
+                case Op.RETTOP -> throw new ReturnException(r[bp + code[pc + 1]]); // return fora de função
+                case Op.DEF -> {
+                    define((VmFunction) unit.pool[code[pc + 1]]);
+                    pc += 2;
+                }
+                case Op.DECLARE -> {
+                    declare(unit, code[pc + 1], code[pc + 1] + 1);
+                    pc += 2;
+                }
+                case Op.PRINT -> {
+                    print(unit, regs, bp, (VmCode.PrintArg[]) unit.pool[code[pc + 1]]);
+                    r = regs.numbers;
+                    tags = regs.tags;
+                    refs = regs.refs;
+                    pc += 2;
+                }
+                case Op.ECHO -> {
+                    System.out.println(unit.pool[code[pc + 1]]);
+                    pc += 2;
+                }
+                case Op.INPUT -> {
+                    r[bp + code[pc + 1]] = readInput();
+                    pc += 2;
+                }
+                case Op.CHAN -> {
+                    declareChannel((ASTNode) unit.pool[code[pc + 1]]);
+                    pc += 2;
+                }
+                case Op.CHKCHAN -> {
+                    channel((String) unit.pool[code[pc + 1]]);
+                    pc += 2;
+                }
+                case Op.SEND -> {
+                    channel((String) unit.pool[code[pc + 1]]).send(String.valueOf(r[bp + code[pc + 2]]));
+                    pc += 3;
+                }
+                case Op.RECVL -> {
+                    int local = code[pc + 2];
+                    int slot = bp + local;
+                    String variavel = GlobalNames.name(unit.localGlobalIds[local]);
+                    r[slot] = receive((String) unit.pool[code[pc + 1]]);
+                    refs[slot] = null;
+                    tags[slot] = Tag.NUMBER;
+                    declareReceived(variavel, r[slot]);
+                    pc += 3;
+                }
+                case Op.RECVG -> {
+                    int global = code[pc + 2];
+                    double valor = receive((String) unit.pool[code[pc + 1]]);
+                    globals.setNumber(global, Tag.NUMBER, valor);
+                    declareReceived(GlobalNames.name(global), valor);
+                    pc += 3;
+                }
+                case Op.IMPORT -> {
+                    importModule((String) unit.pool[code[pc + 1]], regs, bp + unit.registers);
+                    r = regs.numbers;
+                    tags = regs.tags;
+                    refs = regs.refs;
+                    pc += 2;
+                }
+                case Op.PAR -> {
+                    runParallel((VmCode[]) unit.pool[code[pc + 1]]);
+                    pc += 2;
+                }
+                case Op.ERROR -> throw new RuntimeException((String) unit.pool[code[pc + 1]]);
+                default -> throw new IllegalStateException("Instrução inválida na VM: " + code[pc]);
+            }
+        }
+    }
+
+    // ===================== Variáveis =========================
+
+    private double readGlobal(int global) {
+        byte tag = globals.tag(global);
+        if (Tag.isNumeric(tag)) return globals.number(global);
+        String name = GlobalNames.name(global);
+        if (tag == Tag.EMPTY) throw new RuntimeException("Variável não declarada: " + name);
+        throw new RuntimeException("Valor da variável '" + name + "' não é inteiro");
+    }
+
+    /** Local sem número: antes da primeira escrita enxerga a global de mesmo nome. */
+    private double readLocal(VmCode unit, int local, byte tag) {
+        int global = unit.localGlobalIds[local];
+        if (tag == Tag.EMPTY) return readGlobal(global);
+        throw new RuntimeException("Valor da variável '" + GlobalNames.name(global) + "' não é inteiro");
+    }
+
+    private static List<Double> newList(double[] r, int start, int count) {
+        List<Double> lista = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) lista.add(r[start + i]);
+        return lista;
+    }
+
+    private static void setIndex(Object objeto, String nome, double index, double valor) {
+        if (objeto == null) throw new RuntimeException("Lista não declarada: " + nome);
+        if (!(objeto instanceof List<?>)) {
+            throw new RuntimeException("Variável '" + nome + "' não é uma lista");
+        }
+        @SuppressWarnings("unchecked")
+        List<Double> lista = (List<Double>) objeto;
+
+        int i = (int) index;
+        if (i < 0 || i >= lista.size()) {
+            throw new RuntimeException("Índice fora dos limites da lista");
+        }
+        lista.set(i, valor);
+    }
+
+    /** Declara na primeira execução da instrução; depois a checagem é só a flag. */
+    private void declare(VmCode unit, int name, int type) {
+        if (unit.declared[name]) return;
+        String variavel = (String) unit.pool[name];
+        if (!symbolTable.isDeclared(variavel)) {
+            symbolTable.declare(variavel, (String) unit.pool[type]);
+        }
+        unit.declared[name] = true;
+    }
+
+    // ===================== Funções =========================
+
+    private synchronized void define(VmFunction function) {
+        for (String parametro : function.params) {
+            if (!symbolTable.isDeclared(parametro)) {
+                symbolTable.declare(parametro, "int");
+            }
+        }
+        functions.put(function.name, function);
+        functionsVersion++;
+    }
+
+    /** Função do site de chamada, com cache no próprio VmCode até a próxima redefinição. */
+    private VmFunction target(VmCode unit, int site, int argc) {
+        if (unit.sites[site] instanceof CallSite cached && cached.version == functionsVersion) {
+            return cached.function;
+        }
+        int version = functionsVersion;
+        String nome = unit.siteNames[site];
+        VmFunction function = functions.get(nome);
+        if (function == null) throw new RuntimeException("Função não declarada: " + nome);
+        if (function.params.length != argc) {
+            throw new RuntimeException("Número de argumentos inválido para função " + nome);
+        }
+        unit.sites[site] = new CallSite(function, version);
+        return function;
+    }
+
+    /** Novo frame logo acima dos registradores de quem chama: parâmetros, locais vazios. */
+    private double invoke(VmFunction function, Registers regs, int base, int args, int argc) {
+        VmCode code = function.code;
+        regs.ensure(base + code.registers);
+        double[] r = regs.numbers;
+        byte[] tags = regs.tags;
+        Object[] refs = regs.refs;
+        for (int i = 0; i < argc; i++) {
+            r[base + i] = r[args + i];
+            tags[base + i] = Tag.NUMBER;
+            refs[base + i] = null;
+        }
+        for (int i = argc; i < code.locals; i++) {
+            tags[base + i] = Tag.EMPTY;
+            refs[base + i] = null;
+        }
+        return run(code, regs, base, 0);
+    }
+
+    private static final class CallSite {
+        final VmFunction function;
+        final int version;
+
+        CallSite(VmFunction function, int version) {
+            this.function = function;
+            this.version = version;
+        }
+    }
+
+    // ===================== Entrada e saída =========================
+
+    private void print(VmCode unit, Registers regs, int bp, VmCode.PrintArg[] args) {
+        StringBuilder output = new StringBuilder();
+        for (VmCode.PrintArg arg : args) {
+            if (arg.literal != null) {
+                output.append(arg.literal);
+            } else {
+                try {
+                    run(unit, regs, bp, arg.start);
+                    output.append(regs.numbers[bp + arg.register]);
+                } catch (RuntimeException e) {
+                    // Fallback: exibe o literal, como o interpretador
+                    output.append(arg.raw);
+                }
+            }
+            output.append(" ");
+        }
+        System.out.println(output.toString().trim());
+    }
+
+    private double readInput() {
+        System.out.print("Entrada: ");
+        String line = scanner.nextLine();
+        try {
+            return Double.parseDouble(line);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor de entrada inválido: " + line);
+        }
+    }
+
+    // ===================== Canais =========================
+
+    private void declareChannel(ASTNode stmt) {
+        String canal = stmt.getValue();
+        String comp1 = stmt.getChildren().get(0).getValue();
+        String comp2 = stmt.getChildren().get(1).getValue();
+
+        symbolTable.declare(canal, "canal");
+        symbolTable.declare(comp1, "computador");
+        symbolTable.declare(comp2, "computador");
+
+        Canal c = new Canal(canal, Canal.proximaPorta());
+        canais.put(canal, c);
+
+        System.out.println("Canal criado: " + canal + " entre " + comp1 + " e " + comp2 + " na porta " + c.getPorta());
+    }
+
+    private Canal channel(String canal) {
+        Canal c = canais.get(canal);
+        if (c == null) throw new RuntimeException("Canal '" + canal + "' não existe");
+        return c;
+    }
+
+    private double receive(String canal) {
+        String recebido = channel(canal).receive();
+        try {
+            return Double.parseDouble(recebido);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor inválido recebido no canal '" + canal + "': " + recebido);
+        }
+    }
+
+    private void declareReceived(String variavel, double valor) {
+        symbolTable.declare(variavel, valor == (int) valor ? "int" : "float");
+    }
+
+    // ===================== Import e PAR =========================
+
+    private void importModule(String path, Registers regs, int base) {
+        try {
+            ASTNode importedAst = MODULES.load(Path.of(path));
+            if (importedAst.getKind() != NodeKind.PROGRAMA) {
+                throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
+            }
+            run(modules.computeIfAbsent(importedAst, VmCompiler::compile), regs, base, 0);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao importar arquivo '" + path + "': " + e.getMessage(), e);
+        }
+    }
+
+    private void runParallel(VmCode[] ramos) {
+        List<Thread> threads = new ArrayList<>();
+        for (VmCode ramo : ramos) {
+            Thread t = new Thread(() -> run(ramo, new Registers(), 0, 0));
+            t.start();
+            threads.add(t);
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException("Erro em thread paralela", e);
+            }
+        }
+    }
+
+    /** Pilha de registradores de uma thread: número, etiqueta e referência por posição. */
+    private static final class Registers {
+        double[] numbers = new double[256];
+        byte[] tags = new byte[256];
+        Object[] refs = new Object[256];
+
+        void ensure(int size) {
+            if (size <= numbers.length) return;
+            int length = Math.max(size, numbers.length * 2);
+            numbers = Arrays.copyOf(numbers, length);
+            tags = Arrays.copyOf(tags, length);
+            refs = Arrays.copyOf(refs, length);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package minipar.vm;
+
+/**
+ * Código compilado de um programa, ramo PAR ou corpo de função. As variáveis locais
+ * ocupam os primeiros registradores do frame; os demais são temporários.
+ */
+final class VmCode {
+
+    final String name;
+    final int[] code;
+    final double[] constants;
+    final Object[] pool;
+    final int registers;
+    final int locals;
+    final int[] localGlobalIds; // global de mesmo nome de cada local (leitura antes da primeira escrita)
+    final String[] siteNames;   // função chamada em cada site de CALL
+    final Object[] sites;       // cache de chamada de cada site (VirtualMachine.CallSite)
+    final boolean[] declared;   // DECLARE já executado, indexado pelo nome no pool
+
+    VmCode(String name, int[] code, double[] constants, Object[] pool,
+           int registers, int locals, int[] localGlobalIds, String[] siteNames) {
+        this.name = name;
+        this.code = code;
+        this.constants = constants;
+        this.pool = pool;
+        this.registers = registers;
+        this.locals = locals;
+        this.localGlobalIds = localGlobalIds;
+        this.siteNames = siteNames;
+        this.sites = new Object[siteNames.length];
+        this.declared = new boolean[pool.length];
+    }
+
+    /** Argumento de print: string literal, ou trecho de código que deixa o valor no registrador. */
+    static final class PrintArg {
+        final String literal;
+        final int start;
+        final int register;
+        final String raw; // exibido quando a avaliação falha, como no interpretador
+
+        PrintArg(String literal, int start, int register, String raw) {
+            this.literal = literal;
+            this.start = start;
+            this.register = register;
+            this.raw = raw;
+        }
+    }
+}
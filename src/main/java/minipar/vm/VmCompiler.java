@@ -0,0 +1,460 @@
+package minipar.vm;
+
+import minipar.interpreter.GlobalNames;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.parser.ValueKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compila a AST analisada para o bytecode de registradores da VM. Segue as regras de
+ * escopo do interpretador: parâmetros e variáveis atribuídas no corpo de uma função
+ * são locais, os demais nomes são globais.
+ *
+ * Erros que o interpretador só detecta ao executar (bloco desconhecido, condição
+ * inválida, indexação em expressão...) viram instruções ERROR no mesmo ponto.
+ */
+final class VmCompiler {
+
+    private final String name;
+    private final Map<String, Integer> locals;
+    private final boolean inFunction;
+
+    private int[] code = new int[64];
+    private int size;
+    private final List<Double> constants = new ArrayList<>();
+    private final Map<Double, Integer> constantIndex = new HashMap<>();
+    private final List<Object> pool = new ArrayList<>();
+    private final List<String> siteNames = new ArrayList<>();
+    private int next;      // próximo registrador temporário livre
+    private int registers;
+
+    private VmCompiler(String name, Map<String, Integer> locals, boolean inFunction) {
+        this.name = name;
+        this.locals = locals;
+        this.inFunction = inFunction;
+        this.next = locals.size();
+        this.registers = locals.size();
+    }
+
+    /** Programa completo: os blocos filhos da raiz, em ordem. */
+    static VmCode compile(ASTNode root) {
+        VmCompiler compiler = new VmCompiler("programa", Map.of(), false);
+        for (ASTNode block : root.getChildren()) {
+            compiler.block(block);
+        }
+        compiler.emit(Op.END);
+        return compiler.finish();
+    }
+
+    private static VmCode compileBranch(ASTNode block) {
+        VmCompiler compiler = new VmCompiler("PAR", Map.of(), false);
+        compiler.block(block);
+        compiler.emit(Op.END);
+        return compiler.finish();
+    }
+
+    /** Função do def, ou null quando o def não tem corpo. */
+    private static VmFunction compileFunction(ASTNode def) {
+        List<ASTNode> children = def.getChildren();
+        Map<String, Integer> locals = new LinkedHashMap<>();
+        int paramCount = 0;
+        while (paramCount < children.size() && children.get(paramCount).getKind() == NodeKind.PARAM) {
+            locals.putIfAbsent(children.get(paramCount).getValue(), locals.size());
+            paramCount++;
+        }
+        if (paramCount == children.size()) return null;
+        ASTNode body = children.get(paramCount);
+        collectLocals(body, locals);
+
+        String[] params = new String[paramCount];
+        for (int i = 0; i < paramCount; i++) params[i] = children.get(i).getValue();
+
+        VmCompiler compiler = new VmCompiler(def.getValue(), locals, true);
+        compiler.block(body);
+        compiler.emit(Op.RET0);
+        return new VmFunction(def.getValue(), params, compiler.finish());
+    }
+
+    private static void collectLocals(ASTNode node, Map<String, Integer> locals) {
+        switch (node.getKind()) {
+            case DEF -> { return; }
+            case VARIAVEL, FOR -> locals.putIfAbsent(node.getValue(), locals.size());
+            default -> {}
+        }
+        for (ASTNode child : node.getChildren()) {
+            collectLocals(child, locals);
+        }
+    }
+
+    private VmCode finish() {
+        int[] localGlobalIds = new int[locals.size()];
+        for (Map.Entry<String, Integer> local : locals.entrySet()) {
+            localGlobalIds[local.getValue()] = GlobalNames.id(local.getKey());
+        }
+        double[] k = new double[constants.size()];
+        for (int i = 0; i < k.length; i++) k[i] = constants.get(i);
+        return new VmCode(name, Arrays.copyOf(code, size), k, pool.toArray(),
+                registers, locals.size(), localGlobalIds, siteNames.toArray(new String[0]));
+    }
+
+    // ===================== Blocos e instruções =========================
+
+    private void block(ASTNode block) {
+        switch (block.getKind()) {
+            case SEQ, BLOCO -> statements(block);
+            case PAR -> {
+                List<ASTNode> children = block.getChildren();
+                VmCode[] ramos = new VmCode[children.size()];
+                for (int i = 0; i < ramos.length; i++) ramos[i] = compileBranch(children.get(i));
+                emit(Op.PAR, poolIndex(ramos));
+            }
+            default -> error("Tipo de bloco desconhecido: " + block.getType());
+        }
+    }
+
+    private void statements(ASTNode block) {
+        for (ASTNode stmt : block.getChildren()) {
+            int mark = next;
+            statement(stmt);
+            next = mark;
+        }
+    }
+
+    private void statement(ASTNode stmt) {
+        switch (stmt.getKind()) {
+            case ATRIBUICAO        -> assignment(stmt);
+            case ATRIBUICAO_INDICE -> indexAssignment(stmt);
+            case COMENTARIO        -> {}
+            case C_CHANNEL         -> emit(Op.CHAN, poolIndex(stmt));
+            case SEND              -> send(stmt);
+            case RECEIVE           -> receive(stmt);
+            case PRINT             -> print(stmt);
+            case IF                -> ifStatement(stmt);
+            case WHILE             -> whileStatement(stmt);
+            case FOR               -> forStatement(stmt);
+            case DEF               -> def(stmt);
+            case RETURN            -> emit(inFunction ? Op.RET : Op.RETTOP, expr(stmt.getChildren().get(0)));
+            case CHAMADA_FUNCAO    -> call(stmt);
+            case IMPORT            -> emit(Op.IMPORT, poolIndex(stmt.getValue()));
+            default                -> error("Instrução não suportada: " + stmt.getType());
+        }
+    }
+
+    private void assignment(ASTNode stmt) {
+        ASTNode target = stmt.getChildren().get(0);
+        ASTNode expr = stmt.getChildren().get(1);
+        Integer local = locals.get(target.getValue());
+
+        if (expr.getKind() == NodeKind.LISTA) {
+            int start = next;
+            for (ASTNode item : expr.getChildren()) {
+                expr(item);
+            }
+            int count = expr.getChildren().size();
+            if (local != null) emit(Op.LISTL, local, start, count);
+            else emit(Op.LISTG, GlobalNames.id(target.getValue()), start, count);
+            emit(Op.DECLARE, declaration(target.getValue(), "lista"));
+        } else {
+            int value = expr(expr);
+            if (local != null) emit(Op.SETL, local, value, declaration(target.getValue(), "int"));
+            else emit(Op.SETG, GlobalNames.id(target.getValue()), value, declaration(target.getValue(), "int"));
+        }
+    }
+
+    private void indexAssignment(ASTNode stmt) {
+        int index = expr(stmt.getChildren().get(0));
+        int value = expr(stmt.getChildren().get(1));
+        Integer local = locals.get(stmt.getValue());
+        if (local != null) emit(Op.SETIDXL, local, index, value);
+        else emit(Op.SETIDXG, GlobalNames.id(stmt.getValue()), index, value);
+    }
+
+    private void send(ASTNode stmt) {
+        int canal = poolIndex(stmt.getValue());
+        emit(Op.CHKCHAN, canal);
+        emit(Op.SEND, canal, expr(stmt.getChildren().get(0)));
+    }
+
+    private void receive(ASTNode stmt) {
+        String variavel = stmt.getChildren().get(0).getValue();
+        Integer local = locals.get(variavel);
+        if (local != null) emit(Op.RECVL, poolIndex(stmt.getValue()), local);
+        else emit(Op.RECVG, poolIndex(stmt.getValue()), GlobalNames.id(variavel));
+    }
+
+    private void print(ASTNode stmt) {
+        List<ASTNode> children = stmt.getChildren();
+        VmCode.PrintArg[] args = new VmCode.PrintArg[children.size()];
+        int spec = poolIndex(args);
+        emit(Op.PRINT, spec);
+        emit(Op.JMP, 0);
+        int skip = size - 1;
+
+        // Cada argumento avaliado é um trecho terminado por END, executado pelo PRINT
+        for (int i = 0; i < args.length; i++) {
+            ASTNode arg = children.get(i);
+            String raw = arg.getValue();
+            if (arg.getKind() == NodeKind.VALOR && raw.startsWith("\"") && raw.endsWith("\"")) {
+                args[i] = new VmCode.PrintArg(raw.substring(1, raw.length() - 1), -1, -1, raw);
+            } else {
+                int start = size;
+                int mark = next;
+                int register = expr(arg);
+                emit(Op.END);
+                next = mark;
+                args[i] = new VmCode.PrintArg(null, start, register, raw);
+            }
+        }
+        code[skip] = size;
+    }
+
+    private void ifStatement(ASTNode stmt) {
+        List<ASTNode> children = stmt.getChildren();
+        int toElse = condition(children.get(0));
+        statements(children.get(1));
+        if (children.size() > 2) {
+            emit(Op.JMP, 0);
+            int toEnd = size - 1;
+            patch(toElse);
+            statements(children.get(2));
+            patch(toEnd);
+        } else {
+            patch(toElse);
+        }
+    }
+
+    private void whileStatement(ASTNode stmt) {
+        int loop = size;
+        int exit = condition(stmt.getChildren().get(0));
+        statements(stmt.getChildren().get(1));
+        emit(Op.JMP, loop);
+        patch(exit);
+    }
+
+    private void forStatement(ASTNode stmt) {
+        String varName = stmt.getValue();
+        Integer local = locals.get(varName);
+
+        // O contador e o limite ficam em registradores abaixo dos temporários do corpo
+        int counter = expr(stmt.getChildren().get(0));
+        int limit = expr(stmt.getChildren().get(1));
+        emit(Op.TRUNC, counter);
+
+        // Teste na entrada; depois o FORLOOP incrementa, testa e volta ao corpo
+        emit(Op.JNLE, counter, limit, 0);
+        int exit = size - 1;
+        int loop = size;
+        if (local != null) emit(Op.SETLI, local, counter, declaration(varName, "int"));
+        else emit(Op.SETGI, GlobalNames.id(varName), counter, declaration(varName, "int"));
+        statements(stmt.getChildren().get(2));
+        emit(Op.FORLOOP, counter, limit, loop);
+        patch(exit);
+    }
+
+    private void def(ASTNode stmt) {
+        VmFunction function = compileFunction(stmt);
+        if (function == null) {
+            error("Função sem corpo: " + stmt.getValue());
+        } else {
+            emit(Op.DEF, poolIndex(function));
+        }
+    }
+
+    /** Desvio tomado quando a condição é falsa; devolve a posição do alvo a corrigir, ou -1. */
+    private int condition(ASTNode node) {
+        if (node.getKind() != NodeKind.BIN_OP) {
+            error("Condição inválida");
+            return -1;
+        }
+        ASTNode leftNode = node.getChildren().get(0);
+        ASTNode rightNode = node.getChildren().get(1);
+        Operator op = node.getOperator();
+        boolean mirrored = false;
+        if (op != null && isConstant(leftNode) && !isConstant(rightNode)) {
+            // k < x vira x > k, para usar a forma com constante à direita
+            ASTNode swap = leftNode;
+            leftNode = rightNode;
+            rightNode = swap;
+            mirrored = true;
+        }
+        int left = expr(leftNode);
+        boolean constant = isConstant(rightNode);
+        int right = constant ? constant(rightNode.getNumber()) : expr(rightNode);
+        int jump = op == null ? -1 : switch (mirrored ? mirror(op) : op) {
+            case EQ -> constant ? Op.JNEQK : Op.JNEQ;
+            case NE -> constant ? Op.JNNEK : Op.JNNE;
+            case LT -> constant ? Op.JNLTK : Op.JNLT;
+            case GT -> constant ? Op.JNGTK : Op.JNGT;
+            case LE -> constant ? Op.JNLEK : Op.JNLE;
+            case GE -> constant ? Op.JNGEK : Op.JNGE;
+            default -> -1;
+        };
+        if (jump < 0) {
+            error("Operador inválido em condição: " + node.getValue());
+            return -1;
+        }
+        emit(jump, left, right, 0);
+        return size - 1;
+    }
+
+    // ===================== Expressões =========================
+
+    /** Compila a expressão e devolve o registrador com o valor (sempre o próximo livre). */
+    private int expr(ASTNode node) {
+        int target = allocate();
+        switch (node.getKind()) {
+            case VALOR -> value(node, target);
+            case LISTA -> {
+                // O valor da lista não é usado; os itens são avaliados pelos efeitos
+                for (ASTNode item : node.getChildren()) {
+                    expr(item);
+                }
+                emit(Op.LOADK, target, constant(0));
+            }
+            case INPUT -> emit(Op.INPUT, target);
+            case BIN_OP -> binary(node, target);
+            case CHAMADA_FUNCAO -> callInto(node, target);
+            default -> error("Expressão inválida: " + node.getType());
+        }
+        next = target + 1;
+        return target;
+    }
+
+    private void binary(ASTNode node, int target) {
+        ASTNode leftNode = node.getChildren().get(0);
+        ASTNode rightNode = node.getChildren().get(1);
+        Operator op = node.getOperator();
+        if (op == null) {
+            expr(leftNode);
+            expr(rightNode);
+            error("Operador inválido: " + node.getValue());
+            return;
+        }
+        if ((op == Operator.ADD || op == Operator.MUL) && isConstant(leftNode) && !isConstant(rightNode)) {
+            ASTNode swap = leftNode;
+            leftNode = rightNode;
+            rightNode = swap;
+        }
+        int constantOp = switch (op) {
+            case ADD -> Op.ADDK;
+            case SUB -> Op.SUBK;
+            case MUL -> Op.MULK;
+            case DIV -> Op.DIVK;
+            default -> -1;
+        };
+        int left = expr(leftNode);
+        if (constantOp >= 0 && isConstant(rightNode)) {
+            emit(constantOp, target, left, constant(rightNode.getNumber()));
+        } else {
+            emit(opcode(op), target, left, expr(rightNode));
+        }
+    }
+
+    private static boolean isConstant(ASTNode node) {
+        return node.getKind() == NodeKind.VALOR && node.getValueKind() == ValueKind.NUMBER;
+    }
+
+    private static Operator mirror(Operator op) {
+        return switch (op) {
+            case LT -> Operator.GT;
+            case GT -> Operator.LT;
+            case LE -> Operator.GE;
+            case GE -> Operator.LE;
+            default -> op;
+        };
+    }
+
+    private void value(ASTNode node, int target) {
+        switch (node.getValueKind()) {
+            case NUMBER -> emit(Op.LOADK, target, constant(node.getNumber()));
+            case STRING -> {
+                String val = node.getValue();
+                emit(Op.ECHO, poolIndex(val.substring(1, val.length() - 1)));
+                emit(Op.LOADK, target, constant(0));
+            }
+            default -> {
+                Integer local = locals.get(node.getValue());
+                if (local != null) emit(Op.GETL, target, local);
+                else emit(Op.GETG, target, GlobalNames.id(node.getValue()));
+            }
+        }
+    }
+
+    private static int opcode(Operator op) {
+        return switch (op) {
+            case ADD -> Op.ADD;
+            case SUB -> Op.SUB;
+            case MUL -> Op.MUL;
+            case DIV -> Op.DIV;
+            case POW -> Op.POW;
+            case EQ -> Op.EQ;
+            case NE -> Op.NE;
+            case LT -> Op.LT;
+            case GT -> Op.GT;
+            case LE -> Op.LE;
+            case GE -> Op.GE;
+        };
+    }
+
+    private void call(ASTNode node) {
+        callInto(node, allocate());
+    }
+
+    private void callInto(ASTNode node, int target) {
+        int start = next;
+        for (ASTNode arg : node.getChildren()) {
+            expr(arg);
+        }
+        siteNames.add(node.getValue());
+        emit(Op.CALL, target, siteNames.size() - 1, start, node.getChildren().size());
+    }
+
+    // ===================== Emissão =========================
+
+    private int allocate() {
+        int register = next++;
+        if (next > registers) registers = next;
+        return register;
+    }
+
+    /** Nome e tipo em entradas seguidas do pool; devolve o índice do nome. */
+    private int declaration(String variable, String type) {
+        int name = poolIndex(variable);
+        poolIndex(type);
+        return name;
+    }
+
+    private void error(String message) {
+        emit(Op.ERROR, poolIndex(message));
+    }
+
+    private void patch(int position) {
+        if (position >= 0) code[position] = size;
+    }
+
+    private int constant(double value) {
+        return constantIndex.computeIfAbsent(value, v -> {
+            constants.add(v);
+            return constants.size() - 1;
+        });
+    }
+
+    private int poolIndex(Object value) {
+        pool.add(value);
+        return pool.size() - 1;
+    }
+
+    private void emit(int... words) {
+        if (size + words.length > code.length) code = Arrays.copyOf(code, Math.max(code.length * 2, size + words.length));
+        System.arraycopy(words, 0, code, size, words.length);
+        size += words.length;
+    }
+}
@@ -0,0 +1,15 @@
+package minipar.vm;
+
+/** Função compilada; registrada na VM quando a instrução DEF executa. */
+final class VmFunction {
+
+    final String name;
+    final String[] params;
+    final VmCode code;
+
+    VmFunction(String name, String[] params, VmCode code) {
+        this.name = name;
+        this.params = params;
+        this.code = code;
+    }
+}
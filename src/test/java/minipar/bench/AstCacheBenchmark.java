@@ -0,0 +1,64 @@
+package minipar.bench;
+
+import minipar.FrontEnd;
+import minipar.cache.AstCache;
+import minipar.parser.ASTNode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência do front-end sem cache (Lexer → Parser → SemanticAnalyzer) contra a
+ * leitura da AST já analisada do arquivo .mpc mapeado em memória.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.AstCacheBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AstCacheBenchmark {
+
+    @Param({"65536", "1048576"})
+    public int chars;
+
+    private String source;
+    private FrontEnd cold;
+    private FrontEnd warm;
+
+    @Setup
+    public void setup() throws IOException {
+        source = ProgramGenerator.generate(chars, 10);
+        cold = new FrontEnd(null);
+
+        Path dir = Files.createTempDirectory("minipar-bench-cache");
+        AstCache cache = new AstCache(dir);
+        warm = new FrontEnd(cache);
+        warm.analyze(source); // popula o cache
+        System.out.printf("%n[AstCache] fonte: %d bytes, .mpc: %d bytes%n",
+                source.length(), Files.size(cache.fileFor(source)));
+    }
+
+    @Benchmark
+    public ASTNode coldFrontEnd() {
+        return cold.analyze(source);
+    }
+
+    @Benchmark
+    public ASTNode warmCache() {
+        return warm.analyze(source);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AstCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
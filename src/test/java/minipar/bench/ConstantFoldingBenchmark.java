@@ -0,0 +1,95 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.ir.IRGenerator;
+import minipar.ir.IRInstruction;
+import minipar.lexer.Lexer;
+import minipar.optimizer.ConstantFolder;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interpretação e geração de IR de um laço com subexpressões constantes e o idioma
+ * de conversão "v = v + 0", com e sem o ConstantFolder.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.ConstantFoldingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstantFoldingBenchmark {
+
+    private static final String PROGRAM = """
+            programa_minipar
+            SEQ
+            i = 0
+            total = 0
+            while (i < 100 * 100) {
+                v = i + 0
+                total = total + v * (60 * 60) / (4 * 256) + 1.5 * 4 - 3 * 1
+                i = i + 1
+            }
+            """;
+
+    @Param({"false", "true"})
+    public boolean fold;
+
+    private ASTNode program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        program = new Parser(new Lexer(PROGRAM).tokenize()).parseProgram();
+        if (fold) program = new ConstantFolder().optimize(program);
+        int instructions = generateIrSilently().size();
+
+        // O interpretador e o IRGenerator imprimem linhas de depuração
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        originalOut.printf("%n[ConstantFolding] fold=%b: %d instruções de IR%n", fold, instructions);
+    }
+
+    private List<IRInstruction> generateIrSilently() {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return new IRGenerator().generate(program);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Interpreter interpret() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(program);
+        return interpreter;
+    }
+
+    @Benchmark
+    public List<IRInstruction> generateIr() {
+        return new IRGenerator().generate(program);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConstantFoldingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package minipar.bench;
+
+import minipar.lexer.Lexer;
+import minipar.lexer.PackedTokens;
+import minipar.lexer.Token;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing de programas dominados por expressões longas (vários níveis de precedência,
+ * parênteses, chamadas de função e indexação), lidos de uma lista de Tokens ou dos
+ * tokens compactados (PackedTokenCursor, que só cria um Token quando pedido).
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.ExpressionParserBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionParserBenchmark {
+
+    @Param({"20000"})
+    public int lines;
+
+    @Param({"list", "packed"})
+    public String source;
+
+    private List<Token> tokens;
+    private PackedTokens packed;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("programa_minipar\nSEQ\n");
+        for (int i = 0; i < lines; i++) {
+            sb.append("v").append(i % 50).append(" = (a + b * c ^ 2 ^ 1 - 4.5) / f(d, e * 2, g[")
+              .append(i % 7).append("]) + h(x + 1) * (y - z / 3) >= ").append(i).append(" + w ^ 3\n");
+        }
+        tokens = new Lexer(sb.toString()).tokenize();
+        packed = new Lexer(sb.toString()).tokenizePacked();
+    }
+
+    @Benchmark
+    public ASTNode parse() {
+        return ("packed".equals(source) ? new Parser(packed) : new Parser(tokens)).parseProgram();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExpressionParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
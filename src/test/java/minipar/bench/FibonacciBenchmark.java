@@ -0,0 +1,70 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fibonacci recursivo em MiniPar: o tempo é dominado pelo caminho de chamada
+ * (busca da função, frame, argumentos e retorno).
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.FibonacciBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FibonacciBenchmark {
+
+    private static final String FIBONACCI = """
+            programa_minipar
+            SEQ
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            r = fib(20)
+            """;
+
+    private ASTNode program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        program = new Parser(new Lexer(FIBONACCI).tokenize()).parseProgram();
+
+        // O interpretador imprime uma linha de depuração por bloco executado
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Interpreter run() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(program);
+        return interpreter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FibonacciBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,153 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.lexer.Token;
+import minipar.parser.ASTNode;
+import minipar.parser.FlatAst;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ASTNode x FlatAst em programas grandes: memória por nó (impressa no setup, pela
+ * diferença do heap após GC), antes e depois de o interpretador executar o programa, e
+ * tempo de um percurso completo em pré-ordem.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.FlatAstBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlatAstBenchmark {
+
+    @Param({"8388608"})
+    public int chars;
+
+    private List<Token> tokens;
+    private ASTNode tree;
+    private FlatAst flat;
+
+    @Setup
+    public void setup() {
+        tokens = new Lexer(ProgramGenerator.generate(chars, 100)).tokenize();
+
+        long before = usedHeap();
+        tree = new Parser(tokens).parseProgram();
+        long treeBytes = usedHeap() - before;
+
+        before = usedHeap();
+        flat = new Parser(tokens).parseProgramFlat();
+        long flatBytes = usedHeap() - before;
+
+        int nodes = flat.size();
+        System.out.printf("%n[FlatAst] %d nós, %d valores distintos%n", nodes, flat.distinctValues());
+        System.out.printf("[FlatAst] ASTNode: %.1f bytes/nó, FlatAst: %.1f bytes/nó%n",
+                (double) treeBytes / nodes, (double) flatBytes / nodes);
+        System.out.printf("[FlatAst] retido após executar: ASTNode: %.1f bytes/nó, FlatAst: %.1f bytes/nó%n",
+                (double) retainedAfterRun(false) / nodes, (double) retainedAfterRun(true) / nodes);
+    }
+
+    /**
+     * Heap que continua ocupado depois de analisar e executar o programa, mantendo a AST
+     * e o interpretador vivos (globais e defs registrados entram nas duas contas).
+     */
+    private long retainedAfterRun(boolean flatAst) {
+        long before = usedHeap();
+        Interpreter interpreter = new Interpreter();
+        Object ast;
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            if (flatAst) {
+                FlatAst program = new Parser(tokens).parseProgramFlat();
+                new SemanticAnalyzer().analyze(program);
+                interpreter.execute(program);
+                ast = program;
+            } else {
+                ASTNode program = new Parser(tokens).parseProgram();
+                new SemanticAnalyzer().analyze(program);
+                interpreter.execute(program);
+                ast = program;
+            }
+        } finally {
+            System.setOut(out);
+        }
+        long bytes = usedHeap() - before;
+        Reference.reachabilityFence(ast);
+        Reference.reachabilityFence(interpreter);
+        return bytes;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    public long walkTree() {
+        return walk(tree);
+    }
+
+    private static long walk(ASTNode node) {
+        long sum = node.getKind().ordinal() + node.getValue().length();
+        for (ASTNode child : node.getChildren()) sum += walk(child);
+        return sum;
+    }
+
+    @Benchmark
+    public long walkFlatCursor() {
+        FlatAst.Cursor cursor = flat.cursor();
+        long sum = 0;
+        int depth = 0;
+        while (true) {
+            sum += cursor.kind().ordinal() + cursor.value().length();
+            if (cursor.firstChild()) {
+                depth++;
+                continue;
+            }
+            while (!cursor.nextSibling()) {
+                if (depth-- == 0) return sum;
+                cursor.parent();
+            }
+        }
+    }
+
+    /** Os índices já estão em pré-ordem, então o percurso é uma varredura linear. */
+    @Benchmark
+    public long walkFlatIndex() {
+        long sum = 0;
+        for (int n = 0, size = flat.size(); n < size; n++) {
+            sum += flat.kind(n).ordinal() + flat.value(n).length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public ASTNode parseTree() {
+        return new Parser(tokens).parseProgram();
+    }
+
+    @Benchmark
+    public FlatAst parseFlat() {
+        return new Parser(tokens).parseProgramFlat();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FlatAstBenchmark.class.getSimpleName()).build()).run();
+    }
+}
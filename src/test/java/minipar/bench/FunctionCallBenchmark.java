@@ -0,0 +1,79 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Laço de chamadas a uma função pequena num programa com muitas variáveis globais:
+ * o custo de cada chamada não deve depender da quantidade de globais.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.FunctionCallBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FunctionCallBenchmark {
+
+    private static final String CALL_LOOP = """
+            def soma(a, b) {
+                r = a + b
+                return r
+            }
+            i = 0
+            total = 0
+            while (i < 2000) {
+                total = soma(total, i)
+                i = i + 1
+            }
+            """;
+
+    @Param({"10", "1000"})
+    public int globals;
+
+    private ASTNode program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        StringBuilder code = new StringBuilder("programa_minipar\nSEQ\n");
+        for (int g = 0; g < globals; g++) {
+            code.append("g").append(g).append(" = ").append(g).append('\n');
+        }
+        code.append(CALL_LOOP);
+        program = new Parser(new Lexer(code.toString()).tokenize()).parseProgram();
+
+        // O interpretador imprime linhas de depuração em cada bloco e chamada
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Interpreter run() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(program);
+        return interpreter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FunctionCallBenchmark.class.getSimpleName()).build()).run();
+    }
+}
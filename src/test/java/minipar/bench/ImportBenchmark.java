@@ -0,0 +1,78 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Programa que importa o mesmo módulo repetidamente dentro de um while, como os
+ * programas gerados que fazem import em laços e em cada ramo PAR.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.ImportBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportBenchmark {
+
+    @Param({"100"})
+    public int imports;
+
+    @Param({"16384"})
+    public int moduleChars;
+
+    private ASTNode program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() throws IOException {
+        Path module = Files.createTempFile("minipar-bench-module", ".mpr");
+        Files.writeString(module, ProgramGenerator.generate(moduleChars));
+        String code = """
+                programa_minipar
+                SEQ
+                i = 0
+                while (i < %d) {
+                    import "%s"
+                    i = i + 1
+                }
+                """.formatted(imports, module.toAbsolutePath().toString().replace("\\", "\\\\"));
+        program = new Parser(new Lexer(code).tokenize()).parseProgram();
+
+        // O interpretador imprime uma linha de depuração por bloco
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Interpreter importLoop() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(program);
+        return interpreter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ImportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Laços aritméticos típicos (while e for) no interpretador: leitura de variáveis,
+ * literais e atribuições em cada iteração.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.InterpreterLoopBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterpreterLoopBenchmark {
+
+    private static final String WHILE_LOOP = """
+            programa_minipar
+            SEQ
+            i = 0
+            soma = 0
+            while (i < 100000) {
+                soma = soma + i * 2 - 1
+                if soma > 1000000 {
+                    soma = soma - 1000000
+                }
+                i = i + 1
+            }
+            """;
+
+    private static final String FOR_LOOP = """
+            programa_minipar
+            SEQ
+            soma = 0
+            n = 0
+            while (n < 10000) {
+                for x = 1 to 10 {
+                    soma = soma + x
+                }
+                n = n + 1
+            }
+            """;
+
+    @Param({"while", "for"})
+    public String loop;
+
+    private ASTNode program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        String code = loop.equals("for") ? FOR_LOOP : WHILE_LOOP;
+        program = new Parser(new Lexer(code).tokenize()).parseProgram();
+
+        // O interpretador imprime uma linha de depuração por bloco
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Interpreter run() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(program);
+        return interpreter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InterpreterLoopBenchmark.class.getSimpleName()).build()).run();
+    }
+}
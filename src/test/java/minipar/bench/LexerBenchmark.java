@@ -0,0 +1,51 @@
+package minipar.bench;
+
+import minipar.lexer.Lexer;
+import minipar.lexer.RegexLexer;
+import minipar.lexer.Token;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do Lexer em programas gerados de vários megabytes.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.LexerBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LexerBenchmark {
+
+    @Param({"1", "4"})
+    public int megabytes;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        source = ProgramGenerator.generate(megabytes * 1024 * 1024);
+    }
+
+    @Benchmark
+    public List<Token> scanner() {
+        return new Lexer(source).tokenize();
+    }
+
+    @Benchmark
+    public List<Token> regexBaseline() {
+        return new RegexLexer(source).tokenize();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LexerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+package minipar.bench;
+
+import minipar.lexer.ParallelLexer;
+import minipar.lexer.Token;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalabilidade do ParallelLexer: tokens/s em função do número de threads do pool.
+ * O contador auxiliar "tokens" é reportado como vazão (tokens por segundo).
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.ParallelLexerBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelLexerBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"16"})
+    public int megabytes;
+
+    private String source;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        source = ProgramGenerator.generate(megabytes * 1024 * 1024);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long tokens;
+    }
+
+    @Benchmark
+    public List<Token> tokenize(Counters counters) {
+        List<Token> tokens = new ParallelLexer(source, pool).tokenize();
+        counters.tokens += tokens.size();
+        return tokens;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelLexerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package minipar.bench;
+
+import minipar.lexer.Lexer;
+import minipar.lexer.Token;
+import minipar.parser.ASTNode;
+import minipar.parser.ParallelParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalabilidade do ParallelParser em programas com milhares de blocos SEQ de topo,
+ * como os emitidos pelo nosso gerador de código.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.ParallelParserBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelParserBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"5000"})
+    public int blocks;
+
+    private List<Token> tokens;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        tokens = new Lexer(ProgramGenerator.generate(8 * 1024 * 1024, blocks)).tokenize();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ASTNode parse() {
+        return new ParallelParser(tokens, pool).parseProgram();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
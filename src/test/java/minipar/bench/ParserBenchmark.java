@@ -0,0 +1,68 @@
+package minipar.bench;
+
+import minipar.lexer.Lexer;
+import minipar.lexer.PackedTokens;
+import minipar.lexer.Token;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de parsing a partir da lista de objetos Token e do buffer compacto PackedTokens.
+ * Rodar com "-prof gc" para ver também os bytes alocados por operação.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.ParserBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"1"})
+    public int megabytes;
+
+    private String source;
+    private List<Token> tokenList;
+    private PackedTokens packed;
+
+    @Setup
+    public void setup() {
+        source = ProgramGenerator.generate(megabytes * 1024 * 1024);
+        tokenList = new Lexer(source).tokenize();
+        packed = new Lexer(source).tokenizePacked();
+    }
+
+    @Benchmark
+    public List<Token> tokenizeList() {
+        return new Lexer(source).tokenize();
+    }
+
+    @Benchmark
+    public PackedTokens tokenizePacked() {
+        return new Lexer(source).tokenizePacked();
+    }
+
+    @Benchmark
+    public ASTNode parseList() {
+        return new Parser(tokenList).parseProgram();
+    }
+
+    @Benchmark
+    public ASTNode parsePacked() {
+        return new Parser(packed).parseProgram();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,54 @@
+package minipar.bench;
+
+/**
+ * Gera programas MiniPar sintética e semanticamente válidos, no formato
+ * produzido pelos nossos geradores de código, para os benchmarks.
+ */
+public final class ProgramGenerator {
+
+    private ProgramGenerator() {}
+
+    /**
+     * Programa com um único bloco SEQ e aproximadamente targetChars caracteres.
+     */
+    public static String generate(int targetChars) {
+        return generate(targetChars, 1);
+    }
+
+    /**
+     * Programa com aproximadamente targetChars caracteres distribuídos em 'blocks' blocos SEQ de topo.
+     */
+    public static String generate(int targetChars, int blocks) {
+        StringBuilder sb = new StringBuilder(targetChars + 512);
+        sb.append("programa_minipar\n");
+        int perBlock = Math.max(1, targetChars / Math.max(1, blocks));
+        int unit = 0;
+        for (int b = 0; b < blocks; b++) {
+            sb.append("SEQ\n");
+            sb.append("x = 7\n");
+            int blockStart = sb.length();
+            while (sb.length() - blockStart < perBlock) {
+                appendUnit(sb, unit++);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendUnit(StringBuilder sb, int i) {
+        String v = "v" + i;
+        sb.append("# unidade ").append(i).append(" gerada automaticamente\n");
+        sb.append(v).append(" = ").append(i % 97).append(" + 3 * (x - 2) ^ 2 / 4.5\n");
+        sb.append("if ").append(v).append(" > 10 {\n");
+        sb.append("    ").append(v).append(" = ").append(v).append(" - 1\n");
+        sb.append("} else {\n");
+        sb.append("    print(\"menor\", ").append(v).append(")\n");
+        sb.append("}\n");
+        sb.append("while ").append(v).append(" < 5 {\n");
+        sb.append("    ").append(v).append(" = ").append(v).append(" + 1\n");
+        sb.append("}\n");
+        sb.append("def f").append(i).append("(a, b) {\n");
+        sb.append("    return a * b + ").append(i).append("\n");
+        sb.append("}\n");
+        sb.append("lista").append(i).append(" = [1, -2, ").append(v).append("]\n");
+    }
+}
@@ -0,0 +1,63 @@
+package minipar.bench;
+
+import minipar.lexer.Lexer;
+import minipar.lexer.LexerMode;
+import minipar.lexer.Token;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o scanner escalar com o modo SIMD (LexerMode.VECTOR) em fontes abaixo do
+ * limiar do ParallelLexer, com indentação e comentários longos ("indentado") ou não.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.VectorLexerBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class VectorLexerBenchmark {
+
+    @Param({"512"})
+    public int kilobytes;
+
+    @Param({"false", "true"})
+    public boolean indentado;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        String program = ProgramGenerator.generate(kilobytes * 1024);
+        if (indentado) {
+            StringBuilder sb = new StringBuilder(program.length() * 2);
+            for (String line : program.split("\n")) {
+                sb.append("                ").append(line).append("    # ").append("-".repeat(40)).append('\n');
+            }
+            program = sb.toString();
+        }
+        source = program;
+    }
+
+    @Benchmark
+    public List<Token> scalar() {
+        return new Lexer(source, LexerMode.SCALAR).tokenize();
+    }
+
+    @Benchmark
+    public List<Token> vector() {
+        return new Lexer(source, LexerMode.VECTOR).tokenize();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VectorLexerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,184 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.jvm.JvmBackend;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.vm.VirtualMachine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesmos programas no interpretador de árvore, no motor de closures, na VM de bytecode
+ * e no bytecode JVM gerado: laço aritmético sobre globais e dentro de uma função, for aninhado,
+ * Fibonacci recursivo e uma cadeia de if sobre a mesma variável. A classe JVM é gerada na primeira execução e fica no nó raiz.
+ *
+ * Executar com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="minipar.bench.VmBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VmBenchmark {
+
+    private static final String WHILE_LOOP = """
+            programa_minipar
+            SEQ
+            i = 0
+            soma = 0
+            while (i < 100000) {
+                soma = soma + i * 2 - 1
+                if soma > 1000000 {
+                    soma = soma - 1000000
+                }
+                i = i + 1
+            }
+            """;
+
+    private static final String FOR_LOOP = """
+            programa_minipar
+            SEQ
+            soma = 0
+            n = 0
+            while (n < 10000) {
+                for x = 1 to 10 {
+                    soma = soma + x
+                }
+                n = n + 1
+            }
+            """;
+
+    // O mesmo laço while dentro de uma função: as variáveis ficam em registradores
+    private static final String LOCAL_LOOP = """
+            programa_minipar
+            SEQ
+            def laco(n) {
+                i = 0
+                soma = 0
+                while (i < n) {
+                    soma = soma + i * 2 - 1
+                    if soma > 1000000 {
+                        soma = soma - 1000000
+                    }
+                    i = i + 1
+                }
+                return soma
+            }
+            r = laco(100000)
+            """;
+
+    private static final String FIBONACCI = """
+            programa_minipar
+            SEQ
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            r = fib(20)
+            """;
+
+    // Cadeia de if sobre a mesma variável, como o despacho de operações de programs/test1.mpr
+    private static final String DISPATCH = """
+            programa_minipar
+            SEQ
+            i = 0
+            op = 0
+            res = 0
+            while (i < 100000) {
+                op = op + 1
+                if op > 4 {
+                    op = 1
+                }
+                if op == 1 {
+                    res = res + i
+                } else {
+                    if op == 2 {
+                        res = res - i
+                    } else {
+                        if op == 3 {
+                            res = res + 2
+                        } else {
+                            if op == 4 {
+                                res = res - 1
+                            }
+                        }
+                    }
+                }
+                i = i + 1
+            }
+            """;
+
+    @Param({"while", "local", "for", "fib", "dispatch"})
+    public String program;
+
+    private ASTNode ast;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        String code = switch (program) {
+            case "local" -> LOCAL_LOOP;
+            case "for" -> FOR_LOOP;
+            case "fib" -> FIBONACCI;
+            case "dispatch" -> DISPATCH;
+            default -> WHILE_LOOP;
+        };
+        ast = new Parser(new Lexer(code).tokenize()).parseProgram();
+
+        // O interpretador imprime uma linha de depuração por bloco
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Map<String, Object> interpreter() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(ast);
+        return interpreter.getMemory();
+    }
+
+    // Motor escolhido por propriedade de sistema: fork próprio
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dminipar.engine=closure")
+    public Map<String, Object> closures() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(ast);
+        return interpreter.getMemory();
+    }
+
+    @Benchmark
+    public Map<String, Object> vm() {
+        VirtualMachine vm = new VirtualMachine();
+        vm.execute(ast);
+        return vm.getMemory();
+    }
+
+    @Benchmark
+    public Map<String, Object> jvm() {
+        JvmBackend jvm = new JvmBackend();
+        jvm.execute(ast);
+        return jvm.getMemory();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VmBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,165 @@
+package minipar.cache;
+
+import minipar.FrontEnd;
+import minipar.bench.ProgramGenerator;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AstCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private static ASTNode parse(String code) {
+        return new Parser(new Lexer(code).tokenize()).parseProgram();
+    }
+
+    private static String descrever(ASTNode node) {
+        StringBuilder sb = new StringBuilder(node.toString());
+        for (ASTNode child : node.getChildren()) sb.append(' ').append(descrever(child));
+        return "{" + sb + "}";
+    }
+
+    @Test
+    void testFormatoPreservaAArvore() {
+        String code = ProgramGenerator.generate(50_000, 4)
+                + "PAR\nSEQ\nc_channel canal a b\ncanal.outro(x)\nSEQ\nprint(\"olá, ção\")\n";
+        ASTNode original = parse(code);
+
+        ASTNode lida = AstFormat.decode(ByteBuffer.wrap(AstFormat.encode(original)));
+
+        assertEquals(descrever(original), descrever(lida));
+        ASTNode outro = lida.getChildren().get(4).getChildren().get(0).getChildren().get(1);
+        assertEquals(NodeKind.OTHER, outro.getKind());
+        assertEquals("outro", outro.getType());
+    }
+
+    @Test
+    void testAcertoPulaOFrontEnd() throws Exception {
+        AstCache cache = new AstCache(dir);
+        String code = "programa_minipar\nSEQ\nx = 1\ny = x + 2\n";
+
+        ASTNode primeira = new FrontEnd(cache).analyze(code);
+        assertTrue(Files.isRegularFile(cache.fileFor(code)));
+
+        // Troca o conteúdo do cache: se o front-end rodasse, o resultado seria o original
+        ASTNode marcada = parse("programa_minipar\nSEQ\nmarcada = 1\n");
+        cache.put(code, marcada);
+        assertEquals(descrever(marcada), descrever(new FrontEnd(cache).analyze(code)));
+
+        // Outro fonte é outra chave
+        assertNotEquals(cache.fileFor(code), cache.fileFor(code + " "));
+        assertEquals(descrever(parse(code)), descrever(primeira));
+    }
+
+    @Test
+    void testArquivoCorrompidoContaComoAusente() throws Exception {
+        AstCache cache = new AstCache(dir);
+        String code = "programa_minipar\nSEQ\nx = 1\n";
+        cache.put(code, parse(code));
+
+        Path file = cache.fileFor(code);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+        assertNull(cache.get(code));
+
+        assertEquals(descrever(parse(code)), descrever(new FrontEnd(cache).analyze(code)));
+        assertNotNull(cache.get(code));
+    }
+
+    @Test
+    void testErroSemanticoNaoEGravado() {
+        AstCache cache = new AstCache(dir);
+        String code = "programa_minipar\nSEQ\nx = y\n";
+
+        assertThrows(RuntimeException.class, () -> new FrontEnd(cache).analyze(code));
+        assertFalse(Files.exists(cache.fileFor(code)));
+    }
+
+    @Test
+    void testDiretorioOuArquivoAlteravelPorOutrosNaoEConfiavel() throws Exception {
+        assumeTrue(Files.getFileAttributeView(dir, PosixFileAttributeView.class) != null);
+        String code = "programa_minipar\nSEQ\nx = 1\n";
+        Path shared = Files.createDirectory(dir.resolve("compartilhado"));
+        AstCache cache = new AstCache(shared);
+        cache.put(code, parse(code));
+        assertNotNull(cache.get(code));
+
+        // Arquivo que o grupo pode reescrever: alguém pode ter plantado a AST
+        Path file = cache.fileFor(code);
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-rw-r--"));
+        assertNull(cache.get(code));
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        assertNotNull(cache.get(code));
+
+        // Diretório aberto a todos (como o tmp): nem lê nem grava
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxrwx"));
+        assertNull(cache.get(code));
+        String outro = "programa_minipar\nSEQ\ny = 2\n";
+        assertEquals(descrever(parse(outro)), descrever(new FrontEnd(cache).analyze(outro)));
+        assertFalse(Files.exists(cache.fileFor(outro)));
+    }
+
+    @Test
+    void testDiretorioNovoSoDoUsuario() throws Exception {
+        assumeTrue(Files.getFileAttributeView(dir, PosixFileAttributeView.class) != null);
+        AstCache cache = new AstCache(dir.resolve("novo"));
+        cache.put("programa_minipar\nSEQ\nx = 1\n", parse("programa_minipar\nSEQ\nx = 1\n"));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(dir.resolve("novo"))));
+    }
+
+    @Test
+    void testDonoComparadoPeloPrincipalENaoPeloNome() throws Exception {
+        Path file = Files.writeString(dir.resolve("meu.mpc"), "x");
+        assertEquals(Files.getOwner(file), AstCache.currentUser());
+
+        // user.name não entra na conta (no Windows o nome do dono inclui o domínio)
+        String nome = System.getProperty("user.name");
+        System.setProperty("user.name", "outro-" + nome);
+        try {
+            assertTrue(AstCache.trusted(file));
+        } finally {
+            System.setProperty("user.name", nome);
+        }
+
+        // Arquivo de outro usuário (só dá para trocar o dono rodando como root)
+        UserPrincipal outro;
+        try {
+            outro = dir.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName("nobody");
+            Files.setOwner(file, outro);
+        } catch (Exception e) {
+            outro = null;
+        }
+        assumeTrue(outro != null && !outro.equals(AstCache.currentUser()));
+        assertFalse(AstCache.trusted(file));
+    }
+
+    @Test
+    void testArquivoSemVersaoDoFrontEndNaoEServido() throws Exception {
+        AstCache cache = new AstCache(dir);
+        String code = "programa_minipar\nSEQ\nx = 1\n";
+
+        // Arquivo com a chave antiga (só o hash do fonte), gravado por outro front-end
+        Path antigo = dir.resolve(AstCache.sha256(code.getBytes(StandardCharsets.UTF_8)) + ".mpc");
+        Files.write(antigo, AstFormat.encode(parse("programa_minipar\nSEQ\nvelho = 1\n")));
+        assertNotEquals(antigo, cache.fileFor(code));
+        assertNull(cache.get(code));
+        assertEquals(descrever(parse(code)), descrever(new FrontEnd(cache).analyze(code)));
+    }
+}
@@ -0,0 +1,120 @@
+package minipar.cache;
+
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private static ASTNode parse(String code) {
+        return new Parser(new Lexer(code).tokenize()).parseProgram();
+    }
+
+    private Path modulo(String nome, String code) throws Exception {
+        return Files.writeString(dir.resolve(nome), code);
+    }
+
+    @Test
+    void testReusaEnquantoArquivoNaoMuda() throws Exception {
+        ModuleCache cache = new ModuleCache(8, ModuleCacheTest::parse);
+        Path file = modulo("a.mpr", "programa_minipar\nSEQ\na = 1\n");
+
+        ASTNode primeira = cache.load(file);
+        assertSame(primeira, cache.load(file));
+        assertSame(primeira, cache.load(dir.resolve("x/../a.mpr")));
+        assertEquals(1, cache.analyses());
+
+        // Só o mtime muda: conteúdo igual, mesma AST
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5_000));
+        assertSame(primeira, cache.load(file));
+        assertEquals(1, cache.analyses());
+
+        // Conteúdo muda: re-analisa
+        Files.writeString(file, "programa_minipar\nSEQ\na = 2\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10_000));
+        ASTNode nova = cache.load(file);
+        assertNotSame(primeira, nova);
+        assertEquals("Valor(2)", nova.getChildren().get(0).getChildren().get(0).getChildren().get(1).toString());
+        assertEquals(2, cache.analyses());
+    }
+
+    @Test
+    void testCargasConcorrentesAnalisamUmaVez() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ModuleCache cache = new ModuleCache(8, code -> {
+            dentro.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return parse(code);
+        });
+        Path file = modulo("b.mpr", "programa_minipar\nSEQ\nb = 1\n");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ASTNode>> cargas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) cargas.add(pool.submit(() -> cache.load(file)));
+            dentro.await();
+            Thread.sleep(50); // as demais threads chegam enquanto a primeira analisa
+            liberar.countDown();
+
+            ASTNode ast = cargas.get(0).get();
+            for (Future<ASTNode> carga : cargas) assertSame(ast, carga.get());
+            assertEquals(1, cache.analyses());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testLimiteRemoveMenosUsado() throws Exception {
+        ModuleCache cache = new ModuleCache(2, ModuleCacheTest::parse);
+        Path a = modulo("a.mpr", "programa_minipar\nSEQ\na = 1\n");
+        Path b = modulo("b.mpr", "programa_minipar\nSEQ\nb = 1\n");
+        Path c = modulo("c.mpr", "programa_minipar\nSEQ\nc = 1\n");
+
+        cache.load(a);
+        cache.load(b);
+        cache.load(a);   // b passa a ser o menos usado
+        cache.load(c);
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.analyses());
+
+        cache.load(a);
+        assertEquals(3, cache.analyses());
+        cache.load(b);
+        assertEquals(4, cache.analyses());
+    }
+
+    @Test
+    void testErroNaoFicaNoCache() throws Exception {
+        ModuleCache cache = new ModuleCache(8, ModuleCacheTest::parse);
+        Path file = modulo("erro.mpr", "programa_minipar\nSEQ\nx = (1 +\n");
+
+        assertThrows(RuntimeException.class, () -> cache.load(file));
+        assertEquals(0, cache.size());
+
+        Files.writeString(file, "programa_minipar\nSEQ\nx = 1\n");
+        assertNotNull(cache.load(file));
+    }
+}
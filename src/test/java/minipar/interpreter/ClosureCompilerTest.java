@@ -0,0 +1,446 @@
+package minipar.interpreter;
+
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Motor de closures: o mesmo programa, no percurso da árvore e nas closures, imprime
+ * as mesmas linhas e deixa as mesmas globais, inclusive quando um nó especializado
+ * volta ao caminho genérico.
+ */
+class ClosureCompilerTest {
+
+    private record Execucao(String saida, Map<String, Object> globais, Interpreter interpreter) {}
+
+    private static Execucao executar(String codigo, boolean closures, Tiering tiering) {
+        ASTNode ast = new Parser(new Lexer(codigo).tokenize()).parseProgram();
+        Interpreter interpreter = new Interpreter(tiering, closures);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(saida));
+        try {
+            interpreter.execute(ast);
+        } finally {
+            System.setOut(original);
+        }
+        return new Execucao(saida.toString(), new TreeMap<>(interpreter.getMemory()), interpreter);
+    }
+
+    private static Execucao comparar(String codigo) {
+        Execucao arvore = executar(codigo, false, null);
+        Execucao closures = executar(codigo, true, null);
+        assertEquals(arvore.saida(), closures.saida());
+        assertEquals(arvore.globais(), closures.globais());
+        return closures;
+    }
+
+    @Test
+    void testExpressoesEAtribuicoes() {
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            a = 7
+            b = a * 2 - 3
+            c = b / 0
+            d = 2 ^ 10
+            e = a == 7
+            f = a != 7
+            g = (a + 1) * (b - 1) / 4
+            print("a:", a, b + 1, "fim")
+            """);
+        assertEquals(11.0, e.globais().get("b"));
+        assertEquals(0.0, e.globais().get("c"));
+        assertEquals(1024.0, e.globais().get("d"));
+    }
+
+    @Test
+    void testControleDeFluxoEListas() {
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            v = [1, 2, 3]
+            v[1] = 20
+            soma = 0
+            for i = 0 to 2 {
+                if i == 1 {
+                    soma = soma + 100
+                } else {
+                    soma = soma + i
+                }
+            }
+            n = 0
+            while n < 5 {
+                # comentário dentro do laço
+                n = n + 1
+            }
+            """);
+        assertEquals(List.of(1.0, 20.0, 3.0), e.globais().get("v"));
+        assertEquals(102.0, e.globais().get("soma"));
+        assertEquals(2, e.globais().get("i"));
+        assertEquals("int", e.interpreter().getSymbolTable().getType("i"));
+        assertEquals("lista", e.interpreter().getSymbolTable().getType("v"));
+    }
+
+    @Test
+    void testFuncoesLocaisERecursao() {
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            base = 10
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            def soma(n) {
+                s = base
+                for k = 1 to n {
+                    s = s + k
+                }
+                return s
+            }
+            def nada(x) {
+                y = x
+            }
+            r = fib(15)
+            t = soma(10)
+            z = nada(3)
+            print(soma(2))
+            """);
+        assertEquals(610.0, e.globais().get("r"));
+        assertEquals(65.0, e.globais().get("t"));
+        assertEquals(0.0, e.globais().get("z"));
+        assertFalse(e.globais().containsKey("s"));
+    }
+
+    @Test
+    void testReturnDentroDeLaco() {
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            def busca(n) {
+                k = 0
+                while k < n {
+                    if k * k > 50 {
+                        return k
+                    }
+                    k = k + 1
+                }
+                return -1
+            }
+            a = busca(100)
+            b = busca(3)
+            """);
+        assertEquals(8.0, e.globais().get("a"));
+        assertEquals(-1.0, e.globais().get("b"));
+    }
+
+    @Test
+    void testErroAconteceNaExecucao() {
+        String codigo = """
+            programa_minipar
+            SEQ
+            a = 1
+            print("antes")
+            b = c + 1
+            """;
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> executar(codigo, true, null));
+        assertEquals("Variável não declarada: c", erro.getMessage());
+
+        // A instrução inválida só falha quando é alcançada
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            x = 1
+            if x > 5 {
+                y = nada + 1
+            }
+            """);
+        assertFalse(e.globais().containsKey("y"));
+    }
+
+    @Test
+    void testBlocoTraduzidoUmaVez() {
+        ASTNode ast = new Parser(new Lexer("""
+            programa_minipar
+            SEQ
+            def inc(x) {
+                return x + 1
+            }
+            i = 0
+            while i < 100 {
+                i = inc(i)
+            }
+            """).tokenize()).parseProgram();
+        Interpreter interpreter = new Interpreter(null, true);
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            interpreter.execute(ast);
+            interpreter.getMemory().put("i", 50.0);
+            interpreter.execute(ast);
+        } finally {
+            System.setOut(original);
+        }
+        assertEquals(100.0, interpreter.getMemory().get("i"));
+    }
+
+    @Test
+    void testComExecucaoEmNiveis() {
+        // Os laços das closures também contam voltas e trocam para o bytecode no meio (OSR)
+        String codigo = """
+            programa_minipar
+            SEQ
+            def soma(n) {
+                s = 0
+                for k = 1 to n {
+                    s = s + k
+                }
+                return s
+            }
+            i = 0
+            total = 0
+            while i < 1000 {
+                total = total + i
+                i = i + 1
+            }
+            r = soma(1000)
+            """;
+        Execucao e = executar(codigo, true, new Tiering(1_000_000, 100, false));
+        assertEquals(executar(codigo, false, null).globais(), e.globais());
+        TierStats stats = e.interpreter().getTierStats();
+        assertEquals(2, stats.compiledEntries(), stats.events().toString());
+    }
+
+    @Test
+    void testLeiturasEChamadasSeEspecializam() {
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            def dobro(x) {
+                return x * 2
+            }
+            i = 0
+            s = 0
+            while i < 50 {
+                s = s + dobro(i)
+                i = i + 1
+            }
+            """);
+        assertEquals(2450.0, e.globais().get("s"));
+        ClosureCompiler closures = e.interpreter().getClosureCompiler();
+        assertTrue(closures.specializations() > 0);
+        assertEquals(0, closures.deoptimizations());
+    }
+
+    @Test
+    void testVariavelQueViraListaDesotimiza() {
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            n = 0
+            k = 0
+            while n < 4 {
+                if n == 2 {
+                    k = [1, 2]
+                }
+                print(k)
+                n = n + 1
+            }
+            """);
+        assertEquals(List.of(1.0, 2.0), e.globais().get("k"));
+        assertTrue(e.interpreter().getClosureCompiler().deoptimizations() > 0);
+    }
+
+    @Test
+    void testPrintDeListaVoltaParaNumero() {
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            v = [1]
+            for i = 1 to 4 {
+                print(v)
+                if i == 2 {
+                    v = 7
+                }
+            }
+            """);
+        assertEquals(7.0, e.globais().get("v"));
+        assertTrue(e.interpreter().getClosureCompiler().deoptimizations() > 0);
+    }
+
+    @Test
+    void testLocalVazioEnxergaAGlobal() {
+        // Na primeira chamada t ainda não foi atribuído no frame e a leitura vê a global
+        comparar("""
+            programa_minipar
+            SEQ
+            t = 100
+            def f(x) {
+                if x > 1 {
+                    t = x
+                }
+                return t + x
+            }
+            a = f(1)
+            b = f(5)
+            c = f(0)
+            """);
+    }
+
+    @Test
+    void testRedefinicaoInvalidaCacheDeChamada() {
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            def g(x) {
+                return x + 1
+            }
+            soma = 0
+            for i = 1 to 10 {
+                soma = soma + g(i)
+                if i == 5 {
+                    def g(x) {
+                        return x * 100
+                    }
+                }
+            }
+            """);
+        assertEquals(2.0 + 3 + 4 + 5 + 6 + 600 + 700 + 800 + 900 + 1000, e.globais().get("soma"));
+        assertTrue(e.interpreter().getClosureCompiler().deoptimizations() > 0);
+    }
+
+    @Test
+    void testIncrementoNoLugar() {
+        Execucao e = comparar("""
+            programa_minipar
+            SEQ
+            x = 1
+            x = x + 1
+            x = x - 0.5
+            for i = 1 to 3 {
+                i = i + 10
+            }
+            t = 5
+            def f(n) {
+                if n > 0 {
+                    t = 0
+                }
+                t = t + 1
+                return t
+            }
+            a = f(0)
+            b = f(1)
+            """);
+        assertEquals(1.5, e.globais().get("x"));
+        assertEquals(13.0, e.globais().get("i"));
+        assertEquals(6.0, e.globais().get("a"));
+        assertEquals(1.0, e.globais().get("b"));
+        assertTrue(e.interpreter().getClosureCompiler().superinstructions() >= 4);
+    }
+
+    @Test
+    void testIncrementoDeListaFalhaComoAntes() {
+        String codigo = """
+            programa_minipar
+            SEQ
+            v = [1]
+            v = v + 1
+            """;
+        RuntimeException arvore = assertThrows(RuntimeException.class, () -> executar(codigo, false, null));
+        RuntimeException closures = assertThrows(RuntimeException.class, () -> executar(codigo, true, null));
+        assertEquals(arvore.getMessage(), closures.getMessage());
+    }
+
+    @Test
+    void testCadeiaDeIfViraDespacho() {
+        for (String op : List.of("1", "2", "3", "4", "5", "2.5")) {
+            Execucao e = comparar("""
+                programa_minipar
+                SEQ
+                op = %s
+                res = 0
+                if op == 1 {
+                    res = 10
+                }
+                else {
+                    # comentário entre os testes
+                    if op == 2 {
+                        res = 20
+                    }
+                    else {
+                        if op == 3 {
+                            res = 30
+                        }
+                        else {
+                            if op == 2 {
+                                res = 99
+                            } else {
+                                res = -1
+                            }
+                        }
+                    }
+                }
+                """.formatted(op));
+            assertTrue(e.interpreter().getClosureCompiler().superinstructions() > 0);
+        }
+    }
+
+    @Test
+    void testCadeiaComConstantesQuebradasEOutraVariavel() {
+        for (String valores : List.of("0.5 7", "1000 7", "3 1", "3 2")) {
+            String[] v = valores.split(" ");
+            comparar("""
+                programa_minipar
+                SEQ
+                a = %s
+                b = %s
+                r = 0
+                if a == 0.5 {
+                    r = 1
+                } else {
+                    if a == 1000 {
+                        r = 2
+                    } else {
+                        if b == 1 {
+                            r = 3
+                        } else {
+                            if b == 2 {
+                                r = 4
+                            }
+                        }
+                    }
+                }
+                print(r)
+                """.formatted(v[0], v[1]));
+        }
+    }
+
+    @Test
+    void testDespachoEmVariavelNaoDeclarada() {
+        String codigo = """
+            programa_minipar
+            SEQ
+            if z == 1 {
+                r = 1
+            } else {
+                if z == 2 {
+                    r = 2
+                }
+            }
+            """;
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> executar(codigo, true, null));
+        assertEquals("Variável não declarada: z", erro.getMessage());
+    }
+}
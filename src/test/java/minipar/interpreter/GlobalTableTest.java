@@ -0,0 +1,53 @@
+package minipar.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A visão Map de uma tabela mostra só as variáveis dela, em ordem de índice, por mais
+ * nomes que o processo já tenha numerado.
+ */
+class GlobalTableTest {
+
+    @Test
+    void testVisaoIgnoraNomesDeOutrosProgramas() {
+        for (int i = 0; i < 5000; i++) {
+            GlobalNames.id("outro_programa_" + i);
+        }
+        GlobalTable table = new GlobalTable();
+        table.put("x_" + GlobalTableTest.class.getSimpleName(), 1.0);
+        assertEquals(1, table.size());
+        assertEquals(1, table.entrySet().size());
+        assertEquals(List.of(Map.entry("x_GlobalTableTest", 1.0)), new ArrayList<>(table.entrySet()));
+    }
+
+    @Test
+    void testIteraEmOrdemDeIndiceEntreBlocos() {
+        GlobalTable table = new GlobalTable();
+        List<String> nomes = new ArrayList<>();
+        for (int i = 0; i < 600; i += 97) {
+            String nome = "gt_bloco_" + i;
+            GlobalNames.id(nome);
+            nomes.add(nome);
+            for (int j = 0; j < 97; j++) GlobalNames.id(nome + "_vazio_" + j);
+        }
+        // Escreve fora de ordem: a visão segue os índices
+        for (int i = nomes.size() - 1; i >= 0; i--) {
+            table.put(nomes.get(i), (double) i);
+        }
+        table.put(nomes.get(2), null);
+
+        List<String> vistos = new ArrayList<>();
+        for (Map.Entry<String, Object> e : table.entrySet()) vistos.add(e.getKey());
+        List<String> esperados = new ArrayList<>(nomes);
+        esperados.remove(2);
+        assertEquals(esperados, vistos);
+        assertEquals(esperados.size(), table.size());
+        assertFalse(table.containsKey(nomes.get(2)));
+    }
+}
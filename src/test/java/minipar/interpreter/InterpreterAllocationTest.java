@@ -0,0 +1,97 @@
+package minipar.interpreter;
+
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Laços aritméticos não devem alocar por iteração: números ficam sem boxing nos slots.
+ * Compara os bytes alocados pela thread com 1.000 e com 100.000 iterações.
+ */
+class InterpreterAllocationTest {
+
+    private static final String LACOS = """
+            programa_minipar
+            SEQ
+            i = 0
+            soma = 0
+            while (i < %d) {
+                soma = soma + i * 2 - 1
+                if soma > 1000000 {
+                    soma = soma - 1000000
+                }
+                for x = 1 to 3 {
+                    soma = soma + x
+                }
+                i = i + 1
+            }
+            """;
+
+    private static final String LACO_EM_FUNCAO = """
+            programa_minipar
+            SEQ
+            def acumula(n) {
+                total = 0
+                k = 0
+                while (k < n) {
+                    total = total + k
+                    k = k + 1
+                }
+                return total
+            }
+            r = acumula(%d)
+            """;
+
+    @Test
+    void testLacoGlobalNaoAlocaPorIteracao() {
+        assertSemAlocacaoPorIteracao(LACOS);
+    }
+
+    @Test
+    void testLacoComLocaisNaoAlocaPorIteracao() {
+        assertSemAlocacaoPorIteracao(LACO_EM_FUNCAO);
+    }
+
+    private void assertSemAlocacaoPorIteracao(String programa) {
+        ASTNode curto = gerarAST(programa.formatted(1_000));
+        ASTNode longo = gerarAST(programa.formatted(100_000));
+
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int aquecimento = 0; aquecimento < 5; aquecimento++) {
+                executar(curto);
+                executar(longo);
+            }
+            long base = bytesAlocados(curto);
+            long laco = bytesAlocados(longo);
+
+            // Com boxing, 99.000 iterações a mais alocariam vários megabytes
+            assertTrue(laco - base < 64 * 1024, "Alocação cresce com as iterações: " + base + " -> " + laco);
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    private static long bytesAlocados(ASTNode ast) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long antes = threads.getCurrentThreadAllocatedBytes();
+        executar(ast);
+        return threads.getCurrentThreadAllocatedBytes() - antes;
+    }
+
+    private static void executar(ASTNode ast) {
+        new Interpreter().execute(ast);
+    }
+
+    private static ASTNode gerarAST(String codigo) {
+        return new Parser(new Lexer(codigo).tokenize()).parseProgram();
+    }
+}
@@ -1,5 +1,6 @@
 package minipar.interpreter;
 
+import minipar.exceptions.ReturnException;
 import minipar.lexer.Lexer;
 import minipar.lexer.Token;
 import minipar.parser.ASTNode;
@@ -121,4 +122,180 @@ class InterpreterFunctionTest {
         assertEquals(100.0, interpreter.getMemory().get("x")); // escopo externo preservado
         assertEquals(6.0, interpreter.getMemory().get("y"));
     }
+
+    @Test
+    void testRecursaoUsaUmFramePorChamada() {
+        String code = """
+            programa_minipar
+            SEQ
+            def fatorial(n) {
+                if n <= 1 {
+                    return 1
+                }
+                anterior = fatorial(n - 1)
+                return n * anterior
+            }
+
+            f = fatorial(5)
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(120.0, interpreter.getMemory().get("f"));
+        assertFalse(interpreter.getMemory().containsKey("anterior"));
+        assertFalse(interpreter.getMemory().containsKey("n"));
+    }
+
+    @Test
+    void testFuncaoLeGlobaisSemCopiarMemoria() {
+        String code = """
+            programa_minipar
+            SEQ
+            base = 10
+            def desloca(a) {
+                base = base + a
+                return base
+            }
+
+            r = desloca(5)
+            s = desloca(1)
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(15.0, interpreter.getMemory().get("r"));
+        assertEquals(11.0, interpreter.getMemory().get("s")); // a atribuição local não altera a global
+        assertEquals(10.0, interpreter.getMemory().get("base"));
+    }
+
+    @Test
+    void testFuncaoChamadaEmRamosPar() {
+        String code = """
+            programa_minipar
+            SEQ
+            def quadrado(v) {
+                q = v * v
+                return q
+            }
+            PAR
+            SEQ
+            a = quadrado(3)
+            SEQ
+            b = quadrado(4)
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(9.0, interpreter.getMemory().get("a"));
+        assertEquals(16.0, interpreter.getMemory().get("b"));
+    }
+
+    @Test
+    void testFibonacciRecursivo() {
+        String code = """
+            programa_minipar
+            SEQ
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+
+            r = fib(15)
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(610.0, interpreter.getMemory().get("r"));
+    }
+
+    @Test
+    void testCacheDeChamadaSegueRedefinicao() {
+        String code = """
+            programa_minipar
+            SEQ
+            i = 0
+            while (i < 2) {
+                if i == 0 {
+                    def f(a) {
+                        return a + 1
+                    }
+                } else {
+                    def f(a) {
+                        return a * 10
+                    }
+                }
+                r = f(5)
+                i = i + 1
+            }
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(50.0, interpreter.getMemory().get("r"));
+    }
+
+    @Test
+    void testMesmaArvoreEmInterpretadoresDiferentes() {
+        ASTNode ast = new Parser(new Lexer("""
+            programa_minipar
+            SEQ
+            def dobro(a) {
+                return a * 2
+            }
+            x = dobro(21)
+            """).tokenize()).parseProgram();
+
+        Interpreter primeiro = new Interpreter();
+        primeiro.execute(ast);
+        Interpreter segundo = new Interpreter();
+        segundo.execute(ast);
+
+        assertEquals(42.0, primeiro.getMemory().get("x"));
+        assertEquals(42.0, segundo.getMemory().get("x"));
+    }
+
+    @Test
+    void testReturnDentroDeLacoEncerraAFuncao() {
+        String code = """
+            programa_minipar
+            SEQ
+            def primeiroMaiorQue(limite) {
+                for i = 1 to 100 {
+                    if i * i > limite {
+                        return i
+                    }
+                }
+                return 0
+            }
+            def contaAte(n) {
+                c = 0
+                while (c < 1000) {
+                    c = c + 1
+                    if c == n {
+                        return c
+                    }
+                }
+                return 1000
+            }
+
+            a = primeiroMaiorQue(50)
+            b = contaAte(7)
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(8.0, interpreter.getMemory().get("a"));
+        assertEquals(7.0, interpreter.getMemory().get("b"));
+    }
+
+    @Test
+    void testReturnForaDeFuncaoContinuaSendoErro() {
+        ASTNode ast = new Parser(new Lexer("""
+            programa_minipar
+            SEQ
+            x = 1
+            return x
+            x = 2
+            """).tokenize()).parseProgram();
+
+        Interpreter interpreter = new Interpreter();
+        assertThrows(ReturnException.class, () -> interpreter.execute(ast));
+        assertEquals(1.0, interpreter.getMemory().get("x"));
+    }
 }
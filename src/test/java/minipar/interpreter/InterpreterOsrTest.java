@@ -0,0 +1,157 @@
+package minipar.interpreter;
+
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Substituição na pilha: um laço que passa do limite continua no bytecode JVM no meio
+ * da execução, com as variáveis no estado em que o interpretador as deixou.
+ */
+class InterpreterOsrTest {
+
+    private static final int LIMITE = 100;
+
+    private Interpreter interpreter;
+    private TierStats stats;
+
+    @BeforeEach
+    void setUp() {
+        // Compilação na própria thread: a troca acontece sempre na primeira consulta
+        interpreter = new Interpreter(new Tiering(1_000_000, LIMITE, false));
+        stats = interpreter.getTierStats();
+    }
+
+    private void executar(String codigo) {
+        ASTNode ast = new Parser(new Lexer(codigo).tokenize()).parseProgram();
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            interpreter.execute(ast);
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    private Object valor(String nome) {
+        return interpreter.getMemory().get(nome);
+    }
+
+    @Test
+    void testWhileGlobalTrocaNoMeio() {
+        executar("""
+            programa_minipar
+            SEQ
+            i = 0
+            soma = 0
+            while i < 1000 {
+                soma = soma + i
+                i = i + 1
+            }
+            """);
+        assertEquals(1000.0, valor("i"));
+        assertEquals(499500.0, valor("soma"));
+        assertEquals(1, stats.compiledEntries());
+        assertEquals(1, stats.count(TierStats.Status.COMPILED));
+    }
+
+    @Test
+    void testForRecomecaNaProximaVolta() {
+        executar("""
+            programa_minipar
+            SEQ
+            soma = 0
+            for i = 1 to 1000 {
+                soma = soma + i
+            }
+            """);
+        assertEquals(500500.0, valor("soma"));
+        assertEquals(1000, valor("i"));
+        assertEquals(1, stats.compiledEntries());
+    }
+
+    @Test
+    void testLocaisVoltamParaOFrame() {
+        executar("""
+            programa_minipar
+            SEQ
+            def soma(n) {
+                s = 100
+                for k = 1 to n {
+                    s = s + k
+                }
+                return s + k
+            }
+            r = soma(1000)
+            """);
+        assertEquals(100.0 + 500500 + 1000, valor("r"));
+        assertEquals(1, stats.compiledEntries());
+        assertFalse(interpreter.getMemory().containsKey("s"));
+    }
+
+    @Test
+    void testReturnDentroDoLacoCompilado() {
+        executar("""
+            programa_minipar
+            SEQ
+            def busca(n) {
+                k = 0
+                while k < n {
+                    if k * k > 50000 {
+                        return k
+                    }
+                    k = k + 1
+                }
+                return -1
+            }
+            r = busca(100000)
+            """);
+        assertEquals(224.0, valor("r"));
+        assertEquals(1, stats.compiledEntries());
+    }
+
+    @Test
+    void testLacoInternoEntraCompilado() {
+        executar("""
+            programa_minipar
+            SEQ
+            soma = 0
+            n = 0
+            while n < 200 {
+                for x = 1 to 10 {
+                    soma = soma + x
+                }
+                n = n + 1
+            }
+            """);
+        assertEquals(200 * 55.0, valor("soma"));
+        assertEquals(10, valor("x"));
+        // O for passa do limite na 11ª entrada; o while troca na 100ª volta
+        assertTrue(stats.compiledEntries() >= 2, stats.events().toString());
+    }
+
+    @Test
+    void testLacoComCanalContinuaInterpretado() {
+        executar("""
+            programa_minipar
+            SEQ
+            i = 0
+            while i < 1000 {
+                if i < 0 {
+                    canal1.send(i)
+                }
+                i = i + 1
+            }
+            """);
+        assertEquals(1000.0, valor("i"));
+        assertEquals(0, stats.compiledEntries());
+        assertEquals(1, stats.count(TierStats.Status.NOT_COMPILABLE));
+    }
+}
@@ -1,5 +1,6 @@
 package minipar.interpreter;
 
+import minipar.ir.IRGenerator;
 import minipar.lexer.*;
 import minipar.parser.*;
 import minipar.semantic.SemanticAnalyzer;
@@ -90,4 +91,83 @@ class InterpreterTest {
         RuntimeException e = assertThrows(RuntimeException.class, () -> interpretar(code));
         assertTrue(e.getMessage().contains("Variável não declarada"));
     }
+
+    @Test
+    void testFlatAstMesmoResultado() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 2
+            def dobro(a) {
+                return a * 2
+            }
+            y = dobro(x)
+            while (x < 10) {
+                x = x + 3
+            }
+            PAR
+            SEQ
+            p = y * y
+            SEQ
+            q = 1 / 0
+            """;
+        ASTNode arvore = gerarAST(code);
+        FlatAst flat = new Parser(new Lexer(code).tokenize()).parseProgramFlat();
+
+        new SemanticAnalyzer().analyze(flat);
+        Interpreter viaArvore = new Interpreter();
+        viaArvore.execute(arvore);
+        Interpreter viaFlat = new Interpreter();
+        viaFlat.execute(flat);
+
+        assertEquals(viaArvore.getMemory(), viaFlat.getMemory());
+        assertEquals(11.0, viaFlat.getMemory().get("x"));
+        assertEquals(16.0, viaFlat.getMemory().get("p"));
+
+        String semChamadas = code.replace("y = dobro(x)", "y = x * 2");
+        assertEquals(new IRGenerator().generate(gerarAST(semChamadas)).toString(),
+                new IRGenerator().generate(new Parser(new Lexer(semChamadas).tokenize()).parseProgramFlat()).toString());
+    }
+
+    @Test
+    void testFlatAstNaoGuardaAsInstrucoes() {
+        String code = """
+            programa_minipar
+            SEQ
+            def soma(n) {
+                s = 0
+                for k = 1 to n {
+                    s = s + k
+                }
+                return s
+            }
+            i = 0
+            while i < 100 {
+                if i > 50 {
+                    j = 0
+                    while j < 20 {
+                        j = j + 1
+                    }
+                }
+                i = i + 1
+            }
+            r = soma(100)
+            """;
+        FlatAst flat = new Parser(new Lexer(code).tokenize()).parseProgramFlat();
+        new SemanticAnalyzer().analyze(flat);
+        for (boolean closures : new boolean[] {false, true}) {
+            Tiering tiering = new Tiering(1_000_000, 10, false);
+            Interpreter interpreter = new Interpreter(tiering, closures);
+
+            interpreter.execute(flat);
+            interpreter.getMemory().put("i", 0.0);
+            interpreter.execute(flat);
+
+            assertEquals(100.0, interpreter.getMemory().get("i"));
+            assertEquals(5050.0, interpreter.getMemory().get("r"));
+            // Só o laço do def (que continua registrado) tem perfil guardado
+            assertEquals(1, tiering.profiledLoops(), tiering.stats.events().toString());
+            if (closures) assertEquals(1, interpreter.getClosureCompiler().cachedBlocks()); // corpo do def
+        }
+    }
 }
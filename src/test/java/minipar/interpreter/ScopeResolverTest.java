@@ -0,0 +1,62 @@
+package minipar.interpreter;
+
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScopeResolverTest {
+
+    private ASTNode primeiraFuncao(String codigo) {
+        ASTNode programa = new Parser(new Lexer(codigo).tokenize()).parseProgram();
+        for (ASTNode stmt : programa.getChildren().get(0).getChildren()) {
+            if (stmt.getKind() == NodeKind.DEF) return stmt;
+        }
+        throw new AssertionError("Programa sem função");
+    }
+
+    @Test
+    void testParametrosPrimeiroDepoisAtribuidas() {
+        ASTNode def = primeiraFuncao("""
+            programa_minipar
+            SEQ
+            def f(a, b) {
+                t = a + limite
+                for i = 1 to b {
+                    t = t + i
+                }
+                return t
+            }
+            """);
+
+        FunctionDescriptor function = ScopeResolver.resolve(def);
+
+        assertEquals(2, function.paramCount);
+        assertEquals(List.of("a", "b", "t", "i"), ScopeResolver.localNames(function));
+    }
+
+    @Test
+    void testNosRecebemSlotLocalOuGlobal() {
+        ASTNode def = primeiraFuncao("""
+            programa_minipar
+            SEQ
+            def f(a) {
+                t = a + limite
+                return t
+            }
+            """);
+
+        ScopeResolver.resolve(def);
+
+        ASTNode atribuicao = def.getChildren().get(1).getChildren().get(0);
+        ASTNode soma = atribuicao.getChildren().get(1);
+        assertEquals(1 | Memory.LOCAL_BIT, atribuicao.getChildren().get(0).getSlot()); // t
+        assertEquals(0 | Memory.LOCAL_BIT, soma.getChildren().get(0).getSlot());       // a
+        assertEquals(GlobalNames.id("limite"), soma.getChildren().get(1).getSlot());
+    }
+}
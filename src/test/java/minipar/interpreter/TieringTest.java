@@ -0,0 +1,219 @@
+package minipar.interpreter;
+
+import minipar.Config;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Execução em níveis: defs e laços que passam do limite são promovidos para bytecode
+ * JVM e as chamadas seguintes usam o código compilado, com o mesmo resultado.
+ */
+class TieringTest {
+
+    private Interpreter interpreter;
+    private TierStats stats;
+
+    @BeforeEach
+    void setUp() {
+        // Nos motores vm/jvm o interpretador não executa nada, então não há níveis
+        assumeTrue(Config.TIERING && !Config.INTERPRETER_ON_VM && !Config.INTERPRETER_ON_JVM);
+        interpreter = new Interpreter();
+        stats = interpreter.getTierStats();
+    }
+
+    private void executar(String codigo) {
+        ASTNode ast = new Parser(new Lexer(codigo).tokenize()).parseProgram();
+        executar(ast);
+    }
+
+    private void executar(ASTNode ast) {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            interpreter.execute(ast);
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    private boolean evento(String unidade, TierStats.Status status) {
+        return stats.events().stream().anyMatch(e -> e.unit().equals(unidade) && e.status() == status);
+    }
+
+    @Test
+    void testFuncaoQuentePromovida() throws InterruptedException {
+        executar("""
+            programa_minipar
+            SEQ
+            def quadrado(x) {
+                return x * x
+            }
+            i = 0
+            s = 0
+            while i < %d {
+                s = s + quadrado(i)
+                i = i + 1
+            }
+            """.formatted(stats.callThreshold() + 10));
+        stats.awaitCompilations();
+        assertTrue(evento("def quadrado", TierStats.Status.COMPILED), stats.events().toString());
+
+        long antes = stats.compiledEntries();
+        executar("""
+            programa_minipar
+            SEQ
+            r = quadrado(7)
+            """);
+        assertEquals(49.0, interpreter.getMemory().get("r"));
+        assertTrue(stats.compiledEntries() > antes);
+    }
+
+    @Test
+    void testResultadoIgualAoInterpretado() throws InterruptedException {
+        int n = stats.callThreshold() + 10;
+        executar("""
+            programa_minipar
+            SEQ
+            def soma(t) {
+                s = 0
+                for k = 1 to t {
+                    s = s + k
+                }
+                return s
+            }
+            total = 0
+            for j = 1 to %d {
+                total = total + soma(3)
+            }
+            """.formatted(n));
+        stats.awaitCompilations();
+        assertEquals(6.0 * n, interpreter.getMemory().get("total"));
+        assertInstanceOf(Integer.class, interpreter.getMemory().get("j"));
+        assertFalse(interpreter.getMemory().containsKey("s"));
+    }
+
+    @Test
+    void testLacoQuenteCompiladoNaProximaEntrada() throws InterruptedException {
+        ASTNode ast = new Parser(new Lexer("""
+            programa_minipar
+            SEQ
+            i = 0
+            while i < %d {
+                i = i + 1
+            }
+            """.formatted(stats.loopThreshold() + 10)).tokenize()).parseProgram();
+        executar(ast);
+        stats.awaitCompilations();
+        assertTrue(evento("while #1", TierStats.Status.COMPILED), stats.events().toString());
+
+        long antes = stats.compiledEntries();
+        executar(ast);
+        assertTrue(stats.compiledEntries() > antes);
+        assertEquals((double) stats.loopThreshold() + 10, interpreter.getMemory().get("i"));
+    }
+
+    @Test
+    void testRedefinicaoVoltaAoInterpretador() throws InterruptedException {
+        executar("""
+            programa_minipar
+            SEQ
+            def g(x) {
+                return x + 1
+            }
+            for i = 1 to %d {
+                a = g(i)
+            }
+            """.formatted(stats.callThreshold() + 10));
+        stats.awaitCompilations();
+
+        executar("""
+            programa_minipar
+            SEQ
+            def g(x) {
+                return x * 10
+            }
+            b = g(1)
+            """);
+        assertEquals(10.0, interpreter.getMemory().get("b"));
+    }
+
+    @Test
+    void testFuncaoComCanalContinuaInterpretada() throws InterruptedException {
+        executar("""
+            programa_minipar
+            SEQ
+            def avisa(x) {
+                if x < 0 {
+                    canal1.send(x)
+                }
+                return x
+            }
+            def dobro(x) {
+                return avisa(x) * 2
+            }
+            s = 0
+            for i = 1 to %d {
+                s = s + dobro(i)
+            }
+            r = dobro(21)
+            """.formatted(stats.callThreshold() + 10));
+        stats.awaitCompilations();
+        assertTrue(evento("def avisa", TierStats.Status.NOT_COMPILABLE), stats.events().toString());
+        assertTrue(evento("def dobro", TierStats.Status.COMPILED), stats.events().toString());
+        assertEquals(42.0, interpreter.getMemory().get("r"));
+    }
+
+    private static String saida(Interpreter interpreter, String codigo) throws InterruptedException {
+        ASTNode ast = new Parser(new Lexer(codigo).tokenize()).parseProgram();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(saida));
+        try {
+            interpreter.execute(ast);
+            if (interpreter.getTierStats() != null) interpreter.getTierStats().awaitCompilations();
+        } finally {
+            System.setOut(original);
+        }
+        return saida.toString();
+    }
+
+    @Test
+    void testSaidaIgualComEsemNiveis() throws InterruptedException {
+        // Cada chamada imprime as linhas [DEBUG]/[THREAD] do bloco, compilada ou não
+        String codigo = """
+            programa_minipar
+            SEQ
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            def soma(n) {
+                s = 0
+                k = 0
+                while k < n {
+                    s = s + fib(3)
+                    k = k + 1
+                }
+                return s
+            }
+            r = fib(12)
+            t = soma(50)
+            print(r, t)
+            """;
+        String interpretado = saida(new Interpreter(null), codigo);
+        assertEquals(interpretado, saida(new Interpreter(new Tiering(2, 2, false)), codigo));
+        assertEquals(interpretado, saida(new Interpreter(new Tiering(2, 2, true)), codigo));
+    }
+}
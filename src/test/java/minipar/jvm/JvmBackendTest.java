@@ -0,0 +1,244 @@
+package minipar.jvm;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JvmBackendTest {
+
+    private ASTNode analisar(String codigo) {
+        ASTNode ast = new Parser(new Lexer(codigo).tokenize()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        return ast;
+    }
+
+    private JvmBackend executar(String codigo) {
+        JvmBackend jvm = new JvmBackend();
+        jvm.execute(analisar(codigo));
+        return jvm;
+    }
+
+    private String saida(Runnable execucao) {
+        PrintStream original = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            execucao.run();
+        } finally {
+            System.setOut(original);
+        }
+        return out.toString();
+    }
+
+    @Test
+    void testMesmasGlobaisQueOInterpretador() {
+        String code = """
+            programa_minipar
+            SEQ
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            def soma_lista(t) {
+                s = 0
+                for i = 0 to t - 1 {
+                    s = s + i * i
+                }
+                return s
+            }
+            lista = [3, 1, 4, 1, 5]
+            lista[2] = 10
+            total = soma_lista(5)
+            f = fib(15)
+            x = 0
+            while x < 7 {
+                x = x + 2
+            }
+            """;
+        ASTNode ast = analisar(code);
+        Interpreter interpreter = new Interpreter();
+        saida(() -> interpreter.execute(ast));
+        JvmBackend jvm = new JvmBackend();
+        jvm.execute(ast);
+
+        Map<String, Object> esperado = interpreter.getMemory();
+        for (String nome : List.of("lista", "total", "f", "x", "i")) {
+            assertEquals(esperado.get(nome), jvm.getMemory().get(nome), nome);
+        }
+        assertEquals(30.0, jvm.getMemory().get("total"));
+        assertEquals(610.0, jvm.getMemory().get("f"));
+    }
+
+    @Test
+    void testProgramaCompiladoReaproveitado() {
+        ASTNode ast = analisar("""
+            programa_minipar
+            SEQ
+            x = 3
+            """);
+        JvmBackend primeira = new JvmBackend();
+        primeira.execute(ast);
+        Object compilado = ast.getCache();
+        assertInstanceOf(JvmProgram.class, compilado);
+
+        JvmBackend segunda = new JvmBackend();
+        segunda.execute(ast);
+        assertSame(compilado, ast.getCache());
+        assertEquals(3.0, segunda.getMemory().get("x"));
+    }
+
+    @Test
+    void testPrintSemLinhasDeDepuracao() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 4
+            print("x =", x * 2)
+            """;
+        String out = saida(() -> executar(code));
+        assertTrue(out.contains("x = 8.0"), out);
+        assertFalse(out.contains("[DEBUG]"), out);
+    }
+
+    @Test
+    void testPrintDeArgumentoInvalidoMostraTexto() {
+        String code = """
+            programa_minipar
+            SEQ
+            print("valor:", naoexiste)
+            """;
+        String out = saida(() -> executar(code));
+        assertTrue(out.contains("valor: naoexiste"), out);
+    }
+
+    @Test
+    void testVariavelDoForVisivelComoInteiro() {
+        String code = """
+            programa_minipar
+            SEQ
+            for i = 0 to 2 {
+                y = i
+            }
+            """;
+        JvmBackend jvm = executar(code);
+        assertInstanceOf(Integer.class, jvm.getMemory().get("i"));
+        assertEquals(2.0, jvm.getMemory().get("y"));
+    }
+
+    @Test
+    void testLocaisNaoVazamParaGlobais() {
+        String code = """
+            programa_minipar
+            SEQ
+            a = 1
+            def f(a) {
+                b = a + 1
+                return b
+            }
+            r = f(41)
+            """;
+        JvmBackend jvm = executar(code);
+        assertEquals(1.0, jvm.getMemory().get("a"));
+        assertEquals(42.0, jvm.getMemory().get("r"));
+        assertFalse(jvm.getMemory().containsKey("b"));
+    }
+
+    @Test
+    void testLocalSemValorLeGlobal() {
+        String code = """
+            programa_minipar
+            SEQ
+            c = 5
+            def f(n) {
+                d = c + n
+                c = 100
+                return d
+            }
+            r = f(1)
+            """;
+        JvmBackend jvm = executar(code);
+        assertEquals(6.0, jvm.getMemory().get("r"));
+        assertEquals(5.0, jvm.getMemory().get("c"));
+    }
+
+    @Test
+    void testListaLocalNaoEhNumero() {
+        String code = """
+            programa_minipar
+            SEQ
+            def f(n) {
+                v = [1, 2]
+                v[0] = n
+                return v + 1
+            }
+            r = f(3)
+            """;
+        RuntimeException e = assertThrows(RuntimeException.class, () -> executar(code));
+        assertTrue(e.getMessage().contains("não é inteiro"), e.getMessage());
+    }
+
+    @Test
+    void testRedefinicaoDesviaChamadaDireta() {
+        String code = """
+            programa_minipar
+            SEQ
+            def g(x) {
+                return x + 1
+            }
+            a = g(1)
+            def g(x) {
+                return x * 10
+            }
+            b = g(1)
+            """;
+        JvmBackend jvm = executar(code);
+        assertEquals(2.0, jvm.getMemory().get("a"));
+        assertEquals(10.0, jvm.getMemory().get("b"));
+    }
+
+    @Test
+    void testParCompartilhaGlobais() {
+        String code = """
+            programa_minipar
+            PAR
+            SEQ
+            a = 1
+            SEQ
+            b = 2
+            """;
+        JvmBackend jvm = executar(code);
+        assertEquals(1.0, jvm.getMemory().get("a"));
+        assertEquals(2.0, jvm.getMemory().get("b"));
+    }
+
+    @Test
+    void testFuncaoInexistente() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = nada(1)
+            """;
+        ASTNode ast = new Parser(new Lexer(code).tokenize()).parseProgram();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> new JvmBackend().execute(ast));
+        assertTrue(e.getMessage().contains("nada"), e.getMessage());
+    }
+
+    @Test
+    void testRaizInvalida() {
+        ASTNode raiz = new ASTNode(NodeKind.SEQ, null);
+        assertThrows(RuntimeException.class, () -> new JvmBackend().execute(raiz));
+    }
+}
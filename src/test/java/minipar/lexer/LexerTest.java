@@ -1,7 +1,17 @@
 package minipar.lexer;
 
+import minipar.bench.ProgramGenerator;
 import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.*;
@@ -67,4 +77,129 @@ class LexerTest {
         Exception exception = assertThrows(RuntimeException.class, lexer::tokenize);
         assertTrue(exception.getMessage().contains("Token inválido"));
     }
+
+    @Test
+    void testNumeroNegativoEOperadores() {
+        List<Token> tokens = new Lexer("a = b-1 <= -2.5 != c.send(x)").tokenize();
+
+        assertEquals("-1", tokens.get(3).getValue());
+        assertEquals(TokenType.NUMBER, tokens.get(3).getType());
+        assertEquals("<=", tokens.get(4).getValue());
+        assertEquals("-2.5", tokens.get(5).getValue());
+        assertEquals("!=", tokens.get(6).getValue());
+        assertEquals(".", tokens.get(8).getValue());
+    }
+
+    @Test
+    void testNumeroDeLinhaNoErro() {
+        Lexer lexer = new Lexer("x = 1\n\ny = \"aberta\n");
+
+        Exception exception = assertThrows(RuntimeException.class, lexer::tokenize);
+        assertEquals("Token inválido na linha 3: \"aberta", exception.getMessage());
+    }
+
+    @Test
+    void testMesmosTokensQueOLexerRegex() throws IOException {
+        List<String> fontes = new ArrayList<>(List.of(
+                "", "\n", "\n\n\n", "x = 1\n\n\n", "  \n\t# fim", "x=1\r\ny=2\r\n",
+                "print(\"a # b\", \"\")\n", "x=-1.5.3-2", ProgramGenerator.generate(20_000)
+        ));
+        try (Stream<Path> programas = Files.list(Path.of("programs"))) {
+            for (Path p : programas.toList()) fontes.add(Files.readString(p));
+        }
+
+        for (String fonte : fontes) {
+            assertEquals(descrever(new RegexLexer(fonte).tokenize()), descrever(new Lexer(fonte).tokenize()));
+        }
+    }
+
+    private static List<String> descrever(List<Token> tokens) {
+        return tokens.stream().map(Token::toString).toList();
+    }
+
+    @Test
+    void testTokenStreamProduzMesmosTokens() throws IOException {
+        for (String fonte : List.of("", "\n", "x = 1\n\n", "a\r\nb = \"c\"\n# fim", ProgramGenerator.generate(50_000))) {
+            List<String> esperado = descrever(new Lexer(fonte).tokenize());
+
+            assertEquals(esperado, descrever(coletar(new TokenStream(fonte))));
+            assertEquals(esperado, descrever(coletar(new TokenStream(CharBuffer.wrap(fonte)))));
+            assertEquals(esperado, descrever(coletar(new TokenStream(new StringReader(fonte)))));
+        }
+    }
+
+    private static List<Token> coletar(TokenStream stream) throws IOException {
+        List<Token> tokens = new ArrayList<>();
+        try (stream) {
+            stream.forEachRemaining(tokens::add);
+        }
+        return tokens;
+    }
+
+    @Test
+    void testPackedTokensEquivalenteALista() {
+        String fonte = ProgramGenerator.generate(30_000) + "\nx = y != -3.25 # fim\n\n";
+        List<Token> esperado = new Lexer(fonte).tokenize();
+        PackedTokens packed = new Lexer(fonte).tokenizePacked();
+
+        assertEquals(esperado.size(), packed.size());
+        for (int i = 0; i < packed.size(); i++) {
+            Token token = esperado.get(i);
+            assertEquals(token.toString(), packed.token(i).toString());
+            assertEquals(token.getCode(), packed.code(i));
+        }
+        // Lexemas repetidos são internados: a mesma instância de String
+        assertSame(packed.text(2), packed.text(packed.size() - 7));
+    }
+
+    @Test
+    void testParallelLexerProduzMesmosTokens() {
+        String fonte = ProgramGenerator.generate(600_000) + "\n\n";
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Token> paralelo = new ParallelLexer(fonte, pool).tokenize();
+            assertEquals(descrever(new RegexLexer(fonte).tokenize()), descrever(paralelo));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testParallelLexerReportaPrimeiroErro() {
+        String base = ProgramGenerator.generate(300_000);
+        String fonte = base + "x = @\n" + base + "y = $\n";
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Exception esperado = assertThrows(RuntimeException.class, () -> new RegexLexer(fonte).tokenize());
+            Exception paralelo = assertThrows(RuntimeException.class, () -> new ParallelLexer(fonte, pool).tokenize());
+            assertEquals(esperado.getMessage(), paralelo.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testModoVetorialProduzMesmosTokens() {
+        String longo = "_".repeat(40) + "abcXYZ09" + "é";
+        List<String> fontes = List.of(
+                "", "x", "  \t\f\u000B\r  x", " ".repeat(100) + "y = 1\n" + "\t".repeat(37) + "# " + "c".repeat(90) + "\nz",
+                longo, "x = " + longo + "\n", "# só comentário sem quebra " + "#".repeat(70),
+                ProgramGenerator.generate(40_000) + "\n\n"
+        );
+        for (String fonte : fontes) {
+            Exception erroEscalar = null;
+            List<String> esperado = null;
+            try {
+                esperado = descrever(new Lexer(fonte).tokenize());
+            } catch (RuntimeException e) {
+                erroEscalar = e;
+            }
+            if (erroEscalar != null) {
+                Exception erro = assertThrows(RuntimeException.class, () -> new Lexer(fonte, LexerMode.VECTOR).tokenize());
+                assertEquals(erroEscalar.getMessage(), erro.getMessage());
+            } else {
+                assertEquals(esperado, descrever(new Lexer(fonte, LexerMode.VECTOR).tokenize()));
+            }
+        }
+    }
 }
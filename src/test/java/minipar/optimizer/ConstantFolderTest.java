@@ -0,0 +1,176 @@
+package minipar.optimizer;
+
+import minipar.FrontEnd;
+import minipar.interpreter.Interpreter;
+import minipar.ir.IRGenerator;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstantFolderTest {
+
+    private static ASTNode gerarAST(String code) {
+        ASTNode ast = new Parser(new Lexer(code).tokenize()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        return ast;
+    }
+
+    private static ASTNode expressao(ASTNode ast, int instrucao) {
+        return ast.getChildren().get(0).getChildren().get(instrucao).getChildren().get(1);
+    }
+
+    @Test
+    void testDobraConstantes() {
+        ASTNode ast = gerarAST("""
+            programa_minipar
+            SEQ
+            a = 2 * 3 + 1
+            b = 2 ^ 3 ^ 2
+            c = (1 + 2) > 2
+            d = 7 / 0
+            e = 1.0 / 4
+            f = 7 / 2
+            g = 0.1 + 0.2
+            """);
+        ConstantFolder folder = new ConstantFolder();
+        folder.optimize(ast);
+
+        assertEquals("Valor(7)", expressao(ast, 0).toString());
+        assertEquals("Valor(512)", expressao(ast, 1).toString());
+        assertEquals("Valor(1)", expressao(ast, 2).toString());
+        assertEquals("Valor(0)", expressao(ast, 3).toString());
+        assertEquals("Valor(0.25)", expressao(ast, 4).toString());
+        assertEquals("BinOp(/)", expressao(ast, 5).toString()); // divisão inteira inexata
+        assertEquals("Valor(0.30000000000000004)", expressao(ast, 6).toString());
+        assertEquals(0.1 + 0.2, Double.parseDouble(expressao(ast, 6).getValue()));
+    }
+
+    @Test
+    void testSimplificaIdentidades() {
+        ASTNode ast = gerarAST("""
+            programa_minipar
+            SEQ
+            x = 5
+            x = x + 0
+            y = 1 * (x - 0) / 1
+            z = x ^ 1 * 2
+            w = "s" + 0
+            print(1, x + 0)
+            """);
+        new ConstantFolder().optimize(ast);
+
+        assertEquals("BinOp(+)", expressao(ast, 1).toString()); // x + 0 não é identidade com -0.0
+        assertEquals("Valor(x)", expressao(ast, 2).toString());
+        assertEquals("BinOp(*)", expressao(ast, 3).toString());
+        assertEquals("Valor(x)", expressao(ast, 3).getChildren().get(0).toString());
+        assertEquals("BinOp(+)", expressao(ast, 4).toString()); // string literal não fica sozinha
+        assertEquals("BinOp(+)", ast.getChildren().get(0).getChildren().get(5).getChildren().get(1).toString());
+    }
+
+    @Test
+    void testMesmoResultadoNoInterpretadorENoIR() {
+        String code = """
+            programa_minipar
+            SEQ
+            i = 0
+            total = 0
+            while (i < 2 * 5) {
+                total = total + i * (3 - 2) + 2 ^ 2
+                i = i + 1
+            }
+            print(total, total + 0, 10 / 4 * 2, 3 <= 2)
+            """;
+        ASTNode original = gerarAST(code);
+        ASTNode otimizada = new ConstantFolder().optimize(gerarAST(code));
+
+        assertEquals(executar(original), executar(otimizada));
+
+        // Sem dobra, o IR não aceita '^'; dobrado, as constantes somem do IR
+        String ir = new IRGenerator().generate(otimizada).toString();
+        assertFalse(ir.contains("2.0"));
+        assertTrue(ir.contains("10"));
+    }
+
+    @Test
+    void testZeroNegativoMaisZero() {
+        String code = """
+            programa_minipar
+            SEQ
+            m = 0 - 1
+            z = 0
+            x = z * m
+            y = x + 0
+            print(y)
+            """;
+        ASTNode ast = new FrontEnd(null).analyze(code);
+
+        assertEquals("BinOp(+)", expressao(ast, 3).toString());
+        assertEquals(executar(gerarAST(code)), executar(ast));
+        String saida = executar(ast);
+        assertTrue(saida.lines().anyMatch("0.0"::equals), saida);
+        assertTrue(saida.contains("y=0.0"), saida);
+    }
+
+    @Test
+    void testCondicaoConstanteContinuaBinOp() {
+        String code = """
+            programa_minipar
+            SEQ
+            if 1 == 1 {
+                print("ok")
+            }
+            def f(n) {
+                while 2 > 1 {
+                    return n * 2
+                }
+                return 0
+            }
+            r = f(3)
+            if (2 * 3) > 1 + 1 {
+                s = 1
+            }
+            """;
+        ASTNode ast = new FrontEnd(null).analyze(code);
+
+        ASTNode condicao = ast.getChildren().get(0).getChildren().get(3).getChildren().get(0);
+        assertEquals("BinOp(>)", condicao.toString());
+        assertEquals("Valor(6)", condicao.getChildren().get(0).toString()); // operandos dobrados
+        assertEquals("Valor(2)", condicao.getChildren().get(1).toString());
+
+        String saida = executar(ast);
+        assertTrue(saida.lines().anyMatch("ok"::equals), saida);
+        assertTrue(saida.contains("r=6.0"), saida);
+        assertEquals(executar(gerarAST(code)), saida);
+    }
+
+    private static String executar(ASTNode ast) {
+        PrintStream original = System.out;
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(saida));
+        try {
+            Interpreter interpreter = new Interpreter();
+            interpreter.execute(ast);
+            return saida + " " + interpreter.getMemory();
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    @Test
+    void testLiteralVoltaAoMesmoValor() {
+        for (double valor : List.of(6.0, -5.0, 0.5, 1e21, 1e-7, 123.456, Math.PI)) {
+            assertEquals(valor, Double.parseDouble(ConstantFolder.literal(valor)));
+        }
+        assertNull(ConstantFolder.literal(-0.0));
+        assertNull(ConstantFolder.literal(Double.NaN));
+        assertNull(ConstantFolder.literal(Double.POSITIVE_INFINITY));
+    }
+}
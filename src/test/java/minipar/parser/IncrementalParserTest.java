@@ -0,0 +1,102 @@
+package minipar.parser;
+
+import minipar.bench.ProgramGenerator;
+import minipar.lexer.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalParserTest {
+
+    private static final String[] TRECHOS = {
+            "1", "x", " ", "\n", "\n\n", "# c\n", "y = 2\n", "}", "{", "= 2", "+ 3", "(", "\"s\"", "@", "SEQ\n", "if x > 1 {\n"
+    };
+
+    /** Resultado da análise completa: descrição da AST ou mensagem de erro. */
+    private static String completo(String code) {
+        try {
+            return ParserTest.descrever(new Parser(new Lexer(code).tokenize()).parseProgram());
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String incremental(IncrementalParser doc) {
+        return doc.getAst() != null ? ParserTest.descrever(doc.getAst()) : doc.getError().getMessage();
+    }
+
+    @Test
+    void testEdicoesAleatoriasEquivalemAAnaliseCompleta() {
+        Random random = new Random(42);
+        String base = ProgramGenerator.generate(6_000, 3) + "PAR\nSEQ\nz = 1\nSEQ\nw = 2 # fim\n";
+        IncrementalParser doc = new IncrementalParser(base);
+        assertEquals(completo(base), incremental(doc));
+
+        int incrementais = 0;
+        for (int i = 0; i < 400; i++) {
+            String antes = doc.getText();
+            int offset = random.nextInt(antes.length() + 1);
+            int removidos = Math.min(random.nextInt(4), antes.length() - offset);
+            String inserido = random.nextBoolean() ? TRECHOS[random.nextInt(TRECHOS.length)] : "";
+
+            doc.edit(offset, removidos, inserido);
+            if (doc.wasIncremental()) incrementais++;
+            assertEquals(completo(doc.getText()), incremental(doc), "após editar em " + offset);
+
+            // Desfaz a edição, voltando a um programa válido
+            doc.edit(offset, inserido.length(), antes.substring(offset, offset + removidos));
+            assertEquals(antes, doc.getText());
+            assertEquals(completo(antes), incremental(doc));
+        }
+        assertTrue(incrementais > 50, "poucas edições incrementais: " + incrementais);
+    }
+
+    @Test
+    void testEdicaoDentroDeDefReanalisaSoOTrecho() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 1
+            def dobro(a) {
+                return a * 2
+            }
+            y = dobro(x)
+            """;
+        IncrementalParser doc = new IncrementalParser(code);
+        ASTNode raiz = doc.getAst();
+
+        doc.edit(code.indexOf("2\n"), 1, "3 + a");
+        assertTrue(doc.wasIncremental());
+        assertSame(raiz, doc.getAst());
+        assertEquals(completo(doc.getText()), incremental(doc));
+        assertTrue(ParserTest.descrever(doc.getAst()).contains("{BinOp(+)"));
+    }
+
+    @Test
+    void testErrosMantemNumeroDeLinha() {
+        String code = "programa_minipar\nSEQ\nx = 1\ny = 2\n";
+        IncrementalParser doc = new IncrementalParser(code);
+
+        doc.insert(0, "\n\n");
+        doc.insert(doc.getText().indexOf("y = 2"), "z $ 1\n");
+        assertNull(doc.getAst());
+        assertEquals(completo(doc.getText()), doc.getError().getMessage());
+
+        doc.remove(doc.getText().indexOf("$"), 1);
+        assertEquals(completo(doc.getText()), doc.getError().getMessage());
+        assertTrue(doc.getError().getMessage().contains("linha 6"));
+    }
+
+    @Test
+    void testTokensIguaisAoLexer() {
+        IncrementalParser doc = new IncrementalParser("programa_minipar\nSEQ\nx = 1\n");
+        doc.insert(0, "# topo\n");
+        doc.insert(doc.getText().length(), "print(x)\n\n");
+
+        List<String> esperado = new Lexer(doc.getText()).tokenize().stream().map(Token::toString).toList();
+        assertEquals(esperado, doc.getTokens().stream().map(Token::toString).toList());
+    }
+}
@@ -1,9 +1,14 @@
 package minipar.parser;
 
+import minipar.bench.ProgramGenerator;
 import minipar.lexer.*;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringReader;
+
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -96,4 +101,164 @@ class ParserTest {
         System.out.println(exception);
         assertTrue(exception.getMessage().contains("Atribuição inválida ou comando desconhecido após"));
     }
+
+    @Test
+    void testParserSobreTokenStream() {
+        String code = ProgramGenerator.generate(20_000);
+
+        ASTNode esperado = new Parser(tokenize(code)).parseProgram();
+        ASTNode viaFluxo = new Parser(new TokenStream(new StringReader(code))).parseProgram();
+
+        assertEquals(descrever(esperado), descrever(viaFluxo));
+    }
+
+    @Test
+    void testErroSintaticoSobreTokenStream() {
+        String code = """
+            programa_minipar
+            SEQ
+            x 5
+            """;
+
+        Parser parser = new Parser(new Lexer(code).stream());
+        Exception exception = assertThrows(RuntimeException.class, parser::parseProgram);
+        assertTrue(exception.getMessage().contains("linha 3"));
+    }
+
+    @Test
+    void testParserSobrePackedTokens() {
+        String code = ProgramGenerator.generate(20_000);
+
+        ASTNode esperado = new Parser(tokenize(code)).parseProgram();
+        ASTNode viaPacked = new Parser(new Lexer(code).tokenizePacked()).parseProgram();
+
+        assertEquals(descrever(esperado), descrever(viaPacked));
+    }
+
+    @Test
+    void testPrecedenciaEAssociatividade() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 2 ^ 3 ^ 2 - 8 / 2 / 2 < a + b * c
+            """;
+
+        ASTNode expr = new Parser(tokenize(code)).parseProgram()
+                .getChildren().get(0).getChildren().get(0).getChildren().get(1);
+
+        assertEquals("{BinOp(<) {BinOp(-) {BinOp(^) {Valor(2)} {BinOp(^) {Valor(3)} {Valor(2)}}}"
+                + " {BinOp(/) {BinOp(/) {Valor(8)} {Valor(2)}} {Valor(2)}}}"
+                + " {BinOp(+) {Valor(a)} {BinOp(*) {Valor(b)} {Valor(c)}}}}", descrever(expr));
+    }
+
+    @Test
+    void testParallelParserProduzMesmaAST() {
+        String code = ProgramGenerator.generate(300_000, 2_000)
+                + "PAR\nSEQ\nc_channel canal a b\nSEQ\ncanal.send(1)\nPAR\nSEQ\nz = 1\n";
+        List<Token> tokens = tokenize(code);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ASTNode esperado = new Parser(tokens).parseProgram();
+            ASTNode paralelo = new ParallelParser(tokens, pool).parseProgram();
+            assertEquals(descrever(esperado), descrever(paralelo));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testParallelParserReportaMesmoErro() {
+        String base = ProgramGenerator.generate(100_000, 500);
+        List<String> fontes = List.of(
+                base + "SEQ\ndef f() {\nSEQ\nx = 1\n",   // def sem fechar antes de outro bloco
+                base + "PAR\nx = 1\n",                     // PAR sem blocos
+                "programa_minipar\nx = 1\n" + base.substring("programa_minipar\n".length()),
+                base + "SEQ\ny = (1 + \n"
+        );
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String code : fontes) {
+                List<Token> tokens = tokenize(code);
+                Exception esperado = assertThrows(RuntimeException.class, () -> new Parser(tokens).parseProgram());
+                Exception paralelo = assertThrows(RuntimeException.class, () -> new ParallelParser(tokens, pool).parseProgram());
+                assertEquals(esperado.getMessage(), paralelo.getMessage());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testTiposEOperadoresTipados() {
+        String code = """
+            programa_minipar
+            SEQ
+            c_channel canal a b
+            canal.outro(x)
+            y = 1 <= 2 ^ 3
+            """;
+
+        List<ASTNode> stmts = new Parser(tokenize(code)).parseProgram().getChildren().get(0).getChildren();
+
+        assertEquals(NodeKind.C_CHANNEL, stmts.get(0).getKind());
+        assertEquals(NodeKind.OTHER, stmts.get(1).getKind());
+        assertEquals("outro", stmts.get(1).getType());
+        ASTNode expr = stmts.get(2).getChildren().get(1);
+        assertEquals(NodeKind.BIN_OP, expr.getKind());
+        assertEquals(Operator.LE, expr.getOperator());
+        assertEquals(Operator.POW, expr.getChildren().get(1).getOperator());
+        assertEquals("BinOp(<=)", expr.toString());
+    }
+
+    @Test
+    void testFlatAstEquivaleAArvore() {
+        String code = ProgramGenerator.generate(20_000, 3)
+                + "PAR\nSEQ\nc_channel canal a b\ncanal.outro(x)\nSEQ\nz = 1\n";
+        ASTNode arvore = new Parser(tokenize(code)).parseProgram();
+        FlatAst flat = new Parser(tokenize(code)).parseProgramFlat();
+
+        assertEquals(descrever(arvore), descrever(flat.toNode(flat.root())));
+        assertEquals(descrever(arvore), descrever(flat.toNode(FlatAst.from(arvore).root())));
+
+        // Percurso em pré-ordem com cursor visita todos os nós
+        FlatAst.Cursor cursor = flat.cursor();
+        int visitados = 1, profundidade = 0;
+        while (true) {
+            if (cursor.firstChild()) { profundidade++; visitados++; continue; }
+            while (!cursor.nextSibling()) {
+                if (profundidade-- == 0) break;
+                cursor.parent();
+            }
+            if (profundidade < 0) break;
+            visitados++;
+        }
+        assertEquals(flat.size(), visitados);
+        assertTrue(flat.distinctValues() < flat.size());
+    }
+
+    @Test
+    void testValueKindEquivaleAsRegex() {
+        Random random = new Random(7);
+        String alfabeto = "0123456789-.\"ax ";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int n = random.nextInt(6); n > 0; n--) sb.append(alfabeto.charAt(random.nextInt(alfabeto.length())));
+            String valor = sb.toString();
+            assertEquals(valor.matches("-?\\d+(\\.\\d+)?"), ValueKind.isNumber(valor), valor);
+            assertEquals(valor.matches("\\d+"), ValueKind.isUnsignedInteger(valor), valor);
+        }
+
+        ASTNode numero = new ASTNode(NodeKind.VALOR, "-12.5");
+        assertEquals(ValueKind.NUMBER, numero.getValueKind());
+        assertEquals(-12.5, numero.getNumber());
+        assertEquals(ValueKind.STRING, new ASTNode(NodeKind.VALOR, "\"oi\"").getValueKind());
+        assertEquals(ValueKind.NAME, new ASTNode(NodeKind.VALOR, "x1").getValueKind());
+        assertNull(new ASTNode(NodeKind.VARIAVEL, "1").getValueKind());
+    }
+
+    static String descrever(ASTNode node) {
+        StringBuilder sb = new StringBuilder(node.toString());
+        for (ASTNode child : node.getChildren()) sb.append(' ').append(descrever(child));
+        return "{" + sb + "}";
+    }
 }
@@ -3,6 +3,7 @@ package minipar.semantic;
 import minipar.lexer.Lexer;
 import minipar.lexer.Token;
 import minipar.parser.ASTNode;
+import minipar.parser.FlatAst;
 import minipar.parser.Parser;
 import org.junit.jupiter.api.Test;
 
@@ -80,4 +81,21 @@ class SemanticAnalyzerTest {
         Exception e = assertThrows(RuntimeException.class, () -> analyzer.analyze(gerarAST(code)));
         assertTrue(e.getMessage().contains("ja declarado"));
     }
+
+    @Test
+    void testFlatAstReportaMesmoErro() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 1
+            PAR
+            SEQ
+            y = x + z
+            """;
+        FlatAst flat = new Parser(new Lexer(code).tokenize()).parseProgramFlat();
+
+        Exception viaArvore = assertThrows(RuntimeException.class, () -> new SemanticAnalyzer().analyze(gerarAST(code)));
+        Exception viaFlat = assertThrows(RuntimeException.class, () -> new SemanticAnalyzer().analyze(flat));
+        assertEquals(viaArvore.getMessage(), viaFlat.getMessage());
+    }
 }
@@ -0,0 +1,181 @@
+package minipar.vm;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualMachineTest {
+
+    private ASTNode analisar(String codigo) {
+        ASTNode ast = new Parser(new Lexer(codigo).tokenize()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        return ast;
+    }
+
+    private VirtualMachine executar(String codigo) {
+        VirtualMachine vm = new VirtualMachine();
+        vm.execute(analisar(codigo));
+        return vm;
+    }
+
+    private String saida(Runnable execucao) {
+        PrintStream original = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            execucao.run();
+        } finally {
+            System.setOut(original);
+        }
+        return out.toString();
+    }
+
+    @Test
+    void testMesmasGlobaisQueOInterpretador() {
+        String code = """
+            programa_minipar
+            SEQ
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            def soma_lista(t) {
+                s = 0
+                for i = 0 to t - 1 {
+                    s = s + i * i
+                }
+                return s
+            }
+            lista = [3, 1, 4, 1, 5]
+            lista[2] = 10
+            total = soma_lista(5)
+            f = fib(15)
+            x = 0
+            while x < 7 {
+                x = x + 2
+            }
+            """;
+        ASTNode ast = analisar(code);
+        Interpreter interpreter = new Interpreter();
+        saida(() -> interpreter.execute(ast));
+        VirtualMachine vm = new VirtualMachine();
+        vm.execute(ast);
+
+        Map<String, Object> esperado = interpreter.getMemory();
+        for (String nome : List.of("lista", "total", "f", "x", "i")) {
+            assertEquals(esperado.get(nome), vm.getMemory().get(nome), nome);
+        }
+        assertEquals(30.0, vm.getMemory().get("total"));
+        assertEquals(610.0, vm.getMemory().get("f"));
+    }
+
+    @Test
+    void testPrintSemLinhasDeDepuracao() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 4
+            print("x =", x * 2)
+            """;
+        String out = saida(() -> executar(code));
+        assertTrue(out.contains("x = 8.0"), out);
+        assertFalse(out.contains("[DEBUG]"), out);
+    }
+
+    @Test
+    void testVariavelDoForVisivelComoInteiro() {
+        String code = """
+            programa_minipar
+            SEQ
+            for i = 0 to 2 {
+                y = i
+            }
+            """;
+        VirtualMachine vm = executar(code);
+        assertInstanceOf(Integer.class, vm.getMemory().get("i"));
+        assertEquals(2.0, vm.getMemory().get("y"));
+    }
+
+    @Test
+    void testLocaisNaoVazamParaGlobais() {
+        String code = """
+            programa_minipar
+            SEQ
+            a = 1
+            def f(a) {
+                b = a + 1
+                return b
+            }
+            r = f(41)
+            """;
+        VirtualMachine vm = executar(code);
+        assertEquals(1.0, vm.getMemory().get("a"));
+        assertEquals(42.0, vm.getMemory().get("r"));
+        assertFalse(vm.getMemory().containsKey("b"));
+    }
+
+    @Test
+    void testRedefinicaoInvalidaCacheDaChamada() {
+        String code = """
+            programa_minipar
+            SEQ
+            def g(x) {
+                return x + 1
+            }
+            a = g(1)
+            def g(x) {
+                return x * 10
+            }
+            b = g(1)
+            """;
+        VirtualMachine vm = executar(code);
+        assertEquals(2.0, vm.getMemory().get("a"));
+        assertEquals(10.0, vm.getMemory().get("b"));
+    }
+
+    @Test
+    void testParCompartilhaGlobais() {
+        String code = """
+            programa_minipar
+            PAR
+            SEQ
+            a = 1
+            SEQ
+            b = 2
+            """;
+        VirtualMachine vm = executar(code);
+        assertEquals(1.0, vm.getMemory().get("a"));
+        assertEquals(2.0, vm.getMemory().get("b"));
+    }
+
+    @Test
+    void testFuncaoInexistente() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = nada(1)
+            """;
+        ASTNode ast = new Parser(new Lexer(code).tokenize()).parseProgram();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> new VirtualMachine().execute(ast));
+        assertTrue(e.getMessage().contains("nada"), e.getMessage());
+    }
+
+    @Test
+    void testRaizInvalida() {
+        ASTNode raiz = new ASTNode(NodeKind.SEQ, null);
+        assertThrows(RuntimeException.class, () -> new VirtualMachine().execute(raiz));
+    }
+}